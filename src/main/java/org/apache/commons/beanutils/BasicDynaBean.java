@@ -20,9 +20,7 @@ package org.apache.commons.beanutils;
 
 
 import java.io.Serializable;
-import java.lang.reflect.Array;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 
@@ -41,7 +39,7 @@ import java.util.Map;
  * @version $Revision$ $Date$
  */
 
-public class BasicDynaBean implements DynaBean, Serializable {
+public class BasicDynaBean implements PrimitiveDynaBean, Serializable {
 
 
     // ---------------------------------------------------------- Constructors
@@ -64,6 +62,13 @@ public class BasicDynaBean implements DynaBean, Serializable {
     // ---------------------------------------------------- Instance Variables
 
 
+    /**
+     * The serial version of release 1.8.3, kept so that the beans it
+     * serialized can still be read.
+     */
+    private static final long serialVersionUID = -345115896914191203L;
+
+
     /**
      * The <code>DynaClass</code> "base class" that this DynaBean
      * is associated with.
@@ -116,16 +121,7 @@ public class BasicDynaBean implements DynaBean, Serializable {
      */
     public boolean contains(String name, String key) {
 
-        Object value = values.get(name);
-        if (value == null) {
-            throw new NullPointerException
-                    ("No mapped value for '" + name + "(" + key + ")'");
-        } else if (value instanceof Map) {
-            return (((Map) value).containsKey(key));
-        } else {
-            throw new IllegalArgumentException
-                    ("Non-mapped property for '" + name + "(" + key + ")'");
-        }
+        return (DynaValues.contains(name, key, values.get(name)));
 
     }
 
@@ -195,18 +191,7 @@ public class BasicDynaBean implements DynaBean, Serializable {
      */
     public Object get(String name, int index) {
 
-        Object value = values.get(name);
-        if (value == null) {
-            throw new NullPointerException
-                    ("No indexed value for '" + name + "[" + index + "]'");
-        } else if (value.getClass().isArray()) {
-            return (Array.get(value, index));
-        } else if (value instanceof List) {
-            return ((List) value).get(index);
-        } else {
-            throw new IllegalArgumentException
-                    ("Non-indexed property for '" + name + "[" + index + "]'");
-        }
+        return (DynaValues.get(name, index, values.get(name)));
 
     }
 
@@ -226,16 +211,7 @@ public class BasicDynaBean implements DynaBean, Serializable {
      */
     public Object get(String name, String key) {
 
-        Object value = values.get(name);
-        if (value == null) {
-            throw new NullPointerException
-                    ("No mapped value for '" + name + "(" + key + ")'");
-        } else if (value instanceof Map) {
-            return (((Map) value).get(key));
-        } else {
-            throw new IllegalArgumentException
-                    ("Non-mapped property for '" + name + "(" + key + ")'");
-        }
+        return (DynaValues.get(name, key, values.get(name)));
 
     }
 
@@ -266,16 +242,7 @@ public class BasicDynaBean implements DynaBean, Serializable {
      */
     public void remove(String name, String key) {
 
-        Object value = values.get(name);
-        if (value == null) {
-            throw new NullPointerException
-                    ("No mapped value for '" + name + "(" + key + ")'");
-        } else if (value instanceof Map) {
-            ((Map) value).remove(key);
-        } else {
-            throw new IllegalArgumentException
-                    ("Non-mapped property for '" + name + "(" + key + ")'");
-        }
+        DynaValues.remove(name, key, values.get(name));
 
     }
 
@@ -331,22 +298,7 @@ public class BasicDynaBean implements DynaBean, Serializable {
      */
     public void set(String name, int index, Object value) {
 
-        Object prop = values.get(name);
-        if (prop == null) {
-            throw new NullPointerException
-                    ("No indexed value for '" + name + "[" + index + "]'");
-        } else if (prop.getClass().isArray()) {
-            Array.set(prop, index, value);
-        } else if (prop instanceof List) {
-            try {
-                ((List) prop).set(index, value);
-            } catch (ClassCastException e) {
-                throw new ConversionException(e.getMessage());
-            }
-        } else {
-            throw new IllegalArgumentException
-                    ("Non-indexed property for '" + name + "[" + index + "]'");
-        }
+        DynaValues.set(name, index, values.get(name), value);
 
     }
 
@@ -367,16 +319,158 @@ public class BasicDynaBean implements DynaBean, Serializable {
      */
     public void set(String name, String key, Object value) {
 
-        Object prop = values.get(name);
-        if (prop == null) {
-            throw new NullPointerException
-                    ("No mapped value for '" + name + "(" + key + ")'");
-        } else if (prop instanceof Map) {
-            ((Map) prop).put(key, value);
-        } else {
-            throw new IllegalArgumentException
-                    ("Non-mapped property for '" + name + "(" + key + ")'");
-        }
+        DynaValues.set(name, key, values.get(name), value);
+
+    }
+
+
+    /**
+     * Return the value of a simple property as a <code>boolean</code>.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception ConversionException if the value is null or not a
+     *  boolean
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     * @since 1.9.0
+     */
+    public boolean getBoolean(String name) {
+
+        return (PrimitiveValues.toBoolean(name, get(name)));
+
+    }
+
+
+    /**
+     * Return the value of a simple property as an <code>int</code>.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception ConversionException if the value is null or cannot be
+     *  converted to an <code>int</code>
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     * @since 1.9.0
+     */
+    public int getInt(String name) {
+
+        return (PrimitiveValues.toInt(name, get(name)));
+
+    }
+
+
+    /**
+     * Return the value of a simple property as a <code>long</code>.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception ConversionException if the value is null or cannot be
+     *  converted to a <code>long</code>
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     * @since 1.9.0
+     */
+    public long getLong(String name) {
+
+        return (PrimitiveValues.toLong(name, get(name)));
+
+    }
+
+
+    /**
+     * Return the value of a simple property as a <code>double</code>.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception ConversionException if the value is null or not a
+     *  number
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     * @since 1.9.0
+     */
+    public double getDouble(String name) {
+
+        return (PrimitiveValues.toDouble(name, get(name)));
+
+    }
+
+
+    /**
+     * Set the value of a simple property from a <code>boolean</code>.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the property is not boolean
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     * @since 1.9.0
+     */
+    public void setBoolean(String name, boolean value) {
+
+        set(name, PrimitiveValues.valueOf(value));
+
+    }
+
+
+    /**
+     * Set the value of a simple property from an <code>int</code>.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the value cannot be converted
+     *  to the type of the property
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     * @since 1.9.0
+     */
+    public void setInt(String name, int value) {
+
+        set(name, PrimitiveValues.toValue(name, getPropertyType(name), value));
+
+    }
+
+
+    /**
+     * Set the value of a simple property from a <code>long</code>.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the value cannot be converted
+     *  to the type of the property
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     * @since 1.9.0
+     */
+    public void setLong(String name, long value) {
+
+        set(name, PrimitiveValues.toValue(name, getPropertyType(name), value));
+
+    }
+
+
+    /**
+     * Set the value of a simple property from a <code>double</code>.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the value cannot be converted
+     *  to the type of the property
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     * @since 1.9.0
+     */
+    public void setDouble(String name, double value) {
+
+        set(name, PrimitiveValues.toValue(name, getPropertyType(name), value));
 
     }
 
@@ -405,6 +499,21 @@ public class BasicDynaBean implements DynaBean, Serializable {
     }
 
 
+    /**
+     * Return the type of the specified property, if it is known.
+     *
+     * @param name Name of the property
+     * @return The property type, or <code>null</code> if the property
+     *  is not defined by our DynaClass
+     */
+    private Class getPropertyType(String name) {
+
+        DynaProperty descriptor = getDynaClass().getDynaProperty(name);
+        return (descriptor == null ? null : descriptor.getType());
+
+    }
+
+
     /**
      * Is an object of the source class assignable to the destination class?
      *
@@ -415,19 +524,7 @@ public class BasicDynaBean implements DynaBean, Serializable {
      */
     protected boolean isAssignable(Class dest, Class source) {
 
-        if (dest.isAssignableFrom(source) ||
-                ((dest == Boolean.TYPE) && (source == Boolean.class)) ||
-                ((dest == Byte.TYPE) && (source == Byte.class)) ||
-                ((dest == Character.TYPE) && (source == Character.class)) ||
-                ((dest == Double.TYPE) && (source == Double.class)) ||
-                ((dest == Float.TYPE) && (source == Float.class)) ||
-                ((dest == Integer.TYPE) && (source == Integer.class)) ||
-                ((dest == Long.TYPE) && (source == Long.class)) ||
-                ((dest == Short.TYPE) && (source == Short.class))) {
-            return (true);
-        } else {
-            return (false);
-        }
+        return (DynaValues.isAssignable(dest, source));
 
     }
 
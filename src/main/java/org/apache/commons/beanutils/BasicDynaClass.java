@@ -19,6 +19,10 @@
 package org.apache.commons.beanutils;
 
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OptionalDataException;
 import java.io.Serializable;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
@@ -94,6 +98,13 @@ public class BasicDynaClass implements DynaClass, Serializable {
     // ----------------------------------------------------- Instance Variables
 
 
+    /**
+     * The serial version of release 1.8.3, kept so that the classes it
+     * serialized can still be read.
+     */
+    private static final long serialVersionUID = 6170153721746209026L;
+
+
     /**
      * The constructor of the <code>dynaBeanClass</code> that we will use
      * for creating new instances.
@@ -142,6 +153,32 @@ public class BasicDynaClass implements DynaClass, Serializable {
     protected HashMap propertiesMap = new HashMap();
 
 
+    /**
+     * The slot assigned to each dynamic property, keyed by the property
+     * name. A property keeps its slot when other properties are added or
+     * removed, and slots are never reused, so DynaBeans storing their
+     * values by slot remain valid when the set of properties changes.
+     * Rebuilt from <code>slotProperties</code> on deserialization.
+     */
+    private transient HashMap slotsMap = new HashMap();
+
+
+    /**
+     * The dynamic properties, indexed by slot. Slots of properties that
+     * have been removed hold <code>null</code>. Serialized after the
+     * other fields by <code>writeObject()</code>, so that streams keep the
+     * format of earlier releases.
+     */
+    private transient DynaProperty[] slotProperties = new DynaProperty[0];
+
+
+    /**
+     * The layout of the primitive values of {@link PackedDynaBean}s,
+     * created when first needed and discarded when the slots change.
+     */
+    private transient PackedLayout packedLayout = null;
+
+
     // ------------------------------------------------------ DynaClass Methods
 
 
@@ -245,6 +282,83 @@ public class BasicDynaClass implements DynaClass, Serializable {
     }
 
 
+    /**
+     * Return the slot assigned to the specified property, for use with
+     * the slot-based accessors of {@link CompactDynaBean}. Callers that
+     * access the same property of many DynaBeans should resolve its slot
+     * once, rather than looking up the property by name on each access.
+     *
+     * @param name Name of the dynamic property
+     * @return The slot of the property, or -1 if there is no property
+     *  of the specified name
+     *
+     * @exception IllegalArgumentException if no property name is specified
+     * @since 1.9.0
+     */
+    public int getSlot(String name) {
+
+        if (name == null) {
+            throw new IllegalArgumentException
+                    ("No property name specified");
+        }
+        Integer slot = (Integer) slotsMap.get(name);
+        return (slot == null ? -1 : slot.intValue());
+
+    }
+
+
+    /**
+     * Return the number of slots assigned so far, which is the minimum
+     * length of an array holding a value for each slot.
+     *
+     * @return The number of slots
+     * @since 1.9.0
+     */
+    public int getSlotCount() {
+
+        return (slotProperties.length);
+
+    }
+
+
+    /**
+     * Return the property descriptor for the specified slot.
+     *
+     * @param slot The slot of the property
+     * @return The descriptor for the property, or <code>null</code> if
+     *  the property of that slot has been removed
+     *
+     * @exception IndexOutOfBoundsException if no such slot has been assigned
+     * @since 1.9.0
+     */
+    public DynaProperty getDynaProperty(int slot) {
+
+        return (slotProperties[slot]);
+
+    }
+
+
+    // ------------------------------------------------------ Package Methods
+
+
+    /**
+     * Return the layout of the primitive values of the
+     * {@link PackedDynaBean}s of this DynaClass.
+     *
+     * @return The layout for the current slots
+     */
+    PackedLayout getPackedLayout() {
+
+        PackedLayout layout = packedLayout;
+        if (layout == null) {
+            layout = new PackedLayout(this);
+            packedLayout = layout;
+        }
+        return (layout);
+
+    }
+
+
     // ------------------------------------------------------ Protected Methods
 
 
@@ -297,6 +411,84 @@ public class BasicDynaClass implements DynaClass, Serializable {
         for (int i = 0; i < properties.length; i++) {
             propertiesMap.put(properties[i].getName(), properties[i]);
         }
+        assignSlots();
+
+    }
+
+
+    // -------------------------------------------------------- Private Methods
+
+
+    /**
+     * Assign slots to the current properties. Properties that were already
+     * defined (the same descriptor instance) keep their slot; new or
+     * redefined properties are given new slots.
+     */
+    private void assignSlots() {
+
+        HashMap slots = new HashMap();
+        int count = slotProperties.length;
+        for (int i = 0; i < properties.length; i++) {
+            Integer slot = (Integer) slotsMap.get(properties[i].getName());
+            if (slot == null || slotProperties[slot.intValue()] != properties[i]) {
+                slot = new Integer(count++);
+            }
+            slots.put(properties[i].getName(), slot);
+        }
+        DynaProperty[] descriptors = new DynaProperty[count];
+        for (int i = 0; i < properties.length; i++) {
+            Integer slot = (Integer) slots.get(properties[i].getName());
+            descriptors[slot.intValue()] = properties[i];
+        }
+        slotsMap = slots;
+        slotProperties = descriptors;
+        packedLayout = null;
+
+    }
+
+
+    /**
+     * Write the fields of this DynaClass, followed by its slots.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+
+        out.defaultWriteObject();
+        out.writeObject(slotProperties);
+
+    }
+
+
+    /**
+     * Read the fields of this DynaClass and restore its slots, so that the
+     * values of DynaBeans stored by slot still match. Streams written by
+     * earlier releases have no slots, which are then assigned afresh.
+     */
+    private void readObject(ObjectInputStream in)
+            throws IOException, ClassNotFoundException {
+
+        in.defaultReadObject();
+        DynaProperty[] slots = null;
+        try {
+            slots = (DynaProperty[]) in.readObject();
+        } catch (OptionalDataException e) {
+            if (!e.eof) {
+                throw e;
+            }
+        }
+        slotsMap = new HashMap();
+        if (slots == null) {
+            slotProperties = new DynaProperty[0];
+            if (properties != null) {
+                assignSlots();
+            }
+        } else {
+            slotProperties = slots;
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] != null) {
+                    slotsMap.put(slots[i].getName(), new Integer(i));
+                }
+            }
+        }
 
     }
 
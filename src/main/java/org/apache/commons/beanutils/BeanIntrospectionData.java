@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>The introspection data cached by {@link PropertyUtilsBean} for a
+ * single bean class.</p>
+ *
+ * <p>In addition to the property descriptors returned by the
+ * <code>Introspector</code>, this class indexes the descriptors by name
+ * and holds the {@link MethodInvoker}s bound for the accessible read and
+ * write methods of each property, so that simple property access does not
+ * have to search the descriptors or resolve accessible methods again.</p>
+ *
+ * <p>Instances are fully initialized by the constructor and never modified
+ * afterwards, so they can be shared freely between threads.</p>
+ *
+ * @version $Revision$ $Date$
+ * @since 1.9.0
+ */
+class BeanIntrospectionData {
+
+    /** The property descriptors of the bean class */
+    private final PropertyDescriptor[] descriptors;
+
+    /** Property descriptors keyed by property name */
+    private final Map descriptorsByName;
+
+    /** Bound read methods keyed by property name */
+    private final Map readInvokers;
+
+    /** Bound write methods keyed by property name */
+    private final Map writeInvokers;
+
+    /**
+     * Create the introspection data for a bean class.
+     *
+     * @param beanClass The bean class the descriptors belong to
+     * @param descriptors The property descriptors of the bean class
+     * @param engine The engine used to bind the read and write methods,
+     *  or <code>null</code> if no methods should be bound
+     */
+    BeanIntrospectionData(Class beanClass, PropertyDescriptor[] descriptors,
+            InvocationEngine engine) {
+        this.descriptors = descriptors;
+        this.descriptorsByName = new HashMap();
+        this.readInvokers = new HashMap();
+        this.writeInvokers = new HashMap();
+        for (int i = 0; i < descriptors.length; i++) {
+            String name = descriptors[i].getName();
+            if (name == null || descriptorsByName.containsKey(name)) {
+                continue;
+            }
+            descriptorsByName.put(name, descriptors[i]);
+            if (engine != null) {
+                bind(readInvokers, name, beanClass,
+                        descriptors[i].getReadMethod(), engine);
+                bind(writeInvokers, name, beanClass,
+                        descriptors[i].getWriteMethod(), engine);
+            }
+        }
+    }
+
+    /**
+     * Return the property descriptors of the bean class.
+     *
+     * @return The property descriptors
+     */
+    PropertyDescriptor[] getDescriptors() {
+        return descriptors;
+    }
+
+    /**
+     * Return the property descriptor with the specified name.
+     *
+     * @param name The property name
+     * @return The descriptor or <code>null</code> if there is none
+     */
+    PropertyDescriptor getDescriptor(String name) {
+        return (PropertyDescriptor) descriptorsByName.get(name);
+    }
+
+    /**
+     * Return the bound read method of the specified property.
+     *
+     * @param name The property name
+     * @return The invoker or <code>null</code> if none has been bound
+     */
+    MethodInvoker getReadInvoker(String name) {
+        return (MethodInvoker) readInvokers.get(name);
+    }
+
+    /**
+     * Return the bound write method of the specified property.
+     *
+     * @param name The property name
+     * @return The invoker or <code>null</code> if none has been bound
+     */
+    MethodInvoker getWriteInvoker(String name) {
+        return (MethodInvoker) writeInvokers.get(name);
+    }
+
+    /**
+     * Bind the accessible version of a method and store the invoker.
+     *
+     * @param invokers The map to store the invoker in
+     * @param name The property name
+     * @param beanClass The bean class the method will be invoked on
+     * @param method The method to bind, may be <code>null</code>
+     * @param engine The engine used to bind the method
+     */
+    private static void bind(Map invokers, String name, Class beanClass,
+            Method method, InvocationEngine engine) {
+        if (method == null) {
+            return;
+        }
+        try {
+            method = MethodUtils.getAccessibleMethod(beanClass, method);
+        } catch (IllegalArgumentException e) {
+            // Method supplied by a BeanInfo for an unrelated class;
+            // leave it to the unbound code path to report the problem
+            return;
+        }
+        if (method != null) {
+            MethodInvoker invoker = engine.bind(method);
+            if (invoker != null) {
+                invokers.put(name, invoker);
+            }
+        }
+    }
+
+}
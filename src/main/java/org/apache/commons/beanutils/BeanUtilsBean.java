@@ -107,6 +107,28 @@ public class BeanUtilsBean {
     /** A reference to Throwable's initCause method, or null if it's not there in this JVM */
     private static final Method INIT_CAUSE_METHOD = getInitCauseMethod();
 
+    /**
+     * The {@link CopyPlan}s used by <code>copyProperties()</code>, keyed by
+     * source class and then by destination class.
+     */
+    private final WeakClassCache copyPlans = new WeakClassCache();
+
+    /**
+     * The {@link Populator}s used by <code>populate()</code>, keyed by bean
+     * class. Each value is an array of {@link Populator#SLOTS} populators
+     * indexed by the hash code of their property names.
+     */
+    private final WeakClassCache populators = new WeakClassCache();
+
+    /** Whether a subclass overrides <code>setProperty()</code>, if known */
+    private Boolean setPropertyOverridden;
+
+    /** Whether a subclass overrides <code>copyProperty()</code>, if known */
+    private Boolean copyPropertyOverridden;
+
+    /** Whether a subclass overrides <code>convert()</code>, if known */
+    private Boolean convertOverridden;
+
     // --------------------------------------------------------- Constuctors
 
     /** 
@@ -181,7 +203,7 @@ public class BeanUtilsBean {
         if (bean instanceof DynaBean) {
             newBean = ((DynaBean) bean).getDynaClass().newInstance();
         } else {
-            newBean = bean.getClass().newInstance();
+            newBean = ConstructorUtils.newInstance(bean.getClass());
         }
         getPropertyUtils().copyProperties(newBean, bean);
         return (newBean);
@@ -270,6 +292,10 @@ public class BeanUtilsBean {
                     copyProperty(dest, name, entry.getValue());
                 }
             }
+        } else if (!(dest instanceof DynaBean) && !(dest instanceof Map) &&
+                   !isCopyPropertyOverridden() &&
+                   !getPropertyUtils().isAccessOverridden()) {
+            getCopyPlan(dest, orig).copy(this, dest, orig);
         } else /* if (orig is a standard JavaBean) */ {
             PropertyDescriptor[] origDescriptors =
                 getPropertyUtils().getPropertyDescriptors(orig);
@@ -359,21 +385,28 @@ public class BeanUtilsBean {
         // Resolve any nested expression to get the actual target bean
         Object target = bean;
         Resolver resolver = getPropertyUtils().getResolver();
-        while (resolver.hasNested(name)) {
+        PropertyPath path = getPropertyUtils().compile(name);
+        boolean accessOverridden = getPropertyUtils().isAccessOverridden();
+        int last = path.size() - 1;
+        for (int i = 0; i < last; i++) {
             try {
-                target = getPropertyUtils().getProperty(target, resolver.next(name));
-                name = resolver.remove(name);
+                if (accessOverridden) {
+                    target = getPropertyUtils().getProperty(target, path.getToken(i));
+                } else {
+                    target = getPropertyUtils().getPathSegment(target, path, i);
+                }
             } catch (NoSuchMethodException e) {
                 return; // Skip this property setter
             }
         }
+        name = path.getToken(last);
         if (log.isTraceEnabled()) {
             log.trace("    Target bean = " + target);
             log.trace("    Target name = " + name);
         }
 
         // Declare local variables we will require
-        String propName = resolver.getProperty(name); // Simple name of target property
+        String propName = path.getName(last);         // Simple name of target property
         Class type = null;                            // Java type of target property
         int index  = resolver.getIndex(name);         // Indexed subscript value (if any)
         String key = resolver.getKey(name);           // Mapped key value (if any)
@@ -815,6 +848,14 @@ public class BeanUtilsBean {
                     properties + ")");
         }
 
+        // Use the populator compiled for this bean class and property names
+        if (!(bean instanceof DynaBean) && !(bean instanceof Map) &&
+            !isSetPropertyOverridden() &&
+            !getPropertyUtils().isAccessOverridden()) {
+            getPopulator(bean, properties).populate(this, bean, properties);
+            return;
+        }
+
         // Loop through the property name/value pairs to be set
         Iterator entries = properties.entrySet().iterator();
         while (entries.hasNext()) {
@@ -898,21 +939,28 @@ public class BeanUtilsBean {
         // Resolve any nested expression to get the actual target bean
         Object target = bean;
         Resolver resolver = getPropertyUtils().getResolver();
-        while (resolver.hasNested(name)) {
+        PropertyPath path = getPropertyUtils().compile(name);
+        boolean accessOverridden = getPropertyUtils().isAccessOverridden();
+        int last = path.size() - 1;
+        for (int i = 0; i < last; i++) {
             try {
-                target = getPropertyUtils().getProperty(target, resolver.next(name));
-                name = resolver.remove(name);
+                if (accessOverridden) {
+                    target = getPropertyUtils().getProperty(target, path.getToken(i));
+                } else {
+                    target = getPropertyUtils().getPathSegment(target, path, i);
+                }
             } catch (NoSuchMethodException e) {
                 return; // Skip this property setter
             }
         }
+        name = path.getToken(last);
         if (log.isTraceEnabled()) {
             log.trace("    Target bean = " + target);
             log.trace("    Target name = " + name);
         }
 
         // Declare local variables we will require
-        String propName = resolver.getProperty(name); // Simple name of target property
+        String propName = path.getName(last);         // Simple name of target property
         Class type = null;                            // Java type of target property
         int index  = resolver.getIndex(name);         // Indexed subscript value (if any)
         String key = resolver.getKey(name);           // Mapped key value (if any)
@@ -1081,6 +1129,112 @@ public class BeanUtilsBean {
         }
     }
 
+    /**
+     * Return the {@link CopyPlan} for copying the properties of the
+     * specified standard JavaBeans, building it if necessary.
+     *
+     * @param dest Destination bean
+     * @param orig Origin bean
+     * @return The copy plan
+     */
+    private CopyPlan getCopyPlan(Object dest, Object orig) {
+
+        WeakClassCache plans = (WeakClassCache) copyPlans.get(orig.getClass());
+        if (plans == null) {
+            plans = new WeakClassCache();
+            WeakClassCache existing = (WeakClassCache)
+                    copyPlans.putIfAbsent(orig.getClass(), plans);
+            if (existing != null) {
+                plans = existing;
+            }
+        }
+        CopyPlan plan = (CopyPlan) plans.get(dest.getClass());
+        if (plan == null || !plan.isCurrent(this)) {
+            plan = new CopyPlan(this, dest, orig);
+            plans.put(dest.getClass(), plan);
+        }
+        return (plan);
+
+    }
+
+    /**
+     * Return the {@link Populator} for the specified bean and property
+     * names, compiling it if necessary.
+     *
+     * @param bean The bean to populate
+     * @param properties The property values, keyed by property name
+     * @return The populator
+     */
+    private Populator getPopulator(Object bean, Map properties) {
+
+        Populator[] slots = (Populator[]) populators.get(bean.getClass());
+        if (slots == null) {
+            slots = new Populator[Populator.SLOTS];
+            Populator[] existing = (Populator[])
+                    populators.putIfAbsent(bean.getClass(), slots);
+            if (existing != null) {
+                slots = existing;
+            }
+        }
+        int hash = Populator.hash(properties);
+        int slot = hash & (slots.length - 1);
+        Populator populator = slots[slot];
+        if (populator == null || !populator.matches(properties, hash)) {
+            populator = new Populator(getPropertyUtils(), properties, hash);
+            slots[slot] = populator;
+        }
+        return (populator);
+
+    }
+
+    /**
+     * Indicate whether <code>setProperty()</code> is overridden, in which
+     * case <code>populate()</code> must call it for every property.
+     *
+     * @return <code>true</code> if a subclass overrides the method
+     */
+    private boolean isSetPropertyOverridden() {
+        if (setPropertyOverridden == null) {
+            setPropertyOverridden = MethodUtils.isOverridden(getClass(),
+                    BeanUtilsBean.class, "setProperty",
+                    new Class[] {Object.class, String.class, Object.class})
+                    ? Boolean.TRUE : Boolean.FALSE;
+        }
+        return setPropertyOverridden.booleanValue();
+    }
+
+    /**
+     * Indicate whether <code>copyProperty()</code> is overridden, in which
+     * case <code>copyProperties()</code> must call it for every property.
+     *
+     * @return <code>true</code> if a subclass overrides the method
+     */
+    private boolean isCopyPropertyOverridden() {
+        if (copyPropertyOverridden == null) {
+            copyPropertyOverridden = MethodUtils.isOverridden(getClass(),
+                    BeanUtilsBean.class, "copyProperty",
+                    new Class[] {Object.class, String.class, Object.class})
+                    ? Boolean.TRUE : Boolean.FALSE;
+        }
+        return copyPropertyOverridden.booleanValue();
+    }
+
+    /**
+     * Indicate whether <code>convert()</code> is overridden, in which case
+     * copy plans must call it rather than the converters they resolved.
+     *
+     * @return <code>true</code> if a subclass overrides the method
+     */
+    boolean isConvertOverridden() {
+        if (convertOverridden == null) {
+            convertOverridden = MethodUtils.isOverridden(getClass(),
+                    BeanUtilsBean.class, "convert",
+                    new Class[] {Object.class, Class.class})
+                    ? Boolean.TRUE : Boolean.FALSE;
+        }
+        return convertOverridden.booleanValue();
+    }
+
     /**
      * Returns a <code>Method<code> allowing access to
      * {@link Throwable#initCause(Throwable)} method of {@link Throwable},
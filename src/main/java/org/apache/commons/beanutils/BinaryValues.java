@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * <p>Compact binary encoding of property values, used to store
+ * {@link DynaBean} rows outside the heap.</p>
+ *
+ * <p>Each value is written as a one byte tag followed by its data. The
+ * common JDBC value types (strings, numbers, booleans, dates, times and
+ * timestamps) are written with <code>DataOutput</code> primitives; any
+ * other value is written with Java serialization, and its classes are
+ * loaded through the context class loader when read back.</p>
+ *
+ * @version $Revision$ $Date$
+ * @since 1.9.0
+ */
+final class BinaryValues {
+
+    /* Value tags */
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte LONG_STRING = 2;
+    private static final byte INTEGER = 3;
+    private static final byte LONG = 4;
+    private static final byte SHORT = 5;
+    private static final byte BYTE = 6;
+    private static final byte DOUBLE = 7;
+    private static final byte FLOAT = 8;
+    private static final byte TRUE = 9;
+    private static final byte FALSE = 10;
+    private static final byte CHARACTER = 11;
+    private static final byte BIG_DECIMAL = 12;
+    private static final byte BIG_INTEGER = 13;
+    private static final byte SQL_DATE = 14;
+    private static final byte SQL_TIME = 15;
+    private static final byte SQL_TIMESTAMP = 16;
+    private static final byte DATE = 17;
+    private static final byte BYTES = 18;
+    private static final byte SERIALIZED = 19;
+
+    /** Longest string always encoded within the <code>writeUTF()</code> limit */
+    private static final int MAX_UTF_LENGTH = 65535 / 3;
+
+    /** Not instantiable */
+    private BinaryValues() {
+    }
+
+    /**
+     * Write a value.
+     *
+     * @param out The output
+     * @param value The value, possibly <code>null</code>
+     * @throws IOException if the value cannot be written, or is not
+     *  serializable
+     */
+    static void writeValue(DataOutput out, Object value) throws IOException {
+
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String) {
+            String string = (String) value;
+            if (string.length() <= MAX_UTF_LENGTH) {
+                out.writeByte(STRING);
+                out.writeUTF(string);
+            } else {
+                out.writeByte(LONG_STRING);
+                out.writeInt(string.length());
+                out.writeChars(string);
+            }
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt(((Integer) value).intValue());
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong(((Long) value).longValue());
+        } else if (value instanceof Short) {
+            out.writeByte(SHORT);
+            out.writeShort(((Short) value).shortValue());
+        } else if (value instanceof Byte) {
+            out.writeByte(BYTE);
+            out.writeByte(((Byte) value).byteValue());
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(((Double) value).doubleValue());
+        } else if (value instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat(((Float) value).floatValue());
+        } else if (value instanceof Boolean) {
+            out.writeByte(((Boolean) value).booleanValue() ? TRUE : FALSE);
+        } else if (value instanceof Character) {
+            out.writeByte(CHARACTER);
+            out.writeChar(((Character) value).charValue());
+        } else if (value.getClass() == BigDecimal.class) {
+            BigDecimal decimal = (BigDecimal) value;
+            out.writeByte(BIG_DECIMAL);
+            out.writeInt(decimal.scale());
+            writeBytes(out, decimal.unscaledValue().toByteArray());
+        } else if (value.getClass() == BigInteger.class) {
+            out.writeByte(BIG_INTEGER);
+            writeBytes(out, ((BigInteger) value).toByteArray());
+        } else if (value.getClass() == java.sql.Date.class) {
+            out.writeByte(SQL_DATE);
+            out.writeLong(((Date) value).getTime());
+        } else if (value.getClass() == Time.class) {
+            out.writeByte(SQL_TIME);
+            out.writeLong(((Date) value).getTime());
+        } else if (value.getClass() == Timestamp.class) {
+            Timestamp timestamp = (Timestamp) value;
+            out.writeByte(SQL_TIMESTAMP);
+            out.writeLong(timestamp.getTime());
+            out.writeInt(timestamp.getNanos());
+        } else if (value.getClass() == Date.class) {
+            out.writeByte(DATE);
+            out.writeLong(((Date) value).getTime());
+        } else if (value instanceof byte[]) {
+            out.writeByte(BYTES);
+            writeBytes(out, (byte[]) value);
+        } else {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream stream = new ObjectOutputStream(bytes);
+            stream.writeObject(value);
+            stream.close();
+            out.writeByte(SERIALIZED);
+            writeBytes(out, bytes.toByteArray());
+        }
+
+    }
+
+    /**
+     * Read a value written by {@link #writeValue(DataOutput, Object)}.
+     *
+     * @param in The input
+     * @return The value, possibly <code>null</code>
+     * @throws IOException if the value cannot be read
+     */
+    static Object readValue(DataInput in) throws IOException {
+
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL:
+                return (null);
+            case STRING:
+                return (in.readUTF());
+            case LONG_STRING: {
+                char[] chars = new char[in.readInt()];
+                for (int i = 0; i < chars.length; i++) {
+                    chars[i] = in.readChar();
+                }
+                return (new String(chars));
+            }
+            case INTEGER:
+                return (PrimitiveValues.valueOf(in.readInt()));
+            case LONG:
+                return (new Long(in.readLong()));
+            case SHORT:
+                return (new Short(in.readShort()));
+            case BYTE:
+                return (new Byte(in.readByte()));
+            case DOUBLE:
+                return (new Double(in.readDouble()));
+            case FLOAT:
+                return (new Float(in.readFloat()));
+            case TRUE:
+                return (Boolean.TRUE);
+            case FALSE:
+                return (Boolean.FALSE);
+            case CHARACTER:
+                return (new Character(in.readChar()));
+            case BIG_DECIMAL: {
+                int scale = in.readInt();
+                return (new BigDecimal(new BigInteger(readBytes(in)), scale));
+            }
+            case BIG_INTEGER:
+                return (new BigInteger(readBytes(in)));
+            case SQL_DATE:
+                return (new java.sql.Date(in.readLong()));
+            case SQL_TIME:
+                return (new Time(in.readLong()));
+            case SQL_TIMESTAMP: {
+                Timestamp timestamp = new Timestamp(in.readLong());
+                timestamp.setNanos(in.readInt());
+                return (timestamp);
+            }
+            case DATE:
+                return (new Date(in.readLong()));
+            case BYTES:
+                return (readBytes(in));
+            case SERIALIZED:
+                ObjectInputStream stream =
+                    new ValueInputStream(new ByteArrayInputStream(readBytes(in)));
+                try {
+                    return (stream.readObject());
+                } catch (ClassNotFoundException e) {
+                    throw new IOException("Cannot read value: " + e);
+                } finally {
+                    stream.close();
+                }
+            default:
+                throw new IOException("Invalid value tag " + tag);
+        }
+
+    }
+
+    /**
+     * Write a byte array, preceded by its length.
+     */
+    private static void writeBytes(DataOutput out, byte[] bytes) throws IOException {
+
+        out.writeInt(bytes.length);
+        out.write(bytes);
+
+    }
+
+    /**
+     * Read a byte array written by {@link #writeBytes(DataOutput, byte[])}.
+     */
+    private static byte[] readBytes(DataInput in) throws IOException {
+
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return (bytes);
+
+    }
+
+    /**
+     * An object stream resolving classes through the context class loader,
+     * falling back to the default resolution.
+     */
+    private static final class ValueInputStream extends ObjectInputStream {
+
+        ValueInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        protected Class resolveClass(ObjectStreamClass desc)
+                throws IOException, ClassNotFoundException {
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            if (classLoader != null) {
+                try {
+                    return (Class.forName(desc.getName(), false, classLoader));
+                } catch (ClassNotFoundException e) {
+                    // Resolved below
+                }
+            }
+            return (super.resolveClass(desc));
+        }
+
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+/**
+ * <p>A snapshot of the statistics of one of the reflection caches, such
+ * as the method cache of {@link MethodUtils} or the constructor cache of
+ * {@link ConstructorUtils}.</p>
+ *
+ * @version $Revision$ $Date$
+ * @see MethodUtils#getCacheStatistics()
+ * @see ConstructorUtils#getCacheStatistics()
+ * @since 1.9.0
+ */
+public final class CacheStatistics {
+
+    private final String name;
+    private final int size;
+    private final int maxSize;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    /**
+     * Construct a snapshot of the statistics of a cache.
+     *
+     * @param name The name of the cache
+     * @param size The number of cached entries
+     * @param maxSize The maximum number of cached entries, or zero
+     * @param hits The number of cache hits
+     * @param misses The number of cache misses
+     * @param evictions The number of evicted entries
+     */
+    CacheStatistics(String name, int size, int maxSize, long hits, long misses, long evictions) {
+        this.name = name;
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    /**
+     * Return the name of the cache.
+     *
+     * @return The name of the cache
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Return the number of cached methods (or constructors).
+     *
+     * @return The number of cached entries
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Return the maximum number of cached methods (or constructors).
+     *
+     * @return The maximum number of cached entries, or zero if unbounded
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Return the number of lookups which found a cached entry.
+     *
+     * @return The number of cache hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Return the number of lookups which did not find a cached entry.
+     *
+     * @return The number of cache misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Return the number of entries evicted to keep the cache
+     * within its maximum size.
+     *
+     * @return The number of evicted entries
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Return a String representation of these statistics.
+     *
+     * @return A String representation of these statistics
+     */
+    public String toString() {
+        return name + "[size=" + size + ", maxSize=" + maxSize + ", hits=" + hits
+                + ", misses=" + misses + ", evictions=" + evictions + "]";
+    }
+
+}
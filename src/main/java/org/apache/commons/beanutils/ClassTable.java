@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * <p>An immutable lookup table of values keyed by <code>java.lang.Class</code>,
+ * used to hold frozen snapshots of converter registries.</p>
+ *
+ * <p>Entries are stored in a compact open-addressed table (linear probing
+ * on the identity hash code of the class), so a lookup is a few plain
+ * array reads with no locking, no <code>equals()</code> calls and no
+ * allocation. Since the table never changes after construction it can be
+ * shared freely between threads once safely published (e.g. through a
+ * <code>volatile</code> field).</p>
+ *
+ * <p>Unlike the registries it is built from, the table holds its keys
+ * strongly.</p>
+ *
+ * @version $Revision$ $Date$
+ * @since 1.9.0
+ */
+final class ClassTable {
+
+    private final Class[] keys;
+    private final Object[] values;
+    private final int mask;
+    private final int size;
+
+    // ----------------------------------------------------------- Constructors
+
+    /**
+     * Construct a table containing the entries of the specified map
+     * whose keys are classes and whose values are not <code>null</code>.
+     *
+     * @param map The map to copy
+     */
+    ClassTable(Map map) {
+        if (map == null) {
+            throw new IllegalArgumentException("No map specified");
+        }
+        int capacity = 8;
+        while (capacity < map.size() * 2) {
+            capacity <<= 1;
+        }
+        Class[] keys = new Class[capacity];
+        Object[] values = new Object[capacity];
+        int mask = capacity - 1;
+        int size = 0;
+        Iterator entries = map.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry entry = (Map.Entry)entries.next();
+            if (!(entry.getKey() instanceof Class) || entry.getValue() == null) {
+                continue;
+            }
+            Class key = (Class)entry.getKey();
+            int index = indexFor(key, mask);
+            while (keys[index] != null && keys[index] != key) {
+                index = (index + 1) & mask;
+            }
+            if (keys[index] == null) {
+                keys[index] = key;
+                size++;
+            }
+            values[index] = entry.getValue();
+        }
+        this.keys = keys;
+        this.values = values;
+        this.mask = mask;
+        this.size = size;
+    }
+
+    // --------------------------------------------------------- Public Methods
+
+    /**
+     * Return the value for the specified class.
+     *
+     * @param key The class
+     * @return The value or <code>null</code> if there is none
+     */
+    public Object get(Class key) {
+        if (key == null) {
+            return null;
+        }
+        Class[] keys = this.keys;
+        for (int index = indexFor(key, mask); ; index = (index + 1) & mask) {
+            Class candidate = keys[index];
+            if (candidate == key) {
+                return values[index];
+            }
+            if (candidate == null) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Return the number of entries in the table.
+     *
+     * @return The number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    // -------------------------------------------------------- Private Methods
+
+    /**
+     * Return the preferred slot for a class.
+     *
+     * @param key The class
+     * @param mask The table size minus one
+     * @return The slot index
+     */
+    private static int indexFor(Class key, int mask) {
+        int hash = System.identityHashCode(key) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,960 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.beanutils;
+
+
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * <p>A <code>List</code> of {@link DynaBean}s which stores the values of
+ * each property in a column: a primitive array (with a bitmap of null
+ * values) for numeric, boolean and date/time properties, and an object
+ * array otherwise. Used by {@link RowSetDynaClass} in columnar mode.</p>
+ *
+ * <p>The elements of the list are lightweight views of a row, created
+ * when requested; reading or writing their properties reads or writes
+ * the columns. A view is bound to a position in the list, so after
+ * rows are inserted or removed before it, it shows a different row.
+ * Two views are equal when they show the same position of the same list.
+ * Elements added to the list (or set) are copied into the columns; a view
+ * of this list is copied before any row is moved or overwritten, so
+ * rows can be moved around within the list. <code>toArray()</code>
+ * returns detached copies of the rows, which is what
+ * <code>Collections.sort()</code> relies on.</p>
+ *
+ * <p>A column whose values cannot all be represented by its primitive
+ * array (for example an unexpected subclass of <code>java.sql.Date</code>)
+ * is converted to an object column.</p>
+ *
+ * @version $Revision$ $Date$
+ * @since 1.9.0
+ */
+class ColumnarRowList extends AbstractList implements Serializable {
+
+
+    // ----------------------------------------------------- Instance Variables
+
+
+    /** The DynaClass of the rows */
+    private final DynaClass dynaClass;
+
+    /** The properties of the rows, one per column */
+    private final DynaProperty[] properties;
+
+    /** The column index of each property, keyed by property name */
+    private final Map columnIndexes = new HashMap();
+
+    /** The columns */
+    private final Column[] columns;
+
+    /** The number of rows */
+    private int size = 0;
+
+    /** The number of rows the columns can hold */
+    private int capacity;
+
+
+    // ----------------------------------------------------------- Constructors
+
+
+    /**
+     * Create an empty list for rows of the specified DynaClass.
+     *
+     * @param dynaClass The DynaClass of the rows
+     */
+    ColumnarRowList(DynaClass dynaClass) {
+
+        this.dynaClass = dynaClass;
+        this.properties = dynaClass.getDynaProperties();
+        this.capacity = 16;
+        this.columns = new Column[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            columnIndexes.put(properties[i].getName(), new Integer(i));
+            columns[i] = createColumn(properties[i].getType(), capacity);
+        }
+
+    }
+
+
+    // ----------------------------------------------------------- List Methods
+
+
+    /**
+     * Return the number of rows.
+     *
+     * @return The number of rows
+     */
+    public int size() {
+
+        return (size);
+
+    }
+
+
+    /**
+     * Return a view of the specified row.
+     *
+     * @param index The index of the row
+     * @return A DynaBean reading and writing the values of the row
+     */
+    public Object get(int index) {
+
+        checkIndex(index, size);
+        return (new Row(this, index));
+
+    }
+
+
+    /**
+     * Replace the values of the specified row by those of a DynaBean.
+     *
+     * @param index The index of the row
+     * @param element The DynaBean whose values are copied
+     * @return A detached copy of the previous values of the row
+     */
+    public Object set(int index, Object element) {
+
+        checkIndex(index, size);
+        DynaBean bean = snapshot(element);
+        DynaBean previous = detach(index);
+        copyRow(bean, index);
+        return (previous);
+
+    }
+
+
+    /**
+     * Insert a row with the values of a DynaBean.
+     *
+     * @param index The index at which the row is inserted
+     * @param element The DynaBean whose values are copied
+     */
+    public void add(int index, Object element) {
+
+        checkIndex(index, size + 1);
+        DynaBean bean = snapshot(element);
+        int row = addRow();
+        for (int r = row; r > index; r--) {
+            for (int i = 0; i < columns.length; i++) {
+                columns[i].copy(r - 1, r);
+            }
+        }
+        copyRow(bean, index);
+
+    }
+
+
+    /**
+     * Remove a row.
+     *
+     * @param index The index of the row
+     * @return A detached copy of the values of the removed row
+     */
+    public Object remove(int index) {
+
+        checkIndex(index, size);
+        DynaBean previous = detach(index);
+        for (int r = index + 1; r < size; r++) {
+            for (int i = 0; i < columns.length; i++) {
+                columns[i].copy(r, r - 1);
+            }
+        }
+        size--;
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = columns[i].set(size, null);
+        }
+        modCount++;
+        return (previous);
+
+    }
+
+
+    /**
+     * Return detached copies of the rows, so that the array stays valid
+     * when the list is modified (for example when it is sorted).
+     *
+     * @return An array of <code>BasicDynaBean</code>s
+     */
+    public Object[] toArray() {
+
+        return (toArray(new Object[size]));
+
+    }
+
+
+    /**
+     * Return detached copies of the rows, so that the array stays valid
+     * when the list is modified (for example when it is sorted).
+     *
+     * @param array The array to fill, if large enough
+     * @return An array of <code>BasicDynaBean</code>s
+     */
+    public Object[] toArray(Object[] array) {
+
+        if (array.length < size) {
+            array = (Object[]) Array.newInstance(
+                    array.getClass().getComponentType(), size);
+        }
+        for (int i = 0; i < size; i++) {
+            array[i] = detach(i);
+        }
+        if (array.length > size) {
+            array[size] = null;
+        }
+        return (array);
+
+    }
+
+
+    /**
+     * Remove all rows.
+     */
+    public void clear() {
+
+        size = 0;
+        capacity = 16;
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = createColumn(properties[i].getType(), capacity);
+        }
+        modCount++;
+
+    }
+
+
+    // -------------------------------------------------------- Package Methods
+
+
+    /**
+     * Append a row of null values.
+     *
+     * @return The index of the new row
+     */
+    int addRow() {
+
+        if (size == capacity) {
+            capacity = capacity * 2;
+            for (int i = 0; i < columns.length; i++) {
+                columns[i].resize(capacity);
+            }
+        }
+        modCount++;
+        return (size++);
+
+    }
+
+
+    /**
+     * Release the unused capacity of the columns.
+     */
+    void trimToSize() {
+
+        if (capacity > size) {
+            capacity = Math.max(size, 1);
+            for (int i = 0; i < columns.length; i++) {
+                columns[i].resize(capacity);
+            }
+        }
+
+    }
+
+
+    /**
+     * Return the column index of the specified property.
+     *
+     * @param name The property name
+     * @return The column index, or -1 if there is no such property
+     */
+    int getColumnIndex(String name) {
+
+        Integer index = (Integer) columnIndexes.get(name);
+        return (index == null ? -1 : index.intValue());
+
+    }
+
+
+    /**
+     * Return a value.
+     *
+     * @param row The row index
+     * @param column The column index
+     * @return The value
+     */
+    Object getValue(int row, int column) {
+
+        checkIndex(row, size);
+        return (columns[column].get(row));
+
+    }
+
+
+    /**
+     * Set a value, which must be assignable to the type of the property.
+     *
+     * @param row The row index
+     * @param column The column index
+     * @param value The value
+     */
+    void setValue(int row, int column, Object value) {
+
+        checkIndex(row, size);
+        columns[column] = columns[column].set(row, value);
+
+    }
+
+
+    /**
+     * Return the DynaClass of the rows.
+     *
+     * @return The DynaClass
+     */
+    DynaClass getDynaClass() {
+
+        return (dynaClass);
+
+    }
+
+
+    /**
+     * Return a copy of a row which is independent of this list.
+     *
+     * @param row The row index
+     * @return A <code>BasicDynaBean</code> with the values of the row
+     */
+    DynaBean detach(int row) {
+
+        checkIndex(row, size);
+        DynaBean bean = new BasicDynaBean(dynaClass);
+        for (int i = 0; i < columns.length; i++) {
+            bean.set(properties[i].getName(), columns[i].get(row));
+        }
+        return (bean);
+
+    }
+
+
+    // -------------------------------------------------------- Private Methods
+
+
+    /**
+     * Copy the values of a DynaBean into a row.
+     *
+     * @param bean The DynaBean
+     * @param row The row index
+     */
+    private void copyRow(DynaBean bean, int row) {
+
+        for (int i = 0; i < columns.length; i++) {
+            setValue(row, i, bean.get(properties[i].getName()));
+        }
+
+    }
+
+
+    /**
+     * Return the DynaBean whose values are to be copied into a row,
+     * copying a view of this list first: its row may be moved or
+     * overwritten while the values are copied.
+     *
+     * @param element The element being added or set
+     * @return The DynaBean to copy
+     */
+    private DynaBean snapshot(Object element) {
+
+        if (element instanceof Row && ((Row) element).list == this) {
+            return (detach(((Row) element).index));
+        }
+        return ((DynaBean) element);
+
+    }
+
+
+    /**
+     * Check that an index is within range.
+     *
+     * @param index The index
+     * @param limit The exclusive upper bound
+     */
+    private static void checkIndex(int index, int limit) {
+
+        if (index < 0 || index >= limit) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + limit);
+        }
+
+    }
+
+
+    /**
+     * Create the column for values of the specified type.
+     *
+     * @param type The property type
+     * @param capacity The number of rows
+     * @return The column
+     */
+    private static Column createColumn(Class type, int capacity) {
+
+        if (type == Integer.class || type == Short.class || type == Byte.class) {
+            return (new IntColumn(type, capacity));
+        } else if (type == Long.class) {
+            return (new LongColumn(capacity));
+        } else if (type == Double.class || type == Float.class) {
+            return (new DoubleColumn(type, capacity));
+        } else if (type == Boolean.class) {
+            return (new BooleanColumn(capacity));
+        } else if (type == java.sql.Date.class || type == Time.class || type == Timestamp.class) {
+            return (new TimeColumn(type, capacity));
+        }
+        return (new ObjectColumn(capacity));
+
+    }
+
+
+    // --------------------------------------------------------- Column Classes
+
+
+    /**
+     * The values of a property.
+     */
+    abstract static class Column implements Serializable {
+
+        /**
+         * Return a value.
+         *
+         * @param row The row index
+         * @return The value, or <code>null</code>
+         */
+        abstract Object get(int row);
+
+        /**
+         * Set a value.
+         *
+         * @param row The row index
+         * @param value The value, or <code>null</code>
+         * @return This column, or an object column holding the values
+         *  of this column if the value cannot be stored in this one
+         */
+        abstract Column set(int row, Object value);
+
+        /**
+         * Copy a value to another row.
+         *
+         * @param from The source row index
+         * @param to The target row index
+         */
+        abstract void copy(int from, int to);
+
+        /**
+         * Change the number of rows the column can hold.
+         *
+         * @param capacity The new capacity
+         */
+        abstract void resize(int capacity);
+
+        /**
+         * Return the number of rows the column can hold.
+         *
+         * @return The capacity
+         */
+        abstract int capacity();
+
+        /**
+         * Return an object column holding the values of this column.
+         *
+         * @return The object column
+         */
+        Column toObjectColumn() {
+            int capacity = capacity();
+            ObjectColumn column = new ObjectColumn(capacity);
+            for (int row = 0; row < capacity; row++) {
+                column.values[row] = get(row);
+            }
+            return (column);
+        }
+    }
+
+
+    /**
+     * A column of primitive values, with a bitmap of null values.
+     */
+    abstract static class PrimitiveColumn extends Column {
+
+        /** The null values, one bit per row */
+        int[] nulls;
+
+        PrimitiveColumn(int capacity) {
+            nulls = new int[words(capacity)];
+            for (int i = 0; i < nulls.length; i++) {
+                nulls[i] = -1;
+            }
+        }
+
+        final boolean isNull(int row) {
+            return ((nulls[row >> 5] & (1 << (row & 31))) != 0);
+        }
+
+        final void setNull(int row, boolean isNull) {
+            if (isNull) {
+                nulls[row >> 5] |= (1 << (row & 31));
+            } else {
+                nulls[row >> 5] &= ~(1 << (row & 31));
+            }
+        }
+
+        final Column set(int row, Object value) {
+            if (value == null) {
+                setNull(row, true);
+                return (this);
+            } else if (!accepts(value)) {
+                return (toObjectColumn().set(row, value));
+            }
+            setNull(row, false);
+            store(row, value);
+            return (this);
+        }
+
+        final Object get(int row) {
+            return (isNull(row) ? null : load(row));
+        }
+
+        final void copy(int from, int to) {
+            setNull(to, isNull(from));
+            move(from, to);
+        }
+
+        final void resize(int capacity) {
+            int[] resized = new int[words(capacity)];
+            System.arraycopy(nulls, 0, resized, 0, Math.min(nulls.length, resized.length));
+            for (int i = nulls.length; i < resized.length; i++) {
+                resized[i] = -1;
+            }
+            nulls = resized;
+            resizeValues(capacity);
+        }
+
+        /** Can the value be stored in this column? */
+        abstract boolean accepts(Object value);
+
+        /** Store a non-null value */
+        abstract void store(int row, Object value);
+
+        /** Load a non-null value */
+        abstract Object load(int row);
+
+        /** Copy a value to another row */
+        abstract void move(int from, int to);
+
+        /** Resize the value array */
+        abstract void resizeValues(int capacity);
+
+        static int words(int bits) {
+            return ((bits + 31) >> 5);
+        }
+    }
+
+
+    /**
+     * A column of Integer, Short or Byte values.
+     */
+    static final class IntColumn extends PrimitiveColumn {
+        final Class type;
+        int[] values;
+
+        IntColumn(Class type, int capacity) {
+            super(capacity);
+            this.type = type;
+            this.values = new int[capacity];
+        }
+
+        boolean accepts(Object value) {
+            return (value.getClass() == type);
+        }
+
+        void store(int row, Object value) {
+            values[row] = ((Number) value).intValue();
+        }
+
+        Object load(int row) {
+            int value = values[row];
+            if (type == Integer.class) {
+                return (PrimitiveValues.valueOf(value));
+            } else if (type == Short.class) {
+                return (new Short((short) value));
+            }
+            return (new Byte((byte) value));
+        }
+
+        void move(int from, int to) {
+            values[to] = values[from];
+        }
+
+        void resizeValues(int capacity) {
+            int[] resized = new int[capacity];
+            System.arraycopy(values, 0, resized, 0, Math.min(values.length, capacity));
+            values = resized;
+        }
+
+        int capacity() {
+            return (values.length);
+        }
+    }
+
+
+    /**
+     * A column of Long values.
+     */
+    static final class LongColumn extends PrimitiveColumn {
+        long[] values;
+
+        LongColumn(int capacity) {
+            super(capacity);
+            this.values = new long[capacity];
+        }
+
+        boolean accepts(Object value) {
+            return (value instanceof Long);
+        }
+
+        void store(int row, Object value) {
+            values[row] = ((Long) value).longValue();
+        }
+
+        Object load(int row) {
+            return (new Long(values[row]));
+        }
+
+        void move(int from, int to) {
+            values[to] = values[from];
+        }
+
+        void resizeValues(int capacity) {
+            long[] resized = new long[capacity];
+            System.arraycopy(values, 0, resized, 0, Math.min(values.length, capacity));
+            values = resized;
+        }
+
+        int capacity() {
+            return (values.length);
+        }
+    }
+
+
+    /**
+     * A column of Double or Float values.
+     */
+    static final class DoubleColumn extends PrimitiveColumn {
+        final Class type;
+        double[] values;
+
+        DoubleColumn(Class type, int capacity) {
+            super(capacity);
+            this.type = type;
+            this.values = new double[capacity];
+        }
+
+        boolean accepts(Object value) {
+            return (value.getClass() == type);
+        }
+
+        void store(int row, Object value) {
+            values[row] = ((Number) value).doubleValue();
+        }
+
+        Object load(int row) {
+            if (type == Double.class) {
+                return (new Double(values[row]));
+            }
+            return (new Float((float) values[row]));
+        }
+
+        void move(int from, int to) {
+            values[to] = values[from];
+        }
+
+        void resizeValues(int capacity) {
+            double[] resized = new double[capacity];
+            System.arraycopy(values, 0, resized, 0, Math.min(values.length, capacity));
+            values = resized;
+        }
+
+        int capacity() {
+            return (values.length);
+        }
+    }
+
+
+    /**
+     * A column of Boolean values, one bit each.
+     */
+    static final class BooleanColumn extends PrimitiveColumn {
+        int[] values;
+        int capacity;
+
+        BooleanColumn(int capacity) {
+            super(capacity);
+            this.values = new int[words(capacity)];
+            this.capacity = capacity;
+        }
+
+        boolean accepts(Object value) {
+            return (value instanceof Boolean);
+        }
+
+        void store(int row, Object value) {
+            setBit(row, ((Boolean) value).booleanValue());
+        }
+
+        Object load(int row) {
+            return (PrimitiveValues.valueOf((values[row >> 5] & (1 << (row & 31))) != 0));
+        }
+
+        void move(int from, int to) {
+            setBit(to, (values[from >> 5] & (1 << (from & 31))) != 0);
+        }
+
+        void resizeValues(int capacity) {
+            int[] resized = new int[words(capacity)];
+            System.arraycopy(values, 0, resized, 0, Math.min(values.length, resized.length));
+            values = resized;
+            this.capacity = capacity;
+        }
+
+        int capacity() {
+            return (capacity);
+        }
+
+        private void setBit(int row, boolean value) {
+            if (value) {
+                values[row >> 5] |= (1 << (row & 31));
+            } else {
+                values[row >> 5] &= ~(1 << (row & 31));
+            }
+        }
+    }
+
+
+    /**
+     * A column of java.sql.Date, Time or Timestamp values, stored as
+     * milliseconds (and nanoseconds for timestamps). Values are returned
+     * as new instances, as they are mutable.
+     */
+    static final class TimeColumn extends PrimitiveColumn {
+        final Class type;
+        long[] values;
+        int[] nanos;
+
+        TimeColumn(Class type, int capacity) {
+            super(capacity);
+            this.type = type;
+            this.values = new long[capacity];
+            this.nanos = (type == Timestamp.class ? new int[capacity] : null);
+        }
+
+        boolean accepts(Object value) {
+            return (value.getClass() == type);
+        }
+
+        void store(int row, Object value) {
+            values[row] = ((java.util.Date) value).getTime();
+            if (nanos != null) {
+                nanos[row] = ((Timestamp) value).getNanos();
+            }
+        }
+
+        Object load(int row) {
+            if (type == java.sql.Date.class) {
+                return (new java.sql.Date(values[row]));
+            } else if (type == Time.class) {
+                return (new Time(values[row]));
+            }
+            Timestamp timestamp = new Timestamp(values[row]);
+            timestamp.setNanos(nanos[row]);
+            return (timestamp);
+        }
+
+        void move(int from, int to) {
+            values[to] = values[from];
+            if (nanos != null) {
+                nanos[to] = nanos[from];
+            }
+        }
+
+        void resizeValues(int capacity) {
+            long[] resized = new long[capacity];
+            System.arraycopy(values, 0, resized, 0, Math.min(values.length, capacity));
+            values = resized;
+            if (nanos != null) {
+                int[] resizedNanos = new int[capacity];
+                System.arraycopy(nanos, 0, resizedNanos, 0, Math.min(nanos.length, capacity));
+                nanos = resizedNanos;
+            }
+        }
+
+        int capacity() {
+            return (values.length);
+        }
+    }
+
+
+    /**
+     * A column of arbitrary values.
+     */
+    static final class ObjectColumn extends Column {
+        Object[] values;
+
+        ObjectColumn(int capacity) {
+            this.values = new Object[capacity];
+        }
+
+        Object get(int row) {
+            return (values[row]);
+        }
+
+        Column set(int row, Object value) {
+            values[row] = value;
+            return (this);
+        }
+
+        void copy(int from, int to) {
+            values[to] = values[from];
+        }
+
+        void resize(int capacity) {
+            Object[] resized = new Object[capacity];
+            System.arraycopy(values, 0, resized, 0, Math.min(values.length, capacity));
+            values = resized;
+        }
+
+        int capacity() {
+            return (values.length);
+        }
+
+        Column toObjectColumn() {
+            return (this);
+        }
+    }
+
+
+    // ------------------------------------------------------------ Row Class
+
+
+    /**
+     * A view of a row of a {@link ColumnarRowList}.
+     */
+    static final class Row implements DynaBean, Serializable {
+
+        /** The list holding the values */
+        private final ColumnarRowList list;
+
+        /** The index of the row */
+        private final int index;
+
+        Row(ColumnarRowList list, int index) {
+            this.list = list;
+            this.index = index;
+        }
+
+        public boolean contains(String name, String key) {
+            return (DynaValues.contains(name, key, getValue(name)));
+        }
+
+        public Object get(String name) {
+            return (list.getValue(index, getColumn(name)));
+        }
+
+        public Object get(String name, int index) {
+            return (DynaValues.get(name, index, getValue(name)));
+        }
+
+        public Object get(String name, String key) {
+            return (DynaValues.get(name, key, getValue(name)));
+        }
+
+        public DynaClass getDynaClass() {
+            return (list.getDynaClass());
+        }
+
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Row)) {
+                return (false);
+            }
+            Row row = (Row) obj;
+            return (row.list == list && row.index == index);
+        }
+
+        public int hashCode() {
+            return (System.identityHashCode(list) * 31 + index);
+        }
+
+        public void remove(String name, String key) {
+            DynaValues.remove(name, key, getValue(name));
+        }
+
+        public void set(String name, Object value) {
+            int column = getColumn(name);
+            DynaProperty descriptor = list.properties[column];
+            if (value == null) {
+                if (descriptor.getType().isPrimitive()) {
+                    throw new NullPointerException
+                            ("Primitive value for '" + name + "'");
+                }
+            } else if (!DynaValues.isAssignable(descriptor.getType(), value.getClass())) {
+                throw new ConversionException
+                        ("Cannot assign value of type '" +
+                        value.getClass().getName() +
+                        "' to property '" + name + "' of type '" +
+                        descriptor.getType().getName() + "'");
+            }
+            list.setValue(index, column, value);
+        }
+
+        public void set(String name, int index, Object value) {
+            DynaValues.set(name, index, getValue(name), value);
+        }
+
+        public void set(String name, String key, Object value) {
+            DynaValues.set(name, key, getValue(name), value);
+        }
+
+        /**
+         * Return the column of the specified property.
+         */
+        private int getColumn(String name) {
+            int column = list.getColumnIndex(name);
+            if (column < 0) {
+                throw new IllegalArgumentException
+                        ("Invalid property name '" + name + "'");
+            }
+            return (column);
+        }
+
+        /**
+         * Return the value of the specified property, or null if there
+         * is no such property.
+         */
+        private Object getValue(String name) {
+            int column = list.getColumnIndex(name);
+            return (column < 0 ? null : list.getValue(index, column));
+        }
+    }
+
+}
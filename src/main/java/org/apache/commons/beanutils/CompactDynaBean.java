@@ -0,0 +1,640 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.beanutils;
+
+
+import java.io.Serializable;
+import java.util.Map;
+
+
+/**
+ * <p>Implementation of the <code>DynaBean</code> interface which stores
+ * its property values in an array, rather than in a <code>HashMap</code>
+ * per instance as {@link BasicDynaBean} does. It must be associated with a
+ * {@link BasicDynaClass}, which assigns each property a slot in that
+ * array; the name of a property is resolved to its slot by the DynaClass.</p>
+ *
+ * <p>Callers that access the same properties of many DynaBeans (for
+ * example when reading the rows of a large result set) can resolve the
+ * slot of each property once with {@link BasicDynaClass#getSlot(String)},
+ * and then use {@link #getValue(int)} and {@link #setValue(int, Object)}.</p>
+ *
+ * <p>To create <code>CompactDynaBean</code>s, specify this class as the
+ * <code>dynaBeanClass</code> of a <code>BasicDynaClass</code>:</p>
+ * <pre>
+ *     DynaClass dynaClass = new BasicDynaClass("row", CompactDynaBean.class, properties);
+ *     DynaBean row = dynaClass.newInstance();
+ * </pre>
+ *
+ * <p><strong>IMPLEMENTATION NOTE</strong> - Instances of this class that are
+ * accessed from multiple threads simultaneously need to be synchronized.</p>
+ *
+ * <p><strong>IMPLEMENTATION NOTE</strong> - Instances of this class can be
+ * successfully serialized and deserialized <strong>ONLY</strong> if all
+ * property values are <code>Serializable</code>.</p>
+ *
+ * @version $Revision$ $Date$
+ * @since 1.9.0
+ */
+
+public class CompactDynaBean implements PrimitiveDynaBean, Serializable {
+
+
+    // ----------------------------------------------------- Class Variables
+
+
+    /** Default values of primitive properties */
+    private static final Byte BYTE_ZERO = new Byte((byte) 0);
+    private static final Character CHARACTER_ZERO = new Character((char) 0);
+    private static final Double DOUBLE_ZERO = new Double(0.0);
+    private static final Float FLOAT_ZERO = new Float((float) 0.0);
+    private static final Long LONG_ZERO = new Long(0);
+    private static final Short SHORT_ZERO = new Short((short) 0);
+
+
+    // ---------------------------------------------------------- Constructors
+
+
+    /**
+     * Construct a new <code>DynaBean</code> associated with the specified
+     * <code>DynaClass</code> instance.
+     *
+     * @param dynaClass The DynaClass we are associated with, which must
+     *  be a <code>BasicDynaClass</code>
+     *
+     * @exception IllegalArgumentException if the DynaClass is not a
+     *  <code>BasicDynaClass</code>
+     */
+    public CompactDynaBean(DynaClass dynaClass) {
+
+        super();
+        if (!(dynaClass instanceof BasicDynaClass)) {
+            throw new IllegalArgumentException
+                    ("DynaClass '" + (dynaClass == null ? null : dynaClass.getName()) +
+                    "' is not a BasicDynaClass");
+        }
+        this.dynaClass = (BasicDynaClass) dynaClass;
+        this.values = new Object[this.dynaClass.getSlotCount()];
+
+    }
+
+
+    // ---------------------------------------------------- Instance Variables
+
+
+    /**
+     * The <code>DynaClass</code> "base class" that this DynaBean
+     * is associated with.
+     */
+    protected BasicDynaClass dynaClass = null;
+
+
+    /**
+     * The property values for this DynaBean, indexed by slot. The array
+     * grows when properties are added to the DynaClass.
+     */
+    protected Object[] values = null;
+
+    /** Map decorator for this DynaBean */
+    private transient Map mapDecorator;
+
+    /**
+     * Return a Map representation of this DynaBean.
+     *
+     * @return a Map representation of this DynaBean
+     */
+    public Map getMap() {
+
+        // cache the Map
+        if (mapDecorator == null) {
+            mapDecorator = new DynaBeanMapDecorator(this);
+        }
+        return mapDecorator;
+
+    }
+
+
+    // ------------------------------------------------------ DynaBean Methods
+
+
+    /**
+     * Does the specified mapped property contain a value for the specified
+     * key value?
+     *
+     * @param name Name of the property to check
+     * @param key Name of the key to check
+     * @return <code>true<code> if the mapped property contains a value for
+     * the specified key, otherwise <code>false</code>
+     *
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public boolean contains(String name, String key) {
+
+        return (DynaValues.contains(name, key, getStoredValue(name)));
+
+    }
+
+
+    /**
+     * Return the value of a simple property with the specified name.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public Object get(String name) {
+
+        return (getValue(getSlot(name)));
+
+    }
+
+
+    /**
+     * Return the value of an indexed property with the specified name.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @param index Index of the value to be retrieved
+     * @return The indexed property's value
+     *
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     * @exception IllegalArgumentException if the specified property
+     *  exists, but is not indexed
+     * @exception IndexOutOfBoundsException if the specified index
+     *  is outside the range of the underlying property
+     * @exception NullPointerException if no array or List has been
+     *  initialized for this property
+     */
+    public Object get(String name, int index) {
+
+        return (DynaValues.get(name, index, getStoredValue(name)));
+
+    }
+
+
+    /**
+     * Return the value of a mapped property with the specified name,
+     * or <code>null</code> if there is no value for the specified key.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @param key Key of the value to be retrieved
+     * @return The mapped property's value
+     *
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     * @exception IllegalArgumentException if the specified property
+     *  exists, but is not mapped
+     */
+    public Object get(String name, String key) {
+
+        return (DynaValues.get(name, key, getStoredValue(name)));
+
+    }
+
+
+    /**
+     * Return the <code>DynaClass</code> instance that describes the set of
+     * properties available for this DynaBean.
+     *
+     * @return The associated DynaClass
+     */
+    public DynaClass getDynaClass() {
+
+        return (this.dynaClass);
+
+    }
+
+
+    /**
+     * Remove any existing value for the specified key on the
+     * specified mapped property.
+     *
+     * @param name Name of the property for which a value is to
+     *  be removed
+     * @param key Key of the value to be removed
+     *
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public void remove(String name, String key) {
+
+        DynaValues.remove(name, key, getStoredValue(name));
+
+    }
+
+
+    /**
+     * Set the value of a simple property with the specified name.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the specified value cannot be
+     *  converted to the type required for this property
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     * @exception NullPointerException if an attempt is made to set a
+     *  primitive property to null
+     */
+    public void set(String name, Object value) {
+
+        setValue(getSlot(name), value);
+
+    }
+
+
+    /**
+     * Set the value of an indexed property with the specified name.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param index Index of the property to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the specified value cannot be
+     *  converted to the type required for this property
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     * @exception IllegalArgumentException if the specified property
+     *  exists, but is not indexed
+     * @exception IndexOutOfBoundsException if the specified index
+     *  is outside the range of the underlying property
+     */
+    public void set(String name, int index, Object value) {
+
+        DynaValues.set(name, index, getStoredValue(name), value);
+
+    }
+
+
+    /**
+     * Set the value of a mapped property with the specified name.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param key Key of the property to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the specified value cannot be
+     *  converted to the type required for this property
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     * @exception IllegalArgumentException if the specified property
+     *  exists, but is not mapped
+     */
+    public void set(String name, String key, Object value) {
+
+        DynaValues.set(name, key, getStoredValue(name), value);
+
+    }
+
+
+    // ------------------------------------------------ PrimitiveDynaBean Methods
+
+
+    /**
+     * Return the value of a simple property as a <code>boolean</code>.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception ConversionException if the value is null or not a
+     *  boolean
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public boolean getBoolean(String name) {
+
+        return (PrimitiveValues.toBoolean(name, get(name)));
+
+    }
+
+
+    /**
+     * Return the value of a simple property as an <code>int</code>.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception ConversionException if the value is null or cannot be
+     *  converted to an <code>int</code>
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public int getInt(String name) {
+
+        return (PrimitiveValues.toInt(name, get(name)));
+
+    }
+
+
+    /**
+     * Return the value of a simple property as a <code>long</code>.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception ConversionException if the value is null or cannot be
+     *  converted to a <code>long</code>
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public long getLong(String name) {
+
+        return (PrimitiveValues.toLong(name, get(name)));
+
+    }
+
+
+    /**
+     * Return the value of a simple property as a <code>double</code>.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception ConversionException if the value is null or not a
+     *  number
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public double getDouble(String name) {
+
+        return (PrimitiveValues.toDouble(name, get(name)));
+
+    }
+
+
+    /**
+     * Set the value of a simple property from a <code>boolean</code>.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the property is not boolean
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public void setBoolean(String name, boolean value) {
+
+        set(name, PrimitiveValues.valueOf(value));
+
+    }
+
+
+    /**
+     * Set the value of a simple property from an <code>int</code>.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the value cannot be converted
+     *  to the type of the property
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public void setInt(String name, int value) {
+
+        int slot = getSlot(name);
+        setValue(slot, PrimitiveValues.toValue(name, getDynaProperty(slot).getType(), value));
+
+    }
+
+
+    /**
+     * Set the value of a simple property from a <code>long</code>.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the value cannot be converted
+     *  to the type of the property
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public void setLong(String name, long value) {
+
+        int slot = getSlot(name);
+        setValue(slot, PrimitiveValues.toValue(name, getDynaProperty(slot).getType(), value));
+
+    }
+
+
+    /**
+     * Set the value of a simple property from a <code>double</code>.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the value cannot be converted
+     *  to the type of the property
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public void setDouble(String name, double value) {
+
+        int slot = getSlot(name);
+        setValue(slot, PrimitiveValues.toValue(name, getDynaProperty(slot).getType(), value));
+
+    }
+
+
+    // ---------------------------------------------------------- Slot Methods
+
+
+    /**
+     * Return the value of the simple property with the specified slot.
+     *
+     * @param slot Slot of the property whose value is to be retrieved,
+     *  as returned by {@link BasicDynaClass#getSlot(String)}
+     * @return The property's value
+     *
+     * @exception IllegalArgumentException if there is no property
+     *  with the specified slot
+     */
+    public Object getValue(int slot) {
+
+        // Discard any value left behind by a property since removed
+        // from a mutable DynaClass; its slot is never reused
+        DynaProperty descriptor;
+        try {
+            descriptor = getDynaProperty(slot);
+        } catch (IllegalArgumentException e) {
+            if (slot >= 0 && slot < values.length) {
+                values[slot] = null;
+            }
+            throw e;
+        }
+
+        // Return any non-null value for the specified property
+        Object value = (slot < values.length ? values[slot] : null);
+        if (value != null) {
+            return (value);
+        }
+
+        // Return a null value for a non-primitive property
+        Class type = descriptor.getType();
+        if (!type.isPrimitive()) {
+            return (null);
+        }
+
+        // Return default values for primitive properties
+        if (type == Boolean.TYPE) {
+            return (Boolean.FALSE);
+        } else if (type == Byte.TYPE) {
+            return (BYTE_ZERO);
+        } else if (type == Character.TYPE) {
+            return (CHARACTER_ZERO);
+        } else if (type == Double.TYPE) {
+            return (DOUBLE_ZERO);
+        } else if (type == Float.TYPE) {
+            return (FLOAT_ZERO);
+        } else if (type == Integer.TYPE) {
+            return (PrimitiveValues.valueOf(0));
+        } else if (type == Long.TYPE) {
+            return (LONG_ZERO);
+        } else if (type == Short.TYPE) {
+            return (SHORT_ZERO);
+        } else {
+            return (null);
+        }
+
+    }
+
+
+    /**
+     * Set the value of the simple property with the specified slot.
+     *
+     * @param slot Slot of the property whose value is to be set,
+     *  as returned by {@link BasicDynaClass#getSlot(String)}
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the specified value cannot be
+     *  converted to the type required for this property
+     * @exception IllegalArgumentException if there is no property
+     *  with the specified slot
+     * @exception NullPointerException if an attempt is made to set a
+     *  primitive property to null
+     */
+    public void setValue(int slot, Object value) {
+
+        DynaProperty descriptor = getDynaProperty(slot);
+        if (value == null) {
+            if (descriptor.getType().isPrimitive()) {
+                throw new NullPointerException
+                        ("Primitive value for '" + descriptor.getName() + "'");
+            }
+        } else if (!isAssignable(descriptor.getType(), value.getClass())) {
+            throw new ConversionException
+                    ("Cannot assign value of type '" +
+                    value.getClass().getName() +
+                    "' to property '" + descriptor.getName() + "' of type '" +
+                    descriptor.getType().getName() + "'");
+        }
+        if (slot >= values.length) {
+            Object[] grown = new Object[dynaClass.getSlotCount()];
+            System.arraycopy(values, 0, grown, 0, values.length);
+            values = grown;
+        }
+        values[slot] = value;
+
+    }
+
+
+    // ------------------------------------------------------ Protected Methods
+
+
+    /**
+     * Return the slot of the specified property.
+     *
+     * @param name Name of the property
+     * @return The slot of the property
+     *
+     * @exception IllegalArgumentException if this is not a valid property
+     *  name for our DynaClass
+     */
+    protected int getSlot(String name) {
+
+        int slot = dynaClass.getSlot(name);
+        if (slot < 0) {
+            throw new IllegalArgumentException
+                    ("Invalid property name '" + name + "'");
+        }
+        return (slot);
+
+    }
+
+
+    /**
+     * Return the property descriptor for the specified slot.
+     *
+     * @param slot The slot of the property
+     * @return The property descriptor
+     *
+     * @exception IllegalArgumentException if there is no property
+     *  with the specified slot
+     */
+    protected DynaProperty getDynaProperty(int slot) {
+
+        DynaProperty descriptor = null;
+        if (slot >= 0 && slot < dynaClass.getSlotCount()) {
+            descriptor = dynaClass.getDynaProperty(slot);
+        }
+        if (descriptor == null) {
+            throw new IllegalArgumentException
+                    ("Invalid property slot " + slot);
+        }
+        return (descriptor);
+
+    }
+
+
+    /**
+     * Is an object of the source class assignable to the destination class?
+     *
+     * @param dest Destination class
+     * @param source Source class
+     * @return <code>true</code> if the source class is assignable to the
+     * destination class, otherwise <code>false</code>
+     */
+    protected boolean isAssignable(Class dest, Class source) {
+
+        return (DynaValues.isAssignable(dest, source));
+
+    }
+
+
+    // -------------------------------------------------------- Private Methods
+
+
+    /**
+     * Return the value stored for the specified property, without
+     * supplying defaults for primitive properties.
+     *
+     * @param name Name of the property
+     * @return The stored value, or <code>null</code> if there is none
+     *  (or no such property)
+     */
+    private Object getStoredValue(String name) {
+
+        int slot = dynaClass.getSlot(name);
+        return (slot >= 0 && slot < values.length ? values[slot] : null);
+
+    }
+
+
+}
@@ -21,6 +21,7 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
 
+
 /**
  * <p> Utility reflection methods focussed on constructors, modelled after {@link MethodUtils}. </p>
  *
@@ -54,8 +55,120 @@ public class ConstructorUtils {
     /** An empty object array */
     private static final Object[] EMPTY_OBJECT_ARRAY = new Object[0];
 
+    /** The default maximum number of cached constructors */
+    private static final int DEFAULT_MAX_CACHE_SIZE = 1024;
+
+    /**
+     * Indicates whether constructors should be cached for improved
+     * performance. As for {@link MethodUtils}, this affects all webapps
+     * when the class is deployed via a shared classloader.
+     */
+    private static boolean CACHE_CONSTRUCTORS = true;
+
+    /**
+     * Stores a cache of the accessible constructors found for each lookup,
+     * bounded to the least recently used constructors. Like the method
+     * cache of {@link MethodUtils}, it is keyed by Class and safe when
+     * deployed via a shared classloader.
+     */
+    private static final MemberCache cache =
+            new MemberCache("ConstructorCache", DEFAULT_MAX_CACHE_SIZE);
+
     // --------------------------------------------------------- Public Methods
 
+    /**
+     * Set whether constructors should be cached for greater performance or
+     * not, default is <code>true</code>.
+     *
+     * @param cacheConstructors <code>true</code> if constructors should be
+     * cached for greater performance, otherwise <code>false</code>
+     * @since 1.9.0
+     */
+    public static synchronized void setCacheConstructors(boolean cacheConstructors) {
+        CACHE_CONSTRUCTORS = cacheConstructors;
+        if (!CACHE_CONSTRUCTORS) {
+            clearCache();
+        }
+    }
+
+    /**
+     * Clear the constructor cache.
+     * @return the number of cached constructors cleared
+     * @since 1.9.0
+     */
+    public static synchronized int clearCache() {
+        return cache.clear();
+    }
+
+    /**
+     * Return the maximum number of constructors held in the constructor cache.
+     *
+     * @return The maximum number of cached constructors, or zero if
+     * the cache is unbounded
+     * @since 1.9.0
+     */
+    public static int getMaxCacheSize() {
+        return cache.getMaxSize();
+    }
+
+    /**
+     * Set the maximum number of constructors held in the constructor cache.
+     * When the cache grows beyond this size, the least recently used
+     * constructors are evicted. The default is 1024.
+     *
+     * @param maxCacheSize The maximum number of cached constructors, or zero
+     * (or less) for an unbounded cache
+     * @since 1.9.0
+     */
+    public static void setMaxCacheSize(int maxCacheSize) {
+        cache.setMaxSize(maxCacheSize);
+    }
+
+    /**
+     * Return the statistics of the constructor cache since it was last
+     * cleared. The counters are maintained without locking, so they may be
+     * slightly low when constructors are looked up concurrently.
+     *
+     * @return The cache statistics
+     * @since 1.9.0
+     */
+    public static CacheStatistics getCacheStatistics() {
+        return cache.getStatistics();
+    }
+
+    /**
+     * <p>Return a new instance of <code>klass</code> created using its
+     * public no-argument constructor.</p>
+     *
+     * <p>The accessible constructor is resolved once and kept in the
+     * constructor cache, so repeated instantiation of the same class
+     * avoids both the lookup and the access checks made by
+     * <code>Class.newInstance()</code>. Classes without an accessible
+     * constructor (e.g. public constructors of non-public classes)
+     * are instantiated with <code>Class.newInstance()</code>, as before.</p>
+     *
+     * @param klass the class to be constructed.
+     * @return new instance of <code>klass</code>
+     *
+     * @throws IllegalAccessException If an error occurs accessing the constructor
+     * @throws InvocationTargetException If an error occurs invoking the constructor
+     * @throws InstantiationException If an error occurs instantiating the class
+     * @since 1.9.0
+     */
+    public static Object newInstance(Class klass)
+        throws
+            IllegalAccessException,
+            InvocationTargetException,
+            InstantiationException {
+
+        Constructor ctor = getCachedAccessibleConstructor(klass, EMPTY_CLASS_PARAMETERS);
+        if (ctor == null) {
+            return klass.newInstance();
+        }
+        return ctor.newInstance(EMPTY_OBJECT_ARRAY);
+
+    }
+
     /**
      * <p>Convenience method returning new instance of <code>klazz</code> using a single argument constructor.
      * The formal parameter type is inferred from the actual values of <code>arg</code>.
@@ -269,7 +382,7 @@ public class ConstructorUtils {
             parameterTypes = EMPTY_CLASS_PARAMETERS;
         }
 
-        Constructor ctor = getAccessibleConstructor(klass, parameterTypes);
+        Constructor ctor = getCachedAccessibleConstructor(klass, parameterTypes);
         if (null == ctor) {
             throw new NoSuchMethodException(
                 "No such accessible constructor on object: " + klass.getName());
@@ -346,6 +459,37 @@ public class ConstructorUtils {
     }
 
     // -------------------------------------------------------- Private Methods
+    /**
+     * <p>Return the constructor with exactly the given signature, made
+     * accessible and cached. The cached instance is shared, so it is only
+     * used internally and never returned to callers.</p>
+     *
+     * @param klass the class to be constructed
+     * @param parameterTypes the parameter array
+     * @return the constructor, or <code>null</code> if there is no matching
+     *  accessible constructor
+     */
+    private static Constructor getCachedAccessibleConstructor(
+        Class klass,
+        Class[] parameterTypes) {
+
+        MemberCache.Descriptor cd = new MemberCache.Descriptor(klass, parameterTypes, true);
+
+        // Check the cache first
+        Constructor ctor = getCachedConstructor(cd);
+        if (ctor != null) {
+            return ctor;
+        }
+
+        ctor = getAccessibleConstructor(klass, parameterTypes);
+        if (ctor != null) {
+            setConstructorAccessible(ctor);
+            cacheConstructor(cd, ctor);
+        }
+        return ctor;
+
+    }
+
     /**
      * <p>Find an accessible constructor with compatible parameters.
      * Compatible parameters mean that every method parameter is assignable from
@@ -364,31 +508,36 @@ public class ConstructorUtils {
     private static Constructor getMatchingAccessibleConstructor(
         Class clazz,
         Class[] parameterTypes) {
+
+        MemberCache.Descriptor cd = new MemberCache.Descriptor(clazz, parameterTypes, false);
+
+        // Check the cache first
+        Constructor ctor = getCachedConstructor(cd);
+        if (ctor != null) {
+            return ctor;
+        }
+
+        ctor = findMatchingAccessibleConstructor(clazz, parameterTypes);
+        cacheConstructor(cd, ctor);
+        return ctor;
+    }
+
+    /**
+     * <p>Find an accessible constructor with compatible parameters, without
+     * consulting the constructor cache.</p>
+     *
+     * @param clazz find constructor for this class
+     * @param parameterTypes find method with compatible parameters
+     * @return a valid Constructor object. If there's no matching constructor, returns <code>null</code>.
+     */
+    private static Constructor findMatchingAccessibleConstructor(
+        Class clazz,
+        Class[] parameterTypes) {
         // see if we can find the method directly
         // most of the time this works and it's much faster
         try {
             Constructor ctor = clazz.getConstructor(parameterTypes);
-            try {
-                //
-                // XXX Default access superclass workaround
-                //
-                // When a public class has a default access superclass
-                // with public methods, these methods are accessible.
-                // Calling them from compiled code works fine.
-                //
-                // Unfortunately, using reflection to invoke these methods
-                // seems to (wrongly) to prevent access even when the method
-                // modifer is public.
-                //
-                // The following workaround solves the problem but will only
-                // work from sufficiently privilages code. 
-                //
-                // Better workarounds would be greatfully accepted.
-                //
-                ctor.setAccessible(true);
-            } catch (SecurityException se) {
-                /* SWALLOW, if workaround fails don't fret. */
-            }
+            setConstructorAccessible(ctor);
             return ctor;
 
         } catch (NoSuchMethodException e) { /* SWALLOW */
@@ -417,13 +566,7 @@ public class ConstructorUtils {
                     // get accessible version of method
                     Constructor ctor = getAccessibleConstructor(ctors[i]);
                     if (ctor != null) {
-                        try {
-                            ctor.setAccessible(true);
-                        } catch (SecurityException se) {
-                            /* Swallow SecurityException
-                             * TODO: Why?
-                             */
-                        }
+                        setConstructorAccessible(ctor);
                         return ctor;
                     }
                 }
@@ -433,4 +576,55 @@ public class ConstructorUtils {
         return null;
     }
 
+    /**
+     * Try to make the constructor accessible, so that invoking it skips
+     * the access checks.
+     * <p>
+     * XXX Default access superclass workaround
+     * <p>
+     * When a public class has a default access superclass
+     * with public methods, these methods are accessible.
+     * Calling them from compiled code works fine.
+     * Unfortunately, using reflection to invoke these methods
+     * seems to (wrongly) to prevent access even when the method
+     * modifer is public.
+     * The following workaround solves the problem but will only
+     * work from sufficiently privilages code.
+     * Better workarounds would be greatfully accepted.
+     *
+     * @param ctor The constructor to make accessible
+     */
+    private static void setConstructorAccessible(Constructor ctor) {
+        try {
+            ctor.setAccessible(true);
+        } catch (SecurityException se) {
+            /* SWALLOW, if workaround fails don't fret. */
+        }
+    }
+
+    /**
+     * Return the constructor from the cache, if present.
+     *
+     * @param cd The constructor descriptor
+     * @return The cached constructor
+     */
+    private static Constructor getCachedConstructor(MemberCache.Descriptor cd) {
+        if (CACHE_CONSTRUCTORS) {
+            return (Constructor)cache.get(cd);
+        }
+        return null;
+    }
+
+    /**
+     * Add a constructor to the cache.
+     *
+     * @param cd The constructor descriptor
+     * @param ctor The constructor to cache
+     */
+    private static void cacheConstructor(MemberCache.Descriptor cd, Constructor ctor) {
+        if (CACHE_CONSTRUCTORS) {
+            cache.put(cd, ctor);
+        }
+    }
+
 }
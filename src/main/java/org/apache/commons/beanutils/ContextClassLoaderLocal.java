@@ -17,8 +17,8 @@
  
 package org.apache.commons.beanutils;
 
-import java.util.Map;
-import java.util.WeakHashMap;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 
 /**
  * An instance of this class represents a value that is provided per (thread)
@@ -90,8 +90,13 @@ import java.util.WeakHashMap;
  * there is no obvious reason for a user of the beanutils library to subclass
  * either of those classes.</p>
  *
- * <p><strong>Note:</strong> A WeakHashMap bug in several 1.3 JVMs results in 
- * a memory leak for those JVMs.</p>
+ * <p>Reads never block: the values are held in an immutable array of
+ * entries (keyed weakly by classloader) published through a
+ * <code>volatile</code> field, and each thread remembers the entry it
+ * used last so that repeated calls with the same context classloader
+ * skip even that array scan. Only creating, replacing or removing a
+ * value is serialized, so <code>initialValue()</code> is still called
+ * at most once per classloader.</p>
  *
  * <p><strong>Note:</strong> Of course all of this would be unnecessary if
  * containers required each component to load the full set of classes it
@@ -101,9 +106,21 @@ import java.util.WeakHashMap;
  * @author Eric Pabst
  */
 public class ContextClassLoaderLocal {
-    private Map valueByClassLoader = new WeakHashMap();
-    private boolean globalValueInitialized = false;
-    private Object globalValue;
+
+    /** An empty set of entries */
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    /** The value for each classloader; replaced, never modified, when changed */
+    private volatile Entry[] entries = NO_ENTRIES;
+
+    /** Queue of entries whose classloader has been garbage collected */
+    private final ReferenceQueue queue = new ReferenceQueue();
+
+    /** The entry last used by each thread, held through a weak reference */
+    private final ThreadLocal lastEntry = new ThreadLocal();
+
+    private volatile boolean globalValueInitialized = false;
+    private volatile Object globalValue;
 
     /**
      * Construct a context classloader instance
@@ -135,25 +152,27 @@ public class ContextClassLoaderLocal {
      * This mechanism provides isolation for web apps deployed in the same container. 
      * @return the object currently associated with the context-classloader of the current thread. 
      */
-    public synchronized Object get() {
-        // synchronizing the whole method is a bit slower 
-        // but guarantees no subtle threading problems, and there's no 
-        // need to synchronize valueByClassLoader
-        
-        // make sure that the map is given a change to purge itself
-        valueByClassLoader.isEmpty();
+    public Object get() {
+        // make sure that collected classloaders release their values
+        if (queue.poll() != null) {
+            purge();
+        }
         try {
             
             ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
             if (contextClassLoader != null) {
-                
-                Object value = valueByClassLoader.get(contextClassLoader);
-                if ((value == null) 
-                && !valueByClassLoader.containsKey(contextClassLoader)) {
-                    value = initialValue();
-                    valueByClassLoader.put(contextClassLoader, value);
+
+                // fast path: the same classloader as last time on this thread
+                WeakReference lastRef = (WeakReference) lastEntry.get();
+                Entry entry = (lastRef == null ? null : (Entry) lastRef.get());
+                if (entry == null || entry.removed || entry.get() != contextClassLoader) {
+                    entry = find(contextClassLoader);
+                    if (entry == null) {
+                        entry = initialize(contextClassLoader);
+                    }
+                    lastEntry.set(new WeakReference(entry));
                 }
-                return value;
+                return entry.value;
                 
             }
             
@@ -161,8 +180,12 @@ public class ContextClassLoaderLocal {
         
         // if none or exception, return the globalValue 
         if (!globalValueInitialized) {
-            globalValue = initialValue();
-            globalValueInitialized = true;
+            synchronized (this) {
+                if (!globalValueInitialized) {
+                    globalValue = initialValue();
+                    globalValueInitialized = true;
+                }
+            }
         }//else already set
         return globalValue;
     }
@@ -174,16 +197,11 @@ public class ContextClassLoaderLocal {
      * @param value the object to be associated with the entrant thread's context classloader
      */
     public synchronized void set(Object value) {
-        // synchronizing the whole method is a bit slower 
-        // but guarentees no subtle threading problems
-        
-        // make sure that the map is given a change to purge itself
-        valueByClassLoader.isEmpty();
         try {
             
             ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
             if (contextClassLoader != null) {
-                valueByClassLoader.put(contextClassLoader, value);
+                update(contextClassLoader, new Entry(contextClassLoader, value, queue));
                 return;
             }
             
@@ -211,6 +229,101 @@ public class ContextClassLoaderLocal {
      * @param classLoader The classloader to <i>unset</i> for
      */
     public synchronized void unset(ClassLoader classLoader) {    
-        valueByClassLoader.remove(classLoader);
+        update(classLoader, null);
     }    
-}
\ No newline at end of file
+
+    // -------------------------------------------------------- Private Methods
+
+    /**
+     * Return the entry for the specified classloader, if any.
+     *
+     * @param classLoader The classloader
+     * @return The entry or <code>null</code>
+     */
+    private Entry find(ClassLoader classLoader) {
+        Entry[] entries = this.entries;
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i].get() == classLoader) {
+                return entries[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Drop the entries whose classloader has been garbage collected,
+     * so that their values can be garbage collected too.
+     */
+    private synchronized void purge() {
+        while (queue.poll() != null) {
+            // drain the queue, the entries are found by update()
+        }
+        update(null, null);
+    }
+
+    /**
+     * Create the entry for the specified classloader using the
+     * initial value, unless another thread has just done so.
+     *
+     * @param classLoader The classloader
+     * @return The entry for the classloader
+     */
+    private synchronized Entry initialize(ClassLoader classLoader) {
+        Entry entry = find(classLoader);
+        if (entry == null) {
+            entry = new Entry(classLoader, initialValue(), queue);
+            update(classLoader, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Publish a new set of entries in which the entry for the specified
+     * classloader is replaced (or removed), dropping any entries whose
+     * classloader has been garbage collected. Must be called while
+     * synchronized on this instance.
+     *
+     * @param classLoader The classloader (<code>null</code> just drops
+     *  the collected entries)
+     * @param entry The new entry, or <code>null</code> to remove it
+     */
+    private void update(ClassLoader classLoader, Entry entry) {
+        Entry[] entries = this.entries;
+        Entry[] results = new Entry[entries.length + 1];
+        int count = 0;
+        for (int i = 0; i < entries.length; i++) {
+            Object key = entries[i].get();
+            if (key == classLoader || key == null) {
+                entries[i].removed = true;
+            } else {
+                results[count++] = entries[i];
+            }
+        }
+        if (entry != null) {
+            results[count++] = entry;
+        }
+        if (count < results.length) {
+            Entry[] trimmed = new Entry[count];
+            System.arraycopy(results, 0, trimmed, 0, count);
+            results = trimmed;
+        }
+        this.entries = results;
+    }
+
+    /**
+     * The value for one classloader, which is referenced weakly.
+     */
+    private static final class Entry extends WeakReference {
+
+        /** The value for the classloader */
+        private final Object value;
+
+        /** Set once this entry has been replaced or removed */
+        private volatile boolean removed;
+
+        Entry(ClassLoader classLoader, Object value, ReferenceQueue queue) {
+            super(classLoader, queue);
+            this.value = value;
+        }
+    }
+}
@@ -340,6 +340,20 @@ public class ConvertUtils {
 
     }
 
+    /**
+     * <p>Freeze the registered converters into an immutable snapshot.</p>
+     *
+     * <p>For more details see <code>ConvertUtilsBean</code>.</p>
+     *
+     * @see ConvertUtilsBean#freeze()
+     * @since 1.9.0
+     */
+    public static void freeze() {
+
+        ConvertUtilsBean.getInstance().freeze();
+
+    }
+
     /**
      * <p>Register a custom {@link Converter} for the specified destination
      * <code>Class</code>, replacing any previously registered Converter.</p>
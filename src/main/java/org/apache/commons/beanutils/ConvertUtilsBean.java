@@ -27,7 +27,10 @@ import java.net.URL;
 import java.sql.Timestamp;
 import java.util.Calendar;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 
+import org.apache.commons.beanutils.converters.AbstractConverter;
 import org.apache.commons.beanutils.converters.ArrayConverter;
 import org.apache.commons.beanutils.converters.BigDecimalConverter;
 import org.apache.commons.beanutils.converters.BigIntegerConverter;
@@ -119,6 +122,22 @@ import org.apache.commons.logging.LogFactory;
  * or invalid input, these return an empty array (not null). See class
  * AbstractArrayConverter for the supported input formats for these converters.
  * </p>
+ *
+ * <p>
+ * The converter resolved by {@link #lookup(Class, Class)} for each pair of
+ * source and target types (including the absence of a converter) is cached
+ * until a converter is next registered or deregistered. If no converter is
+ * registered for the target type itself, a converter registered by the
+ * application for one of its superclasses or interfaces is used.
+ * </p>
+ *
+ * <p>
+ * Once all converters have been registered, {@link #freeze()} replaces
+ * the registry used by {@link #lookup(Class)} with an immutable
+ * {@link ClassTable} snapshot, so lookups no longer touch the registry
+ * map at all. Registering or deregistering converters after that is
+ * still possible; each change publishes a new snapshot atomically.
+ * </p>
  * 
  * @author Craig R. McClanahan
  * @author Ralph Schaer
@@ -151,6 +170,38 @@ public class ConvertUtilsBean {
      */
     private WeakFastHashMap converters = new WeakFastHashMap();
 
+    /**
+     * The standard {@link Converter}s registered by this bean. They are all
+     * {@link AbstractConverter}s hidden behind a facade.
+     */
+    private Set standardConverters = new HashSet();
+
+    /**
+     * Incremented whenever the registered converters change, so that
+     * converters resolved in advance (e.g. by {@link BeanUtilsBean}'s copy
+     * plans) can be recognised as stale.
+     */
+    private volatile int modCount = 0;
+
+    /**
+     * The converters resolved by {@link #lookup(Class, Class)}, keyed by
+     * target type and then by source type. Replaced whenever the
+     * registered converters change.
+     */
+    private volatile WeakClassCache resolved = new WeakClassCache();
+
+    /** Immutable snapshot of the registered converters, if frozen */
+    private volatile ClassTable frozen;
+
+    /** Cached in {@link #resolved} when there is no converter */
+    private static final Object NO_CONVERTER = new Object();
+
+    /** Whether a subclass overrides <code>lookup(Class)</code>, if known */
+    private Boolean lookupOverridden;
+
+    /** Whether a subclass overrides the String conversion, if known */
+    private Boolean stringConversionOverridden;
+
     /**
      * The <code>Log</code> instance for this class.
      */
@@ -574,6 +625,10 @@ public class ConvertUtilsBean {
     public void deregister() {
 
         converters.clear();
+        synchronized (standardConverters) {
+            standardConverters.clear();
+        }
+        modified();
         
         registerPrimitives(false);
         registerStandard(false, false);
@@ -783,7 +838,13 @@ public class ConvertUtilsBean {
 
     /** strictly for convenience since it has same parameter order as Map.put */
     private void register(Class clazz, Converter converter) {
-        register(new ConverterFacade(converter), clazz);
+        Converter facade = new ConverterFacade(converter);
+        if (converter instanceof AbstractConverter) {
+            synchronized (standardConverters) {
+                standardConverters.add(facade);
+            }
+        }
+        register(facade, clazz);
     }
 
     /**
@@ -795,6 +856,7 @@ public class ConvertUtilsBean {
     public void deregister(Class clazz) {
 
         converters.remove(clazz);
+        modified();
 
     }
 
@@ -809,6 +871,10 @@ public class ConvertUtilsBean {
      */
     public Converter lookup(Class clazz) {
 
+        ClassTable table = frozen;
+        if (table != null) {
+            return ((Converter) table.get(clazz));
+        }
         return ((Converter) converters.get(clazz));
 
     }
@@ -827,8 +893,44 @@ public class ConvertUtilsBean {
         if (targetType == null) {
             throw new IllegalArgumentException("Target type is missing");
         }
+        if (isLookupOverridden()) {
+            return resolve(sourceType, targetType);
+        }
+
+        // A null source type is cached under void, which no value can have
+        WeakClassCache cache = resolved;
+        Class key = (sourceType == null ? Void.TYPE : sourceType);
+        WeakClassCache sources = (WeakClassCache)cache.get(targetType);
+        if (sources != null) {
+            Object converter = sources.get(key);
+            if (converter != null) {
+                return (converter == NO_CONVERTER ? null : (Converter)converter);
+            }
+        } else {
+            sources = new WeakClassCache();
+            WeakClassCache existing = (WeakClassCache)cache.putIfAbsent(targetType, sources);
+            if (existing != null) {
+                sources = existing;
+            }
+        }
+        Converter converter = resolve(sourceType, targetType);
+        sources.put(key, converter == null ? NO_CONVERTER : converter);
+        return converter;
+
+    }
+
+    /**
+     * Resolve the {@link Converter} for the specified source and
+     * destination class, without using the cache of resolved converters.
+     *
+     * @param sourceType Class of the value being converted (may be null)
+     * @param targetType Class of the value to be converted to
+     * @return The registered {@link Converter} or <code>null</code> if not found
+     */
+    private Converter resolve(Class sourceType, Class targetType) {
+
         if (sourceType == null) {
-            return lookup(targetType);
+            return lookupHierarchy(targetType);
         }
 
         Converter converter = null;
@@ -856,7 +958,86 @@ public class ConvertUtilsBean {
             return converter;
         }
 
-        return lookup(targetType);
+        return lookupHierarchy(targetType);
+
+    }
+
+    /**
+     * Look up the {@link Converter} registered for the specified destination
+     * class or, failing that, a converter registered by the application for
+     * the nearest superclass or one of the interfaces it implements.
+     * <p>
+     * The standard converters only produce values of exactly their own type,
+     * so they (and any converter registered for <code>Object</code>) are
+     * never used for subclasses.
+     *
+     * @param targetType Class of the value to be converted to
+     * @return The registered {@link Converter} or <code>null</code> if not found
+     */
+    private Converter lookupHierarchy(Class targetType) {
+
+        Converter converter = lookup(targetType);
+        if (converter != null || targetType.isPrimitive() || targetType.isArray()) {
+            return converter;
+        }
+        for (Class type = targetType.getSuperclass();
+                type != null && type != Object.class; type = type.getSuperclass()) {
+            converter = lookupSupertype(type);
+            if (converter != null) {
+                return converter;
+            }
+        }
+        for (Class type = targetType; type != null; type = type.getSuperclass()) {
+            converter = lookupInterfaces(type);
+            if (converter != null) {
+                return converter;
+            }
+        }
+        return null;
+
+    }
+
+    /**
+     * Look up an application {@link Converter} for the interfaces
+     * implemented by the specified class, including the interfaces
+     * they extend.
+     *
+     * @param type The class or interface whose interfaces are searched
+     * @return The registered {@link Converter} or <code>null</code> if not found
+     */
+    private Converter lookupInterfaces(Class type) {
+
+        Class[] interfaces = type.getInterfaces();
+        for (int i = 0; i < interfaces.length; i++) {
+            Converter converter = lookupSupertype(interfaces[i]);
+            if (converter == null) {
+                converter = lookupInterfaces(interfaces[i]);
+            }
+            if (converter != null) {
+                return converter;
+            }
+        }
+        return null;
+
+    }
+
+    /**
+     * Look up the {@link Converter} registered for a supertype of the
+     * target type, ignoring the standard converters.
+     *
+     * @param type The supertype
+     * @return The registered {@link Converter} or <code>null</code> if not
+     *  found or it is a standard converter
+     */
+    private Converter lookupSupertype(Class type) {
+
+        Converter converter = lookup(type);
+        if (converter == null) {
+            return null;
+        }
+        synchronized (standardConverters) {
+            return (standardConverters.contains(converter) ? null : converter);
+        }
 
     }
 
@@ -871,6 +1052,115 @@ public class ConvertUtilsBean {
     public void register(Converter converter, Class clazz) {
 
         converters.put(clazz, converter);
+        modified();
+
+    }
+
+    /**
+     * Freeze the registered converters into an immutable snapshot which
+     * is used for all subsequent lookups.
+     * <p>
+     * Converters may still be registered and deregistered afterwards:
+     * each change publishes a new snapshot, so concurrent lookups see
+     * either the old or the new set of converters, never a mixture.
+     * Unlike the registry itself, the snapshot holds the registered
+     * classes strongly.
+     *
+     * @since 1.9.0
+     */
+    public synchronized void freeze() {
+
+        frozen = new ClassTable(converters);
+
+    }
+
+    /**
+     * Indicate whether the registered converters have been frozen.
+     *
+     * @return <code>true</code> if {@link #freeze()} has been called
+     * @since 1.9.0
+     */
+    public boolean isFrozen() {
 
+        return (frozen != null);
+
+    }
+
+    /**
+     * Return a counter which changes whenever a {@link Converter} is
+     * registered or deregistered.
+     *
+     * @return The modification count
+     * @since 1.9.0
+     */
+    int getModCount() {
+        return modCount;
+    }
+
+    /**
+     * Indicate whether the specified converter returns values which are
+     * already of exactly the requested type unchanged. This is only known
+     * for the standard converters registered by this instance: a user
+     * converter, even one extending {@link AbstractConverter}, may
+     * normalize such values (for example in <code>convertToString()</code>).
+     *
+     * @param converter The converter, may be <code>null</code>
+     * @return <code>true</code> if such values need not be converted
+     * @since 1.9.0
+     */
+    boolean isPreservingType(Converter converter) {
+        if (converter == null) {
+            return true;
+        }
+        synchronized (standardConverters) {
+            return standardConverters.contains(converter);
+        }
+    }
+
+    /**
+     * Indicate whether a subclass overrides <code>convert(String, Class)</code>
+     * or <code>lookup(Class)</code>, in which case the converter used for a
+     * String value cannot be resolved in advance.
+     *
+     * @return <code>true</code> if the String conversion is overridden
+     * @since 1.9.0
+     */
+    boolean isStringConversionOverridden() {
+        if (stringConversionOverridden == null) {
+            Class base = ConvertUtilsBean.class;
+            boolean overridden =
+                MethodUtils.isOverridden(getClass(), base, "convert",
+                        new Class[] {String.class, Class.class}) ||
+                MethodUtils.isOverridden(getClass(), base, "lookup",
+                        new Class[] {Class.class});
+            stringConversionOverridden = overridden ? Boolean.TRUE : Boolean.FALSE;
+        }
+        return stringConversionOverridden.booleanValue();
+    }
+
+    /**
+     * Indicate whether a subclass overrides <code>lookup(Class)</code>, in
+     * which case the converters it returns cannot be cached.
+     *
+     * @return <code>true</code> if the lookup is overridden
+     */
+    private boolean isLookupOverridden() {
+        if (lookupOverridden == null) {
+            boolean overridden = MethodUtils.isOverridden(getClass(),
+                    ConvertUtilsBean.class, "lookup", new Class[] {Class.class});
+            lookupOverridden = overridden ? Boolean.TRUE : Boolean.FALSE;
+        }
+        return lookupOverridden.booleanValue();
+    }
+
+    /**
+     * Record a change to the registered converters.
+     */
+    private synchronized void modified() {
+        if (frozen != null) {
+            frozen = new ClassTable(converters);
+        }
+        modCount++;
+        resolved = new WeakClassCache();
     }
 }
@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>The precomputed steps used by {@link BeanUtilsBean#copyProperties}
+ * to copy the properties of one standard JavaBean class to another.</p>
+ *
+ * <p>A plan is built once for a (source class, destination class) pair.
+ * It holds the properties which are readable on the source and writeable
+ * on the destination, their bound accessor methods and the
+ * {@link Converter} resolved for each destination type, so that copying
+ * needs no introspection, name parsing or converter lookup. Values which
+ * are already of exactly the destination type are not converted at all,
+ * unless a non-standard converter is registered for that type.</p>
+ *
+ * <p>A plan records the introspection data and converter registrations it
+ * was built from; {@link #isCurrent} reports when these have changed and
+ * the plan must be rebuilt.</p>
+ *
+ * @version $Revision$ $Date$
+ * @since 1.9.0
+ */
+final class CopyPlan {
+
+    /** An empty object array */
+    private static final Object[] EMPTY_OBJECT_ARRAY = new Object[0];
+
+    /** The source bean class */
+    private final Class origClass;
+
+    /** The destination bean class */
+    private final Class destClass;
+
+    /** The introspection data of the source class */
+    private final BeanIntrospectionData origData;
+
+    /** The introspection data of the destination class */
+    private final BeanIntrospectionData destData;
+
+    /** The converter modification count the converters were resolved at */
+    private final int modCount;
+
+    /** Whether the values are converted by calling BeanUtilsBean.convert() */
+    private final boolean convertOverridden;
+
+    /** The steps of the plan, one per copied property */
+    private final Step[] steps;
+
+    // ---------------------------------------------------------- Constructors
+
+    /**
+     * Build the plan for copying the properties of a bean to another.
+     *
+     * @param beanUtils The BeanUtilsBean performing the copy
+     * @param dest The destination bean, a standard JavaBean
+     * @param orig The source bean, a standard JavaBean
+     */
+    CopyPlan(BeanUtilsBean beanUtils, Object dest, Object orig) {
+
+        PropertyUtilsBean propertyUtils = beanUtils.getPropertyUtils();
+        ConvertUtilsBean convertUtils = beanUtils.getConvertUtils();
+        this.origClass = orig.getClass();
+        this.destClass = dest.getClass();
+        this.origData = propertyUtils.getIntrospectionData(origClass);
+        this.destData = propertyUtils.getIntrospectionData(destClass);
+        this.modCount = convertUtils.getModCount();
+        this.convertOverridden = beanUtils.isConvertOverridden();
+
+        List steps = new ArrayList();
+        PropertyDescriptor[] origDescriptors = origData.getDescriptors();
+        for (int i = 0; i < origDescriptors.length; i++) {
+            String name = origDescriptors[i].getName();
+            if ("class".equals(name)) {
+                continue; // No point in trying to set an object's class
+            }
+            if (!propertyUtils.isReadable(orig, name) ||
+                !propertyUtils.isWriteable(dest, name)) {
+                continue;
+            }
+            Step step = new Step(name);
+            step.reader = origData.getReadInvoker(name);
+            PropertyDescriptor descriptor = destData.getDescriptor(name);
+            if (descriptor != null) {
+                step.type = descriptor.getPropertyType();
+                if (step.type == null) {
+                    continue; // Most likely an indexed setter only
+                }
+                step.writer = destData.getWriteInvoker(name);
+                step.converter = convertUtils.lookup(step.type);
+                step.identity = convertUtils.isPreservingType(step.converter);
+                step.valueType = step.type.isPrimitive()
+                        ? MethodUtils.getPrimitiveWrapper(step.type) : step.type;
+            }
+            steps.add(step);
+        }
+        this.steps = (Step[]) steps.toArray(new Step[steps.size()]);
+
+    }
+
+    // -------------------------------------------------------- Package Methods
+
+    /**
+     * Indicate whether this plan still reflects the introspection data and
+     * converters of the specified BeanUtilsBean.
+     *
+     * @param beanUtils The BeanUtilsBean performing the copy
+     * @return <code>true</code> if the plan can be used
+     */
+    boolean isCurrent(BeanUtilsBean beanUtils) {
+
+        PropertyUtilsBean propertyUtils = beanUtils.getPropertyUtils();
+        return (modCount == beanUtils.getConvertUtils().getModCount()
+                && origData == propertyUtils.getIntrospectionData(origClass)
+                && destData == propertyUtils.getIntrospectionData(destClass));
+
+    }
+
+    /**
+     * Copy the properties of a bean to another.
+     *
+     * @param beanUtils The BeanUtilsBean performing the copy
+     * @param dest The destination bean
+     * @param orig The source bean
+     *
+     * @exception IllegalAccessException if the caller does not have
+     *  access to the property accessor method
+     * @exception InvocationTargetException if the property accessor method
+     *  throws an exception
+     */
+    void copy(BeanUtilsBean beanUtils, Object dest, Object orig)
+        throws IllegalAccessException, InvocationTargetException {
+
+        PropertyUtilsBean propertyUtils = beanUtils.getPropertyUtils();
+        for (int i = 0; i < steps.length; i++) {
+            Step step = steps[i];
+
+            // Read the source value
+            Object value;
+            if (step.reader != null) {
+                value = propertyUtils.invokeMethod(step.reader, orig, EMPTY_OBJECT_ARRAY);
+            } else {
+                try {
+                    value = propertyUtils.getSimpleProperty(orig, step.name);
+                } catch (NoSuchMethodException e) {
+                    continue; // Should not happen
+                }
+            }
+
+            // Properties without a bound setter take the general route
+            if (step.writer == null) {
+                beanUtils.copyProperty(dest, step.name, value);
+                continue;
+            }
+
+            // Convert and store the value
+            if (convertOverridden) {
+                value = beanUtils.convert(value, step.type);
+            } else if (step.converter != null && !(step.identity && value != null
+                    && value.getClass() == step.valueType)) {
+                value = step.converter.convert(step.type, value);
+            }
+            propertyUtils.invokeMethod(step.writer, dest, new Object[] {value});
+        }
+
+    }
+
+    // -------------------------------------------------------- Private Classes
+
+    /**
+     * The copy of a single property.
+     */
+    private static class Step {
+
+        /** The property name */
+        private final String name;
+
+        /** The bound getter of the source, or null to use getSimpleProperty() */
+        private MethodInvoker reader;
+
+        /** The bound setter of the destination, or null to use copyProperty() */
+        private MethodInvoker writer;
+
+        /** The destination property type */
+        private Class type;
+
+        /** The destination property type, with primitives wrapped */
+        private Class valueType;
+
+        /** The converter for the destination type, if any */
+        private Converter converter;
+
+        /** Whether the converter returns values of the destination type unchanged */
+        private boolean identity;
+
+        /**
+         * Create the step for the specified property.
+         *
+         * @param name The property name
+         */
+        Step(String name) {
+            this.name = name;
+        }
+
+    }
+
+}
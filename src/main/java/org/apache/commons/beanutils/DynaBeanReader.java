@@ -0,0 +1,327 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+
+
+/**
+ * <p>Reads the {@link DynaBean}s written by a {@link DynaBeanWriter}.</p>
+ *
+ * <p>The schema at the start of the stream is read by the constructor.
+ * The beans are then read one at a time, either into new beans created by
+ * the DynaClass of the reader, or into an existing bean (which can be
+ * reused for every row).  A reader given a DynaClass of its own only sets
+ * the properties of the schema that the DynaClass has; otherwise its
+ * DynaClass is a {@link BasicDynaClass} with the properties of the
+ * schema.</p>
+ *
+ * <pre>
+ *     DynaBeanReader reader = new DynaBeanReader(in);
+ *     DynaBean bean;
+ *     while ((bean = reader.read()) != null) {
+ *         ... process this bean ...
+ *     }
+ *     reader.close();
+ * </pre>
+ *
+ * <p>The reader does not buffer its input, and never reads the underlying
+ * stream beyond the end of the beans, so that any data following them
+ * (such as another set of beans) can be read from the same stream.  A
+ * caller reading from an unbuffered source should pass a
+ * <code>BufferedInputStream</code>, and read any following data through
+ * it.</p>
+ *
+ * @version $Revision$ $Date$
+ * @since 1.9.0
+ */
+
+public class DynaBeanReader {
+
+
+    // ----------------------------------------------------------- Constructors
+
+
+    /**
+     * Create a reader creating beans of a {@link BasicDynaClass} with the
+     * properties of the schema, and read the schema.
+     *
+     * @param in The stream to read from
+     * @throws IOException if the schema cannot be read, or a property type
+     *  cannot be loaded
+     */
+    public DynaBeanReader(InputStream in) throws IOException {
+
+        this(in, null);
+
+    }
+
+
+    /**
+     * Create a reader creating beans of the specified DynaClass, and read
+     * the schema.
+     *
+     * @param in The stream to read from
+     * @param dynaClass The DynaClass of the beans, or <code>null</code> for
+     *  a {@link BasicDynaClass} with the properties of the schema
+     * @throws IOException if the schema cannot be read, or a property type
+     *  cannot be loaded
+     */
+    public DynaBeanReader(InputStream in, DynaClass dynaClass) throws IOException {
+
+        this.in = new DataInputStream(in);
+        if (this.in.readInt() != DynaBeanWriter.MAGIC) {
+            throw new StreamCorruptedException("Not a DynaBean stream");
+        }
+        short version = this.in.readShort();
+        if (version != DynaBeanWriter.VERSION) {
+            throw new StreamCorruptedException("Unsupported version " + version);
+        }
+        this.name = this.in.readUTF();
+        this.properties = new DynaProperty[this.in.readInt()];
+        for (int i = 0; i < properties.length; i++) {
+            String propertyName = this.in.readUTF();
+            Class type = loadClass(this.in.readUTF());
+            if (this.in.readBoolean()) {
+                Class contentType = loadClass(this.in.readUTF());
+                properties[i] = new DynaProperty(propertyName, type, contentType);
+            } else {
+                properties[i] = new DynaProperty(propertyName, type);
+            }
+        }
+        if (dynaClass == null) {
+            dynaClass = new BasicDynaClass(name, BasicDynaBean.class, properties);
+        }
+        this.dynaClass = dynaClass;
+
+    }
+
+
+    // ----------------------------------------------------- Instance Variables
+
+
+    /** The stream we read from */
+    private final DataInputStream in;
+
+    /** The name of the DynaClass of the schema */
+    private final String name;
+
+    /** The properties of the schema */
+    private final DynaProperty[] properties;
+
+    /** The DynaClass of the beans created */
+    private final DynaClass dynaClass;
+
+    /** The DynaClass of the last bean read into */
+    private DynaClass targetClass = null;
+
+    /** Whether each property of the schema exists in <code>targetClass</code> */
+    private boolean[] targetProperties = null;
+
+    /** Whether the end of the beans has been read */
+    private boolean finished = false;
+
+
+    // --------------------------------------------------------- Public Methods
+
+
+    /**
+     * Return the name of the DynaClass the beans were written from.
+     *
+     * @return The name of the DynaClass
+     */
+    public String getDynaClassName() {
+
+        return (name);
+
+    }
+
+
+    /**
+     * Return the properties of the schema.
+     *
+     * @return The properties, in the order their values are written
+     */
+    public DynaProperty[] getDynaProperties() {
+
+        return (properties);
+
+    }
+
+
+    /**
+     * Return the DynaClass of the beans created by {@link #read()}.
+     *
+     * @return The DynaClass
+     */
+    public DynaClass getDynaClass() {
+
+        return (dynaClass);
+
+    }
+
+
+    /**
+     * Read the next bean into a new bean of the DynaClass of this reader.
+     *
+     * @return The bean, or <code>null</code> if all the beans have been read
+     * @throws IOException if the bean cannot be read or created
+     */
+    public DynaBean read() throws IOException {
+
+        if (finished || !readMarker()) {
+            return (null);
+        }
+        DynaBean bean;
+        try {
+            bean = dynaClass.newInstance();
+        } catch (IllegalAccessException e) {
+            throw new IOException("Cannot create DynaBean: " + e);
+        } catch (InstantiationException e) {
+            throw new IOException("Cannot create DynaBean: " + e);
+        }
+        readValues(bean);
+        return (bean);
+
+    }
+
+
+    /**
+     * Read the next bean into an existing bean.  Only the properties of the
+     * schema which the bean has are set.
+     *
+     * @param bean The bean to set the values of
+     * @return <code>true</code> if a bean was read, or <code>false</code>
+     *  if all the beans have been read
+     * @throws IOException if the bean cannot be read
+     */
+    public boolean read(DynaBean bean) throws IOException {
+
+        if (finished || !readMarker()) {
+            return (false);
+        }
+        readValues(bean);
+        return (true);
+
+    }
+
+
+    /**
+     * Close the underlying stream.
+     *
+     * @throws IOException if an error occurs
+     */
+    public void close() throws IOException {
+
+        in.close();
+
+    }
+
+
+    // -------------------------------------------------------- Private Methods
+
+
+    /**
+     * Read the marker preceding a bean or ending the stream.
+     *
+     * @return <code>true</code> if a bean follows
+     */
+    private boolean readMarker() throws IOException {
+
+        byte marker = in.readByte();
+        if (marker == DynaBeanWriter.END) {
+            finished = true;
+            return (false);
+        } else if (marker != DynaBeanWriter.ROW) {
+            throw new StreamCorruptedException("Invalid marker " + marker);
+        }
+        return (true);
+
+    }
+
+
+    /**
+     * Read the values of a bean.
+     *
+     * @param bean The bean to set the values of
+     */
+    private void readValues(DynaBean bean) throws IOException {
+
+        DynaClass beanClass = bean.getDynaClass();
+        if (beanClass != targetClass) {
+            boolean[] present = new boolean[properties.length];
+            for (int i = 0; i < properties.length; i++) {
+                present[i] = (beanClass.getDynaProperty(properties[i].getName()) != null);
+            }
+            targetProperties = present;
+            targetClass = beanClass;
+        }
+        for (int i = 0; i < properties.length; i++) {
+            Object value = BinaryValues.readValue(in);
+            if (targetProperties[i]) {
+                bean.set(properties[i].getName(), value);
+            }
+        }
+
+    }
+
+
+    /**
+     * Load the class with the specified name, which may be a primitive type.
+     *
+     * @param className The class name
+     * @return The class
+     * @throws IOException if the class cannot be loaded
+     */
+    private static Class loadClass(String className) throws IOException {
+
+        if (className.equals("int")) {
+            return (Integer.TYPE);
+        } else if (className.equals("long")) {
+            return (Long.TYPE);
+        } else if (className.equals("double")) {
+            return (Double.TYPE);
+        } else if (className.equals("boolean")) {
+            return (Boolean.TYPE);
+        } else if (className.equals("float")) {
+            return (Float.TYPE);
+        } else if (className.equals("short")) {
+            return (Short.TYPE);
+        } else if (className.equals("byte")) {
+            return (Byte.TYPE);
+        } else if (className.equals("char")) {
+            return (Character.TYPE);
+        }
+        try {
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            if (classLoader == null) {
+                classLoader = DynaBeanReader.class.getClassLoader();
+            }
+            return (Class.forName(className, false, classLoader));
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Cannot load property type " + className);
+        }
+
+    }
+
+
+}
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+
+/**
+ * <p>Writes {@link DynaBean}s of a {@link DynaClass} to a stream in a
+ * compact binary format, which is read back by {@link DynaBeanReader}.</p>
+ *
+ * <p>The stream starts with the schema, written once: the name of the
+ * DynaClass, and the name, type and content type of each of its
+ * properties.  Each bean is then written as the values of its properties
+ * in schema order, each as a type tag followed by the value (strings,
+ * numbers, booleans and dates with their binary representation, length
+ * prefixed if variable, and any other value with Java serialization).
+ * Beans are written one at a time, so any number of beans can be written
+ * without holding them all in memory.</p>
+ *
+ * <pre>
+ *     DynaBeanWriter writer = new DynaBeanWriter(out, dynaClass);
+ *     while (...) {
+ *         writer.write(bean);
+ *     }
+ *     writer.close();
+ * </pre>
+ *
+ * @version $Revision$ $Date$
+ * @since 1.9.0
+ */
+
+public class DynaBeanWriter {
+
+
+    // ----------------------------------------------------- Class Variables
+
+
+    /** The first bytes of a stream, "DYNA" */
+    static final int MAGIC = 0x44594E41;
+
+    /** The version of the stream format */
+    static final short VERSION = 1;
+
+    /** The marker preceding each bean */
+    static final byte ROW = 1;
+
+    /** The marker ending the stream */
+    static final byte END = 0;
+
+
+    // ----------------------------------------------------------- Constructors
+
+
+    /**
+     * Create a writer of beans of the specified DynaClass, and write the
+     * schema of the DynaClass.
+     *
+     * @param out The stream to write to
+     * @param dynaClass The DynaClass of the beans
+     * @throws IOException if the schema cannot be written
+     */
+    public DynaBeanWriter(OutputStream out, DynaClass dynaClass) throws IOException {
+
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.properties = dynaClass.getDynaProperties();
+        this.out.writeInt(MAGIC);
+        this.out.writeShort(VERSION);
+        this.out.writeUTF(dynaClass.getName());
+        this.out.writeInt(properties.length);
+        for (int i = 0; i < properties.length; i++) {
+            DynaProperty property = properties[i];
+            this.out.writeUTF(property.getName());
+            this.out.writeUTF(property.getType().getName());
+            Class contentType = property.getContentType();
+            this.out.writeBoolean(contentType != null);
+            if (contentType != null) {
+                this.out.writeUTF(contentType.getName());
+            }
+        }
+
+    }
+
+
+    // ----------------------------------------------------- Instance Variables
+
+
+    /** The stream we write to */
+    private final DataOutputStream out;
+
+    /** The properties written for each bean */
+    private final DynaProperty[] properties;
+
+    /** The number of beans written */
+    private int count = 0;
+
+    /** Whether the end of the beans has been written */
+    private boolean finished = false;
+
+
+    // --------------------------------------------------------- Public Methods
+
+
+    /**
+     * Write the property values of a bean.
+     *
+     * @param bean The bean, whose DynaClass must have the properties of
+     *  the schema
+     * @throws IOException if the values cannot be written, or a value
+     *  is not serializable
+     * @exception IllegalArgumentException if the bean does not have a
+     *  property of the schema
+     * @exception IllegalStateException if the writer has been finished
+     */
+    public void write(DynaBean bean) throws IOException {
+
+        if (finished) {
+            throw new IllegalStateException("Writer is finished");
+        }
+        out.writeByte(ROW);
+        for (int i = 0; i < properties.length; i++) {
+            BinaryValues.writeValue(out, bean.get(properties[i].getName()));
+        }
+        count++;
+
+    }
+
+
+    /**
+     * Return the number of beans written.
+     *
+     * @return The number of beans
+     */
+    public int getCount() {
+
+        return (count);
+
+    }
+
+
+    /**
+     * Flush the beans written to the underlying stream.
+     *
+     * @throws IOException if an error occurs
+     */
+    public void flush() throws IOException {
+
+        out.flush();
+
+    }
+
+
+    /**
+     * Write the end of the beans and flush the underlying stream, without
+     * closing it.  No beans may be written after this.
+     *
+     * @throws IOException if an error occurs
+     */
+    public void finish() throws IOException {
+
+        if (!finished) {
+            out.writeByte(END);
+            finished = true;
+        }
+        out.flush();
+
+    }
+
+
+    /**
+     * Write the end of the beans and close the underlying stream.
+     *
+     * @throws IOException if an error occurs
+     */
+    public void close() throws IOException {
+
+        finish();
+        out.close();
+
+    }
+
+
+}
@@ -45,7 +45,13 @@ import java.util.Map;
 public class DynaProperty implements Serializable {
 
     // ----------------------------------------------------------- Constants
-    
+
+    /**
+     * The serial version of release 1.8.3, kept so that the properties it
+     * serialized can still be read whichever compiler built this class.
+     */
+    private static final long serialVersionUID = -3084907613499830175L;
+
     /*
      * There are issues with serializing primitive class types on certain JVM versions
      * (including java 1.3).
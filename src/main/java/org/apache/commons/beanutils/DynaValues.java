@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+import java.lang.reflect.Array;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Operations on the values of indexed and mapped dynamic properties,
+ * and the assignment rule for simple ones, shared by the
+ * <code>DynaBean</code> implementations of this package which store their
+ * values themselves ({@link BasicDynaBean}, {@link CompactDynaBean},
+ * {@link RecordDynaBean} and the rows of a {@link ColumnarRowList}).</p>
+ *
+ * <p>Each method receives the current value of the property, and throws
+ * the exceptions specified by the corresponding {@link DynaBean} method
+ * when it is <code>null</code> or of the wrong kind.</p>
+ *
+ * @version $Revision$ $Date$
+ * @since 1.9.0
+ */
+final class DynaValues {
+
+    /**
+     * Not instantiable.
+     */
+    private DynaValues() {
+    }
+
+    /**
+     * Is an object of the source class assignable to the destination class?
+     *
+     * @param dest Destination class
+     * @param source Source class
+     * @return <code>true</code> if the source class is assignable to the
+     * destination class, otherwise <code>false</code>
+     */
+    static boolean isAssignable(Class dest, Class source) {
+
+        if (dest.isAssignableFrom(source) ||
+                ((dest == Boolean.TYPE) && (source == Boolean.class)) ||
+                ((dest == Byte.TYPE) && (source == Byte.class)) ||
+                ((dest == Character.TYPE) && (source == Character.class)) ||
+                ((dest == Double.TYPE) && (source == Double.class)) ||
+                ((dest == Float.TYPE) && (source == Float.class)) ||
+                ((dest == Integer.TYPE) && (source == Integer.class)) ||
+                ((dest == Long.TYPE) && (source == Long.class)) ||
+                ((dest == Short.TYPE) && (source == Short.class))) {
+            return (true);
+        } else {
+            return (false);
+        }
+
+    }
+
+    /**
+     * Does a mapped property value contain a value for the specified key?
+     *
+     * @param name Name of the property
+     * @param key Name of the key to check
+     * @param value The value of the property
+     * @return <code>true<code> if the mapped property contains a value for
+     * the specified key, otherwise <code>false</code>
+     */
+    static boolean contains(String name, String key, Object value) {
+
+        return (toMap(name, key, value).containsKey(key));
+
+    }
+
+    /**
+     * Return an element of an indexed property value.
+     *
+     * @param name Name of the property
+     * @param index Index of the value to be retrieved
+     * @param value The value of the property
+     * @return The indexed property's value
+     */
+    static Object get(String name, int index, Object value) {
+
+        if (value == null) {
+            throw new NullPointerException
+                    ("No indexed value for '" + name + "[" + index + "]'");
+        } else if (value.getClass().isArray()) {
+            return (Array.get(value, index));
+        } else if (value instanceof List) {
+            return ((List) value).get(index);
+        } else {
+            throw new IllegalArgumentException
+                    ("Non-indexed property for '" + name + "[" + index + "]'");
+        }
+
+    }
+
+    /**
+     * Return the value of a mapped property value for the specified key.
+     *
+     * @param name Name of the property
+     * @param key Key of the value to be retrieved
+     * @param value The value of the property
+     * @return The mapped property's value
+     */
+    static Object get(String name, String key, Object value) {
+
+        return (toMap(name, key, value).get(key));
+
+    }
+
+    /**
+     * Remove the value for the specified key from a mapped property value.
+     *
+     * @param name Name of the property
+     * @param key Key of the value to be removed
+     * @param value The value of the property
+     */
+    static void remove(String name, String key, Object value) {
+
+        toMap(name, key, value).remove(key);
+
+    }
+
+    /**
+     * Set an element of an indexed property value.
+     *
+     * @param name Name of the property
+     * @param index Index of the value to be set
+     * @param prop The value of the property
+     * @param value Value to which the element is to be set
+     */
+    static void set(String name, int index, Object prop, Object value) {
+
+        if (prop == null) {
+            throw new NullPointerException
+                    ("No indexed value for '" + name + "[" + index + "]'");
+        } else if (prop.getClass().isArray()) {
+            Array.set(prop, index, value);
+        } else if (prop instanceof List) {
+            try {
+                ((List) prop).set(index, value);
+            } catch (ClassCastException e) {
+                throw new ConversionException(e.getMessage());
+            }
+        } else {
+            throw new IllegalArgumentException
+                    ("Non-indexed property for '" + name + "[" + index + "]'");
+        }
+
+    }
+
+    /**
+     * Set the value for the specified key of a mapped property value.
+     *
+     * @param name Name of the property
+     * @param key Key of the value to be set
+     * @param prop The value of the property
+     * @param value Value to which the entry is to be set
+     */
+    static void set(String name, String key, Object prop, Object value) {
+
+        toMap(name, key, prop).put(key, value);
+
+    }
+
+    /**
+     * Return a mapped property value as a <code>Map</code>.
+     *
+     * @param name Name of the property
+     * @param key The key being accessed, for error messages
+     * @param value The value of the property
+     * @return The value as a <code>Map</code>
+     */
+    private static Map toMap(String name, String key, Object value) {
+
+        if (value == null) {
+            throw new NullPointerException
+                    ("No mapped value for '" + name + "(" + key + ")'");
+        } else if (value instanceof Map) {
+            return ((Map) value);
+        } else {
+            throw new IllegalArgumentException
+                    ("Non-mapped property for '" + name + "(" + key + ")'");
+        }
+
+    }
+
+}
@@ -0,0 +1,320 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+import java.beans.IndexedPropertyDescriptor;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * <p>Lightweight replacement for <code>java.beans.Introspector</code>
+ * which derives the property descriptors of a bean class directly from
+ * its public methods.</p>
+ *
+ * <p>The standard JavaBeans naming rules are applied:</p>
+ * <ul>
+ * <li><code>getXxx()</code> (or <code>isXxx()</code> returning
+ *     <code>boolean</code>) is the read method of property
+ *     <code>xxx</code>.</li>
+ * <li><code>setXxx(value)</code> returning <code>void</code> is its
+ *     write method.</li>
+ * <li><code>getXxx(int)</code> and <code>setXxx(int, value)</code> are
+ *     the indexed read and write methods.</li>
+ * </ul>
+ *
+ * <p>Unlike <code>Introspector</code>, no BeanInfo search is performed,
+ * no event set or method descriptors are built and no global lock is
+ * held, so several classes can be introspected in parallel. Classes
+ * (or superclasses) for which an explicit BeanInfo class exists are not
+ * handled, and must be introspected by <code>Introspector</code> in
+ * order to honour the BeanInfo.</p>
+ *
+ * @version $Revision$ $Date$
+ * @see PropertyUtilsBean#setFastIntrospection(boolean)
+ * @since 1.9.0
+ */
+final class FastIntrospector {
+
+    /** Suffix of explicit BeanInfo class names */
+    private static final String BEAN_INFO_SUFFIX = "BeanInfo";
+
+    // ---------------------------------------------------------- Constructors
+
+    /** Not instantiable */
+    private FastIntrospector() {
+    }
+
+    // --------------------------------------------------------- Public Methods
+
+    /**
+     * Return the property descriptors of the specified class, sorted by
+     * property name.
+     *
+     * @param beanClass Bean class to be introspected
+     * @return The property descriptors, or <code>null</code> if an
+     *  explicit BeanInfo exists for the class or one of its superclasses
+     */
+    static PropertyDescriptor[] getPropertyDescriptors(Class beanClass) {
+
+        if (hasBeanInfo(beanClass)) {
+            return (null);
+        }
+
+        // Sort the accessor methods by property name
+        Map properties = new TreeMap();
+        Method[] methods = beanClass.getMethods();
+        for (int i = 0; i < methods.length; i++) {
+            Method method = methods[i];
+            if (Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            String name = method.getName();
+            Class[] params = method.getParameterTypes();
+            Class returnType = method.getReturnType();
+            if (name.startsWith("get") && name.length() > 3) {
+                if (returnType == Void.TYPE) {
+                    continue;
+                }
+                if (params.length == 0) {
+                    accessors(properties, name.substring(3)).addReadMethod(method);
+                } else if (params.length == 1 && params[0] == Integer.TYPE) {
+                    accessors(properties, name.substring(3)).indexedReadMethod = method;
+                }
+            } else if (name.startsWith("is") && name.length() > 2) {
+                if (params.length == 0 && returnType == Boolean.TYPE) {
+                    accessors(properties, name.substring(2)).booleanReadMethod = method;
+                }
+            } else if (name.startsWith("set") && name.length() > 3) {
+                if (returnType != Void.TYPE) {
+                    continue;
+                }
+                if (params.length == 1) {
+                    accessors(properties, name.substring(3)).addWriteMethod(method);
+                } else if (params.length == 2 && params[0] == Integer.TYPE) {
+                    accessors(properties, name.substring(3)).indexedWriteMethod = method;
+                }
+            }
+        }
+
+        // Build a descriptor for each property
+        PropertyDescriptor[] descriptors = new PropertyDescriptor[properties.size()];
+        int count = 0;
+        Iterator entries = properties.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry entry = (Map.Entry) entries.next();
+            PropertyDescriptor descriptor =
+                ((Accessors) entry.getValue()).toDescriptor((String) entry.getKey());
+            if (descriptor != null) {
+                descriptors[count++] = descriptor;
+            }
+        }
+        if (count < descriptors.length) {
+            PropertyDescriptor[] result = new PropertyDescriptor[count];
+            System.arraycopy(descriptors, 0, result, 0, count);
+            descriptors = result;
+        }
+        return (descriptors);
+
+    }
+
+    // -------------------------------------------------------- Private Methods
+
+    /**
+     * Return the accessors of the property derived from the specified
+     * method name suffix, creating them if necessary.
+     *
+     * @param properties The accessors keyed by property name
+     * @param suffix The method name without its prefix
+     * @return The accessors of the property
+     */
+    private static Accessors accessors(Map properties, String suffix) {
+        String name = Introspector.decapitalize(suffix);
+        Accessors accessors = (Accessors) properties.get(name);
+        if (accessors == null) {
+            accessors = new Accessors();
+            properties.put(name, accessors);
+        }
+        return (accessors);
+    }
+
+    /**
+     * Indicate whether an explicit BeanInfo class exists for the specified
+     * class or one of its superclasses, looking in the package of each
+     * class and in the <code>Introspector</code> BeanInfo search path.
+     *
+     * @param beanClass The bean class
+     * @return <code>true</code> if a BeanInfo class exists
+     */
+    private static boolean hasBeanInfo(Class beanClass) {
+        String[] searchPath = Introspector.getBeanInfoSearchPath();
+        for (Class type = beanClass; type != null && type != Object.class;
+                type = type.getSuperclass()) {
+            ClassLoader loader = type.getClassLoader();
+            String className = type.getName();
+            if (exists(className + BEAN_INFO_SUFFIX, loader)) {
+                return (true);
+            }
+            String shortName = className.substring(className.lastIndexOf('.') + 1);
+            for (int i = 0; searchPath != null && i < searchPath.length; i++) {
+                if (exists(searchPath[i] + "." + shortName + BEAN_INFO_SUFFIX, loader)) {
+                    return (true);
+                }
+            }
+        }
+        return (false);
+    }
+
+    /**
+     * Indicate whether the named class can be loaded.
+     *
+     * @param className The class name
+     * @param loader The class loader, <code>null</code> for the
+     *  bootstrap class loader
+     * @return <code>true</code> if the class exists
+     */
+    private static boolean exists(String className, ClassLoader loader) {
+        try {
+            Class.forName(className, false, loader);
+            return (true);
+        } catch (ClassNotFoundException e) {
+            return (false);
+        } catch (LinkageError e) {
+            return (false);
+        }
+    }
+
+    // -------------------------------------------------------- Private Classes
+
+    /**
+     * The accessor methods found for a single property.
+     */
+    private static class Accessors {
+
+        private Method readMethod;
+        private Method booleanReadMethod;
+        private Method writeMethod;
+        private Method indexedReadMethod;
+        private Method indexedWriteMethod;
+        private Method[] writeMethods;
+
+        /**
+         * Add a read method, keeping the most specific one when a method
+         * is overridden with a covariant return type.
+         *
+         * @param method The read method
+         */
+        void addReadMethod(Method method) {
+            if (readMethod == null
+                    || readMethod.getReturnType().isAssignableFrom(method.getReturnType())) {
+                readMethod = method;
+            }
+        }
+
+        /**
+         * Add a (possibly overloaded) write method.
+         *
+         * @param method The write method
+         */
+        void addWriteMethod(Method method) {
+            if (writeMethod == null) {
+                writeMethod = method;
+            } else {
+                int length = (writeMethods == null ? 0 : writeMethods.length);
+                Method[] methods = new Method[length + 1];
+                if (length > 0) {
+                    System.arraycopy(writeMethods, 0, methods, 0, length);
+                }
+                methods[length] = method;
+                writeMethods = methods;
+            }
+        }
+
+        /**
+         * Build the descriptor of the property.
+         *
+         * @param name The property name
+         * @return The descriptor, or <code>null</code> if the accessor
+         *  methods are inconsistent
+         */
+        PropertyDescriptor toDescriptor(String name) {
+
+            Method read = (booleanReadMethod != null ? booleanReadMethod : readMethod);
+            try {
+
+                // Indexed property
+                if (indexedReadMethod != null || indexedWriteMethod != null) {
+                    Class indexedType = (indexedReadMethod != null
+                            ? indexedReadMethod.getReturnType()
+                            : indexedWriteMethod.getParameterTypes()[1]);
+                    if (indexedReadMethod != null && indexedWriteMethod != null
+                            && indexedWriteMethod.getParameterTypes()[1] != indexedType) {
+                        return (null);
+                    }
+                    Class arrayType = null;
+                    if (read != null && read.getReturnType().isArray()
+                            && read.getReturnType().getComponentType() == indexedType) {
+                        arrayType = read.getReturnType();
+                    } else {
+                        read = null;
+                    }
+                    Method write = (arrayType != null ? findWriteMethod(arrayType) : null);
+                    return (new IndexedPropertyDescriptor(name, read, write,
+                            indexedReadMethod, indexedWriteMethod));
+                }
+
+                // Simple property
+                Method write = (read != null
+                        ? findWriteMethod(read.getReturnType()) : writeMethod);
+                if (read == null && write == null) {
+                    return (null);
+                }
+                return (new PropertyDescriptor(name, read, write));
+
+            } catch (IntrospectionException e) {
+                return (null);
+            }
+
+        }
+
+        /**
+         * Return the write method accepting the specified type.
+         *
+         * @param type The property type
+         * @return The write method, or <code>null</code>
+         */
+        private Method findWriteMethod(Class type) {
+            if (writeMethod != null && writeMethod.getParameterTypes()[0] == type) {
+                return (writeMethod);
+            }
+            for (int i = 0; writeMethods != null && i < writeMethods.length; i++) {
+                if (writeMethods[i].getParameterTypes()[0] == type) {
+                    return (writeMethods[i]);
+                }
+            }
+            return (null);
+        }
+
+    }
+
+}
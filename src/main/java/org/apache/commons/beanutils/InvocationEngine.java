@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+import java.lang.reflect.Method;
+
+/**
+ * <p>Strategy used by {@link PropertyUtilsBean} to turn property getter
+ * and setter methods into {@link MethodInvoker}s.</p>
+ *
+ * <p>Each read and write method of a bean class is bound exactly once,
+ * when the class is introspected, and the resulting invoker is cached
+ * alongside the class's property descriptors. An implementation is
+ * therefore free to do expensive preparation work in {@link #bind(Method)}
+ * (for example generating a dedicated accessor class) in exchange for
+ * cheaper invocations.</p>
+ *
+ * <p>{@link ReflectionInvocationEngine} is the default implementation and
+ * simply delegates to <code>Method.invoke()</code>.</p>
+ *
+ * @version $Revision$ $Date$
+ * @see PropertyUtilsBean#setInvocationEngine(InvocationEngine)
+ * @since 1.9.0
+ */
+public interface InvocationEngine {
+
+    /**
+     * Bind the specified accessible method into an invoker.
+     *
+     * @param method The accessible method to be bound
+     * @return The invoker for the method, or <code>null</code> if this
+     *  engine cannot handle the method (in which case the method will be
+     *  invoked through reflection)
+     */
+    public MethodInvoker bind(Method method);
+
+}
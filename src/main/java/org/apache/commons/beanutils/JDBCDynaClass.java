@@ -18,6 +18,7 @@
 package org.apache.commons.beanutils;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
 import java.sql.Date;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
@@ -40,6 +41,12 @@ abstract class JDBCDynaClass implements DynaClass, Serializable {
 
     // ----------------------------------------------------- Instance Variables
 
+    /**
+     * The serial version of release 1.8.3, kept so that the DynaClasses it
+     * serialized can still be read.
+     */
+    private static final long serialVersionUID = 6336549876689988566L;
+
     /**
      * <p>Flag defining whether column names should be lower cased when
      * converted to property names.</p>
@@ -71,6 +78,35 @@ abstract class JDBCDynaClass implements DynaClass, Serializable {
      */
     private Map columnNameXref;
 
+    /* Typed getters used to fetch column values */
+    private static final byte FETCH_OBJECT = 0;
+    private static final byte FETCH_STRING = 1;
+    private static final byte FETCH_INT = 2;
+    private static final byte FETCH_LONG = 3;
+    private static final byte FETCH_SHORT = 4;
+    private static final byte FETCH_BYTE = 5;
+    private static final byte FETCH_DOUBLE = 6;
+    private static final byte FETCH_FLOAT = 7;
+    private static final byte FETCH_BOOLEAN = 8;
+    private static final byte FETCH_BIG_DECIMAL = 9;
+    private static final byte FETCH_DATE = 10;
+    private static final byte FETCH_TIME = 11;
+    private static final byte FETCH_TIMESTAMP = 12;
+
+    /**
+     * The fetch plan: the (one-relative) column index of each property,
+     * in the order of <code>properties</code>. Created by
+     * <code>introspect()</code>; <code>null</code> after deserialization,
+     * or if <code>getObject(ResultSet, String)</code> is overridden.
+     */
+    private transient int[] columnIndexes;
+
+    /** The typed getter used to fetch each property */
+    private transient byte[] fetchTypes;
+
+    /** The index of each property in <code>properties</code>, keyed by name */
+    private transient Map propertyIndexes;
+
     // ------------------------------------------------------ DynaClass Methods
 
     /**
@@ -239,12 +275,14 @@ abstract class JDBCDynaClass implements DynaClass, Serializable {
 
         // Accumulate an ordered list of DynaProperties
         ArrayList list = new ArrayList();
+        ArrayList columns = new ArrayList();
         ResultSetMetaData metadata = resultSet.getMetaData();
         int n = metadata.getColumnCount();
         for (int i = 1; i <= n; i++) { // JDBC is one-relative!
             DynaProperty dynaProperty = createDynaProperty(metadata, i);
             if (dynaProperty != null) {
                     list.add(dynaProperty);
+                    columns.add(new Integer(i));
             }
         }
 
@@ -255,6 +293,149 @@ abstract class JDBCDynaClass implements DynaClass, Serializable {
             propertiesMap.put(properties[i].getName(), properties[i]);
         }
 
+        // Plan how the value of each property is fetched, unless a
+        // subclass fetches values its own way
+        if (MethodUtils.isOverridden(getClass(), JDBCDynaClass.class, "getObject",
+                new Class[] {ResultSet.class, String.class})) {
+            return;
+        }
+        int[] indexes = new int[properties.length];
+        byte[] types = new byte[properties.length];
+        Map positions = new HashMap();
+        for (int i = 0; i < properties.length; i++) {
+            // A name shared by several columns refers to the first one,
+            // as when values are fetched by name
+            Integer first = (Integer) positions.get(properties[i].getName());
+            if (first == null) {
+                positions.put(properties[i].getName(), new Integer(i));
+                indexes[i] = ((Integer) columns.get(i)).intValue();
+            } else {
+                indexes[i] = indexes[first.intValue()];
+            }
+            types[i] = getFetchType(properties[i].getType());
+        }
+        columnIndexes = indexes;
+        fetchTypes = types;
+        propertyIndexes = positions;
+
+    }
+
+    /**
+     * Return the index of the specified property in the fetch plan.
+     *
+     * @param name The property name
+     * @return The index of the property, or -1 if there is no such
+     *  property or no fetch plan
+     */
+    int getPropertyIndex(String name) {
+
+        Map positions = propertyIndexes;
+        if (positions == null) {
+            return (-1);
+        }
+        Integer index = (Integer) positions.get(name);
+        return (index == null ? -1 : index.intValue());
+
+    }
+
+    /**
+     * Get a column value from a {@link ResultSet} for the property at the
+     * specified index of <code>properties</code>, using the fetch plan
+     * (the column index and a getter for the property type) if there is
+     * one, or {@link #getObject(ResultSet, String)} otherwise.
+     *
+     * @param resultSet The result set
+     * @param index The index of the property
+     * @return The value
+     * @throws SQLException if an error occurs
+     */
+    Object getObject(ResultSet resultSet, int index) throws SQLException {
+
+        int[] indexes = columnIndexes;
+        if (indexes == null) {
+            return (getObject(resultSet, properties[index].getName()));
+        }
+        int column = indexes[index];
+        switch (fetchTypes[index]) {
+            case FETCH_STRING:
+                return (resultSet.getString(column));
+            case FETCH_INT: {
+                int value = resultSet.getInt(column);
+                return (resultSet.wasNull() ? null : PrimitiveValues.valueOf(value));
+            }
+            case FETCH_LONG: {
+                long value = resultSet.getLong(column);
+                return (resultSet.wasNull() ? null : new Long(value));
+            }
+            case FETCH_SHORT: {
+                short value = resultSet.getShort(column);
+                return (resultSet.wasNull() ? null : new Short(value));
+            }
+            case FETCH_BYTE: {
+                byte value = resultSet.getByte(column);
+                return (resultSet.wasNull() ? null : new Byte(value));
+            }
+            case FETCH_DOUBLE: {
+                double value = resultSet.getDouble(column);
+                return (resultSet.wasNull() ? null : new Double(value));
+            }
+            case FETCH_FLOAT: {
+                float value = resultSet.getFloat(column);
+                return (resultSet.wasNull() ? null : new Float(value));
+            }
+            case FETCH_BOOLEAN: {
+                boolean value = resultSet.getBoolean(column);
+                return (resultSet.wasNull() ? null : PrimitiveValues.valueOf(value));
+            }
+            case FETCH_BIG_DECIMAL:
+                return (resultSet.getBigDecimal(column));
+            case FETCH_DATE:
+                return (resultSet.getDate(column));
+            case FETCH_TIME:
+                return (resultSet.getTime(column));
+            case FETCH_TIMESTAMP:
+                return (resultSet.getTimestamp(column));
+            default:
+                return (resultSet.getObject(column));
+        }
+
+    }
+
+    /**
+     * Return the getter used to fetch values of the specified type.
+     *
+     * @param type The property type
+     * @return The fetch type
+     */
+    private static byte getFetchType(Class type) {
+
+        if (type == String.class) {
+            return (FETCH_STRING);
+        } else if (type == Integer.class) {
+            return (FETCH_INT);
+        } else if (type == Long.class) {
+            return (FETCH_LONG);
+        } else if (type == Short.class) {
+            return (FETCH_SHORT);
+        } else if (type == Byte.class) {
+            return (FETCH_BYTE);
+        } else if (type == Double.class) {
+            return (FETCH_DOUBLE);
+        } else if (type == Float.class) {
+            return (FETCH_FLOAT);
+        } else if (type == Boolean.class) {
+            return (FETCH_BOOLEAN);
+        } else if (type == BigDecimal.class) {
+            return (FETCH_BIG_DECIMAL);
+        } else if (type == Date.class) {
+            return (FETCH_DATE);
+        } else if (type == Time.class) {
+            return (FETCH_TIME);
+        } else if (type == Timestamp.class) {
+            return (FETCH_TIMESTAMP);
+        }
+        return (FETCH_OBJECT);
+
     }
 
     /**
@@ -271,6 +452,10 @@ abstract class JDBCDynaClass implements DynaClass, Serializable {
         if (property == null) {
             throw new IllegalArgumentException("Invalid name '" + name + "'");
         }
+        int index = getPropertyIndex(name);
+        if (index >= 0) {
+            return (getObject(resultSet, index));
+        }
         String columnName = getColumnName(name);
         Class type = property.getType();
 
@@ -0,0 +1,529 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.collections.FastHashMap;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * <p>A bounded cache of reflected members (methods or constructors) keyed
+ * by {@link MemberCache.Descriptor}, shared by {@link MethodUtils} and
+ * {@link ConstructorUtils}.</p>
+ *
+ * <p>The cache maps Class -&gt; (Descriptor -&gt; cached member). The outer
+ * map is a {@link WeakClassCache}, so lookups never block and the members
+ * cached for a class are discarded once the class has been garbage
+ * collected. The per-class maps are <code>FastHashMap</code>s in "fast"
+ * mode: they are small, read far more often than they are written and
+ * only copied when a new member of that particular class is cached. All
+ * writes are made while synchronized on the outer map.</p>
+ *
+ * <p>The cache is keyed by Class, so it is safe even when deployed via a
+ * shared classloader: two components that load the same class via
+ * different classloaders end up with different entries. The parameter
+ * types of the descriptors held by the cache are weakly referenced when
+ * they may be unloaded, see {@link Descriptor}.</p>
+ *
+ * <p>When the cache grows beyond its maximum size, the least recently
+ * used members are evicted in a batch, leaving the cache one eighth below
+ * its maximum size (evicting in batches keeps the cost of the scan low).
+ * A cache hit writes no shared state: it stamps the entry found with the
+ * current value of a clock which only advances when a member is cached,
+ * and counts the hit in that entry. The order of use is therefore only
+ * known between cache writes, and the statistics are best effort under
+ * contention, which is good enough for choosing what to evict.</p>
+ *
+ * @version $Revision$ $Date$
+ * @since 1.9.0
+ */
+final class MemberCache {
+
+    /** An empty class array */
+    private static final Class[] EMPTY_CLASS_PARAMETERS = new Class[0];
+
+    /** The name of constructors in the class file format */
+    private static final String CONSTRUCTOR_NAME = "<init>";
+
+    /** The name of this cache, for statistics and logging */
+    private final String name;
+
+    /** Class -&gt; (Descriptor -&gt; Entry) */
+    private final WeakClassCache cache = new WeakClassCache();
+
+    /** The number of cached members, guarded by <code>cache</code> */
+    private int size = 0;
+
+    /** The maximum number of cached members (0 for no limit) */
+    private volatile int maxSize;
+
+    /**
+     * Incremented each time a member is cached, to record when a member was
+     * last used. Written while synchronized on <code>cache</code>, and read
+     * without locking.
+     */
+    private long clock = 0;
+
+    /** The hits of the members no longer cached, guarded by <code>cache</code> */
+    private long retiredHits = 0;
+
+    /** The number of cache misses, updated without locking (best effort) */
+    private long misses = 0;
+
+    /** The number of evicted members, guarded by <code>cache</code> */
+    private long evictions = 0;
+
+    // ----------------------------------------------------------- Constructors
+
+    /**
+     * Construct an empty cache.
+     *
+     * @param name The name of the cache
+     * @param maxSize The maximum number of cached members, or zero
+     *  for an unbounded cache
+     */
+    MemberCache(String name, int maxSize) {
+        this.name = name;
+        this.maxSize = maxSize;
+    }
+
+    // --------------------------------------------------------- Package Methods
+
+    /**
+     * Return the member cached for a descriptor, if present.
+     *
+     * @param descriptor The descriptor
+     * @return The cached member, or <code>null</code>
+     */
+    Object get(Descriptor descriptor) {
+        Map members = (Map) cache.get(descriptor.type);
+        if (members != null) {
+            Entry entry = (Entry) members.get(descriptor);
+            if (entry != null) {
+                long now = clock;
+                if (entry.lastUsed != now) {
+                    entry.lastUsed = now;
+                }
+                entry.hits++;
+                return entry.member;
+            }
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Add a member to the cache, evicting the least recently used members
+     * if the cache grows beyond its maximum size.
+     *
+     * @param descriptor The descriptor used to look up the member
+     * @param member The member to cache, ignored if <code>null</code>
+     */
+    void put(Descriptor descriptor, Object member) {
+        if (member == null) {
+            return;
+        }
+        synchronized (cache) {
+            FastHashMap members = (FastHashMap) cache.get(descriptor.type);
+            if (members == null) {
+                members = new FastHashMap();
+                members.setFast(true);
+                cache.put(descriptor.type, members);
+            }
+            Entry entry = new Entry(member, ++clock);
+            if (members.put(descriptor.toCacheKey(), entry) == null) {
+                size++;
+                if (maxSize > 0 && size > maxSize) {
+                    evict();
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove all cached members and reset the statistics.
+     *
+     * @return The number of members removed
+     */
+    int clear() {
+        synchronized (cache) {
+            int count = 0;
+            Iterator members = cache.values().iterator();
+            while (members.hasNext()) {
+                count += ((Map) members.next()).size();
+            }
+            cache.clear();
+            size = 0;
+            retiredHits = 0;
+            misses = 0;
+            evictions = 0;
+            return count;
+        }
+    }
+
+    /**
+     * Return the maximum number of cached members.
+     *
+     * @return The maximum size, or zero if the cache is unbounded
+     */
+    int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Set the maximum number of cached members, evicting the least
+     * recently used members at once if the cache is larger.
+     *
+     * @param maxSize The maximum size, or zero (or less) for an unbounded cache
+     */
+    void setMaxSize(int maxSize) {
+        synchronized (cache) {
+            this.maxSize = (maxSize < 0 ? 0 : maxSize);
+            if (this.maxSize > 0 && purge() > this.maxSize) {
+                evict();
+            }
+        }
+    }
+
+    /**
+     * Return the statistics of this cache since it was last cleared.
+     *
+     * @return The cache statistics
+     */
+    CacheStatistics getStatistics() {
+        synchronized (cache) {
+            int count = purge();
+            long hits = retiredHits;
+            Iterator maps = cache.values().iterator();
+            while (maps.hasNext()) {
+                Iterator members = ((Map) maps.next()).values().iterator();
+                while (members.hasNext()) {
+                    hits += ((Entry) members.next()).hits;
+                }
+            }
+            return new CacheStatistics(name, count, maxSize, hits, misses, evictions);
+        }
+    }
+
+    // -------------------------------------------------------- Private Methods
+
+    /**
+     * Discard the members cached under descriptors whose parameter types
+     * have been garbage collected, and recompute the size of the cache
+     * from the per-class maps which are still live: the maps of collected
+     * classes (or whose soft references were cleared) disappear without
+     * notice, so the running count drifts upwards. Must be called while
+     * synchronized on <code>cache</code>.
+     *
+     * @return The number of cached members
+     */
+    private int purge() {
+        int count = 0;
+        Iterator entries = cache.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry entry = (Map.Entry) entries.next();
+            Map members = (Map) entry.getValue();
+            FastHashMap survivors = new FastHashMap();
+            Iterator iterator = members.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry member = (Map.Entry) iterator.next();
+                if (!((Descriptor) member.getKey()).isStale()) {
+                    survivors.put(member.getKey(), member.getValue());
+                } else {
+                    retiredHits += ((Entry) member.getValue()).hits;
+                }
+            }
+            if (survivors.size() < members.size()) {
+                if (survivors.isEmpty()) {
+                    cache.remove(entry.getKey());
+                } else {
+                    survivors.setFast(true);
+                    cache.put(entry.getKey(), survivors);
+                }
+                members = survivors;
+            }
+            count += members.size();
+        }
+        size = count;
+        return count;
+    }
+
+    /**
+     * Evict the least recently used members, and those whose descriptors
+     * are stale, so that the cache is left one eighth below its maximum
+     * size. Must be called while synchronized on <code>cache</code>.
+     */
+    private void evict() {
+
+        // Snapshot the per-class maps; the cache cannot be modified
+        // while it is being iterated
+        List classes = new ArrayList();
+        List maps = new ArrayList();
+        int count = 0;
+        Iterator entries = cache.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry entry = (Map.Entry) entries.next();
+            classes.add(entry.getKey());
+            maps.add(entry.getValue());
+            count += ((Map) entry.getValue()).size();
+        }
+
+        // Find the time of last use below which members are evicted
+        int target = maxSize - (maxSize / 8);
+        int excess = count - target;
+        if (excess <= 0) {
+            size = count;
+            return;
+        }
+        long[] lastUsed = new long[count];
+        int index = 0;
+        for (int i = 0; i < maps.size(); i++) {
+            Iterator members = ((Map) maps.get(i)).values().iterator();
+            while (members.hasNext()) {
+                lastUsed[index++] = ((Entry) members.next()).lastUsed;
+            }
+        }
+        Arrays.sort(lastUsed);
+        long threshold = lastUsed[excess - 1];
+
+        // Members used since the same write share their time of last use,
+        // so only evict as many of those at the threshold as needed
+        int ties = excess;
+        while (ties > 0 && lastUsed[excess - ties] < threshold) {
+            ties--;
+        }
+
+        // Replace each class's map by one holding the survivors
+        int evicted = 0;
+        for (int i = 0; i < maps.size(); i++) {
+            Map members = (Map) maps.get(i);
+            FastHashMap survivors = new FastHashMap();
+            Iterator iterator = members.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry entry = (Map.Entry) iterator.next();
+                Entry member = (Entry) entry.getValue();
+                boolean evict = ((Descriptor) entry.getKey()).isStale()
+                        || member.lastUsed < threshold;
+                if (!evict && member.lastUsed == threshold && ties > 0) {
+                    ties--;
+                    evict = true;
+                }
+                if (evict) {
+                    retiredHits += member.hits;
+                    evicted++;
+                } else {
+                    survivors.put(entry.getKey(), member);
+                }
+            }
+            if (survivors.isEmpty()) {
+                cache.remove(classes.get(i));
+            } else if (survivors.size() < members.size()) {
+                survivors.setFast(true);
+                cache.put(classes.get(i), survivors);
+            }
+        }
+        size = count - evicted;
+        evictions += evicted;
+        Log log = LogFactory.getLog(MemberCache.class);
+        if (log.isDebugEnabled()) {
+            log.debug("Evicted " + evicted + " entries from " + name);
+        }
+    }
+
+    // -------------------------------------------------------- Inner Classes
+
+    /**
+     * A member held in the cache, with the time it was last used.
+     */
+    private static final class Entry {
+        private final Object member;
+        private long lastUsed;
+        private long hits;
+
+        private Entry(Object member, long lastUsed) {
+            this.member = member;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    /**
+     * Represents the key to looking up a method or constructor by reflection.
+     * <p>
+     * The descriptors held by the cache are copies made by
+     * {@link #toCacheKey()}, which refer to parameter types that may be
+     * unloaded through weak references. The members cached for
+     * <code>java.lang.Object</code> (say) are held strongly, so a lookup
+     * such as <code>equals(SomeWebappType)</code> would otherwise pin the
+     * class loader of that web application forever. Once such a parameter
+     * type has been collected the descriptor no longer matches anything,
+     * and it is discarded when the cache is next purged or evicted.
+     */
+    static final class Descriptor {
+        private final Class type;
+        private final String name;
+        private final Object[] paramTypes;
+        private final boolean exact;
+        private final int hashCode;
+
+        /**
+         * Construct a descriptor for a method.
+         *
+         * @param type  the class to reflect, must not be null
+         * @param methodName  the method name to obtain
+         * @param paramTypes the array of classes representing the paramater types
+         * @param exact whether the match has to be exact.
+         */
+        Descriptor(Class type, String methodName, Class[] paramTypes, boolean exact) {
+            if (type == null) {
+                throw new IllegalArgumentException("Class cannot be null");
+            }
+            if (methodName == null) {
+                throw new IllegalArgumentException("Method Name cannot be null");
+            }
+            if (paramTypes == null) {
+                paramTypes = EMPTY_CLASS_PARAMETERS;
+            }
+            this.type = type;
+            this.name = methodName;
+            this.paramTypes = paramTypes;
+            this.exact = exact;
+            this.hashCode = methodName.hashCode() * 31 + paramTypes.length;
+        }
+
+        /**
+         * Construct a descriptor for a constructor, which is described
+         * by its name in the class file format.
+         *
+         * @param type  the class to reflect, must not be null
+         * @param paramTypes the array of classes representing the paramater types
+         * @param exact whether the match has to be exact.
+         */
+        Descriptor(Class type, Class[] paramTypes, boolean exact) {
+            this(type, CONSTRUCTOR_NAME, paramTypes, exact);
+        }
+
+        /**
+         * Create a copy of a descriptor with the specified parameter types.
+         *
+         * @param descriptor The descriptor to copy
+         * @param paramTypes The classes, or weak references to them
+         */
+        private Descriptor(Descriptor descriptor, Object[] paramTypes) {
+            this.type = descriptor.type;
+            this.name = descriptor.name;
+            this.paramTypes = paramTypes;
+            this.exact = descriptor.exact;
+            this.hashCode = descriptor.hashCode;
+        }
+
+        /**
+         * Return a copy of this descriptor to be held by the cache, which
+         * refers to parameter types that may be unloaded before BeanUtils
+         * through weak references. The parameter types array is copied
+         * in any case, as callers may modify the array they passed in.
+         *
+         * @return The descriptor to use as a cache key
+         */
+        private Descriptor toCacheKey() {
+            Object[] types = new Object[paramTypes.length];
+            for (int i = 0; i < types.length; i++) {
+                Class type = (Class) paramTypes[i];
+                if (type != null && WeakClassCache.isUnloadable(type)) {
+                    types[i] = new WeakReference(type);
+                } else {
+                    types[i] = type;
+                }
+            }
+            return new Descriptor(this, types);
+        }
+
+        /**
+         * Indicate whether a parameter type of this descriptor has been
+         * garbage collected, so that it can no longer match any lookup.
+         *
+         * @return <code>true</code> if this descriptor is stale
+         */
+        private boolean isStale() {
+            for (int i = 0; i < paramTypes.length; i++) {
+                if (paramTypes[i] instanceof Reference
+                        && ((Reference) paramTypes[i]).get() == null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Checks for equality.
+         * @param obj object to be tested for equality
+         * @return true, if the object describes the same member.
+         */
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Descriptor)) {
+                return false;
+            }
+            Descriptor descriptor = (Descriptor) obj;
+            if (exact != descriptor.exact ||
+                    type != descriptor.type ||
+                    !name.equals(descriptor.name) ||
+                    paramTypes.length != descriptor.paramTypes.length) {
+                return false;
+            }
+            for (int i = 0; i < paramTypes.length; i++) {
+                Object type = paramTypes[i];
+                Object other = descriptor.paramTypes[i];
+                if (type instanceof Reference) {
+                    type = ((Reference) type).get();
+                    if (type == null) {
+                        return false;
+                    }
+                }
+                if (other instanceof Reference) {
+                    other = ((Reference) other).get();
+                    if (other == null) {
+                        return false;
+                    }
+                }
+                if (type != other) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns a hash code combining the method name and the number
+         * of parameters. I.e. if the hashcodes are different, the objects
+         * are different. If the hashcodes are the same, need to use the
+         * equals method to determine equality.
+         * @return the hash code of this descriptor.
+         */
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * <p>A property accessor method that has been bound once by an
+ * {@link InvocationEngine} and can then be invoked repeatedly.</p>
+ *
+ * <p>Instances are cached by {@link PropertyUtilsBean} together with the
+ * property descriptors of a bean class, so implementations must be
+ * thread safe and should do as little work as possible per call.
+ * The two <code>invoke</code> variants cover property getters (no
+ * arguments) and property setters (one argument) without requiring
+ * the caller to allocate an argument array.</p>
+ *
+ * @version $Revision$ $Date$
+ * @see InvocationEngine
+ * @since 1.9.0
+ */
+public interface MethodInvoker {
+
+    /**
+     * Return the accessible <code>Method</code> this invoker was bound to.
+     *
+     * @return The bound method
+     */
+    public Method getMethod();
+
+    /**
+     * Invoke the bound method, which takes no arguments, on the
+     * specified bean.
+     *
+     * @param bean The bean to invoke the method on
+     * @return The value returned by the method
+     *
+     * @exception IllegalAccessException if the method is not accessible
+     * @exception IllegalArgumentException if the bean is not an instance
+     *  of the method's declaring class
+     * @exception InvocationTargetException if the method throws an exception
+     */
+    public Object invoke(Object bean)
+            throws IllegalAccessException, InvocationTargetException;
+
+    /**
+     * Invoke the bound method, which takes a single argument, on the
+     * specified bean.
+     *
+     * @param bean The bean to invoke the method on
+     * @param arg The argument to pass to the method
+     * @return The value returned by the method
+     *
+     * @exception IllegalAccessException if the method is not accessible
+     * @exception IllegalArgumentException if the bean is not an instance
+     *  of the method's declaring class or the argument cannot be converted
+     *  to the parameter type
+     * @exception InvocationTargetException if the method throws an exception
+     */
+    public Object invoke(Object bean, Object arg)
+            throws IllegalAccessException, InvocationTargetException;
+
+}
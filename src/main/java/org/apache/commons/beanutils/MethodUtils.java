@@ -18,14 +18,15 @@
 package org.apache.commons.beanutils;
 
 
-import java.lang.ref.Reference;
-import java.lang.ref.WeakReference;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.WeakHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -87,28 +88,32 @@ public class MethodUtils {
     /** An empty object array */
     private static final Object[] EMPTY_OBJECT_ARRAY = new Object[0];
 
+    /** The default maximum number of cached methods */
+    private static final int DEFAULT_MAX_CACHE_SIZE = 1024;
+
     /**
-     * Stores a cache of MethodDescriptor -> Method in a WeakHashMap.
-     * <p>
-     * The keys into this map only ever exist as temporary variables within
-     * methods of this class, and are never exposed to users of this class.
-     * This means that the WeakHashMap is used only as a mechanism for 
-     * limiting the size of the cache, ie a way to tell the garbage collector
-     * that the contents of the cache can be completely garbage-collected 
-     * whenever it needs the memory. Whether this is a good approach to
-     * this problem is doubtful; something like the commons-collections
-     * LRUMap may be more appropriate (though of course selecting an
-     * appropriate size is an issue).
+     * Stores a cache of the accessible methods found for each lookup,
+     * bounded to the least recently used methods.
      * <p>
      * This static variable is safe even when this code is deployed via a
-     * shared classloader because it is keyed via a MethodDescriptor object
-     * which has a Class as one of its members and that member is used in
-     * the MethodDescriptor.equals method. So two components that load the same
-     * class via different classloaders will generate non-equal MethodDescriptor
-     * objects and hence end up with different entries in the map.
+     * shared classloader because it is keyed by Class. So two components
+     * that load the same class via different classloaders will end up with
+     * different entries in the map.
      */
-    private static final Map cache = Collections.synchronizedMap(new WeakHashMap());
-    
+    private static final MemberCache cache =
+            new MemberCache("MethodCache", DEFAULT_MAX_CACHE_SIZE);
+
+    /**
+     * Stores the overload tables used by
+     * {@link #getMatchingAccessibleMethod(Class, String, Class[])}:
+     * Class -> (method name -> Candidate[][] indexed by parameter count).
+     * <p>
+     * Each table is built once from <code>Class.getMethods()</code> and
+     * never modified afterwards. Tables are not counted against the size
+     * of the method cache; they are discarded with their class.
+     */
+    private static final WeakClassCache overloads = new WeakClassCache();
+
     // --------------------------------------------------------- Public Methods
 
     /**
@@ -132,9 +137,44 @@ public class MethodUtils {
      * @since 1.8.0
      */
     public static synchronized int clearCache() {
-        int size = cache.size();
-        cache.clear();
-        return size;
+        overloads.clear();
+        return cache.clear();
+    }
+
+    /**
+     * Return the maximum number of methods held in the method cache.
+     *
+     * @return The maximum number of cached methods, or zero if
+     * the cache is unbounded
+     * @since 1.9.0
+     */
+    public static int getMaxCacheSize() {
+        return cache.getMaxSize();
+    }
+
+    /**
+     * Set the maximum number of methods held in the method cache. When
+     * the cache grows beyond this size, the least recently used methods
+     * are evicted. The default is 1024.
+     *
+     * @param maxCacheSize The maximum number of cached methods, or zero
+     * (or less) for an unbounded cache
+     * @since 1.9.0
+     */
+    public static void setMaxCacheSize(int maxCacheSize) {
+        cache.setMaxSize(maxCacheSize);
+    }
+
+    /**
+     * Return the statistics of the method cache since it was last cleared.
+     * The counters are maintained without locking, so they may be slightly
+     * low when methods are looked up concurrently.
+     *
+     * @return The cache statistics
+     * @since 1.9.0
+     */
+    public static CacheStatistics getCacheStatistics() {
+        return cache.getStatistics();
     }
     
     /**
@@ -720,7 +760,7 @@ public class MethodUtils {
             Class[] parameterTypes) {
 
         try {
-            MethodDescriptor md = new MethodDescriptor(clazz, methodName, parameterTypes, true);
+            MemberCache.Descriptor md = new MemberCache.Descriptor(clazz, methodName, parameterTypes, true);
             // Check the cache first
             Method method = getCachedMethod(md);
             if (method != null) {
@@ -943,7 +983,7 @@ public class MethodUtils {
         if (log.isTraceEnabled()) {
             log.trace("Matching name=" + methodName + " on " + clazz);
         }
-        MethodDescriptor md = new MethodDescriptor(clazz, methodName, parameterTypes, false);
+        MemberCache.Descriptor md = new MemberCache.Descriptor(clazz, methodName, parameterTypes, false);
         
         // see if we can find the method directly
         // most of the time this works and it's much faster
@@ -954,18 +994,33 @@ public class MethodUtils {
                 return method;
             }
 
-            method = clazz.getMethod(methodName, parameterTypes);
-            if (log.isTraceEnabled()) {
-                log.trace("Found straight match: " + method);
-                log.trace("isPublic:" + Modifier.isPublic(method.getModifiers()));
-            }
-            
-            setMethodAccessible(method); // Default access superclass workaround
+            // the overload table tells whether getMethod() would fail,
+            // which saves creating the exception
+            if (!CACHE_METHODS || hasCandidate(clazz, methodName, parameterTypes)) {
+                method = clazz.getMethod(methodName, parameterTypes);
+                if (log.isTraceEnabled()) {
+                    log.trace("Found straight match: " + method);
+                    log.trace("isPublic:" + Modifier.isPublic(method.getModifiers()));
+                }
 
-            cacheMethod(md, method);
-            return method;
+                setMethodAccessible(method); // Default access superclass workaround
+
+                cacheMethod(md, method);
+                return method;
+            }
             
         } catch (NoSuchMethodException e) { /* SWALLOW */ }
+
+        // search the overload table for the class
+        if (CACHE_METHODS) {
+            Method bestMatch = getMatchingCandidate(clazz, methodName, parameterTypes);
+            if (bestMatch != null) {
+                cacheMethod(md, bestMatch);
+            } else {
+                log.trace("No match found.");
+            }
+            return bestMatch;
+        }
         
         // search through all methods 
         int paramSize = parameterTypes.length;
@@ -1032,6 +1087,139 @@ public class MethodUtils {
         return bestMatch;                                        
     }
 
+    /**
+     * Return the candidates for the specified method name and number of
+     * parameters from the overload table of a class, building the table
+     * the first time the class is seen.
+     *
+     * @param clazz The class
+     * @param methodName The method name
+     * @param paramSize The number of parameters
+     * @return The candidates, or <code>null</code> if there are none
+     */
+    private static Candidate[] getCandidates(Class clazz, String methodName, int paramSize) {
+        Map table = (Map)overloads.get(clazz);
+        if (table == null) {
+            table = createOverloadTable(clazz);
+            Map existing = (Map)overloads.putIfAbsent(clazz, table);
+            if (existing != null) {
+                table = existing;
+            }
+        }
+        Candidate[][] byParamSize = (Candidate[][])table.get(methodName);
+        if (byParamSize == null || paramSize >= byParamSize.length) {
+            return null;
+        }
+        return byParamSize[paramSize];
+    }
+
+    /**
+     * Build the overload table of a class: its public methods grouped
+     * by name and then by number of parameters.
+     *
+     * @param clazz The class
+     * @return Map of method name to Candidate[][] indexed by parameter count
+     */
+    private static Map createOverloadTable(Class clazz) {
+        Method[] methods = clazz.getMethods();
+        Map lists = new HashMap();
+        for (int i = 0; i < methods.length; i++) {
+            List list = (List)lists.get(methods[i].getName());
+            if (list == null) {
+                list = new ArrayList();
+                lists.put(methods[i].getName(), list);
+            }
+            list.add(new Candidate(methods[i]));
+        }
+        Map table = new HashMap();
+        Iterator entries = lists.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry entry = (Map.Entry)entries.next();
+            List list = (List)entry.getValue();
+            int maxParamSize = 0;
+            for (int i = 0; i < list.size(); i++) {
+                maxParamSize = Math.max(maxParamSize, ((Candidate)list.get(i)).params.length);
+            }
+            Candidate[][] byParamSize = new Candidate[maxParamSize + 1][];
+            for (int paramSize = 0; paramSize <= maxParamSize; paramSize++) {
+                List matches = new ArrayList();
+                for (int i = 0; i < list.size(); i++) {
+                    Candidate candidate = (Candidate)list.get(i);
+                    if (candidate.params.length == paramSize) {
+                        matches.add(candidate);
+                    }
+                }
+                if (!matches.isEmpty()) {
+                    byParamSize[paramSize] = (Candidate[])matches.toArray(new Candidate[matches.size()]);
+                }
+            }
+            table.put(entry.getKey(), byParamSize);
+        }
+        return table;
+    }
+
+    /**
+     * Indicate whether the class has a public method with exactly the
+     * specified name and parameter types.
+     *
+     * @param clazz The class
+     * @param methodName The method name
+     * @param parameterTypes The parameter types
+     * @return <code>true</code> if <code>Class.getMethod()</code> will find the method
+     */
+    private static boolean hasCandidate(Class clazz, String methodName, Class[] parameterTypes) {
+        int paramSize = (parameterTypes == null ? 0 : parameterTypes.length);
+        Candidate[] candidates = getCandidates(clazz, methodName, paramSize);
+        if (candidates != null) {
+            for (int i = 0; i < candidates.length; i++) {
+                if (paramSize == 0 || Arrays.equals(candidates[i].params, parameterTypes)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find the accessible method with the lowest transformation cost
+     * among the candidates of the overload table which accept the
+     * specified parameter types.
+     *
+     * @param clazz The class
+     * @param methodName The method name
+     * @param parameterTypes The parameter types
+     * @return The best matching accessible method, or <code>null</code>
+     */
+    private static Method getMatchingCandidate(Class clazz, String methodName, Class[] parameterTypes) {
+        Candidate[] candidates = getCandidates(clazz, methodName, parameterTypes.length);
+        if (candidates == null) {
+            return null;
+        }
+        Method bestMatch = null;
+        float bestMatchCost = Float.MAX_VALUE;
+        for (int i = 0; i < candidates.length; i++) {
+            Class[] params = candidates[i].params;
+            boolean match = true;
+            for (int n = 0; n < params.length; n++) {
+                if (!isAssignmentCompatible(params[n], parameterTypes[n])) {
+                    match = false;
+                    break;
+                }
+            }
+            if (match) {
+                Method method = candidates[i].getAccessibleMethod(clazz);
+                if (method != null) {
+                    float cost = getTotalTransformationCost(parameterTypes, params);
+                    if (cost < bestMatchCost) {
+                        bestMatch = method;
+                        bestMatchCost = cost;
+                    }
+                }
+            }
+        }
+        return bestMatch;
+    }
+
     /**
      * Try to make the method accessible
      * @param method The source arguments
@@ -1264,18 +1452,40 @@ public class MethodUtils {
     }
     
 
+    /**
+     * Indicate whether a method declared by a base class is overridden by
+     * the specified class or one of its superclasses below the base class.
+     *
+     * @param type The class to check
+     * @param base The base class declaring the method
+     * @param name The method name
+     * @param parameterTypes The method parameter types
+     * @return <code>true</code> if the method is overridden, or if this
+     *  cannot be determined
+     */
+    static boolean isOverridden(Class type, Class base, String name, Class[] parameterTypes) {
+        for (; type != null && type != base; type = type.getSuperclass()) {
+            try {
+                type.getDeclaredMethod(name, parameterTypes);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // Not declared by this class
+            } catch (SecurityException e) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Return the method from the cache, if present.
      *
      * @param md The method descriptor
      * @return The cached method
      */
-    private static Method getCachedMethod(MethodDescriptor md) {
+    private static Method getCachedMethod(MemberCache.Descriptor md) {
         if (CACHE_METHODS) {
-            Reference methodRef = (Reference)cache.get(md);
-            if (methodRef != null) {
-                return (Method)methodRef.get();
-            }
+            return (Method)cache.get(md);
         }
         return null;
     }
@@ -1286,77 +1496,44 @@ public class MethodUtils {
      * @param md The method descriptor
      * @param method The method to cache
      */
-    private static void cacheMethod(MethodDescriptor md, Method method) {
+    private static void cacheMethod(MemberCache.Descriptor md, Method method) {
         if (CACHE_METHODS) {
-            if (method != null) {
-                cache.put(md, new WeakReference(method));
-            }
+            cache.put(md, method);
         }
     }
 
     /**
-     * Represents the key to looking up a Method by reflection.
+     * A public method in an overload table, with its parameter types
+     * and (once resolved) its accessible version.
      */
-    private static class MethodDescriptor {
-        private Class cls;
-        private String methodName;
-        private Class[] paramTypes;
-        private boolean exact;
-        private int hashCode;
+    private static final class Candidate {
+        private final Method method;
+        private final Class[] params;
+        private volatile Method accessible;
+        private volatile boolean resolved;
+
+        private Candidate(Method method) {
+            this.method = method;
+            this.params = method.getParameterTypes();
+        }
 
         /**
-         * The sole constructor.
+         * Return the accessible version of the method, resolving it the
+         * first time it is needed.
          *
-         * @param cls  the class to reflect, must not be null
-         * @param methodName  the method name to obtain
-         * @param paramTypes the array of classes representing the paramater types
-         * @param exact whether the match has to be exact.
+         * @param clazz The class whose overload table holds this candidate
+         * @return The accessible method, or <code>null</code> if there is none
          */
-        public MethodDescriptor(Class cls, String methodName, Class[] paramTypes, boolean exact) {
-            if (cls == null) {
-                throw new IllegalArgumentException("Class cannot be null");
-            }
-            if (methodName == null) {
-                throw new IllegalArgumentException("Method Name cannot be null");
-            }
-            if (paramTypes == null) {
-                paramTypes = EMPTY_CLASS_PARAMETERS;
-            }
-
-            this.cls = cls;
-            this.methodName = methodName;
-            this.paramTypes = paramTypes;
-            this.exact= exact;
-
-            this.hashCode = methodName.length();
-        }
-        /**
-         * Checks for equality.
-         * @param obj object to be tested for equality
-         * @return true, if the object describes the same Method.
-         */
-        public boolean equals(Object obj) {
-            if (!(obj instanceof MethodDescriptor)) {
-                return false;
+        private Method getAccessibleMethod(Class clazz) {
+            if (!resolved) {
+                Method method = MethodUtils.getAccessibleMethod(clazz, this.method);
+                if (method != null) {
+                    setMethodAccessible(method); // Default access superclass workaround
+                }
+                accessible = method;
+                resolved = true;
             }
-            MethodDescriptor md = (MethodDescriptor)obj;
-
-            return (
-                exact == md.exact &&
-                methodName.equals(md.methodName) &&
-                cls.equals(md.cls) &&
-                java.util.Arrays.equals(paramTypes, md.paramTypes)
-            );
-        }
-        /**
-         * Returns the string length of method name. I.e. if the
-         * hashcodes are different, the objects are different. If the
-         * hashcodes are the same, need to use the equals method to
-         * determine equality.
-         * @return the string length of method name.
-         */
-        public int hashCode() {
-            return hashCode;
+            return accessible;
         }
     }
 }
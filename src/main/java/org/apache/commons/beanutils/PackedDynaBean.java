@@ -0,0 +1,518 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.beanutils;
+
+
+/**
+ * <p>Implementation of the <code>DynaBean</code> interface which stores
+ * the values of primitive-typed properties unboxed, packed into primitive
+ * arrays: <code>int</code>s for byte, char, short and int properties,
+ * <code>long</code>s, <code>double</code>s for float and double properties,
+ * and a bit set for boolean properties. Values of other properties are
+ * stored as in {@link CompactDynaBean}.</p>
+ *
+ * <p>The primitive accessors of {@link PrimitiveDynaBean} read and write
+ * the packed values without boxing them when the requested type matches
+ * the property type; values are only boxed by the generic
+ * <code>get()</code> methods. DynaClasses with mostly numeric properties
+ * thus need a fraction of the memory of {@link BasicDynaBean}s.</p>
+ *
+ * <p>Like <code>CompactDynaBean</code>, it must be associated with a
+ * {@link BasicDynaClass}:</p>
+ * <pre>
+ *     DynaClass dynaClass = new BasicDynaClass("sample", PackedDynaBean.class, properties);
+ * </pre>
+ *
+ * <p><strong>IMPLEMENTATION NOTE</strong> - Instances of this class that are
+ * accessed from multiple threads simultaneously need to be synchronized.</p>
+ *
+ * @version $Revision$ $Date$
+ * @since 1.9.0
+ */
+
+public class PackedDynaBean extends CompactDynaBean {
+
+
+    // ---------------------------------------------------------- Constructors
+
+
+    /**
+     * Construct a new <code>DynaBean</code> associated with the specified
+     * <code>DynaClass</code> instance.
+     *
+     * @param dynaClass The DynaClass we are associated with, which must
+     *  be a <code>BasicDynaClass</code>
+     *
+     * @exception IllegalArgumentException if the DynaClass is not a
+     *  <code>BasicDynaClass</code>
+     */
+    public PackedDynaBean(DynaClass dynaClass) {
+
+        super(dynaClass);
+        PackedLayout layout = this.dynaClass.getPackedLayout();
+        ints = new int[layout.ints];
+        longs = new long[layout.longs];
+        doubles = new double[layout.doubles];
+        booleans = new int[(layout.booleans + 31) >> 5];
+        this.layout = layout;
+
+    }
+
+
+    // ---------------------------------------------------- Instance Variables
+
+
+    /** The values of byte, char, short and int properties */
+    private int[] ints;
+
+    /** The values of long properties */
+    private long[] longs;
+
+    /** The values of float and double properties */
+    private double[] doubles;
+
+    /** The values of boolean properties, one bit each */
+    private int[] booleans;
+
+    /**
+     * The layout of the primitive values, or <code>null</code> after
+     * deserialization (the layout of the deserialized DynaClass is then
+     * the same).
+     */
+    private transient PackedLayout layout;
+
+
+    // ------------------------------------------------ PrimitiveDynaBean Methods
+
+
+    /**
+     * Return the value of a simple property as a <code>boolean</code>.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception ConversionException if the value is null or not a
+     *  boolean
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public boolean getBoolean(String name) {
+
+        int slot = getSlot(name);
+        PackedLayout layout = getLayout();
+        if (layout.kinds[slot] == PackedLayout.BOOLEAN) {
+            return (getBit(layout.offsets[slot]));
+        }
+        return (PrimitiveValues.toBoolean(name, getValue(slot)));
+
+    }
+
+
+    /**
+     * Return the value of a simple property as an <code>int</code>.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception ConversionException if the value is null or cannot be
+     *  converted to an <code>int</code>
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public int getInt(String name) {
+
+        int slot = getSlot(name);
+        PackedLayout layout = getLayout();
+        switch (layout.kinds[slot]) {
+            case PackedLayout.BYTE:
+            case PackedLayout.CHAR:
+            case PackedLayout.SHORT:
+            case PackedLayout.INT:
+                return (ints[layout.offsets[slot]]);
+            default:
+                return (PrimitiveValues.toInt(name, getValue(slot)));
+        }
+
+    }
+
+
+    /**
+     * Return the value of a simple property as a <code>long</code>.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception ConversionException if the value is null or cannot be
+     *  converted to a <code>long</code>
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public long getLong(String name) {
+
+        int slot = getSlot(name);
+        PackedLayout layout = getLayout();
+        switch (layout.kinds[slot]) {
+            case PackedLayout.BYTE:
+            case PackedLayout.CHAR:
+            case PackedLayout.SHORT:
+            case PackedLayout.INT:
+                return (ints[layout.offsets[slot]]);
+            case PackedLayout.LONG:
+                return (longs[layout.offsets[slot]]);
+            default:
+                return (PrimitiveValues.toLong(name, getValue(slot)));
+        }
+
+    }
+
+
+    /**
+     * Return the value of a simple property as a <code>double</code>.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception ConversionException if the value is null or not a
+     *  number
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public double getDouble(String name) {
+
+        int slot = getSlot(name);
+        PackedLayout layout = getLayout();
+        switch (layout.kinds[slot]) {
+            case PackedLayout.BYTE:
+            case PackedLayout.CHAR:
+            case PackedLayout.SHORT:
+            case PackedLayout.INT:
+                return (ints[layout.offsets[slot]]);
+            case PackedLayout.LONG:
+                return (longs[layout.offsets[slot]]);
+            case PackedLayout.FLOAT:
+            case PackedLayout.DOUBLE:
+                return (doubles[layout.offsets[slot]]);
+            default:
+                return (PrimitiveValues.toDouble(name, getValue(slot)));
+        }
+
+    }
+
+
+    /**
+     * Set the value of a simple property from a <code>boolean</code>.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the property is not boolean
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public void setBoolean(String name, boolean value) {
+
+        int slot = getSlot(name);
+        PackedLayout layout = getLayout();
+        if (layout.kinds[slot] == PackedLayout.BOOLEAN) {
+            setBit(layout.offsets[slot], value);
+        } else {
+            setValue(slot, PrimitiveValues.valueOf(value));
+        }
+
+    }
+
+
+    /**
+     * Set the value of a simple property from an <code>int</code>.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the value cannot be converted
+     *  to the type of the property
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public void setInt(String name, int value) {
+
+        int slot = getSlot(name);
+        PackedLayout layout = getLayout();
+        switch (layout.kinds[slot]) {
+            case PackedLayout.INT:
+                ints[layout.offsets[slot]] = value;
+                break;
+            case PackedLayout.LONG:
+                longs[layout.offsets[slot]] = value;
+                break;
+            case PackedLayout.DOUBLE:
+                doubles[layout.offsets[slot]] = value;
+                break;
+            default:
+                setValue(slot, PrimitiveValues.toValue(name, getDynaProperty(slot).getType(), value));
+        }
+
+    }
+
+
+    /**
+     * Set the value of a simple property from a <code>long</code>.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the value cannot be converted
+     *  to the type of the property
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public void setLong(String name, long value) {
+
+        int slot = getSlot(name);
+        PackedLayout layout = getLayout();
+        if (layout.kinds[slot] == PackedLayout.LONG) {
+            longs[layout.offsets[slot]] = value;
+        } else {
+            setValue(slot, PrimitiveValues.toValue(name, getDynaProperty(slot).getType(), value));
+        }
+
+    }
+
+
+    /**
+     * Set the value of a simple property from a <code>double</code>.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the value cannot be converted
+     *  to the type of the property
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public void setDouble(String name, double value) {
+
+        int slot = getSlot(name);
+        PackedLayout layout = getLayout();
+        if (layout.kinds[slot] == PackedLayout.DOUBLE) {
+            doubles[layout.offsets[slot]] = value;
+        } else {
+            setValue(slot, PrimitiveValues.toValue(name, getDynaProperty(slot).getType(), value));
+        }
+
+    }
+
+
+    // ---------------------------------------------------------- Slot Methods
+
+
+    /**
+     * Return the value of the simple property with the specified slot.
+     * Values of primitive properties are boxed.
+     *
+     * @param slot Slot of the property whose value is to be retrieved,
+     *  as returned by {@link BasicDynaClass#getSlot(String)}
+     * @return The property's value
+     *
+     * @exception IllegalArgumentException if there is no property
+     *  with the specified slot
+     */
+    public Object getValue(int slot) {
+
+        PackedLayout layout = getLayout();
+        if (slot < 0 || slot >= layout.kinds.length) {
+            return (super.getValue(slot));
+        }
+        int offset = layout.offsets[slot];
+        switch (layout.kinds[slot]) {
+            case PackedLayout.BOOLEAN:
+                return (PrimitiveValues.valueOf(getBit(offset)));
+            case PackedLayout.BYTE:
+                return (new Byte((byte) ints[offset]));
+            case PackedLayout.CHAR:
+                return (new Character((char) ints[offset]));
+            case PackedLayout.SHORT:
+                return (new Short((short) ints[offset]));
+            case PackedLayout.INT:
+                return (PrimitiveValues.valueOf(ints[offset]));
+            case PackedLayout.LONG:
+                return (new Long(longs[offset]));
+            case PackedLayout.FLOAT:
+                return (new Float((float) doubles[offset]));
+            case PackedLayout.DOUBLE:
+                return (new Double(doubles[offset]));
+            default:
+                return (super.getValue(slot));
+        }
+
+    }
+
+
+    /**
+     * Set the value of the simple property with the specified slot.
+     * Values of primitive properties are stored unboxed.
+     *
+     * @param slot Slot of the property whose value is to be set,
+     *  as returned by {@link BasicDynaClass#getSlot(String)}
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the specified value cannot be
+     *  converted to the type required for this property
+     * @exception IllegalArgumentException if there is no property
+     *  with the specified slot
+     * @exception NullPointerException if an attempt is made to set a
+     *  primitive property to null
+     */
+    public void setValue(int slot, Object value) {
+
+        PackedLayout layout = getLayout();
+        if (slot < 0 || slot >= layout.kinds.length
+                || layout.kinds[slot] == PackedLayout.OBJECT) {
+            super.setValue(slot, value);
+            return;
+        }
+
+        DynaProperty descriptor = getDynaProperty(slot);
+        if (value == null) {
+            throw new NullPointerException
+                    ("Primitive value for '" + descriptor.getName() + "'");
+        } else if (!isAssignable(descriptor.getType(), value.getClass())) {
+            throw new ConversionException
+                    ("Cannot assign value of type '" +
+                    value.getClass().getName() +
+                    "' to property '" + descriptor.getName() + "' of type '" +
+                    descriptor.getType().getName() + "'");
+        }
+        int offset = layout.offsets[slot];
+        switch (layout.kinds[slot]) {
+            case PackedLayout.BOOLEAN:
+                setBit(offset, ((Boolean) value).booleanValue());
+                break;
+            case PackedLayout.CHAR:
+                ints[offset] = ((Character) value).charValue();
+                break;
+            case PackedLayout.BYTE:
+            case PackedLayout.SHORT:
+            case PackedLayout.INT:
+                ints[offset] = ((Number) value).intValue();
+                break;
+            case PackedLayout.LONG:
+                longs[offset] = ((Number) value).longValue();
+                break;
+            default:
+                doubles[offset] = ((Number) value).doubleValue();
+        }
+
+    }
+
+
+    // -------------------------------------------------------- Private Methods
+
+
+    /**
+     * Return the layout of the primitive values, first moving them to the
+     * current layout of the DynaClass if its slots have changed.
+     *
+     * @return The current layout
+     */
+    private PackedLayout getLayout() {
+
+        PackedLayout current = dynaClass.getPackedLayout();
+        if (layout != current) {
+            if (layout != null) {
+                relayout(current);
+            }
+            layout = current;
+        }
+        return (current);
+
+    }
+
+
+    /**
+     * Move the primitive values from the previous layout to the specified
+     * one. Values of properties that are no longer defined are discarded.
+     *
+     * @param current The new layout
+     */
+    private void relayout(PackedLayout current) {
+
+        int[] oldInts = ints;
+        long[] oldLongs = longs;
+        double[] oldDoubles = doubles;
+        int[] oldBooleans = booleans;
+        ints = new int[current.ints];
+        longs = new long[current.longs];
+        doubles = new double[current.doubles];
+        booleans = new int[(current.booleans + 31) >> 5];
+        int count = Math.min(layout.kinds.length, current.kinds.length);
+        for (int slot = 0; slot < count; slot++) {
+            byte kind = layout.kinds[slot];
+            if (kind == PackedLayout.OBJECT || kind != current.kinds[slot]) {
+                continue;
+            }
+            int from = layout.offsets[slot];
+            int to = current.offsets[slot];
+            switch (kind) {
+                case PackedLayout.BOOLEAN:
+                    setBit(to, (oldBooleans[from >> 5] & (1 << (from & 31))) != 0);
+                    break;
+                case PackedLayout.LONG:
+                    longs[to] = oldLongs[from];
+                    break;
+                case PackedLayout.FLOAT:
+                case PackedLayout.DOUBLE:
+                    doubles[to] = oldDoubles[from];
+                    break;
+                default:
+                    ints[to] = oldInts[from];
+            }
+        }
+
+    }
+
+
+    /**
+     * Return the value of a boolean property.
+     *
+     * @param offset The offset of the property
+     * @return The value
+     */
+    private boolean getBit(int offset) {
+
+        return ((booleans[offset >> 5] & (1 << (offset & 31))) != 0);
+
+    }
+
+
+    /**
+     * Set the value of a boolean property.
+     *
+     * @param offset The offset of the property
+     * @param value The value
+     */
+    private void setBit(int offset, boolean value) {
+
+        if (value) {
+            booleans[offset >> 5] |= (1 << (offset & 31));
+        } else {
+            booleans[offset >> 5] &= ~(1 << (offset & 31));
+        }
+
+    }
+
+
+}
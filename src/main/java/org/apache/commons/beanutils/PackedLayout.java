@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.beanutils;
+
+
+/**
+ * <p>The layout of the primitive property values of the
+ * {@link PackedDynaBean}s of a {@link BasicDynaClass}: the kind of storage
+ * used for the property in each slot, and its offset in the primitive
+ * array of that kind.</p>
+ *
+ * <p>Layouts are immutable; a new layout is created when the slots of
+ * the DynaClass change.</p>
+ *
+ * @version $Revision$ $Date$
+ * @since 1.9.0
+ */
+final class PackedLayout {
+
+    /** Storage kinds */
+    static final byte OBJECT = 0;
+    static final byte BOOLEAN = 1;
+    static final byte BYTE = 2;
+    static final byte CHAR = 3;
+    static final byte SHORT = 4;
+    static final byte INT = 5;
+    static final byte LONG = 6;
+    static final byte FLOAT = 7;
+    static final byte DOUBLE = 8;
+
+    /** The storage kind of each slot */
+    final byte[] kinds;
+
+    /** The offset of each slot in the array of its kind */
+    final int[] offsets;
+
+    /** The number of <code>int</code> values (byte, char, short and int properties) */
+    final int ints;
+
+    /** The number of <code>long</code> values */
+    final int longs;
+
+    /** The number of <code>double</code> values (float and double properties) */
+    final int doubles;
+
+    /** The number of boolean values, packed 32 to an <code>int</code> */
+    final int booleans;
+
+    /**
+     * Create the layout of the specified slots.
+     *
+     * @param dynaClass The DynaClass whose slots are laid out
+     */
+    PackedLayout(BasicDynaClass dynaClass) {
+        int count = dynaClass.getSlotCount();
+        kinds = new byte[count];
+        offsets = new int[count];
+        int ints = 0;
+        int longs = 0;
+        int doubles = 0;
+        int booleans = 0;
+        for (int slot = 0; slot < count; slot++) {
+            DynaProperty descriptor = dynaClass.getDynaProperty(slot);
+            byte kind = (descriptor == null ? OBJECT : kindOf(descriptor.getType()));
+            kinds[slot] = kind;
+            switch (kind) {
+                case BOOLEAN:
+                    offsets[slot] = booleans++;
+                    break;
+                case BYTE:
+                case CHAR:
+                case SHORT:
+                case INT:
+                    offsets[slot] = ints++;
+                    break;
+                case LONG:
+                    offsets[slot] = longs++;
+                    break;
+                case FLOAT:
+                case DOUBLE:
+                    offsets[slot] = doubles++;
+                    break;
+                default:
+                    offsets[slot] = -1;
+            }
+        }
+        this.ints = ints;
+        this.longs = longs;
+        this.doubles = doubles;
+        this.booleans = booleans;
+    }
+
+    /**
+     * Return the storage kind of the specified type.
+     *
+     * @param type The property type
+     * @return The storage kind
+     */
+    private static byte kindOf(Class type) {
+        if (!type.isPrimitive()) {
+            return (OBJECT);
+        } else if (type == Integer.TYPE) {
+            return (INT);
+        } else if (type == Long.TYPE) {
+            return (LONG);
+        } else if (type == Double.TYPE) {
+            return (DOUBLE);
+        } else if (type == Boolean.TYPE) {
+            return (BOOLEAN);
+        } else if (type == Float.TYPE) {
+            return (FLOAT);
+        } else if (type == Short.TYPE) {
+            return (SHORT);
+        } else if (type == Byte.TYPE) {
+            return (BYTE);
+        } else if (type == Character.TYPE) {
+            return (CHAR);
+        }
+        return (OBJECT);
+    }
+
+}
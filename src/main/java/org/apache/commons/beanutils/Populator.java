@@ -0,0 +1,386 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>A compiled form of {@link BeanUtilsBean#populate} for a bean class and
+ * a set of property names.</p>
+ *
+ * <p>Each property name is compiled once into a {@link PropertyPath}. For
+ * names made of simple segments only (e.g. <code>address.city</code>) the
+ * getters used to navigate to the target bean, the setter of the target
+ * property, its type and the converter used for String values are
+ * resolved the first time a bean of a given class is met at each segment,
+ * and reused for as long as the same classes are met again. Any other name,
+ * and any bean which is not a standard JavaBean, is handled by
+ * <code>BeanUtilsBean.setProperty()</code>.</p>
+ *
+ * <p>{@link BeanUtilsBean} caches up to {@link #SLOTS} populators per bean
+ * class, replacing older ones when different sets of names are used.</p>
+ *
+ * @version $Revision$ $Date$
+ * @since 1.9.0
+ */
+final class Populator {
+
+    /** The number of populators cached per bean class, a power of two */
+    static final int SLOTS = 8;
+
+    /** An empty object array */
+    private static final Object[] EMPTY_OBJECT_ARRAY = new Object[0];
+
+    /** Step action: invoke the bound method */
+    private static final int INVOKE = 0;
+
+    /** Step action: the property is read only, skip it */
+    private static final int SKIP = 1;
+
+    /** Step action: use BeanUtilsBean.setProperty() */
+    private static final int GENERAL = 2;
+
+    /** The property names */
+    private final Set names;
+
+    /** The hash code of the property names, see {@link #hash(Map)} */
+    private final int hash;
+
+    /** The compiled properties, keyed by name */
+    private final Map properties;
+
+    // ---------------------------------------------------------- Constructors
+
+    /**
+     * Compile the property names of the specified map.
+     *
+     * @param propertyUtils The PropertyUtilsBean used to compile the names
+     * @param values The property values, keyed by property name
+     * @param hash The hash code of the property names
+     */
+    Populator(PropertyUtilsBean propertyUtils, Map values, int hash) {
+
+        this.names = new HashSet(values.keySet());
+        this.hash = hash;
+        this.properties = new HashMap();
+        Iterator iterator = names.iterator();
+        while (iterator.hasNext()) {
+            Object name = iterator.next();
+            if (name instanceof String) {
+                properties.put(name, new Property(propertyUtils.compile((String) name)));
+            }
+        }
+
+    }
+
+    // -------------------------------------------------------- Package Methods
+
+    /**
+     * Return the hash code of the property names of the specified map.
+     *
+     * @param values The property values, keyed by property name
+     * @return The hash code
+     */
+    static int hash(Map values) {
+
+        int hash = 0;
+        Iterator iterator = values.keySet().iterator();
+        while (iterator.hasNext()) {
+            Object name = iterator.next();
+            if (name != null) {
+                hash += name.hashCode();
+            }
+        }
+        return (hash);
+
+    }
+
+    /**
+     * Indicate whether this populator was compiled for the property names
+     * of the specified map.
+     *
+     * @param values The property values, keyed by property name
+     * @param hash The hash code of the property names
+     * @return <code>true</code> if the names are the same
+     */
+    boolean matches(Map values, int hash) {
+
+        return (this.hash == hash && names.size() == values.size()
+                && names.equals(values.keySet()));
+
+    }
+
+    /**
+     * Populate a bean with the specified property values.
+     *
+     * @param beanUtils The BeanUtilsBean performing the population
+     * @param bean The bean to populate
+     * @param values The property values, keyed by property name
+     *
+     * @exception IllegalAccessException if the caller does not have
+     *  access to the property accessor method
+     * @exception InvocationTargetException if the property accessor method
+     *  throws an exception
+     */
+    void populate(BeanUtilsBean beanUtils, Object bean, Map values)
+        throws IllegalAccessException, InvocationTargetException {
+
+        Iterator entries = values.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry entry = (Map.Entry) entries.next();
+            String name = (String) entry.getKey();
+            if (name == null) {
+                continue;
+            }
+            Property property = (Property) properties.get(name);
+            if (property == null
+                    || !property.set(beanUtils, bean, entry.getValue())) {
+                beanUtils.setProperty(bean, name, entry.getValue());
+            }
+        }
+
+    }
+
+    // -------------------------------------------------------- Private Classes
+
+    /**
+     * A compiled property name.
+     */
+    private static final class Property {
+
+        /** The compiled property name */
+        private final PropertyPath path;
+
+        /** The steps resolved for each segment, null if not simple */
+        private final Step[] steps;
+
+        /**
+         * Create the compiled form of a property name.
+         *
+         * @param path The compiled property name
+         */
+        Property(PropertyPath path) {
+            this.path = path;
+            int size = path.size();
+            boolean simple = true;
+            for (int i = 0; i < size; i++) {
+                if (path.getType(i) != PropertyPath.SIMPLE) {
+                    simple = false;
+                }
+            }
+            this.steps = (simple ? new Step[size] : null);
+        }
+
+        /**
+         * Set the property on the specified bean.
+         *
+         * @param beanUtils The BeanUtilsBean performing the population
+         * @param bean The bean to populate
+         * @param value The property value
+         * @return <code>false</code> if the property must be set through
+         *  <code>BeanUtilsBean.setProperty()</code> instead
+         *
+         * @exception IllegalAccessException if the caller does not have
+         *  access to the property accessor method
+         * @exception InvocationTargetException if the property accessor
+         *  method throws an exception
+         */
+        boolean set(BeanUtilsBean beanUtils, Object bean, Object value)
+            throws IllegalAccessException, InvocationTargetException {
+
+            if (steps == null) {
+                return (false);
+            }
+            PropertyUtilsBean propertyUtils = beanUtils.getPropertyUtils();
+            ConvertUtilsBean convertUtils = beanUtils.getConvertUtils();
+
+            // Navigate to the target bean
+            Object target = bean;
+            int last = steps.length - 1;
+            for (int i = 0; i < last; i++) {
+                Step step = steps[i];
+                if (step == null || step.beanClass != target.getClass()) {
+                    step = readStep(propertyUtils, target, i);
+                    steps[i] = step;
+                }
+                if (step.action != INVOKE) {
+                    return (false);
+                }
+                target = propertyUtils.invokeMethod(step.invoker, target,
+                        EMPTY_OBJECT_ARRAY);
+                if (target == null) {
+                    return (false);
+                }
+            }
+
+            // Resolve the setter of the target property
+            Step step = steps[last];
+            if (step == null || step.beanClass != target.getClass()
+                    || step.modCount != convertUtils.getModCount()) {
+                step = writeStep(beanUtils, target, last);
+                steps[last] = step;
+            }
+            if (step.action == SKIP) {
+                return (true);
+            } else if (step.action != INVOKE) {
+                return (false);
+            }
+
+            // Convert the value and invoke the setter
+            Object newValue;
+            if (value instanceof String) {
+                newValue = step.convert(convertUtils, (String) value);
+            } else if (value instanceof String[]) {
+                newValue = step.convert(convertUtils, ((String[]) value)[0]);
+            } else {
+                newValue = beanUtils.convert(value, step.type);
+            }
+            propertyUtils.invokeSetter(step.invoker, target, newValue);
+            return (true);
+
+        }
+
+        /**
+         * Resolve the getter used to navigate a segment from a bean.
+         *
+         * @param propertyUtils The PropertyUtilsBean in use
+         * @param bean The bean the segment is read from
+         * @param segment The segment index
+         * @return The step
+         */
+        private Step readStep(PropertyUtilsBean propertyUtils, Object bean,
+                              int segment) {
+            Class beanClass = bean.getClass();
+            if (bean instanceof DynaBean || bean instanceof Map) {
+                return (new Step(beanClass, GENERAL, null, null, null, 0));
+            }
+            MethodInvoker invoker = propertyUtils.getIntrospectionData(beanClass)
+                    .getReadInvoker(path.getToken(segment));
+            return (new Step(beanClass, invoker == null ? GENERAL : INVOKE,
+                    invoker, null, null, 0));
+        }
+
+        /**
+         * Resolve the setter, type and converter of the target property.
+         *
+         * @param beanUtils The BeanUtilsBean performing the population
+         * @param bean The target bean
+         * @param segment The segment index
+         * @return The step
+         */
+        private Step writeStep(BeanUtilsBean beanUtils, Object bean,
+                               int segment) {
+            Class beanClass = bean.getClass();
+            ConvertUtilsBean convertUtils = beanUtils.getConvertUtils();
+            int modCount = convertUtils.getModCount();
+            if (bean instanceof DynaBean || bean instanceof Map) {
+                return (new Step(beanClass, GENERAL, null, null, null, modCount));
+            }
+            String name = path.getToken(segment);
+            BeanIntrospectionData data =
+                    beanUtils.getPropertyUtils().getIntrospectionData(beanClass);
+            PropertyDescriptor descriptor = data.getDescriptor(name);
+            if (descriptor == null) {
+                return (new Step(beanClass, GENERAL, null, null, null, modCount));
+            }
+            if (descriptor.getWriteMethod() == null) {
+                return (new Step(beanClass, SKIP, null, null, null, modCount));
+            }
+            Class type = descriptor.getPropertyType();
+            MethodInvoker invoker = data.getWriteInvoker(name);
+            if (type == null || type.isArray() || invoker == null) {
+                return (new Step(beanClass, GENERAL, null, null, null, modCount));
+            }
+            Converter converter = null;
+            if (!convertUtils.isStringConversionOverridden()) {
+                converter = convertUtils.lookup(type);
+                if (converter == null) {
+                    converter = convertUtils.lookup(String.class);
+                }
+            }
+            return (new Step(beanClass, INVOKE, invoker, type, converter, modCount));
+        }
+
+    }
+
+    /**
+     * A segment of a compiled property name, resolved for a bean class.
+     */
+    private static final class Step {
+
+        /** The class of the bean the segment applies to */
+        private final Class beanClass;
+
+        /** The action to perform */
+        private final int action;
+
+        /** The bound getter, or setter for the last segment */
+        private final MethodInvoker invoker;
+
+        /** The type of the target property */
+        private final Class type;
+
+        /** The converter for String values, null to use ConvertUtilsBean */
+        private final Converter converter;
+
+        /** The converter modification count the step was resolved at */
+        private final int modCount;
+
+        /**
+         * Create a resolved step.
+         *
+         * @param beanClass The class of the bean the segment applies to
+         * @param action The action to perform
+         * @param invoker The bound method
+         * @param type The type of the target property
+         * @param converter The converter for String values
+         * @param modCount The converter modification count
+         */
+        Step(Class beanClass, int action, MethodInvoker invoker, Class type,
+             Converter converter, int modCount) {
+            this.beanClass = beanClass;
+            this.action = action;
+            this.invoker = invoker;
+            this.type = type;
+            this.converter = converter;
+            this.modCount = modCount;
+        }
+
+        /**
+         * Convert a String value to the type of the target property.
+         *
+         * @param convertUtils The ConvertUtilsBean in use
+         * @param value The value to convert
+         * @return The converted value
+         */
+        Object convert(ConvertUtilsBean convertUtils, String value) {
+            if (converter == null) {
+                return (convertUtils.convert(value, type));
+            }
+            return (converter.convert(type, value));
+        }
+
+    }
+
+}
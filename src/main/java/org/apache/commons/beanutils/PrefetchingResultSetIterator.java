@@ -0,0 +1,351 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.commons.beanutils;
+
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+
+/**
+ * <p>Implementation of <code>java.util.Iterator</code> returned by the
+ * <code>prefetchIterator()</code> method of {@link ResultSetDynaClass}.
+ * A background thread reads the rows of the result set and copies them
+ * into {@link BasicDynaBean} instances, which are queued in a bounded
+ * buffer while the caller consumes them, so that fetching the next rows
+ * overlaps with processing the current one.</p>
+ *
+ * <p>The producer thread stops reading when the buffer is full, until the
+ * caller has consumed a row.  Once started, the result set must not be used
+ * by any other thread until the iteration is complete or {@link #close()}
+ * has been called.  A caller that does not consume all the rows must call
+ * {@link #close()} to stop the producer thread.  If the iterator was
+ * created to close the result set, the producer thread closes it when the
+ * last row has been read, when an error occurs, or when the iteration is
+ * closed.</p>
+ *
+ * <p>An exception or error thrown while reading the result set is reported
+ * by <code>hasNext()</code> or <code>next()</code> once the rows read before
+ * it have been consumed.  Errors are rethrown as they are.</p>
+ *
+ * @version $Revision$ $Date$
+ * @since 1.9.0
+ */
+
+public class PrefetchingResultSetIterator implements Iterator {
+
+
+    // ------------------------------------------------------------ Constructor
+
+
+    /**
+     * <p>Construct an <code>Iterator</code> for the result set being wrapped
+     * by the specified {@link ResultSetDynaClass}.  The producer thread is
+     * started by {@link #start()}.</p>
+     *
+     * @param dynaClass The {@link ResultSetDynaClass} wrapping the
+     *  result set we will iterate over
+     * @param capacity The maximum number of rows read ahead
+     * @param closeResultSet Should the result set be closed when the
+     *  iteration ends?
+     *
+     * @exception IllegalArgumentException if <code>capacity</code>
+     *  is not positive
+     */
+    PrefetchingResultSetIterator(ResultSetDynaClass dynaClass, int capacity,
+                                 boolean closeResultSet) {
+
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity);
+        }
+        this.dynaClass = dynaClass;
+        this.buffer = new DynaBean[capacity];
+        this.closeResultSet = closeResultSet;
+
+    }
+
+
+    // ----------------------------------------------------- Instance Variables
+
+
+    /**
+     * <p>The rows read ahead, as a ring buffer starting at
+     * <code>head</code>.</p>
+     */
+    private final DynaBean[] buffer;
+
+
+    /**
+     * <p>Flag indicating whether the iteration has been closed.</p>
+     */
+    private boolean closed = false;
+
+
+    /**
+     * <p>Flag indicating whether the result set is closed when the
+     * iteration ends.</p>
+     */
+    private final boolean closeResultSet;
+
+
+    /**
+     * <p>The number of rows in the buffer.</p>
+     */
+    private int count = 0;
+
+
+    /**
+     * <p>The {@link ResultSetDynaClass} we are associated with.</p>
+     */
+    private final ResultSetDynaClass dynaClass;
+
+
+    /**
+     * <p>The exception or error thrown while reading the result set,
+     * if any.</p>
+     */
+    private Throwable failure = null;
+
+
+    /**
+     * <p>Flag indicating whether the producer thread has stopped reading
+     * the result set.</p>
+     */
+    private boolean finished = false;
+
+
+    /**
+     * <p>The index in the buffer of the next row to be returned.</p>
+     */
+    private int head = 0;
+
+
+    /**
+     * <p>The monitor guarding the state shared with the producer
+     * thread.</p>
+     */
+    private final Object lock = new Object();
+
+
+    // ------------------------------------------------------- Iterator Methods
+
+
+    /**
+     * <p>Return <code>true</code> if the iteration has more elements,
+     * waiting for the producer thread to read the next row if
+     * necessary.</p>
+     *
+     * @return <code>true</code> if the result set has another
+     * row, otherwise <code>false</code>
+     */
+    public boolean hasNext() {
+
+        synchronized (lock) {
+            await("hasNext()");
+            if (count > 0) {
+                return (true);
+            }
+            if (failure != null && !closed) {
+                Throwable e = failure;
+                failure = null;
+                throw failed("hasNext()", e);
+            }
+            return (false);
+        }
+
+    }
+
+
+    /**
+     * <p>Return the next element in the iteration.</p>
+     *
+     * @return A {@link DynaBean} holding the values of the next row
+     */
+    public Object next() {
+
+        synchronized (lock) {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            DynaBean row = buffer[head];
+            buffer[head] = null;
+            head = (head + 1) % buffer.length;
+            count--;
+            lock.notifyAll();
+            return (row);
+        }
+
+    }
+
+
+    /**
+     * <p>Remove the current element from the iteration.  This method is
+     * not supported.</p>
+     */
+    public void remove() {
+
+        throw new UnsupportedOperationException("remove()");
+
+    }
+
+
+    // --------------------------------------------------------- Public Methods
+
+
+    /**
+     * <p>Stop the iteration, discarding any rows read ahead.  This method
+     * waits for the producer thread to stop using the result set (and to
+     * close it, if requested).  Calling it more than once has no
+     * effect.</p>
+     */
+    public void close() {
+
+        synchronized (lock) {
+            closed = true;
+            for (int i = 0; i < buffer.length; i++) {
+                buffer[i] = null;
+            }
+            count = 0;
+            lock.notifyAll();
+            await("close()");
+        }
+
+    }
+
+
+    // ------------------------------------------------------ Package Methods
+
+
+    /**
+     * <p>Start the producer thread.</p>
+     */
+    void start() {
+
+        Thread producer = new Thread(new Runnable() {
+            public void run() {
+                produce();
+            }
+        }, "ResultSetPrefetch");
+        producer.setDaemon(true);
+        producer.start();
+
+    }
+
+
+    // -------------------------------------------------------- Private Methods
+
+
+    /**
+     * <p>Wait until there is a row in the buffer, or the producer thread has
+     * finished.  Must be called holding <code>lock</code>.</p>
+     *
+     * @param method The method waiting, for error messages
+     */
+    private void await(String method) {
+
+        while (count == 0 && !finished) {
+            try {
+                lock.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(method + ":  interrupted");
+            }
+        }
+
+    }
+
+
+    /**
+     * <p>Wrap an exception thrown by the producer thread.  Errors are
+     * rethrown as they are.</p>
+     */
+    private static RuntimeException failed(String method, Throwable e) {
+
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        if (e instanceof SQLException) {
+            return (new RuntimeException(method + ":  SQLException:  " + e));
+        }
+        return ((RuntimeException) e);
+
+    }
+
+
+    /**
+     * <p>Read the rows of the result set into the buffer, until the last
+     * row has been read or the iteration is closed.  Runs on the producer
+     * thread.</p>
+     */
+    private void produce() {
+
+        DynaProperty[] properties = dynaClass.getDynaProperties();
+        Throwable error = null;
+        try {
+            while (true) {
+                synchronized (lock) {
+                    while (count == buffer.length && !closed) {
+                        lock.wait();
+                    }
+                    if (closed) {
+                        break;
+                    }
+                }
+                if (!dynaClass.getResultSet().next()) {
+                    break;
+                }
+                DynaBean row = new BasicDynaBean(dynaClass);
+                for (int i = 0; i < properties.length; i++) {
+                    row.set(properties[i].getName(), dynaClass.fetchObject(i));
+                }
+                synchronized (lock) {
+                    if (closed) {
+                        break;
+                    }
+                    buffer[(head + count) % buffer.length] = row;
+                    count++;
+                    lock.notifyAll();
+                }
+            }
+        } catch (InterruptedException e) {
+            // Stop reading
+        } catch (Throwable e) {
+            error = e;
+        } finally {
+            if (closeResultSet) {
+                try {
+                    dynaClass.getResultSet().close();
+                } catch (SQLException e) {
+                    if (error == null) {
+                        error = e;
+                    }
+                }
+            }
+            synchronized (lock) {
+                failure = error;
+                finished = true;
+                lock.notifyAll();
+            }
+        }
+
+    }
+
+
+}
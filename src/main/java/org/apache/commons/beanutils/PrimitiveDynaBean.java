@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+
+/**
+ * <p>A {@link DynaBean} whose simple properties can be read and written
+ * as primitive values, without boxing them where the implementation
+ * stores them unboxed.</p>
+ *
+ * <p>Values are converted when the type of the property differs from the
+ * requested primitive type: numeric values are widened, or narrowed when
+ * no information is lost.</p>
+ *
+ * @version $Revision$ $Date$
+ * @see PropertyUtilsBean#getIntProperty(Object, String)
+ * @since 1.9.0
+ */
+
+public interface PrimitiveDynaBean extends DynaBean {
+
+
+    /**
+     * Return the value of a simple property as a <code>boolean</code>.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception ConversionException if the value is null or not a
+     *  boolean
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public boolean getBoolean(String name);
+
+
+    /**
+     * Return the value of a simple property as an <code>int</code>.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception ConversionException if the value is null or cannot be
+     *  converted to an <code>int</code>
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public int getInt(String name);
+
+
+    /**
+     * Return the value of a simple property as a <code>long</code>.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception ConversionException if the value is null or cannot be
+     *  converted to a <code>long</code>
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public long getLong(String name);
+
+
+    /**
+     * Return the value of a simple property as a <code>double</code>.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception ConversionException if the value is null or not a
+     *  number
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public double getDouble(String name);
+
+
+    /**
+     * Set the value of a simple property from a <code>boolean</code>.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the property is not boolean
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public void setBoolean(String name, boolean value);
+
+
+    /**
+     * Set the value of a simple property from an <code>int</code>.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the value cannot be converted
+     *  to the type of the property
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public void setInt(String name, int value);
+
+
+    /**
+     * Set the value of a simple property from a <code>long</code>.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the value cannot be converted
+     *  to the type of the property
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public void setLong(String name, long value);
+
+
+    /**
+     * Set the value of a simple property from a <code>double</code>.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the value cannot be converted
+     *  to the type of the property
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public void setDouble(String name, double value);
+
+
+}
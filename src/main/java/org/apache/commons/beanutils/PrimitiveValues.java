@@ -0,0 +1,299 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * <p>Conversions between primitive values and property values, shared by
+ * the primitive-typed property accessors of {@link PropertyUtilsBean} and
+ * the {@link PrimitiveDynaBean} implementations.</p>
+ *
+ * <p>Narrowing to an integral type is only performed when no information
+ * is lost; a {@link ConversionException} is thrown otherwise.</p>
+ *
+ * @version $Revision$ $Date$
+ * @since 1.9.0
+ */
+final class PrimitiveValues {
+
+    /** <code>Long.MIN_VALUE</code> as a double (exactly -2^63) */
+    private static final double LONG_MIN = -9.223372036854775808E18;
+
+    /** Lowest cached Integer value */
+    private static final int CACHE_LOW = -128;
+
+    /** Highest cached Integer value */
+    private static final int CACHE_HIGH = 1023;
+
+    /** Cached Integer instances, so common values are boxed without allocation */
+    private static final Integer[] INTEGERS = new Integer[CACHE_HIGH - CACHE_LOW + 1];
+
+    static {
+        for (int i = 0; i < INTEGERS.length; i++) {
+            INTEGERS[i] = new Integer(i + CACHE_LOW);
+        }
+    }
+
+    /** Not instantiable */
+    private PrimitiveValues() {
+    }
+
+    // --------------------------------------------------------- Boxing
+
+    /**
+     * Box an <code>int</code> value, reusing cached instances for small
+     * values.
+     *
+     * @param value The value
+     * @return The boxed value
+     */
+    static Integer valueOf(int value) {
+        if (value >= CACHE_LOW && value <= CACHE_HIGH) {
+            return (INTEGERS[value - CACHE_LOW]);
+        }
+        return (new Integer(value));
+    }
+
+    /**
+     * Box a <code>boolean</code> value.
+     *
+     * @param value The value
+     * @return The boxed value
+     */
+    static Boolean valueOf(boolean value) {
+        return (value ? Boolean.TRUE : Boolean.FALSE);
+    }
+
+    // --------------------------------------------------------- Property values to primitives
+
+    /**
+     * Return a property value as a number.
+     *
+     * @param name The property name, for error messages
+     * @param value The property value
+     * @return The value as a number
+     * @exception ConversionException if the value is null or not a number
+     */
+    static Number toNumber(String name, Object value) {
+        if (value instanceof Number) {
+            return ((Number) value);
+        } else if (value instanceof Character) {
+            return (valueOf(((Character) value).charValue()));
+        } else if (value == null) {
+            throw new ConversionException
+                    ("Null value for numeric property '" + name + "'");
+        }
+        throw new ConversionException
+                ("Cannot convert value of type '" + value.getClass().getName()
+                + "' of property '" + name + "' to a number");
+    }
+
+    /**
+     * Return a property value as an <code>int</code>.
+     *
+     * @param name The property name, for error messages
+     * @param value The property value
+     * @return The value as an <code>int</code>
+     * @exception ConversionException if the value cannot be converted
+     *  without loss
+     */
+    static int toInt(String name, Object value) {
+        if (value instanceof Integer) {
+            return (((Integer) value).intValue());
+        }
+        Number number = toNumber(name, value);
+        long result = toLong(name, number);
+        if (result < Integer.MIN_VALUE || result > Integer.MAX_VALUE) {
+            throw outOfRange(name, number, Integer.TYPE);
+        }
+        return ((int) result);
+    }
+
+    /**
+     * Return a property value as a <code>long</code>.
+     *
+     * @param name The property name, for error messages
+     * @param value The property value
+     * @return The value as a <code>long</code>
+     * @exception ConversionException if the value cannot be converted
+     *  without loss
+     */
+    static long toLong(String name, Object value) {
+        Number number = toNumber(name, value);
+        if (number instanceof BigDecimal) {
+            BigInteger integer;
+            try {
+                integer = ((BigDecimal) number).setScale(0, BigDecimal.ROUND_UNNECESSARY)
+                        .toBigInteger();
+            } catch (ArithmeticException e) {
+                throw outOfRange(name, number, Long.TYPE);
+            }
+            return (toLong(name, integer));
+        } else if (number instanceof BigInteger) {
+            if (((BigInteger) number).bitLength() >= 64) {
+                throw outOfRange(name, number, Long.TYPE);
+            }
+        } else if (number instanceof Double || number instanceof Float) {
+            double d = number.doubleValue();
+            if (d < LONG_MIN || d >= -LONG_MIN || d != (long) d) {
+                throw outOfRange(name, number, Long.TYPE);
+            }
+        }
+        return (number.longValue());
+    }
+
+    /**
+     * Return a property value as a <code>double</code>.
+     *
+     * @param name The property name, for error messages
+     * @param value The property value
+     * @return The value as a <code>double</code>
+     * @exception ConversionException if the value is not a number
+     */
+    static double toDouble(String name, Object value) {
+        return (toNumber(name, value).doubleValue());
+    }
+
+    /**
+     * Return a property value as a <code>boolean</code>.
+     *
+     * @param name The property name, for error messages
+     * @param value The property value
+     * @return The value as a <code>boolean</code>
+     * @exception ConversionException if the value is not a Boolean
+     */
+    static boolean toBoolean(String name, Object value) {
+        if (value instanceof Boolean) {
+            return (((Boolean) value).booleanValue());
+        } else if (value == null) {
+            throw new ConversionException
+                    ("Null value for boolean property '" + name + "'");
+        }
+        throw new ConversionException
+                ("Cannot convert value of type '" + value.getClass().getName()
+                + "' of property '" + name + "' to a boolean");
+    }
+
+    // --------------------------------------------------------- Primitives to property values
+
+    /**
+     * Box a <code>long</code> value as the specified property type.
+     *
+     * @param name The property name, for error messages
+     * @param type The property type, or <code>null</code> if unknown
+     * @param value The value
+     * @return The boxed value
+     * @exception ConversionException if the value cannot be represented
+     *  by the property type
+     */
+    static Object toValue(String name, Class type, long value) {
+        if (type == Integer.TYPE || type == Integer.class) {
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                throw outOfRange(name, new Long(value), type);
+            }
+            return (valueOf((int) value));
+        } else if (type == Long.TYPE || type == Long.class || type == null) {
+            return (new Long(value));
+        } else if (type == Short.TYPE || type == Short.class) {
+            if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+                throw outOfRange(name, new Long(value), type);
+            }
+            return (new Short((short) value));
+        } else if (type == Byte.TYPE || type == Byte.class) {
+            if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+                throw outOfRange(name, new Long(value), type);
+            }
+            return (new Byte((byte) value));
+        } else if (type == Double.TYPE || type == Double.class) {
+            return (new Double(value));
+        } else if (type == Float.TYPE || type == Float.class) {
+            return (new Float(value));
+        }
+        return (new Long(value));
+    }
+
+    /**
+     * Box an <code>int</code> value as the specified property type.
+     *
+     * @param name The property name, for error messages
+     * @param type The property type, or <code>null</code> if unknown
+     * @param value The value
+     * @return The boxed value
+     * @exception ConversionException if the value cannot be represented
+     *  by the property type
+     */
+    static Object toValue(String name, Class type, int value) {
+        if (type == Integer.TYPE || type == Integer.class || type == null) {
+            return (valueOf(value));
+        } else if (type == Long.TYPE || type == Long.class
+                || type == Short.TYPE || type == Short.class
+                || type == Byte.TYPE || type == Byte.class
+                || type == Double.TYPE || type == Double.class
+                || type == Float.TYPE || type == Float.class) {
+            return (toValue(name, type, (long) value));
+        }
+        return (valueOf(value));
+    }
+
+    /**
+     * Box a <code>double</code> value as the specified property type.
+     *
+     * @param name The property name, for error messages
+     * @param type The property type, or <code>null</code> if unknown
+     * @param value The value
+     * @return The boxed value
+     * @exception ConversionException if the value cannot be represented
+     *  by the property type
+     */
+    static Object toValue(String name, Class type, double value) {
+        if (type == Double.TYPE || type == Double.class || type == null) {
+            return (new Double(value));
+        } else if (type == Float.TYPE || type == Float.class) {
+            return (new Float((float) value));
+        } else if (type == Integer.TYPE || type == Integer.class
+                || type == Long.TYPE || type == Long.class
+                || type == Short.TYPE || type == Short.class
+                || type == Byte.TYPE || type == Byte.class) {
+            long result = (long) value;
+            if (result != value) {
+                throw outOfRange(name, new Double(value), type);
+            }
+            return (toValue(name, type, result));
+        }
+        return (new Double(value));
+    }
+
+    // --------------------------------------------------------- Private Methods
+
+    /**
+     * Create the exception thrown when a value cannot be converted
+     * without loss.
+     *
+     * @param name The property name
+     * @param value The value
+     * @param type The target type
+     * @return The exception
+     */
+    private static ConversionException outOfRange(String name, Number value, Class type) {
+        return new ConversionException("Value " + value + " of property '"
+                + name + "' cannot be converted to " + type.getName());
+    }
+
+}
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.beanutils.expression.Resolver;
+
+/**
+ * <p>A property name expression (such as
+ * <code>order.lines[3].attrs(color)</code>) which has been parsed once
+ * into its individual <i>simple</i>, <i>indexed</i> and <i>mapped</i>
+ * segments, so that it can be evaluated repeatedly against different
+ * beans without being parsed again.</p>
+ *
+ * <p>Instances are created by {@link PropertyUtilsBean#compile(String)},
+ * using that instance's {@link Resolver}, and are evaluated with
+ * {@link PropertyUtilsBean#getPathProperty(Object, PropertyPath)} and
+ * {@link PropertyUtilsBean#setPathProperty(Object, PropertyPath, Object)}.
+ * A <code>PropertyPath</code> is immutable and can be shared between
+ * threads.</p>
+ *
+ * <p>Segments with an invalid index or key are not rejected when the path
+ * is compiled; they are reported when the path is evaluated, in the same
+ * way as by the String based methods of {@link PropertyUtilsBean}.</p>
+ *
+ * @version $Revision$ $Date$
+ * @see PropertyUtilsBean#compile(String)
+ * @since 1.9.0
+ */
+public final class PropertyPath {
+
+    /** Segment type of a simple property */
+    static final int SIMPLE = 0;
+
+    /** Segment type of an indexed property */
+    static final int INDEXED = 1;
+
+    /** Segment type of a mapped property */
+    static final int MAPPED = 2;
+
+    private final String expression;
+    private final String[] tokens;
+    private final String[] remainders;
+    private final int[] types;
+    private final String[] names;
+    private final int[] indexes;
+    private final String[] keys;
+
+    /**
+     * Parse a property name expression.
+     *
+     * @param expression The property name expression
+     * @param resolver The resolver used to parse the expression
+     */
+    PropertyPath(String expression, Resolver resolver) {
+
+        if (expression == null) {
+            throw new IllegalArgumentException("No property name specified");
+        }
+        this.expression = expression;
+
+        List tokenList = new ArrayList();
+        List remainderList = new ArrayList();
+        String name = expression;
+        while (resolver.hasNested(name)) {
+            tokenList.add(resolver.next(name));
+            remainderList.add(name);
+            name = resolver.remove(name);
+        }
+        tokenList.add(name);
+        remainderList.add(name);
+
+        int size = tokenList.size();
+        this.tokens = (String[]) tokenList.toArray(new String[size]);
+        this.remainders = (String[]) remainderList.toArray(new String[size]);
+        this.types = new int[size];
+        this.names = new String[size];
+        this.indexes = new int[size];
+        this.keys = new String[size];
+        for (int i = 0; i < size; i++) {
+            String token = tokens[i];
+            indexes[i] = -1;
+            if (resolver.isMapped(token)) {
+                types[i] = MAPPED;
+                try {
+                    keys[i] = resolver.getKey(token);
+                } catch (IllegalArgumentException e) {
+                    keys[i] = null;
+                }
+            } else if (resolver.isIndexed(token)) {
+                types[i] = INDEXED;
+                try {
+                    indexes[i] = resolver.getIndex(token);
+                } catch (IllegalArgumentException e) {
+                    indexes[i] = -1;
+                }
+            } else {
+                types[i] = SIMPLE;
+            }
+            names[i] = resolver.getProperty(token);
+        }
+
+    }
+
+    /**
+     * Return the property name expression this path was compiled from.
+     *
+     * @return The property name expression
+     */
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * Return the number of segments of this path (one more than the
+     * number of nested references).
+     *
+     * @return The number of segments
+     */
+    public int size() {
+        return tokens.length;
+    }
+
+    /**
+     * Return a String representation of this path.
+     *
+     * @return The property name expression
+     */
+    public String toString() {
+        return expression;
+    }
+
+    // ------------------------------------------------------- Segment Access
+
+    /**
+     * Return the unparsed text of a segment.
+     *
+     * @param segment The segment index
+     * @return The segment text
+     */
+    String getToken(int segment) {
+        return tokens[segment];
+    }
+
+    /**
+     * Return the unparsed remainder of the expression, starting with the
+     * specified segment.
+     *
+     * @param segment The segment index
+     * @return The remaining expression
+     */
+    String getRemainder(int segment) {
+        return remainders[segment];
+    }
+
+    /**
+     * Return the type of a segment.
+     *
+     * @param segment The segment index
+     * @return {@link #SIMPLE}, {@link #INDEXED} or {@link #MAPPED}
+     */
+    int getType(int segment) {
+        return types[segment];
+    }
+
+    /**
+     * Return the property name of a segment, without any index or key.
+     *
+     * @param segment The segment index
+     * @return The property name
+     */
+    String getName(int segment) {
+        return names[segment];
+    }
+
+    /**
+     * Return the index of an indexed segment.
+     *
+     * @param segment The segment index
+     * @return The index, or -1 if the segment is not indexed or its
+     *  index is invalid
+     */
+    int getIndex(int segment) {
+        return indexes[segment];
+    }
+
+    /**
+     * Return the key of a mapped segment.
+     *
+     * @param segment The segment index
+     * @return The key, or <code>null</code> if the segment is not mapped
+     *  or its key is invalid
+     */
+    String getKey(int segment) {
+        return keys[segment];
+    }
+
+}
@@ -155,6 +155,26 @@ public class PropertyUtils {
     }
 
 
+    /**
+     * <p>Compile a (possibly nested) property name expression into a
+     * {@link PropertyPath} that can be evaluated repeatedly.</p>
+     *
+     * <p>For more details see <code>PropertyUtilsBean</code>.</p>
+     *
+     * @param name Possibly nested name of a property
+     * @return The compiled property path
+     *
+     * @exception IllegalArgumentException if <code>name</code> is null
+     * @see PropertyUtilsBean#compile
+     * @since 1.9.0
+     */
+    public static PropertyPath compile(String name) {
+
+        return PropertyUtilsBean.getInstance().compile(name);
+
+    }
+
+
     /**
      * <p>Copy property values from the "origin" bean to the "destination" bean
      * for all cases where the property names are the same (even though the
@@ -397,6 +417,38 @@ public class PropertyUtils {
     }
 
 
+    /**
+     * <p>Return the value of the property identified by a compiled
+     * property path, for the specified bean, with no type conversions.</p>
+     *
+     * <p>For more details see <code>PropertyUtilsBean</code>.</p>
+     *
+     * @param bean Bean whose property is to be extracted
+     * @param path Compiled name of the property to be extracted
+     * @return the nested property value
+     *
+     * @exception IllegalAccessException if the caller does not have
+     *  access to the property accessor method
+     * @exception IllegalArgumentException if <code>bean</code> or
+     *  <code>path</code> is null
+     * @exception NestedNullException if a nested reference to a
+     *  property returns null
+     * @exception InvocationTargetException 
+     * if the property accessor method throws an exception
+     * @exception NoSuchMethodException if an accessor method for this
+     *  propety cannot be found
+     * @see PropertyUtilsBean#getPathProperty(Object, PropertyPath)
+     * @since 1.9.0
+     */
+    public static Object getPathProperty(Object bean, PropertyPath path)
+            throws IllegalAccessException, InvocationTargetException,
+            NoSuchMethodException {
+
+        return PropertyUtilsBean.getInstance().getPathProperty(bean, path);
+
+    }
+
+
     /**
      * <p>Return the value of the specified property of the specified bean,
      * no matter which property reference format is used, with no
@@ -428,6 +480,138 @@ public class PropertyUtils {
     }
 
 
+    /**
+     * <p>Return the value of the specified property of the specified bean,
+     * no matter which property reference format is used, as a <code>boolean</code>.</p>
+     *
+     * <p>For more details see <code>PropertyUtilsBean</code>.</p>
+     *
+     * @param bean Bean whose property is to be extracted
+     * @param name Possibly indexed and/or nested name of the property
+     *  to be extracted
+     * @return the property value
+     *
+     * @exception ConversionException if the value cannot be converted
+     *  to a <code>boolean</code>
+     * @exception IllegalAccessException if the caller does not have
+     *  access to the property accessor method
+     * @exception IllegalArgumentException if <code>bean</code> or
+     *  <code>name</code> is null
+     * @exception InvocationTargetException if the property accessor method
+     *  throws an exception
+     * @exception NoSuchMethodException if an accessor method for this
+     *  propety cannot be found
+     * @see PropertyUtilsBean#getBooleanProperty
+     * @since 1.9.0
+     */
+    public static boolean getBooleanProperty(Object bean, String name)
+            throws IllegalAccessException, InvocationTargetException,
+            NoSuchMethodException {
+
+        return PropertyUtilsBean.getInstance().getBooleanProperty(bean, name);
+
+    }
+
+
+    /**
+     * <p>Return the value of the specified property of the specified bean,
+     * no matter which property reference format is used, as an <code>int</code>.</p>
+     *
+     * <p>For more details see <code>PropertyUtilsBean</code>.</p>
+     *
+     * @param bean Bean whose property is to be extracted
+     * @param name Possibly indexed and/or nested name of the property
+     *  to be extracted
+     * @return the property value
+     *
+     * @exception ConversionException if the value cannot be converted
+     *  to an <code>int</code>
+     * @exception IllegalAccessException if the caller does not have
+     *  access to the property accessor method
+     * @exception IllegalArgumentException if <code>bean</code> or
+     *  <code>name</code> is null
+     * @exception InvocationTargetException if the property accessor method
+     *  throws an exception
+     * @exception NoSuchMethodException if an accessor method for this
+     *  propety cannot be found
+     * @see PropertyUtilsBean#getIntProperty
+     * @since 1.9.0
+     */
+    public static int getIntProperty(Object bean, String name)
+            throws IllegalAccessException, InvocationTargetException,
+            NoSuchMethodException {
+
+        return PropertyUtilsBean.getInstance().getIntProperty(bean, name);
+
+    }
+
+
+    /**
+     * <p>Return the value of the specified property of the specified bean,
+     * no matter which property reference format is used, as a <code>long</code>.</p>
+     *
+     * <p>For more details see <code>PropertyUtilsBean</code>.</p>
+     *
+     * @param bean Bean whose property is to be extracted
+     * @param name Possibly indexed and/or nested name of the property
+     *  to be extracted
+     * @return the property value
+     *
+     * @exception ConversionException if the value cannot be converted
+     *  to a <code>long</code>
+     * @exception IllegalAccessException if the caller does not have
+     *  access to the property accessor method
+     * @exception IllegalArgumentException if <code>bean</code> or
+     *  <code>name</code> is null
+     * @exception InvocationTargetException if the property accessor method
+     *  throws an exception
+     * @exception NoSuchMethodException if an accessor method for this
+     *  propety cannot be found
+     * @see PropertyUtilsBean#getLongProperty
+     * @since 1.9.0
+     */
+    public static long getLongProperty(Object bean, String name)
+            throws IllegalAccessException, InvocationTargetException,
+            NoSuchMethodException {
+
+        return PropertyUtilsBean.getInstance().getLongProperty(bean, name);
+
+    }
+
+
+    /**
+     * <p>Return the value of the specified property of the specified bean,
+     * no matter which property reference format is used, as a <code>double</code>.</p>
+     *
+     * <p>For more details see <code>PropertyUtilsBean</code>.</p>
+     *
+     * @param bean Bean whose property is to be extracted
+     * @param name Possibly indexed and/or nested name of the property
+     *  to be extracted
+     * @return the property value
+     *
+     * @exception ConversionException if the value cannot be converted
+     *  to a <code>double</code>
+     * @exception IllegalAccessException if the caller does not have
+     *  access to the property accessor method
+     * @exception IllegalArgumentException if <code>bean</code> or
+     *  <code>name</code> is null
+     * @exception InvocationTargetException if the property accessor method
+     *  throws an exception
+     * @exception NoSuchMethodException if an accessor method for this
+     *  propety cannot be found
+     * @see PropertyUtilsBean#getDoubleProperty
+     * @since 1.9.0
+     */
+    public static double getDoubleProperty(Object bean, String name)
+            throws IllegalAccessException, InvocationTargetException,
+            NoSuchMethodException {
+
+        return PropertyUtilsBean.getInstance().getDoubleProperty(bean, name);
+
+    }
+
+
     /**
      * <p>Retrieve the property descriptor for the specified property of the
      * specified bean, or return <code>null</code> if there is no such
@@ -829,6 +1013,38 @@ public class PropertyUtils {
     }
 
 
+    /**
+     * <p>Sets the value of the property identified by a compiled property
+     * path, for the specified bean, with no type conversions.</p>
+     *
+     * <p>For more details see <code>PropertyUtilsBean</code>.</p>
+     *
+     * @param bean Bean whose property is to be modified
+     * @param path Compiled name of the property to be modified
+     * @param value Value to which the property is to be set
+     *
+     * @exception IllegalAccessException if the caller does not have
+     *  access to the property accessor method
+     * @exception IllegalArgumentException if <code>bean</code> or
+     *  <code>path</code> is null
+     * @exception IllegalArgumentException if a nested reference to a
+     *  property returns null
+     * @exception InvocationTargetException if the property accessor method
+     *  throws an exception
+     * @exception NoSuchMethodException if an accessor method for this
+     *  propety cannot be found
+     * @see PropertyUtilsBean#setPathProperty(Object, PropertyPath, Object)
+     * @since 1.9.0
+     */
+    public static void setPathProperty(Object bean,
+                                         PropertyPath path, Object value)
+            throws IllegalAccessException, InvocationTargetException,
+            NoSuchMethodException {
+
+        PropertyUtilsBean.getInstance().setPathProperty(bean, path, value);
+    }
+
+
     /**
      * <p>Set the value of the specified property of the specified bean,
      * no matter which property reference format is used, with no
@@ -860,6 +1076,138 @@ public class PropertyUtils {
     }
 
 
+    /**
+     * <p>Set the value of the specified property of the specified bean,
+     * no matter which property reference format is used, from a <code>boolean</code>.</p>
+     *
+     * <p>For more details see <code>PropertyUtilsBean</code>.</p>
+     *
+     * @param bean Bean whose property is to be modified
+     * @param name Possibly indexed and/or nested name of the property
+     *  to be modified
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the value cannot be converted
+     *  to the type of the property
+     * @exception IllegalAccessException if the caller does not have
+     *  access to the property accessor method
+     * @exception IllegalArgumentException if <code>bean</code> or
+     *  <code>name</code> is null
+     * @exception InvocationTargetException if the property accessor method
+     *  throws an exception
+     * @exception NoSuchMethodException if an accessor method for this
+     *  propety cannot be found
+     * @see PropertyUtilsBean#setBooleanProperty
+     * @since 1.9.0
+     */
+    public static void setBooleanProperty(Object bean, String name, boolean value)
+            throws IllegalAccessException, InvocationTargetException,
+            NoSuchMethodException {
+
+        PropertyUtilsBean.getInstance().setBooleanProperty(bean, name, value);
+
+    }
+
+
+    /**
+     * <p>Set the value of the specified property of the specified bean,
+     * no matter which property reference format is used, from an <code>int</code>.</p>
+     *
+     * <p>For more details see <code>PropertyUtilsBean</code>.</p>
+     *
+     * @param bean Bean whose property is to be modified
+     * @param name Possibly indexed and/or nested name of the property
+     *  to be modified
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the value cannot be converted
+     *  to the type of the property
+     * @exception IllegalAccessException if the caller does not have
+     *  access to the property accessor method
+     * @exception IllegalArgumentException if <code>bean</code> or
+     *  <code>name</code> is null
+     * @exception InvocationTargetException if the property accessor method
+     *  throws an exception
+     * @exception NoSuchMethodException if an accessor method for this
+     *  propety cannot be found
+     * @see PropertyUtilsBean#setIntProperty
+     * @since 1.9.0
+     */
+    public static void setIntProperty(Object bean, String name, int value)
+            throws IllegalAccessException, InvocationTargetException,
+            NoSuchMethodException {
+
+        PropertyUtilsBean.getInstance().setIntProperty(bean, name, value);
+
+    }
+
+
+    /**
+     * <p>Set the value of the specified property of the specified bean,
+     * no matter which property reference format is used, from a <code>long</code>.</p>
+     *
+     * <p>For more details see <code>PropertyUtilsBean</code>.</p>
+     *
+     * @param bean Bean whose property is to be modified
+     * @param name Possibly indexed and/or nested name of the property
+     *  to be modified
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the value cannot be converted
+     *  to the type of the property
+     * @exception IllegalAccessException if the caller does not have
+     *  access to the property accessor method
+     * @exception IllegalArgumentException if <code>bean</code> or
+     *  <code>name</code> is null
+     * @exception InvocationTargetException if the property accessor method
+     *  throws an exception
+     * @exception NoSuchMethodException if an accessor method for this
+     *  propety cannot be found
+     * @see PropertyUtilsBean#setLongProperty
+     * @since 1.9.0
+     */
+    public static void setLongProperty(Object bean, String name, long value)
+            throws IllegalAccessException, InvocationTargetException,
+            NoSuchMethodException {
+
+        PropertyUtilsBean.getInstance().setLongProperty(bean, name, value);
+
+    }
+
+
+    /**
+     * <p>Set the value of the specified property of the specified bean,
+     * no matter which property reference format is used, from a <code>double</code>.</p>
+     *
+     * <p>For more details see <code>PropertyUtilsBean</code>.</p>
+     *
+     * @param bean Bean whose property is to be modified
+     * @param name Possibly indexed and/or nested name of the property
+     *  to be modified
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the value cannot be converted
+     *  to the type of the property
+     * @exception IllegalAccessException if the caller does not have
+     *  access to the property accessor method
+     * @exception IllegalArgumentException if <code>bean</code> or
+     *  <code>name</code> is null
+     * @exception InvocationTargetException if the property accessor method
+     *  throws an exception
+     * @exception NoSuchMethodException if an accessor method for this
+     *  propety cannot be found
+     * @see PropertyUtilsBean#setDoubleProperty
+     * @since 1.9.0
+     */
+    public static void setDoubleProperty(Object bean, String name, double value)
+            throws IllegalAccessException, InvocationTargetException,
+            NoSuchMethodException {
+
+        PropertyUtilsBean.getInstance().setDoubleProperty(bean, name, value);
+
+    }
+
+
     /**
      * <p>Set the value of the specified simple property of the specified bean,
      * with no type conversions.</p>
@@ -104,6 +104,16 @@ public class PropertyUtilsBean {
 
     private Resolver resolver = new DefaultResolver();
 
+    private InvocationEngine invocationEngine = new ReflectionInvocationEngine();
+
+    private boolean fastIntrospection = false;
+
+    /** Whether a subclass overrides the property accessors, if known */
+    private Boolean accessOverridden;
+
+    /** Whether a subclass overrides the property descriptor lookups, if known */
+    private Boolean descriptorsOverridden;
+
     // --------------------------------------------------------- Class Methods
 
     /**
@@ -117,13 +127,24 @@ public class PropertyUtilsBean {
     // --------------------------------------------------------- Variables
 
     /**
-     * The cache of PropertyDescriptor arrays for beans we have already
+     * The cache of {@link BeanIntrospectionData} (the PropertyDescriptor
+     * arrays and bound accessor methods) for beans we have already
      * introspected, keyed by the java.lang.Class of this object.
      */
-    private WeakFastHashMap descriptorsCache = null;
-    private WeakFastHashMap mappedDescriptorsCache = null;
+    private WeakClassCache descriptorsCache = null;
+    private WeakClassCache mappedDescriptorsCache = null;
     private static final Class[] EMPTY_CLASS_PARAMETERS = new Class[0];
     private static final Class[] LIST_CLASS_PARAMETER = new Class[] {java.util.List.class};
+
+    /** The number of slots in the compiled property path cache */
+    private static final int PATH_CACHE_SIZE = 1024;
+
+    /**
+     * The cache of compiled property paths. Each expression can occupy one
+     * of two adjacent slots, selected by its hash code, so the cache never
+     * holds more than <code>PATH_CACHE_SIZE</code> entries.
+     */
+    private PropertyPath[] pathCache = new PropertyPath[PATH_CACHE_SIZE];
     
     /** An empty object array */
     private static final Object[] EMPTY_OBJECT_ARRAY = new Object[0];
@@ -135,10 +156,8 @@ public class PropertyUtilsBean {
     
     /** Base constructor */
     public PropertyUtilsBean() {
-        descriptorsCache = new WeakFastHashMap();
-        descriptorsCache.setFast(true);
-        mappedDescriptorsCache = new WeakFastHashMap();
-        mappedDescriptorsCache.setFast(true);
+        descriptorsCache = new WeakClassCache();
+        mappedDescriptorsCache = new WeakClassCache();
     }
 
 
@@ -181,6 +200,121 @@ public class PropertyUtilsBean {
         } else {
             this.resolver = resolver;
         }
+        pathCache = new PropertyPath[PATH_CACHE_SIZE];
+    }
+
+    /**
+     * Compile a (possibly nested, indexed and/or mapped) property name
+     * expression into a {@link PropertyPath} which can be evaluated
+     * repeatedly without parsing the expression again.
+     * <p>
+     * The expression is parsed using the configured {@link Resolver}.
+     * Compiled paths are kept in a bounded cache, which is also used by
+     * the String based <code>getNestedProperty()</code> and
+     * <code>setNestedProperty()</code> methods, and which is discarded
+     * when the resolver is changed.
+     *
+     * @param name Possibly nested name of a property
+     * @return The compiled property path
+     *
+     * @exception IllegalArgumentException if <code>name</code> is null
+     * @since 1.9.0
+     */
+    public PropertyPath compile(String name) {
+
+        if (name == null) {
+            throw new IllegalArgumentException("No property name specified");
+        }
+
+        // Look for the expression in its two candidate slots
+        PropertyPath[] cache = pathCache;
+        int slot = name.hashCode() & (cache.length - 2);
+        PropertyPath path = cache[slot];
+        if (path != null && path.getExpression().equals(name)) {
+            return (path);
+        }
+        PropertyPath other = cache[slot + 1];
+        if (other != null && other.getExpression().equals(name)) {
+            return (other);
+        }
+
+        // Compile the expression, replacing the first slot if both are taken
+        PropertyPath result = new PropertyPath(name, resolver);
+        if (path != null && other == null) {
+            slot++;
+        }
+        cache[slot] = result;
+        return (result);
+
+    }
+
+    /**
+     * Return the {@link InvocationEngine} used to bind property getter
+     * and setter methods.
+     *
+     * @return The invocation engine, or <code>null</code> if property
+     *  accessor methods are invoked without being bound
+     * @since 1.9.0
+     */
+    public InvocationEngine getInvocationEngine() {
+        return invocationEngine;
+    }
+
+    /**
+     * Configure the {@link InvocationEngine} used to bind property getter
+     * and setter methods.
+     * <p>
+     * The read and write methods of each bean class are bound by the
+     * engine when the class is first introspected, and the resulting
+     * {@link MethodInvoker}s are cached together with the property
+     * descriptors. Changing the engine therefore clears the cached
+     * descriptors.
+     * <p>
+     * {@link ReflectionInvocationEngine} is the default implementation.
+     * Setting the engine to <code>null</code> disables binding altogether,
+     * in which case the accessible method is resolved and invoked through
+     * <code>Method.invoke()</code> on every call.
+     *
+     * @param invocationEngine The invocation engine, may be
+     *  <code>null</code>
+     * @since 1.9.0
+     */
+    public void setInvocationEngine(InvocationEngine invocationEngine) {
+        this.invocationEngine = invocationEngine;
+        descriptorsCache.clear();
+    }
+
+    /**
+     * Indicate whether bean classes are introspected without using
+     * <code>java.beans.Introspector</code>.
+     *
+     * @return <code>true</code> if fast introspection is enabled
+     * @since 1.9.0
+     */
+    public boolean isFastIntrospection() {
+        return fastIntrospection;
+    }
+
+    /**
+     * Configure whether bean classes are introspected without using
+     * <code>java.beans.Introspector</code>.
+     * <p>
+     * When enabled, the property descriptors of a bean class are derived
+     * directly from its public methods using the JavaBeans naming rules,
+     * skipping the BeanInfo search and the global lock held by
+     * <code>Introspector</code>. Classes for which an explicit BeanInfo
+     * class exists are still introspected by <code>Introspector</code>.
+     * <p>
+     * Fast introspection is disabled by default. Changing this setting
+     * clears the cached descriptors.
+     *
+     * @param fastIntrospection <code>true</code> to enable fast
+     *  introspection
+     * @since 1.9.0
+     */
+    public void setFastIntrospection(boolean fastIntrospection) {
+        this.fastIntrospection = fastIntrospection;
+        descriptorsCache.clear();
     }
 
     /**
@@ -738,38 +872,312 @@ public class PropertyUtilsBean {
                     bean.getClass() + "'");
         }
 
+        return (getPathProperty(bean, compile(name)));
+
+    }
+
+
+    /**
+     * Return the value of the property identified by a compiled property
+     * path, for the specified bean, with no type conversions.
+     *
+     * @param bean Bean whose property is to be extracted
+     * @param path Compiled (possibly nested) name of the property to be
+     *  extracted
+     * @return the nested property value
+     *
+     * @exception IllegalAccessException if the caller does not have
+     *  access to the property accessor method
+     * @exception IllegalArgumentException if <code>bean</code> or
+     *  <code>path</code> is null
+     * @exception NestedNullException if a nested reference to a
+     *  property returns null
+     * @exception InvocationTargetException 
+     * if the property accessor method throws an exception
+     * @exception NoSuchMethodException if an accessor method for this
+     *  propety cannot be found
+     * @see #compile(String)
+     * @since 1.9.0
+     */
+    public Object getPathProperty(Object bean, PropertyPath path)
+            throws IllegalAccessException, InvocationTargetException,
+            NoSuchMethodException {
+
+        if (bean == null) {
+            throw new IllegalArgumentException("No bean specified");
+        }
+        if (path == null) {
+            throw new IllegalArgumentException("No property path specified for bean class '" +
+                    bean.getClass() + "'");
+        }
+
         // Resolve nested references
-        while (resolver.hasNested(name)) {
-            String next = resolver.next(name);
-            Object nestedBean = null;
-            if (bean instanceof Map) {
-                nestedBean = getPropertyOfMapBean((Map) bean, next);
-            } else if (resolver.isMapped(next)) {
-                nestedBean = getMappedProperty(bean, next);
-            } else if (resolver.isIndexed(next)) {
-                nestedBean = getIndexedProperty(bean, next);
-            } else {
-                nestedBean = getSimpleProperty(bean, next);
-            }
+        bean = getParentBean(bean, path);
+
+        return (getPathSegment(bean, path, path.size() - 1));
+
+    }
+
+    /**
+     * Return the bean holding the last segment of a compiled property
+     * path, evaluating all the preceding segments.
+     *
+     * @param bean Bean at the root of the path
+     * @param path The compiled property path
+     * @return The bean whose property is named by the last segment
+     *
+     * @exception IllegalAccessException if the caller does not have
+     *  access to the property accessor method
+     * @exception NestedNullException if a nested reference to a
+     *  property returns null
+     * @exception InvocationTargetException if the property accessor method
+     *  throws an exception
+     * @exception NoSuchMethodException if an accessor method for this
+     *  propety cannot be found
+     */
+    private Object getParentBean(Object bean, PropertyPath path)
+            throws IllegalAccessException, InvocationTargetException,
+            NoSuchMethodException {
+
+        int last = path.size() - 1;
+        for (int i = 0; i < last; i++) {
+            Object nestedBean = getPathSegment(bean, path, i);
             if (nestedBean == null) {
                 throw new NestedNullException
-                        ("Null property value for '" + name +
+                        ("Null property value for '" + path.getRemainder(i) +
                         "' on bean class '" + bean.getClass() + "'");
             }
             bean = nestedBean;
-            name = resolver.remove(name);
         }
+        return (bean);
 
+    }
+
+    /**
+     * Return the value of a single segment of a compiled property path.
+     * When a subclass overrides the property accessors, indexed and mapped
+     * segments are read through the overridable
+     * <code>getIndexedProperty(Object, String)</code> and
+     * <code>getMappedProperty(Object, String)</code> methods.
+     *
+     * @param bean Bean whose property is to be extracted
+     * @param path The compiled property path
+     * @param segment The index of the segment to evaluate
+     * @return the property value
+     *
+     * @exception IllegalAccessException if the caller does not have
+     *  access to the property accessor method
+     * @exception InvocationTargetException if the property accessor method
+     *  throws an exception
+     * @exception NoSuchMethodException if an accessor method for this
+     *  propety cannot be found
+     */
+    Object getPathSegment(Object bean, PropertyPath path, int segment)
+            throws IllegalAccessException, InvocationTargetException,
+            NoSuchMethodException {
+
+        String token = path.getToken(segment);
         if (bean instanceof Map) {
-            bean = getPropertyOfMapBean((Map) bean, name);
-        } else if (resolver.isMapped(name)) {
-            bean = getMappedProperty(bean, name);
-        } else if (resolver.isIndexed(name)) {
-            bean = getIndexedProperty(bean, name);
-        } else {
-            bean = getSimpleProperty(bean, name);
+            return (getPropertyOfMapBean((Map) bean, token));
+        }
+        boolean overridden = isAccessOverridden();
+        switch (path.getType(segment)) {
+            case PropertyPath.MAPPED:
+                String key = path.getKey(segment);
+                if (key == null || overridden) {
+                    return (getMappedProperty(bean, token));
+                }
+                return (getMappedProperty(bean, path.getName(segment), key));
+            case PropertyPath.INDEXED:
+                int index = path.getIndex(segment);
+                if (index < 0 || overridden) {
+                    return (getIndexedProperty(bean, token));
+                }
+                return (getIndexedProperty(bean, path.getName(segment), index));
+            default:
+                return (getSimpleProperty(bean, token));
         }
-        return bean;
+
+    }
+
+
+    /**
+     * Return the value of the specified property of the specified bean,
+     * no matter which property reference format is used, as a <code>boolean</code>.
+     * <p>
+     * The value is read from {@link PrimitiveDynaBean}s without boxing,
+     * and converted if the property is not of type <code>boolean</code>.
+     *
+     * @param bean Bean whose property is to be extracted
+     * @param name Possibly indexed and/or nested name of the property
+     *  to be extracted
+     * @return the property value
+     *
+     * @exception ConversionException if the value is null or not a
+     *  boolean
+     * @exception IllegalAccessException if the caller does not have
+     *  access to the property accessor method
+     * @exception IllegalArgumentException if <code>bean</code> or
+     *  <code>name</code> is null
+     * @exception InvocationTargetException if the property accessor method
+     *  throws an exception
+     * @exception NoSuchMethodException if an accessor method for this
+     *  propety cannot be found
+     * @since 1.9.0
+     */
+    public boolean getBooleanProperty(Object bean, String name)
+            throws IllegalAccessException, InvocationTargetException,
+            NoSuchMethodException {
+
+        PropertyPath path = compilePrimitivePath(bean, name);
+        bean = getParentBean(bean, path);
+        int last = path.size() - 1;
+        if (bean instanceof PrimitiveDynaBean && path.getType(last) == PropertyPath.SIMPLE) {
+            return (((PrimitiveDynaBean) bean).getBoolean(path.getToken(last)));
+        }
+        return (PrimitiveValues.toBoolean(name, getPathSegment(bean, path, last)));
+
+    }
+
+
+    /**
+     * Return the value of the specified property of the specified bean,
+     * no matter which property reference format is used, as an <code>int</code>.
+     * <p>
+     * The value is read from {@link PrimitiveDynaBean}s without boxing,
+     * and converted if the property is not of type <code>int</code>.
+     *
+     * @param bean Bean whose property is to be extracted
+     * @param name Possibly indexed and/or nested name of the property
+     *  to be extracted
+     * @return the property value
+     *
+     * @exception ConversionException if the value is null or cannot be
+     *  converted to an <code>int</code>
+     * @exception IllegalAccessException if the caller does not have
+     *  access to the property accessor method
+     * @exception IllegalArgumentException if <code>bean</code> or
+     *  <code>name</code> is null
+     * @exception InvocationTargetException if the property accessor method
+     *  throws an exception
+     * @exception NoSuchMethodException if an accessor method for this
+     *  propety cannot be found
+     * @since 1.9.0
+     */
+    public int getIntProperty(Object bean, String name)
+            throws IllegalAccessException, InvocationTargetException,
+            NoSuchMethodException {
+
+        PropertyPath path = compilePrimitivePath(bean, name);
+        bean = getParentBean(bean, path);
+        int last = path.size() - 1;
+        if (bean instanceof PrimitiveDynaBean && path.getType(last) == PropertyPath.SIMPLE) {
+            return (((PrimitiveDynaBean) bean).getInt(path.getToken(last)));
+        }
+        return (PrimitiveValues.toInt(name, getPathSegment(bean, path, last)));
+
+    }
+
+
+    /**
+     * Return the value of the specified property of the specified bean,
+     * no matter which property reference format is used, as a <code>long</code>.
+     * <p>
+     * The value is read from {@link PrimitiveDynaBean}s without boxing,
+     * and converted if the property is not of type <code>long</code>.
+     *
+     * @param bean Bean whose property is to be extracted
+     * @param name Possibly indexed and/or nested name of the property
+     *  to be extracted
+     * @return the property value
+     *
+     * @exception ConversionException if the value is null or cannot be
+     *  converted to a <code>long</code>
+     * @exception IllegalAccessException if the caller does not have
+     *  access to the property accessor method
+     * @exception IllegalArgumentException if <code>bean</code> or
+     *  <code>name</code> is null
+     * @exception InvocationTargetException if the property accessor method
+     *  throws an exception
+     * @exception NoSuchMethodException if an accessor method for this
+     *  propety cannot be found
+     * @since 1.9.0
+     */
+    public long getLongProperty(Object bean, String name)
+            throws IllegalAccessException, InvocationTargetException,
+            NoSuchMethodException {
+
+        PropertyPath path = compilePrimitivePath(bean, name);
+        bean = getParentBean(bean, path);
+        int last = path.size() - 1;
+        if (bean instanceof PrimitiveDynaBean && path.getType(last) == PropertyPath.SIMPLE) {
+            return (((PrimitiveDynaBean) bean).getLong(path.getToken(last)));
+        }
+        return (PrimitiveValues.toLong(name, getPathSegment(bean, path, last)));
+
+    }
+
+
+    /**
+     * Return the value of the specified property of the specified bean,
+     * no matter which property reference format is used, as a <code>double</code>.
+     * <p>
+     * The value is read from {@link PrimitiveDynaBean}s without boxing,
+     * and converted if the property is not of type <code>double</code>.
+     *
+     * @param bean Bean whose property is to be extracted
+     * @param name Possibly indexed and/or nested name of the property
+     *  to be extracted
+     * @return the property value
+     *
+     * @exception ConversionException if the value is null or not a
+     *  number
+     * @exception IllegalAccessException if the caller does not have
+     *  access to the property accessor method
+     * @exception IllegalArgumentException if <code>bean</code> or
+     *  <code>name</code> is null
+     * @exception InvocationTargetException if the property accessor method
+     *  throws an exception
+     * @exception NoSuchMethodException if an accessor method for this
+     *  propety cannot be found
+     * @since 1.9.0
+     */
+    public double getDoubleProperty(Object bean, String name)
+            throws IllegalAccessException, InvocationTargetException,
+            NoSuchMethodException {
+
+        PropertyPath path = compilePrimitivePath(bean, name);
+        bean = getParentBean(bean, path);
+        int last = path.size() - 1;
+        if (bean instanceof PrimitiveDynaBean && path.getType(last) == PropertyPath.SIMPLE) {
+            return (((PrimitiveDynaBean) bean).getDouble(path.getToken(last)));
+        }
+        return (PrimitiveValues.toDouble(name, getPathSegment(bean, path, last)));
+
+    }
+
+
+    /**
+     * Compile the property name expression used by a primitive-typed
+     * property accessor.
+     *
+     * @param bean The bean
+     * @param name Possibly indexed and/or nested name of the property
+     * @return The compiled property path
+     *
+     * @exception IllegalArgumentException if <code>bean</code> or
+     *  <code>name</code> is null
+     */
+    private PropertyPath compilePrimitivePath(Object bean, String name) {
+
+        if (bean == null) {
+            throw new IllegalArgumentException("No bean specified");
+        }
+        if (name == null) {
+            throw new IllegalArgumentException("No name specified for bean class '" +
+                    bean.getClass() + "'");
+        }
+        return (compile(name));
 
     }
 
@@ -909,23 +1317,33 @@ public class PropertyUtilsBean {
             return (null);
         }
         
-        PropertyDescriptor[] descriptors = getPropertyDescriptors(bean);
-        if (descriptors != null) {
-            
-            for (int i = 0; i < descriptors.length; i++) {
-                if (name.equals(descriptors[i].getName())) {
-                    return (descriptors[i]);
+        PropertyDescriptor result = null;
+        if (isDescriptorsOverridden()) {
+            PropertyDescriptor[] descriptors = getPropertyDescriptors(bean);
+            if (descriptors != null) {
+                for (int i = 0; i < descriptors.length; i++) {
+                    if (name.equals(descriptors[i].getName())) {
+                        return (descriptors[i]);
+                    }
                 }
             }
+        } else {
+            result = getIntrospectionData(bean.getClass()).getDescriptor(name);
+            if (result != null) {
+                return (result);
+            }
         }
 
-        PropertyDescriptor result = null;
         FastHashMap mappedDescriptors =
                 getMappedPropertyDescriptors(bean);
         if (mappedDescriptors == null) {
             mappedDescriptors = new FastHashMap();
             mappedDescriptors.setFast(true);
-            mappedDescriptorsCache.put(bean.getClass(), mappedDescriptors);
+            FastHashMap existing = (FastHashMap)
+                    mappedDescriptorsCache.putIfAbsent(bean.getClass(), mappedDescriptors);
+            if (existing != null) {
+                mappedDescriptors = existing;
+            }
         }
         result = (PropertyDescriptor) mappedDescriptors.get(name);
         if (result == null) {
@@ -966,24 +1384,124 @@ public class PropertyUtilsBean {
             throw new IllegalArgumentException("No bean class specified");
         }
 
-        // Look up any cached descriptors for this bean class
+        return (getIntrospectionData(beanClass).getDescriptors());
+
+    }
+
+
+    /**
+     * Return the introspection data for the specified class, introspecting
+     * the class and binding its accessor methods the first time a
+     * particular bean class is encountered.
+     *
+     * @param beanClass Bean class for which introspection data is requested
+     * @return The introspection data
+     */
+    BeanIntrospectionData getIntrospectionData(Class beanClass) {
+
+        // Look up any cached data for this bean class
+        BeanIntrospectionData data =
+                (BeanIntrospectionData) descriptorsCache.get(beanClass);
+        if (data != null) {
+            return (data);
+        }
+
+        // Introspect the bean and cache the generated data
+        data = new BeanIntrospectionData(beanClass,
+                introspect(beanClass), invocationEngine);
+        BeanIntrospectionData existing = (BeanIntrospectionData)
+                descriptorsCache.putIfAbsent(beanClass, data);
+        return (existing != null ? existing : data);
+
+    }
+
+
+    /**
+     * Indicate whether a subclass overrides any of the methods used to read
+     * and write simple, indexed, mapped and nested properties, or to look up
+     * their property descriptors. Callers which bind property
+     * accessors in advance (such as the copy plans and populators of
+     * {@link BeanUtilsBean}) must go through these methods when it does.
+     *
+     * @return <code>true</code> if the property accessors are overridden
+     */
+    boolean isAccessOverridden() {
+
+        if (accessOverridden == null) {
+            Class[] get = new Class[] {Object.class, String.class};
+            Class[] set = new Class[] {Object.class, String.class, Object.class};
+            Class type = getClass();
+            Class base = PropertyUtilsBean.class;
+            boolean overridden =
+                MethodUtils.isOverridden(type, base, "getProperty", get) ||
+                MethodUtils.isOverridden(type, base, "getNestedProperty", get) ||
+                MethodUtils.isOverridden(type, base, "getSimpleProperty", get) ||
+                MethodUtils.isOverridden(type, base, "getIndexedProperty", get) ||
+                MethodUtils.isOverridden(type, base, "getMappedProperty", get) ||
+                MethodUtils.isOverridden(type, base, "getPropertyDescriptor", get) ||
+                MethodUtils.isOverridden(type, base, "isReadable", get) ||
+                MethodUtils.isOverridden(type, base, "isWriteable", get) ||
+                MethodUtils.isOverridden(type, base, "setProperty", set) ||
+                MethodUtils.isOverridden(type, base, "setNestedProperty", set) ||
+                MethodUtils.isOverridden(type, base, "setSimpleProperty", set) ||
+                isDescriptorsOverridden();
+            accessOverridden = overridden ? Boolean.TRUE : Boolean.FALSE;
+        }
+        return (accessOverridden.booleanValue());
+
+    }
+
+
+    /**
+     * Indicate whether a subclass overrides any of the methods returning
+     * property descriptors. The descriptors and bound accessors cached for
+     * each bean class are then not used directly, so that lookups go
+     * through the overriding methods.
+     *
+     * @return <code>true</code> if the descriptor lookups are overridden
+     */
+    boolean isDescriptorsOverridden() {
+
+        if (descriptorsOverridden == null) {
+            Class type = getClass();
+            Class base = PropertyUtilsBean.class;
+            boolean overridden =
+                MethodUtils.isOverridden(type, base, "getPropertyDescriptor",
+                        new Class[] {Object.class, String.class}) ||
+                MethodUtils.isOverridden(type, base, "getPropertyDescriptors",
+                        new Class[] {Object.class}) ||
+                MethodUtils.isOverridden(type, base, "getPropertyDescriptors",
+                        new Class[] {Class.class});
+            descriptorsOverridden = overridden ? Boolean.TRUE : Boolean.FALSE;
+        }
+        return (descriptorsOverridden.booleanValue());
+
+    }
+
+
+    /**
+     * Introspect the specified class, returning its property descriptors.
+     *
+     * @param beanClass Bean class to be introspected
+     * @return The property descriptors
+     */
+    private PropertyDescriptor[] introspect(Class beanClass) {
+
         PropertyDescriptor[] descriptors = null;
-        descriptors =
-                (PropertyDescriptor[]) descriptorsCache.get(beanClass);
-        if (descriptors != null) {
-            return (descriptors);
+        if (fastIntrospection) {
+            descriptors = FastIntrospector.getPropertyDescriptors(beanClass);
         }
-
-        // Introspect the bean and cache the generated descriptors
-        BeanInfo beanInfo = null;
-        try {
-            beanInfo = Introspector.getBeanInfo(beanClass);
-        } catch (IntrospectionException e) {
-            return (new PropertyDescriptor[0]);
-        }
-        descriptors = beanInfo.getPropertyDescriptors();
         if (descriptors == null) {
-            descriptors = new PropertyDescriptor[0];
+            BeanInfo beanInfo = null;
+            try {
+                beanInfo = Introspector.getBeanInfo(beanClass);
+            } catch (IntrospectionException e) {
+                return (new PropertyDescriptor[0]);
+            }
+            descriptors = beanInfo.getPropertyDescriptors();
+            if (descriptors == null) {
+                descriptors = new PropertyDescriptor[0];
+            }
         }
 
         // ----------------- Workaround for Bug 28358 --------- START ------------------
@@ -1058,7 +1576,6 @@ public class PropertyUtilsBean {
         }
         // ----------------- Workaround for Bug 28358 ---------- END -------------------
 
-        descriptorsCache.put(beanClass, descriptors);
         return (descriptors);
 
     }
@@ -1315,6 +1832,13 @@ public class PropertyUtilsBean {
             return (((DynaBean) bean).get(name));
         }
 
+        // Use the bound getter method, if there is one
+        MethodInvoker invoker = isDescriptorsOverridden() ? null
+                : getIntrospectionData(bean.getClass()).getReadInvoker(name);
+        if (invoker != null) {
+            return (invokeMethod(invoker, bean, EMPTY_OBJECT_ARRAY));
+        }
+
         // Retrieve the property getter method for the specified property
         PropertyDescriptor descriptor =
                 getPropertyDescriptor(bean, name);
@@ -1925,37 +2449,292 @@ public class PropertyUtilsBean {
                     bean.getClass() + "'");
         }
 
+        setPathProperty(bean, compile(name), value);
+
+    }
+
+
+    /**
+     * Set the value of the property identified by a compiled property
+     * path, for the specified bean, with no type conversions.
+     *
+     * @param bean Bean whose property is to be modified
+     * @param path Compiled (possibly nested) name of the property to be
+     *  modified
+     * @param value Value to which the property is to be set
+     *
+     * @exception IllegalAccessException if the caller does not have
+     *  access to the property accessor method
+     * @exception IllegalArgumentException if <code>bean</code> or
+     *  <code>path</code> is null
+     * @exception IllegalArgumentException if a nested reference to a
+     *  property returns null
+     * @exception InvocationTargetException if the property accessor method
+     *  throws an exception
+     * @exception NoSuchMethodException if an accessor method for this
+     *  propety cannot be found
+     * @see #compile(String)
+     * @since 1.9.0
+     */
+    public void setPathProperty(Object bean,
+                                         PropertyPath path, Object value)
+            throws IllegalAccessException, InvocationTargetException,
+            NoSuchMethodException {
+
+        if (bean == null) {
+            throw new IllegalArgumentException("No bean specified");
+        }
+        if (path == null) {
+            throw new IllegalArgumentException("No property path specified for bean class '" +
+                    bean.getClass() + "'");
+        }
+
         // Resolve nested references
-        while (resolver.hasNested(name)) {
-            String next = resolver.next(name);
-            Object nestedBean = null;
-            if (bean instanceof Map) {
-                nestedBean = getPropertyOfMapBean((Map)bean, next);
-            } else if (resolver.isMapped(next)) {
-                nestedBean = getMappedProperty(bean, next);
-            } else if (resolver.isIndexed(next)) {
-                nestedBean = getIndexedProperty(bean, next);
-            } else {
-                nestedBean = getSimpleProperty(bean, next);
-            }
-            if (nestedBean == null) {
-                throw new NestedNullException
-                        ("Null property value for '" + name +
-                         "' on bean class '" + bean.getClass() + "'");
-            }
-            bean = nestedBean;
-            name = resolver.remove(name);
+        bean = getParentBean(bean, path);
+
+        setPathSegment(bean, path, path.size() - 1, value);
+
+    }
+
+    /**
+     * Set the value of a single segment of a compiled property path.
+     *
+     * @param bean Bean whose property is to be modified
+     * @param path The compiled property path
+     * @param segment The index of the segment to set
+     * @param value Value to which the property is to be set
+     *
+     * @exception IllegalAccessException if the caller does not have
+     *  access to the property accessor method
+     * @exception InvocationTargetException if the property accessor method
+     *  throws an exception
+     * @exception NoSuchMethodException if an accessor method for this
+     *  propety cannot be found
+     */
+    void setPathSegment(Object bean, PropertyPath path, int segment,
+                        Object value)
+            throws IllegalAccessException, InvocationTargetException,
+            NoSuchMethodException {
+
+        String token = path.getToken(segment);
+        if (bean instanceof Map) {
+            setPropertyOfMapBean((Map) bean, token, value);
+            return;
+        }
+        switch (path.getType(segment)) {
+            case PropertyPath.MAPPED:
+                String key = path.getKey(segment);
+                if (key == null) {
+                    setMappedProperty(bean, token, value);
+                } else {
+                    setMappedProperty(bean, path.getName(segment), key, value);
+                }
+                break;
+            case PropertyPath.INDEXED:
+                int index = path.getIndex(segment);
+                if (index < 0) {
+                    setIndexedProperty(bean, token, value);
+                } else {
+                    setIndexedProperty(bean, path.getName(segment), index, value);
+                }
+                break;
+            default:
+                setSimpleProperty(bean, token, value);
+        }
+
+    }
+
+
+    /**
+     * Set the value of the specified property of the specified bean,
+     * no matter which property reference format is used, from a <code>boolean</code>.
+     * <p>
+     * The value is written to {@link PrimitiveDynaBean}s without boxing;
+     * otherwise it is boxed as the type of the property, converting it
+     * if necessary.
+     *
+     * @param bean Bean whose property is to be modified
+     * @param name Possibly indexed and/or nested name of the property
+     *  to be modified
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the property is not boolean
+     * @exception IllegalAccessException if the caller does not have
+     *  access to the property accessor method
+     * @exception IllegalArgumentException if <code>bean</code> or
+     *  <code>name</code> is null
+     * @exception InvocationTargetException if the property accessor method
+     *  throws an exception
+     * @exception NoSuchMethodException if an accessor method for this
+     *  propety cannot be found
+     * @since 1.9.0
+     */
+    public void setBooleanProperty(Object bean, String name, boolean value)
+            throws IllegalAccessException, InvocationTargetException,
+            NoSuchMethodException {
+
+        PropertyPath path = compilePrimitivePath(bean, name);
+        bean = getParentBean(bean, path);
+        int last = path.size() - 1;
+        if (bean instanceof PrimitiveDynaBean && path.getType(last) == PropertyPath.SIMPLE) {
+            ((PrimitiveDynaBean) bean).setBoolean(path.getToken(last), value);
+            return;
+        }
+        setPathSegment(bean, path, last, PrimitiveValues.valueOf(value));
+
+    }
+
+
+    /**
+     * Set the value of the specified property of the specified bean,
+     * no matter which property reference format is used, from an <code>int</code>.
+     * <p>
+     * The value is written to {@link PrimitiveDynaBean}s without boxing;
+     * otherwise it is boxed as the type of the property, converting it
+     * if necessary.
+     *
+     * @param bean Bean whose property is to be modified
+     * @param name Possibly indexed and/or nested name of the property
+     *  to be modified
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the value cannot be converted
+     *  to the type of the property
+     * @exception IllegalAccessException if the caller does not have
+     *  access to the property accessor method
+     * @exception IllegalArgumentException if <code>bean</code> or
+     *  <code>name</code> is null
+     * @exception InvocationTargetException if the property accessor method
+     *  throws an exception
+     * @exception NoSuchMethodException if an accessor method for this
+     *  propety cannot be found
+     * @since 1.9.0
+     */
+    public void setIntProperty(Object bean, String name, int value)
+            throws IllegalAccessException, InvocationTargetException,
+            NoSuchMethodException {
+
+        PropertyPath path = compilePrimitivePath(bean, name);
+        bean = getParentBean(bean, path);
+        int last = path.size() - 1;
+        if (bean instanceof PrimitiveDynaBean && path.getType(last) == PropertyPath.SIMPLE) {
+            ((PrimitiveDynaBean) bean).setInt(path.getToken(last), value);
+            return;
+        }
+        setPathSegment(bean, path, last, PrimitiveValues.toValue(name,
+                getPrimitiveTargetType(bean, path, last), value));
+
+    }
+
+
+    /**
+     * Set the value of the specified property of the specified bean,
+     * no matter which property reference format is used, from a <code>long</code>.
+     * <p>
+     * The value is written to {@link PrimitiveDynaBean}s without boxing;
+     * otherwise it is boxed as the type of the property, converting it
+     * if necessary.
+     *
+     * @param bean Bean whose property is to be modified
+     * @param name Possibly indexed and/or nested name of the property
+     *  to be modified
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the value cannot be converted
+     *  to the type of the property
+     * @exception IllegalAccessException if the caller does not have
+     *  access to the property accessor method
+     * @exception IllegalArgumentException if <code>bean</code> or
+     *  <code>name</code> is null
+     * @exception InvocationTargetException if the property accessor method
+     *  throws an exception
+     * @exception NoSuchMethodException if an accessor method for this
+     *  propety cannot be found
+     * @since 1.9.0
+     */
+    public void setLongProperty(Object bean, String name, long value)
+            throws IllegalAccessException, InvocationTargetException,
+            NoSuchMethodException {
+
+        PropertyPath path = compilePrimitivePath(bean, name);
+        bean = getParentBean(bean, path);
+        int last = path.size() - 1;
+        if (bean instanceof PrimitiveDynaBean && path.getType(last) == PropertyPath.SIMPLE) {
+            ((PrimitiveDynaBean) bean).setLong(path.getToken(last), value);
+            return;
+        }
+        setPathSegment(bean, path, last, PrimitiveValues.toValue(name,
+                getPrimitiveTargetType(bean, path, last), value));
+
+    }
+
+
+    /**
+     * Set the value of the specified property of the specified bean,
+     * no matter which property reference format is used, from a <code>double</code>.
+     * <p>
+     * The value is written to {@link PrimitiveDynaBean}s without boxing;
+     * otherwise it is boxed as the type of the property, converting it
+     * if necessary.
+     *
+     * @param bean Bean whose property is to be modified
+     * @param name Possibly indexed and/or nested name of the property
+     *  to be modified
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the value cannot be converted
+     *  to the type of the property
+     * @exception IllegalAccessException if the caller does not have
+     *  access to the property accessor method
+     * @exception IllegalArgumentException if <code>bean</code> or
+     *  <code>name</code> is null
+     * @exception InvocationTargetException if the property accessor method
+     *  throws an exception
+     * @exception NoSuchMethodException if an accessor method for this
+     *  propety cannot be found
+     * @since 1.9.0
+     */
+    public void setDoubleProperty(Object bean, String name, double value)
+            throws IllegalAccessException, InvocationTargetException,
+            NoSuchMethodException {
+
+        PropertyPath path = compilePrimitivePath(bean, name);
+        bean = getParentBean(bean, path);
+        int last = path.size() - 1;
+        if (bean instanceof PrimitiveDynaBean && path.getType(last) == PropertyPath.SIMPLE) {
+            ((PrimitiveDynaBean) bean).setDouble(path.getToken(last), value);
+            return;
         }
+        setPathSegment(bean, path, last, PrimitiveValues.toValue(name,
+                getPrimitiveTargetType(bean, path, last), value));
+
+    }
+
+
+    /**
+     * Return the type a primitive value must be converted to, in order to
+     * be set as the value of the last segment of a property path.
+     *
+     * @param bean Bean holding the property
+     * @param path The compiled property path
+     * @param segment The index of the last segment
+     * @return The property type, or <code>null</code> if it is unknown
+     *
+     * @exception IllegalAccessException if the caller does not have
+     *  access to the property accessor method
+     * @exception InvocationTargetException if the property accessor method
+     *  throws an exception
+     * @exception NoSuchMethodException if an accessor method for this
+     *  propety cannot be found
+     */
+    private Class getPrimitiveTargetType(Object bean, PropertyPath path, int segment)
+            throws IllegalAccessException, InvocationTargetException,
+            NoSuchMethodException {
 
         if (bean instanceof Map) {
-            setPropertyOfMapBean((Map) bean, name, value);
-        } else if (resolver.isMapped(name)) {
-            setMappedProperty(bean, name, value);
-        } else if (resolver.isIndexed(name)) {
-            setIndexedProperty(bean, name, value);
-        } else {
-            setSimpleProperty(bean, name, value);
+            return (null);
         }
+        return (getPropertyType(bean, path.getToken(segment)));
 
     }
 
@@ -2126,6 +2905,20 @@ public class PropertyUtilsBean {
             return;
         }
 
+        // Use the bound setter method, if there is one
+        MethodInvoker invoker = isDescriptorsOverridden() ? null
+                : getIntrospectionData(bean.getClass()).getWriteInvoker(name);
+        if (invoker != null) {
+            if (log.isTraceEnabled()) {
+                String valueClassName =
+                    value == null ? "<null>" : value.getClass().getName();
+                log.trace("setSimpleProperty: Invoking method " + invoker.getMethod()
+                          + " with value " + value + " (class " + valueClassName + ")");
+            }
+            invokeSetter(invoker, bean, value);
+            return;
+        }
+
         // Retrieve the property setter method for the specified property
         PropertyDescriptor descriptor =
                 getPropertyDescriptor(bean, name);
@@ -2172,80 +2965,126 @@ public class PropertyUtilsBean {
         } catch (NullPointerException cause) {
             // JDK 1.3 and JDK 1.4 throw NullPointerException if an argument is
             // null for a primitive value (JDK 1.5+ throw IllegalArgumentException)
-            String valueString = "";
-            if (values != null) {
-                for (int i = 0; i < values.length; i++) {
-                    if (i>0) {
-                        valueString += ", " ;
-                    }
-                    if (values[i] == null) {
-                        valueString += "<null>";
-                    } else {
-                        valueString += (values[i]).getClass().getName();
-                    }
-                }
-            }
-            String expectedString = "";
-            Class[] parTypes = method.getParameterTypes();
-            if (parTypes != null) {
-                for (int i = 0; i < parTypes.length; i++) {
-                    if (i > 0) {
-                        expectedString += ", ";
-                    }
-                    expectedString += parTypes[i].getName();
-                }
-            }
-            IllegalArgumentException e = new IllegalArgumentException(
-                "Cannot invoke " + method.getDeclaringClass().getName() + "." 
-                + method.getName() + " on bean class '" + bean.getClass() +
-                "' - " + cause.getMessage()
-                // as per https://issues.apache.org/jira/browse/BEANUTILS-224
-                + " - had objects of type \"" + valueString
-                + "\" but expected signature \""
-                +   expectedString + "\""
-                );
-            if (!BeanUtils.initCause(e, cause)) {
-                log.error("Method invocation failed", cause);
+            throw invocationException(method, bean, values, cause);
+        } catch (IllegalArgumentException cause) {
+            throw invocationException(method, bean, values, cause);
+        }
+    }
+
+    /**
+     * Invoke a bound getter or setter method, catching and wrapping
+     * IllegalArgumentException in the same way as
+     * {@link #invokeMethod(Method, Object, Object[])}.
+     *
+     * @param invoker The bound method
+     * @param bean The bean to invoke the method on
+     * @param values The arguments, either none or a single value
+     * @return The value returned by the method
+     * @exception IllegalAccessException if the method is not accessible
+     * @exception InvocationTargetException if the method throws an exception
+     */
+    Object invokeMethod(
+                        MethodInvoker invoker,
+                        Object bean,
+                        Object[] values)
+                            throws
+                                IllegalAccessException,
+                                InvocationTargetException {
+        try {
+
+            if (values.length == 0) {
+                return invoker.invoke(bean);
+            } else {
+                return invoker.invoke(bean, values[0]);
             }
-            throw e;
+
+        } catch (NullPointerException cause) {
+            throw invocationException(invoker.getMethod(), bean, values, cause);
         } catch (IllegalArgumentException cause) {
-            String valueString = "";
-            if (values != null) {
-                for (int i = 0; i < values.length; i++) {
-                    if (i>0) {
-                        valueString += ", " ;
-                    }
-                    if (values[i] == null) {
-                        valueString += "<null>";
-                    } else {
-                        valueString += (values[i]).getClass().getName();
-                    }
+            throw invocationException(invoker.getMethod(), bean, values, cause);
+        }
+    }
+
+    /**
+     * Invoke a bound setter method with a single value, catching and
+     * wrapping IllegalArgumentException in the same way as
+     * {@link #invokeMethod(Method, Object, Object[])}, without allocating
+     * an argument array unless the invocation fails.
+     *
+     * @param invoker The bound setter method
+     * @param bean The bean to invoke the method on
+     * @param value The value to set
+     * @exception IllegalAccessException if the method is not accessible
+     * @exception InvocationTargetException if the method throws an exception
+     */
+    void invokeSetter(
+                        MethodInvoker invoker,
+                        Object bean,
+                        Object value)
+                            throws
+                                IllegalAccessException,
+                                InvocationTargetException {
+        try {
+
+            invoker.invoke(bean, value);
+
+        } catch (NullPointerException cause) {
+            throw invocationException(invoker.getMethod(), bean, new Object[] {value}, cause);
+        } catch (IllegalArgumentException cause) {
+            throw invocationException(invoker.getMethod(), bean, new Object[] {value}, cause);
+        }
+    }
+
+    /**
+     * Create the exception reported when a method could not be invoked
+     * with the specified arguments.
+     *
+     * @param method The method which failed
+     * @param bean The bean the method was invoked on
+     * @param values The arguments passed to the method
+     * @param cause The exception thrown by the invocation
+     * @return The exception to throw
+     */
+    private IllegalArgumentException invocationException(
+                        Method method,
+                        Object bean,
+                        Object[] values,
+                        RuntimeException cause) {
+        String valueString = "";
+        if (values != null) {
+            for (int i = 0; i < values.length; i++) {
+                if (i>0) {
+                    valueString += ", " ;
                 }
-            }
-            String expectedString = "";
-            Class[] parTypes = method.getParameterTypes();
-            if (parTypes != null) {
-                for (int i = 0; i < parTypes.length; i++) {
-                    if (i > 0) {
-                        expectedString += ", ";
-                    }
-                    expectedString += parTypes[i].getName();
+                if (values[i] == null) {
+                    valueString += "<null>";
+                } else {
+                    valueString += (values[i]).getClass().getName();
                 }
             }
-            IllegalArgumentException e = new IllegalArgumentException(
-                "Cannot invoke " + method.getDeclaringClass().getName() + "." 
-                + method.getName() + " on bean class '" + bean.getClass() +
-                "' - " + cause.getMessage()
-                // as per https://issues.apache.org/jira/browse/BEANUTILS-224
-                + " - had objects of type \"" + valueString
-                + "\" but expected signature \""
-                +   expectedString + "\""
-                );
-            if (!BeanUtils.initCause(e, cause)) {
-                log.error("Method invocation failed", cause);
+        }
+        String expectedString = "";
+        Class[] parTypes = method.getParameterTypes();
+        if (parTypes != null) {
+            for (int i = 0; i < parTypes.length; i++) {
+                if (i > 0) {
+                    expectedString += ", ";
+                }
+                expectedString += parTypes[i].getName();
             }
-            throw e;
-            
         }
+        IllegalArgumentException e = new IllegalArgumentException(
+            "Cannot invoke " + method.getDeclaringClass().getName() + "." 
+            + method.getName() + " on bean class '" + bean.getClass() +
+            "' - " + cause.getMessage()
+            // as per https://issues.apache.org/jira/browse/BEANUTILS-224
+            + " - had objects of type \"" + valueString
+            + "\" but expected signature \""
+            +   expectedString + "\""
+            );
+        if (!BeanUtils.initCause(e, cause)) {
+            log.error("Method invocation failed", cause);
+        }
+        return e;
     }
 }
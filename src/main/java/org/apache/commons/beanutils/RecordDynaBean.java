@@ -0,0 +1,727 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+
+import java.io.Serializable;
+
+
+/**
+ * <p>Implementation of the <code>DynaBean</code> interface which reads and
+ * writes its property values in a record of a {@link RecordStore}, as laid
+ * out by its {@link RecordDynaClass}.  A bean is a flyweight: it can be
+ * moved to any other record of the same store with
+ * {@link #setRecord(int)}, so that a large number of records can be
+ * processed with a single bean.</p>
+ *
+ * <pre>
+ *     RecordDynaClass dynaClass = new RecordDynaClass("row", properties);
+ *     RecordStore store = dynaClass.createStore(100000);
+ *     RecordDynaBean row = store.getBean(store.addRecord());
+ *     row.setInt("id", 1);
+ *     ...
+ *     for (int i = 0; i &lt; store.size(); i++) {
+ *         row.setRecord(i);
+ *         ... process this row ...
+ *     }
+ * </pre>
+ *
+ * <p>Values of primitive and wrapper types are stored in the record itself,
+ * and read and written without boxing by the methods of
+ * {@link PrimitiveDynaBean}.  Other values are stored in the object table
+ * of the store.</p>
+ *
+ * <p><strong>IMPLEMENTATION NOTE</strong> - Instances of this class that are
+ * accessed from multiple threads simultaneously need to be synchronized.
+ * Serializing a bean serializes its whole store.</p>
+ *
+ * @version $Revision$ $Date$
+ * @since 1.9.0
+ */
+
+public class RecordDynaBean implements PrimitiveDynaBean, Serializable {
+
+
+    // ---------------------------------------------------------- Constructors
+
+
+    /**
+     * Construct a new <code>DynaBean</code> associated with the specified
+     * <code>DynaClass</code> instance, stored in a single record store of
+     * its own.
+     *
+     * @param dynaClass The DynaClass we are associated with, which must
+     *  be a <code>RecordDynaClass</code>
+     *
+     * @exception IllegalArgumentException if the DynaClass is not a
+     *  <code>RecordDynaClass</code>
+     */
+    public RecordDynaBean(DynaClass dynaClass) {
+
+        super();
+        if (!(dynaClass instanceof RecordDynaClass)) {
+            throw new IllegalArgumentException
+                    ("DynaClass '" + (dynaClass == null ? null : dynaClass.getName()) +
+                    "' is not a RecordDynaClass");
+        }
+        this.store = new RecordStore((RecordDynaClass) dynaClass, 1);
+        this.record = store.addRecord();
+
+    }
+
+
+    /**
+     * Construct a new <code>DynaBean</code> positioned at a record of the
+     * specified store.
+     *
+     * @param store The store
+     * @param record The index of the record
+     */
+    RecordDynaBean(RecordStore store, int record) {
+
+        super();
+        this.store = store;
+        this.record = record;
+
+    }
+
+
+    // ---------------------------------------------------- Instance Variables
+
+
+    /**
+     * The store holding our record.
+     */
+    private final RecordStore store;
+
+
+    /**
+     * The index of our record in the store.
+     */
+    private int record;
+
+
+    // ------------------------------------------------------ DynaBean Methods
+
+
+    /**
+     * Does the specified mapped property contain a value for the specified
+     * key value?
+     *
+     * @param name Name of the property to check
+     * @param key Name of the key to check
+     * @return <code>true<code> if the mapped property contains a value for
+     * the specified key, otherwise <code>false</code>
+     *
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public boolean contains(String name, String key) {
+
+        return (DynaValues.contains(name, key, getValue(getSlot(name))));
+
+    }
+
+
+    /**
+     * Return the value of a simple property with the specified name.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public Object get(String name) {
+
+        return (getValue(getSlot(name)));
+
+    }
+
+
+    /**
+     * Return the value of an indexed property with the specified name.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @param index Index of the value to be retrieved
+     * @return The indexed property's value
+     *
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     * @exception IllegalArgumentException if the specified property
+     *  exists, but is not indexed
+     * @exception IndexOutOfBoundsException if the specified index
+     *  is outside the range of the underlying property
+     * @exception NullPointerException if no array or List has been
+     *  initialized for this property
+     */
+    public Object get(String name, int index) {
+
+        return (DynaValues.get(name, index, getValue(getSlot(name))));
+
+    }
+
+
+    /**
+     * Return the value of a mapped property with the specified name,
+     * or <code>null</code> if there is no value for the specified key.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @param key Key of the value to be retrieved
+     * @return The mapped property's value
+     *
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     * @exception IllegalArgumentException if the specified property
+     *  exists, but is not mapped
+     */
+    public Object get(String name, String key) {
+
+        return (DynaValues.get(name, key, getValue(getSlot(name))));
+
+    }
+
+
+    /**
+     * Return the <code>DynaClass</code> instance that describes the set of
+     * properties available for this DynaBean.
+     *
+     * @return The associated DynaClass
+     */
+    public DynaClass getDynaClass() {
+
+        return (store.getDynaClass());
+
+    }
+
+
+    /**
+     * Remove any existing value for the specified key on the
+     * specified mapped property.
+     *
+     * @param name Name of the property for which a value is to
+     *  be removed
+     * @param key Key of the value to be removed
+     *
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public void remove(String name, String key) {
+
+        DynaValues.remove(name, key, getValue(getSlot(name)));
+
+    }
+
+
+    /**
+     * Set the value of a simple property with the specified name.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the specified value cannot be
+     *  converted to the type required for this property
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     * @exception NullPointerException if an attempt is made to set a
+     *  primitive property to null
+     */
+    public void set(String name, Object value) {
+
+        setValue(getSlot(name), value);
+
+    }
+
+
+    /**
+     * Set the value of an indexed property with the specified name.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param index Index of the property to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the specified value cannot be
+     *  converted to the type required for this property
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     * @exception IllegalArgumentException if the specified property
+     *  exists, but is not indexed
+     * @exception IndexOutOfBoundsException if the specified index
+     *  is outside the range of the underlying property
+     */
+    public void set(String name, int index, Object value) {
+
+        DynaValues.set(name, index, getValue(getSlot(name)), value);
+
+    }
+
+
+    /**
+     * Set the value of a mapped property with the specified name.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param key Key of the property to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the specified value cannot be
+     *  converted to the type required for this property
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     * @exception IllegalArgumentException if the specified property
+     *  exists, but is not mapped
+     */
+    public void set(String name, String key, Object value) {
+
+        DynaValues.set(name, key, getValue(getSlot(name)), value);
+
+    }
+
+
+    // ------------------------------------------------ PrimitiveDynaBean Methods
+
+
+    /**
+     * Return the value of a simple property as a <code>boolean</code>.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception ConversionException if the value is null or cannot be
+     *  converted to a <code>boolean</code>
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public boolean getBoolean(String name) {
+
+        int slot = getSlot(name);
+        int base = getBase();
+        if (store.layout.kinds[slot] == PackedLayout.BOOLEAN && !store.isNull(base, slot)) {
+            return (store.getByte(base + store.layout.offsets[slot]) != 0);
+        }
+        return (PrimitiveValues.toBoolean(name, getValue(slot)));
+
+    }
+
+
+    /**
+     * Return the value of a simple property as an <code>int</code>.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception ConversionException if the value is null or cannot be
+     *  converted to an <code>int</code>
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public int getInt(String name) {
+
+        int slot = getSlot(name);
+        int base = getBase();
+        if (store.layout.kinds[slot] == PackedLayout.INT && !store.isNull(base, slot)) {
+            return (store.getInt(base + store.layout.offsets[slot]));
+        }
+        return (PrimitiveValues.toInt(name, getValue(slot)));
+
+    }
+
+
+    /**
+     * Return the value of a simple property as a <code>long</code>.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception ConversionException if the value is null or cannot be
+     *  converted to a <code>long</code>
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public long getLong(String name) {
+
+        int slot = getSlot(name);
+        int base = getBase();
+        byte kind = store.layout.kinds[slot];
+        if (kind == PackedLayout.LONG && !store.isNull(base, slot)) {
+            return (store.getLong(base + store.layout.offsets[slot]));
+        } else if (kind == PackedLayout.INT && !store.isNull(base, slot)) {
+            return (store.getInt(base + store.layout.offsets[slot]));
+        }
+        return (PrimitiveValues.toLong(name, getValue(slot)));
+
+    }
+
+
+    /**
+     * Return the value of a simple property as a <code>double</code>.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception ConversionException if the value is null or cannot be
+     *  converted to a <code>double</code>
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public double getDouble(String name) {
+
+        int slot = getSlot(name);
+        int base = getBase();
+        if (store.layout.kinds[slot] == PackedLayout.DOUBLE && !store.isNull(base, slot)) {
+            return (Double.longBitsToDouble(store.getLong(base + store.layout.offsets[slot])));
+        }
+        return (PrimitiveValues.toDouble(name, getValue(slot)));
+
+    }
+
+
+    /**
+     * Set the value of a simple property from a <code>boolean</code>.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the property is not boolean
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public void setBoolean(String name, boolean value) {
+
+        int slot = getSlot(name);
+        if (store.layout.kinds[slot] == PackedLayout.BOOLEAN) {
+            int base = getBase();
+            store.setByte(base + store.layout.offsets[slot], (byte) (value ? 1 : 0));
+            store.setNull(base, slot, false);
+        } else {
+            setValue(slot, PrimitiveValues.valueOf(value));
+        }
+
+    }
+
+
+    /**
+     * Set the value of a simple property from an <code>int</code>.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the value cannot be converted
+     *  to the type of the property
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public void setInt(String name, int value) {
+
+        int slot = getSlot(name);
+        if (store.layout.kinds[slot] == PackedLayout.INT) {
+            int base = getBase();
+            store.setInt(base + store.layout.offsets[slot], value);
+            store.setNull(base, slot, false);
+        } else {
+            setValue(slot, PrimitiveValues.toValue(name, getDynaProperty(slot).getType(), value));
+        }
+
+    }
+
+
+    /**
+     * Set the value of a simple property from a <code>long</code>.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the value cannot be converted
+     *  to the type of the property
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public void setLong(String name, long value) {
+
+        int slot = getSlot(name);
+        if (store.layout.kinds[slot] == PackedLayout.LONG) {
+            int base = getBase();
+            store.setLong(base + store.layout.offsets[slot], value);
+            store.setNull(base, slot, false);
+        } else {
+            setValue(slot, PrimitiveValues.toValue(name, getDynaProperty(slot).getType(), value));
+        }
+
+    }
+
+
+    /**
+     * Set the value of a simple property from a <code>double</code>.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the value cannot be converted
+     *  to the type of the property
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public void setDouble(String name, double value) {
+
+        int slot = getSlot(name);
+        if (store.layout.kinds[slot] == PackedLayout.DOUBLE) {
+            int base = getBase();
+            store.setLong(base + store.layout.offsets[slot], Double.doubleToLongBits(value));
+            store.setNull(base, slot, false);
+        } else {
+            setValue(slot, PrimitiveValues.toValue(name, getDynaProperty(slot).getType(), value));
+        }
+
+    }
+
+
+    // --------------------------------------------------------- Record Methods
+
+
+    /**
+     * Return the store holding the record of this bean.
+     *
+     * @return The store
+     */
+    public RecordStore getStore() {
+
+        return (store);
+
+    }
+
+
+    /**
+     * Return the index of the record of this bean in its store.
+     *
+     * @return The index of the record
+     */
+    public int getRecord() {
+
+        return (record);
+
+    }
+
+
+    /**
+     * Move this bean to another record of its store.
+     *
+     * @param record The index of the record
+     *
+     * @exception IndexOutOfBoundsException if there is no such record
+     */
+    public void setRecord(int record) {
+
+        store.checkRecord(record);
+        this.record = record;
+
+    }
+
+
+    /**
+     * Return the value of the simple property with the specified slot.
+     *
+     * @param slot Slot of the property whose value is to be retrieved,
+     *  as returned by {@link BasicDynaClass#getSlot(String)}
+     * @return The property's value
+     *
+     * @exception IllegalArgumentException if there is no property
+     *  with the specified slot
+     */
+    public Object getValue(int slot) {
+
+        getDynaProperty(slot);
+        RecordLayout layout = store.layout;
+        int base = getBase();
+        if (store.isNull(base, slot)) {
+            return (null);
+        }
+        int position = base + layout.offsets[slot];
+        switch (layout.kinds[slot]) {
+            case PackedLayout.BOOLEAN:
+                return (PrimitiveValues.valueOf(store.getByte(position) != 0));
+            case PackedLayout.BYTE:
+                return (new Byte(store.getByte(position)));
+            case PackedLayout.CHAR:
+                return (new Character((char) store.getShort(position)));
+            case PackedLayout.SHORT:
+                return (new Short(store.getShort(position)));
+            case PackedLayout.INT:
+                return (PrimitiveValues.valueOf(store.getInt(position)));
+            case PackedLayout.LONG:
+                return (new Long(store.getLong(position)));
+            case PackedLayout.FLOAT:
+                return (new Float(Float.intBitsToFloat(store.getInt(position))));
+            case PackedLayout.DOUBLE:
+                return (new Double(Double.longBitsToDouble(store.getLong(position))));
+            default:
+                return (store.getObject(position));
+        }
+
+    }
+
+
+    /**
+     * Set the value of the simple property with the specified slot.
+     *
+     * @param slot Slot of the property whose value is to be set,
+     *  as returned by {@link BasicDynaClass#getSlot(String)}
+     * @param value Value to which this property is to be set
+     *
+     * @exception ConversionException if the specified value cannot be
+     *  converted to the type required for this property
+     * @exception IllegalArgumentException if there is no property
+     *  with the specified slot
+     * @exception NullPointerException if an attempt is made to set a
+     *  primitive property to null
+     */
+    public void setValue(int slot, Object value) {
+
+        DynaProperty descriptor = getDynaProperty(slot);
+        if (value == null) {
+            if (descriptor.getType().isPrimitive()) {
+                throw new NullPointerException
+                        ("Primitive value for '" + descriptor.getName() + "'");
+            }
+        } else if (!isAssignable(descriptor.getType(), value.getClass())) {
+            throw new ConversionException
+                    ("Cannot assign value of type '" +
+                    value.getClass().getName() +
+                    "' to property '" + descriptor.getName() + "' of type '" +
+                    descriptor.getType().getName() + "'");
+        }
+        RecordLayout layout = store.layout;
+        int base = getBase();
+        int position = base + layout.offsets[slot];
+        byte kind = layout.kinds[slot];
+        if (kind == PackedLayout.OBJECT) {
+            store.setObject(position, value);
+            return;
+        }
+        store.setNull(base, slot, value == null);
+        if (value == null) {
+            return;
+        }
+        switch (kind) {
+            case PackedLayout.BOOLEAN:
+                store.setByte(position, (byte) (((Boolean) value).booleanValue() ? 1 : 0));
+                break;
+            case PackedLayout.BYTE:
+                store.setByte(position, ((Byte) value).byteValue());
+                break;
+            case PackedLayout.CHAR:
+                store.setShort(position, (short) ((Character) value).charValue());
+                break;
+            case PackedLayout.SHORT:
+                store.setShort(position, ((Short) value).shortValue());
+                break;
+            case PackedLayout.INT:
+                store.setInt(position, ((Integer) value).intValue());
+                break;
+            case PackedLayout.LONG:
+                store.setLong(position, ((Long) value).longValue());
+                break;
+            case PackedLayout.FLOAT:
+                store.setInt(position, Float.floatToIntBits(((Float) value).floatValue()));
+                break;
+            default:
+                store.setLong(position, Double.doubleToLongBits(((Double) value).doubleValue()));
+        }
+
+    }
+
+
+    // ------------------------------------------------------ Protected Methods
+
+
+    /**
+     * Return the slot of the specified property.
+     *
+     * @param name Name of the property
+     * @return The slot of the property
+     *
+     * @exception IllegalArgumentException if this is not a valid property
+     *  name for our DynaClass
+     */
+    protected int getSlot(String name) {
+
+        int slot = store.getDynaClass().getSlot(name);
+        if (slot < 0 || slot >= store.layout.kinds.length) {
+            throw new IllegalArgumentException
+                    ("Invalid property name '" + name + "'");
+        }
+        return (slot);
+
+    }
+
+
+    /**
+     * Return the property descriptor for the specified slot.
+     *
+     * @param slot The slot of the property
+     * @return The property descriptor
+     *
+     * @exception IllegalArgumentException if there is no property
+     *  with the specified slot
+     */
+    protected DynaProperty getDynaProperty(int slot) {
+
+        DynaProperty descriptor = null;
+        if (slot >= 0 && slot < store.layout.kinds.length) {
+            descriptor = store.getDynaClass().getDynaProperty(slot);
+        }
+        if (descriptor == null) {
+            throw new IllegalArgumentException
+                    ("Invalid property slot " + slot);
+        }
+        return (descriptor);
+
+    }
+
+
+    /**
+     * Is an object of the source class assignable to the destination class?
+     *
+     * @param dest Destination class
+     * @param source Source class
+     * @return <code>true</code> if the source class is assignable to the
+     * destination class, otherwise <code>false</code>
+     */
+    protected boolean isAssignable(Class dest, Class source) {
+
+        return (DynaValues.isAssignable(dest, source));
+
+    }
+
+
+    // -------------------------------------------------------- Private Methods
+
+
+    /**
+     * Return the offset of our record in the store, which may have been
+     * removed by <code>clear()</code> since this bean was positioned.
+     *
+     * @exception IndexOutOfBoundsException if the record no longer exists
+     */
+    private int getBase() {
+
+        store.checkRecord(record);
+        return (record * store.layout.recordSize);
+
+    }
+
+
+}
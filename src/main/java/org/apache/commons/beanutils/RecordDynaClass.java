@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+
+/**
+ * <p>Implementation of {@link DynaClass} whose {@link DynaBean}s store
+ * their values in fixed size records of a {@link RecordStore}, rather
+ * than in an object per bean.</p>
+ *
+ * <p>The record layout is computed from the property types: values of
+ * primitive and wrapper types are stored inline in the record, and other
+ * values (strings, dates, arrays, ...) in an object table of the store,
+ * referenced from the record.  A store holds any number of records in a
+ * single byte array, and a {@link RecordDynaBean} is a flyweight that can
+ * be moved from one record to another, so a large number of rows can be
+ * kept without any object per row besides their non-primitive values.</p>
+ *
+ * <p>The beans created by <code>newInstance()</code> each have a store
+ * of their own, with a single record.</p>
+ *
+ * @version $Revision$ $Date$
+ * @since 1.9.0
+ */
+public class RecordDynaClass extends BasicDynaClass {
+
+
+    // ----------------------------------------------------------- Constructors
+
+
+    /**
+     * Construct a new RecordDynaClass with the specified parameters.
+     *
+     * @param name Name of this DynaBean class
+     * @param properties Property descriptors for the supported properties
+     */
+    public RecordDynaClass(String name, DynaProperty[] properties) {
+
+        super(name, RecordDynaBean.class, properties);
+
+    }
+
+
+    // ----------------------------------------------------- Instance Variables
+
+
+    /**
+     * The record layout of the properties, created when first needed.
+     */
+    private transient RecordLayout recordLayout;
+
+
+    // --------------------------------------------------------- Public Methods
+
+
+    /**
+     * Return the size in bytes of the records of this DynaClass.
+     *
+     * @return The record size
+     */
+    public int getRecordSize() {
+
+        return (getRecordLayout().recordSize);
+
+    }
+
+
+    /**
+     * Create an empty {@link RecordStore} for records of this DynaClass.
+     *
+     * @param capacity The initial number of records the store can hold
+     * @return The new store
+     *
+     * @exception IllegalArgumentException if <code>capacity</code>
+     *  is negative, or too large for the records to fit in an array
+     */
+    public RecordStore createStore(int capacity) {
+
+        return (new RecordStore(this, capacity));
+
+    }
+
+
+    // -------------------------------------------------------- Package Methods
+
+
+    /**
+     * Return the record layout of the properties.
+     *
+     * @return The layout
+     */
+    RecordLayout getRecordLayout() {
+
+        RecordLayout layout = recordLayout;
+        if (layout == null) {
+            layout = new RecordLayout(this);
+            recordLayout = layout;
+        }
+        return (layout);
+
+    }
+
+
+    // ------------------------------------------------------ Protected Methods
+
+
+    /**
+     * Set the list of dynamic properties supported by this DynaClass.
+     * Stores created before keep the previous record layout.
+     *
+     * @param properties List of dynamic properties to be supported
+     */
+    protected void setProperties(DynaProperty[] properties) {
+
+        super.setProperties(properties);
+        recordLayout = null;
+
+    }
+
+
+}
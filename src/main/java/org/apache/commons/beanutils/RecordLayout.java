@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+
+/**
+ * <p>The fixed record layout of the properties of a
+ * {@link RecordDynaClass}: the storage kind of the property in each slot,
+ * its byte offset in a record, and the bit marking a non-null value for
+ * properties of a wrapper type.</p>
+ *
+ * <p>A record starts with a bitmap of the non-null wrapper values (so that
+ * a zero filled record holds default primitive values and null wrapper
+ * values), followed by
+ * the values of each slot: primitive and wrapper values inline (one byte
+ * for booleans and bytes, two for chars and shorts, four for ints and
+ * floats, eight for longs and doubles), and any other value as a four
+ * byte index into the object table of the {@link RecordStore}.</p>
+ *
+ * <p>Layouts are immutable.</p>
+ *
+ * @version $Revision$ $Date$
+ * @since 1.9.0
+ */
+final class RecordLayout {
+
+    /** The storage kind of each slot, one of the kinds of {@link PackedLayout} */
+    final byte[] kinds;
+
+    /** The byte offset of each slot in a record */
+    final int[] offsets;
+
+    /** The bit marking a non-null value of each slot of a wrapper type, or -1 */
+    final int[] nullBits;
+
+    /** The size of a record in bytes */
+    final int recordSize;
+
+    /**
+     * Create the layout of the specified slots.
+     *
+     * @param dynaClass The DynaClass whose slots are laid out
+     */
+    RecordLayout(BasicDynaClass dynaClass) {
+        int count = dynaClass.getSlotCount();
+        kinds = new byte[count];
+        offsets = new int[count];
+        nullBits = new int[count];
+        int nullable = 0;
+        for (int slot = 0; slot < count; slot++) {
+            DynaProperty descriptor = dynaClass.getDynaProperty(slot);
+            Class type = (descriptor == null ? Object.class : descriptor.getType());
+            kinds[slot] = kindOf(type);
+            nullBits[slot] = (kinds[slot] != PackedLayout.OBJECT && !type.isPrimitive()
+                    ? nullable++ : -1);
+        }
+        int offset = (nullable + 7) / 8;
+        for (int slot = 0; slot < count; slot++) {
+            offsets[slot] = offset;
+            offset += sizeOf(kinds[slot]);
+        }
+        this.recordSize = offset;
+    }
+
+    /**
+     * Return the storage kind of the specified type.
+     *
+     * @param type The property type
+     * @return The storage kind
+     */
+    private static byte kindOf(Class type) {
+        if (type == Integer.TYPE || type == Integer.class) {
+            return (PackedLayout.INT);
+        } else if (type == Long.TYPE || type == Long.class) {
+            return (PackedLayout.LONG);
+        } else if (type == Double.TYPE || type == Double.class) {
+            return (PackedLayout.DOUBLE);
+        } else if (type == Boolean.TYPE || type == Boolean.class) {
+            return (PackedLayout.BOOLEAN);
+        } else if (type == Float.TYPE || type == Float.class) {
+            return (PackedLayout.FLOAT);
+        } else if (type == Short.TYPE || type == Short.class) {
+            return (PackedLayout.SHORT);
+        } else if (type == Byte.TYPE || type == Byte.class) {
+            return (PackedLayout.BYTE);
+        } else if (type == Character.TYPE || type == Character.class) {
+            return (PackedLayout.CHAR);
+        }
+        return (PackedLayout.OBJECT);
+    }
+
+    /**
+     * Return the number of bytes used by a value of the specified kind.
+     *
+     * @param kind The storage kind
+     * @return The size in bytes
+     */
+    private static int sizeOf(byte kind) {
+        switch (kind) {
+            case PackedLayout.BOOLEAN:
+            case PackedLayout.BYTE:
+                return (1);
+            case PackedLayout.CHAR:
+            case PackedLayout.SHORT:
+                return (2);
+            case PackedLayout.LONG:
+            case PackedLayout.DOUBLE:
+                return (8);
+            default:
+                return (4);
+        }
+    }
+
+}
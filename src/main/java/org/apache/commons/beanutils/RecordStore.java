@@ -0,0 +1,413 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+
+
+/**
+ * <p>A store of fixed size records for the {@link RecordDynaBean}s of a
+ * {@link RecordDynaClass}.  All the records are kept in a single byte
+ * array, laid out as described by the DynaClass, and the non-primitive
+ * values are kept in an object table shared by the records.</p>
+ *
+ * <p>Records are accessed through {@link RecordDynaBean} flyweights,
+ * which can be moved to any record of the store with
+ * <code>setRecord()</code>.  A flyweight positioned at a record that has
+ * been removed by <code>clear()</code> throws
+ * <code>IndexOutOfBoundsException</code> until it is moved to an existing
+ * record.  Stores are not thread safe.</p>
+ *
+ * <p>A store holds at most <code>Integer.MAX_VALUE</code> bytes of
+ * records.  Serializing a store writes only the records in use.</p>
+ *
+ * @version $Revision$ $Date$
+ * @since 1.9.0
+ */
+public class RecordStore implements Serializable {
+
+
+    // ----------------------------------------------------------- Constructors
+
+
+    /**
+     * Create an empty store for records of the specified DynaClass.
+     *
+     * @param dynaClass The DynaClass of the records
+     * @param capacity The initial number of records the store can hold
+     *
+     * @exception IllegalArgumentException if <code>capacity</code>
+     *  is negative, or too large for the records to fit in an array
+     */
+    public RecordStore(RecordDynaClass dynaClass, int capacity) {
+
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity);
+        }
+        this.dynaClass = dynaClass;
+        this.layout = dynaClass.getRecordLayout();
+        long length = (long) Math.max(capacity, 1) * Math.max(layout.recordSize, 1);
+        if (length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity);
+        }
+        this.data = new byte[(int) length];
+
+    }
+
+
+    // ----------------------------------------------------- Instance Variables
+
+
+    /** The largest array allocated for the records */
+    private static final int MAX_LENGTH = Integer.MAX_VALUE - 8;
+
+    /** The DynaClass of the records */
+    private final RecordDynaClass dynaClass;
+
+    /** The layout of the records */
+    transient RecordLayout layout;
+
+    /** The records, serialized by <code>writeObject()</code> */
+    private transient byte[] data;
+
+    /** The number of records */
+    private int size = 0;
+
+    /**
+     * The object table, referenced by one-relative indexes from the records,
+     * serialized by <code>writeObject()</code>
+     */
+    private transient Object[] objects = new Object[16];
+
+    /** The number of entries used in the object table */
+    private int objectCount = 0;
+
+
+    // --------------------------------------------------------- Public Methods
+
+
+    /**
+     * Return the DynaClass of the records.
+     *
+     * @return The DynaClass
+     */
+    public RecordDynaClass getDynaClass() {
+
+        return (dynaClass);
+
+    }
+
+
+    /**
+     * Return the number of records.
+     *
+     * @return The number of records
+     */
+    public int size() {
+
+        return (size);
+
+    }
+
+
+    /**
+     * Add a record, with default values for primitive properties and
+     * <code>null</code> values for other properties.
+     *
+     * @return The index of the new record
+     *
+     * @exception IllegalStateException if the store is full
+     */
+    public int addRecord() {
+
+        int recordSize = layout.recordSize;
+        long end = (long) (size + 1) * recordSize;
+        if (end > data.length) {
+            if (end > MAX_LENGTH) {
+                throw new IllegalStateException("Record store full, size " + size);
+            }
+            long length = Math.min(Math.max(end, (long) data.length * 2), MAX_LENGTH);
+            byte[] grown = new byte[(int) length];
+            System.arraycopy(data, 0, grown, 0, size * recordSize);
+            data = grown;
+        } else {
+            Arrays.fill(data, size * recordSize, (int) end, (byte) 0);
+        }
+        return (size++);
+
+    }
+
+
+    /**
+     * Return a {@link RecordDynaBean} positioned at the specified record.
+     *
+     * @param record The index of the record
+     * @return A bean reading and writing the record
+     *
+     * @exception IndexOutOfBoundsException if there is no such record
+     */
+    public RecordDynaBean getBean(int record) {
+
+        checkRecord(record);
+        return (new RecordDynaBean(this, record));
+
+    }
+
+
+    /**
+     * Remove all the records.  Flyweights positioned at a removed record
+     * must be moved with <code>setRecord()</code> before they are used
+     * again.
+     */
+    public void clear() {
+
+        size = 0;
+        Arrays.fill(objects, 0, objectCount, null);
+        objectCount = 0;
+
+    }
+
+
+    // -------------------------------------------------------- Package Methods
+
+
+    /**
+     * Check that a record exists.
+     *
+     * @param record The index of the record
+     *
+     * @exception IndexOutOfBoundsException if there is no such record
+     */
+    void checkRecord(int record) {
+
+        if (record < 0 || record >= size) {
+            throw new IndexOutOfBoundsException("Record: " + record + ", Size: " + size);
+        }
+
+    }
+
+
+    /**
+     * Return whether the wrapper value of a slot is null.
+     *
+     * @param base The offset of the record
+     * @param slot The slot
+     * @return <code>true</code> if the value is null
+     */
+    boolean isNull(int base, int slot) {
+
+        int bit = layout.nullBits[slot];
+        return (bit >= 0 && (data[base + (bit >> 3)] & (1 << (bit & 7))) == 0);
+
+    }
+
+
+    /**
+     * Mark the wrapper value of a slot as null or not.
+     *
+     * @param base The offset of the record
+     * @param slot The slot
+     * @param isNull Whether the value is null
+     */
+    void setNull(int base, int slot, boolean isNull) {
+
+        int bit = layout.nullBits[slot];
+        if (bit >= 0) {
+            int index = base + (bit >> 3);
+            if (isNull) {
+                data[index] &= (byte) ~(1 << (bit & 7));
+            } else {
+                data[index] |= (byte) (1 << (bit & 7));
+            }
+        }
+
+    }
+
+
+    /**
+     * Read a byte.
+     */
+    byte getByte(int position) {
+
+        return (data[position]);
+
+    }
+
+
+    /**
+     * Write a byte.
+     */
+    void setByte(int position, byte value) {
+
+        data[position] = value;
+
+    }
+
+
+    /**
+     * Read a big-endian <code>short</code>.
+     */
+    short getShort(int position) {
+
+        return ((short) ((data[position] << 8) | (data[position + 1] & 0xff)));
+
+    }
+
+
+    /**
+     * Write a big-endian <code>short</code>.
+     */
+    void setShort(int position, short value) {
+
+        data[position] = (byte) (value >> 8);
+        data[position + 1] = (byte) value;
+
+    }
+
+
+    /**
+     * Read a big-endian <code>int</code>.
+     */
+    int getInt(int position) {
+
+        byte[] bytes = data;
+        return ((bytes[position] << 24)
+                | ((bytes[position + 1] & 0xff) << 16)
+                | ((bytes[position + 2] & 0xff) << 8)
+                | (bytes[position + 3] & 0xff));
+
+    }
+
+
+    /**
+     * Write a big-endian <code>int</code>.
+     */
+    void setInt(int position, int value) {
+
+        byte[] bytes = data;
+        bytes[position] = (byte) (value >> 24);
+        bytes[position + 1] = (byte) (value >> 16);
+        bytes[position + 2] = (byte) (value >> 8);
+        bytes[position + 3] = (byte) value;
+
+    }
+
+
+    /**
+     * Read a big-endian <code>long</code>.
+     */
+    long getLong(int position) {
+
+        return (((long) getInt(position) << 32) | (getInt(position + 4) & 0xffffffffL));
+
+    }
+
+
+    /**
+     * Write a big-endian <code>long</code>.
+     */
+    void setLong(int position, long value) {
+
+        setInt(position, (int) (value >> 32));
+        setInt(position + 4, (int) value);
+
+    }
+
+
+    /**
+     * Return the object referenced by a slot of a record.
+     *
+     * @param position The offset of the reference
+     * @return The object, or <code>null</code>
+     */
+    Object getObject(int position) {
+
+        int index = getInt(position);
+        return (index == 0 ? null : objects[index - 1]);
+
+    }
+
+
+    /**
+     * Store the object referenced by a slot of a record, reusing the
+     * entry of the object table already referenced by the slot.
+     *
+     * @param position The offset of the reference
+     * @param value The object, or <code>null</code>
+     */
+    void setObject(int position, Object value) {
+
+        int index = getInt(position);
+        if (index != 0) {
+            objects[index - 1] = value;
+        } else if (value != null) {
+            if (objectCount == objects.length) {
+                Object[] grown = new Object[objectCount * 2];
+                System.arraycopy(objects, 0, grown, 0, objectCount);
+                objects = grown;
+            }
+            objects[objectCount++] = value;
+            setInt(position, objectCount);
+        }
+
+    }
+
+
+    // -------------------------------------------------------- Private Methods
+
+
+    /**
+     * Write the records in use and the entries of the object table.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+
+        out.defaultWriteObject();
+        out.write(data, 0, size * layout.recordSize);
+        for (int i = 0; i < objectCount; i++) {
+            out.writeObject(objects[i]);
+        }
+
+    }
+
+
+    /**
+     * Restore the record layout, the records and the object table after
+     * deserialization.
+     */
+    private void readObject(ObjectInputStream in)
+            throws IOException, ClassNotFoundException {
+
+        in.defaultReadObject();
+        layout = dynaClass.getRecordLayout();
+        int recordSize = layout.recordSize;
+        data = new byte[Math.max(size, 1) * Math.max(recordSize, 1)];
+        in.readFully(data, 0, size * recordSize);
+        objects = new Object[Math.max(objectCount, 16)];
+        for (int i = 0; i < objectCount; i++) {
+            objects[i] = in.readObject();
+        }
+
+    }
+
+
+}
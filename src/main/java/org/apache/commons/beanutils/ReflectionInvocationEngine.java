@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * <p>Default {@link InvocationEngine} implementation which invokes
+ * bound methods using <code>Method.invoke()</code>.</p>
+ *
+ * <p>Getters are invoked with a shared empty argument array, so only
+ * setters allocate an argument array per call.</p>
+ *
+ * @version $Revision$ $Date$
+ * @since 1.9.0
+ */
+public class ReflectionInvocationEngine implements InvocationEngine {
+
+    /** An empty object array */
+    private static final Object[] EMPTY_OBJECT_ARRAY = new Object[0];
+
+    /**
+     * Bind the specified method into an invoker which uses reflection.
+     *
+     * @param method The accessible method to be bound
+     * @return The invoker for the method
+     */
+    public MethodInvoker bind(Method method) {
+        if (method == null) {
+            throw new IllegalArgumentException("No method specified");
+        }
+        return new ReflectionMethodInvoker(method);
+    }
+
+    /**
+     * {@link MethodInvoker} which delegates to <code>Method.invoke()</code>.
+     */
+    private static class ReflectionMethodInvoker implements MethodInvoker {
+
+        private final Method method;
+
+        /**
+         * Construct an invoker for the specified method.
+         *
+         * @param method The method to invoke
+         */
+        ReflectionMethodInvoker(Method method) {
+            this.method = method;
+        }
+
+        /**
+         * Return the bound method.
+         *
+         * @return The bound method
+         */
+        public Method getMethod() {
+            return method;
+        }
+
+        /**
+         * Invoke the bound method with no arguments.
+         *
+         * @param bean The bean to invoke the method on
+         * @return The value returned by the method
+         * @exception IllegalAccessException if the method is not accessible
+         * @exception InvocationTargetException if the method throws an exception
+         */
+        public Object invoke(Object bean)
+                throws IllegalAccessException, InvocationTargetException {
+            return method.invoke(bean, EMPTY_OBJECT_ARRAY);
+        }
+
+        /**
+         * Invoke the bound method with a single argument.
+         *
+         * @param bean The bean to invoke the method on
+         * @param arg The argument to pass to the method
+         * @return The value returned by the method
+         * @exception IllegalAccessException if the method is not accessible
+         * @exception InvocationTargetException if the method throws an exception
+         */
+        public Object invoke(Object bean, Object arg)
+                throws IllegalAccessException, InvocationTargetException {
+            return method.invoke(bean, new Object[] {arg});
+        }
+
+        /**
+         * Return a String representation of this invoker.
+         *
+         * @return A String representation of this invoker
+         */
+        public String toString() {
+            return "ReflectionMethodInvoker[" + method + "]";
+        }
+    }
+
+}
@@ -19,6 +19,8 @@
 package org.apache.commons.beanutils;
 
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Iterator;
@@ -168,6 +170,7 @@ public class ResultSetDynaClass extends JDBCDynaClass implements DynaClass {
         this.lowerCase = lowerCase;
         setUseColumnLabel(useColumnLabel);
         introspect(resultSet);
+        this.fetchByName = isFetchOverridden();
 
     }
 
@@ -175,12 +178,27 @@ public class ResultSetDynaClass extends JDBCDynaClass implements DynaClass {
     // ----------------------------------------------------- Instance Variables
 
 
+    /**
+     * The serial version of release 1.8.3, kept so that the DynaClasses it
+     * serialized can still be read.
+     */
+    private static final long serialVersionUID = -180279529259326370L;
+
+
     /**
      * <p>The <code>ResultSet</code> we are wrapping.</p>
      */
     protected ResultSet resultSet = null;
 
 
+    /**
+     * <p>Flag indicating whether values must be fetched by property name,
+     * because <code>getObjectFromResultSet(String)</code> is overridden.
+     * Recomputed on deserialization rather than serialized.</p>
+     */
+    private transient boolean fetchByName = false;
+
+
     // --------------------------------------------------------- Public Methods
 
 
@@ -198,6 +216,68 @@ public class ResultSetDynaClass extends JDBCDynaClass implements DynaClass {
     }
 
 
+    /**
+     * <p>Return an <code>Iterator</code> that streams the rows of the
+     * wrapped <code>ResultSet</code> in batches of <code>fetchSize</code>
+     * rows, in "forward" order.  Each element is the same reusable
+     * {@link StreamingResultSetIterator}, holding the values of the current
+     * row; call its <code>detach()</code> method to retain a row.</p>
+     *
+     * <p>The fetch size is also passed to the result set as a hint; drivers
+     * that reject it are still read in batches of the requested size.</p>
+     *
+     * @param fetchSize The number of rows read in each batch
+     * @return A {@link StreamingResultSetIterator} over the rows
+     *
+     * @exception IllegalArgumentException if <code>fetchSize</code>
+     *  is not positive
+     * @since 1.9.0
+     */
+    public StreamingResultSetIterator streamIterator(int fetchSize) {
+
+        StreamingResultSetIterator iterator =
+            new StreamingResultSetIterator(this, fetchSize);
+        try {
+            getResultSet().setFetchSize(fetchSize);
+        } catch (SQLException e) {
+            // Only a hint, the iterator reads its own batches
+        }
+        return (iterator);
+
+    }
+
+
+    /**
+     * <p>Return an <code>Iterator</code> of {@link DynaBean} instances for
+     * each row of the wrapped <code>ResultSet</code>, in "forward" order,
+     * read ahead by a background thread.  Unlike the elements returned by
+     * <code>iterator()</code>, each element is a {@link BasicDynaBean}
+     * holding a copy of the row values.</p>
+     *
+     * <p>The result set must not be used by any other thread until the
+     * iteration is complete, or until the returned iterator has been
+     * closed.</p>
+     *
+     * @param capacity The maximum number of rows read ahead
+     * @param closeResultSet Should the result set be closed when the
+     *  iteration ends?
+     * @return A {@link PrefetchingResultSetIterator} over the rows
+     *
+     * @exception IllegalArgumentException if <code>capacity</code>
+     *  is not positive
+     * @since 1.9.0
+     */
+    public PrefetchingResultSetIterator prefetchIterator(int capacity,
+                                                         boolean closeResultSet) {
+
+        PrefetchingResultSetIterator iterator =
+            new PrefetchingResultSetIterator(this, capacity, closeResultSet);
+        iterator.start();
+        return (iterator);
+
+    }
+
+
     /**
      * Get a value from the {@link ResultSet} for the specified
      * property name.
@@ -214,6 +294,48 @@ public class ResultSetDynaClass extends JDBCDynaClass implements DynaClass {
     // -------------------------------------------------------- Package Methods
 
 
+    /**
+     * Get a value from the {@link ResultSet} for the specified property,
+     * using the column index and typed getter planned for it.
+     *
+     * @param name The property name
+     * @return The value
+     * @throws SQLException if an error occurs
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    Object fetchObject(String name) throws SQLException {
+
+        int index = getPropertyIndex(name);
+        if (fetchByName || index < 0) {
+            if (getDynaProperty(name) == null) {
+                throw new IllegalArgumentException(name);
+            }
+            return (getObjectFromResultSet(name));
+        }
+        return (getObject(getResultSet(), index));
+
+    }
+
+
+    /**
+     * Get a value from the {@link ResultSet} for the property at the
+     * specified index of <code>properties</code>.
+     *
+     * @param index The index of the property
+     * @return The value
+     * @throws SQLException if an error occurs
+     */
+    Object fetchObject(int index) throws SQLException {
+
+        if (fetchByName) {
+            return (getObjectFromResultSet(properties[index].getName()));
+        }
+        return (getObject(getResultSet(), index));
+
+    }
+
+
     /**
      * <p>Return the result set we are wrapping.</p>
      */
@@ -246,4 +368,33 @@ public class ResultSetDynaClass extends JDBCDynaClass implements DynaClass {
                                    className + "': " + e);
         }
     }
+
+
+    // -------------------------------------------------------- Private Methods
+
+
+    /**
+     * Return whether a subclass overrides
+     * <code>getObjectFromResultSet(String)</code>.
+     */
+    private boolean isFetchOverridden() {
+
+        return (MethodUtils.isOverridden(getClass(), ResultSetDynaClass.class,
+                "getObjectFromResultSet", new Class[] {String.class}));
+
+    }
+
+
+    /**
+     * Restore the fetch mode after deserialization.
+     */
+    private void readObject(ObjectInputStream in)
+            throws IOException, ClassNotFoundException {
+
+        in.defaultReadObject();
+        fetchByName = isFetchOverridden();
+
+    }
+
+
 }
@@ -112,11 +112,8 @@ public class ResultSetIterator implements DynaBean, Iterator {
      */
     public Object get(String name) {
 
-        if (dynaClass.getDynaProperty(name) == null) {
-            throw new IllegalArgumentException(name);
-        }
         try {
-            return dynaClass.getObjectFromResultSet(name);
+            return dynaClass.fetchObject(name);
         } catch (SQLException e) {
             throw new RuntimeException
                 ("get(" + name + "): SQLException: " + e);
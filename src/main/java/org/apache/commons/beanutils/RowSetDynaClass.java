@@ -19,10 +19,14 @@
 package org.apache.commons.beanutils;
 
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 
@@ -70,7 +74,13 @@ public class RowSetDynaClass extends JDBCDynaClass implements DynaClass, Seriali
 
 
     // ----------------------------------------------------- Instance variables
-    
+
+    /**
+     * The serial version of release 1.8.3, kept so that the row sets it
+     * serialized can still be read.
+     */
+    private static final long serialVersionUID = -5199072814575097608L;
+
     /**
      * <p>Limits the size of the returned list.  The call to 
      * <code>getRows()</code> will return at most limit number of rows.
@@ -238,6 +248,88 @@ public class RowSetDynaClass extends JDBCDynaClass implements DynaClass, Seriali
     public RowSetDynaClass(ResultSet resultSet, boolean lowerCase, int limit, boolean useColumnLabel)
                                                             throws SQLException {
 
+        this(resultSet, lowerCase, limit, useColumnLabel, false);
+
+    }
+
+    /**
+     * <p>Construct a new {@link RowSetDynaClass} for the specified
+     * <code>ResultSet</code>, optionally storing the rows by column.</p>
+     *
+     * <p>In columnar mode, the values of each column are stored together,
+     * in a primitive array for numeric, boolean and date/time columns
+     * (with a bitmap of null values), rather than in a separate
+     * {@link DynaBean} per row. The <code>List</code> returned by
+     * <code>getRows()</code> then holds lightweight views of the rows,
+     * created when they are requested: reading or writing their
+     * properties reads or writes the stored columns. This uses a fraction
+     * of the memory needed for large result sets, but <code>DynaBean</code>s
+     * are then not created with <code>createDynaBean()</code>.</p>
+     *
+     * @param resultSet The result set to be wrapped
+     * @param lowerCase Should property names be lower cased?
+     * @param limit Maximum limit for the <code>List</code> of {@link DynaBean}
+     * @param useColumnLabel true if the column label should be used, otherwise false
+     * @param columnar true if the rows should be stored by column
+     *
+     * @exception NullPointerException if <code>resultSet</code>
+     *  is <code>null</code>
+     * @exception SQLException if the metadata for this result set
+     *  cannot be introspected
+     * @since 1.9.0
+     */
+    public RowSetDynaClass(ResultSet resultSet, boolean lowerCase, int limit, boolean useColumnLabel,
+                           boolean columnar) throws SQLException {
+
+        if (resultSet == null) {
+            throw new NullPointerException();
+        }
+        this.lowerCase = lowerCase;
+        this.limit = limit;
+        setUseColumnLabel(useColumnLabel);
+        introspect(resultSet);
+        if (columnar) {
+            rows = new ColumnarRowList(this);
+        }
+        copy(resultSet);
+
+    }
+
+    /**
+     * <p>Construct a new {@link RowSetDynaClass} for the specified
+     * <code>ResultSet</code>, writing the rows beyond a memory budget
+     * to a temporary file.</p>
+     *
+     * <p>The first rows are kept in memory as usual, until there are
+     * <code>maxRows</code> of them or their estimated size reaches
+     * <code>maxBytes</code>. The following rows are written to a
+     * temporary file in a compact binary format, and read back when they
+     * are requested from the <code>List</code> returned by
+     * <code>getRows()</code>. A row read from the file is a new
+     * {@link DynaBean} created by <code>createDynaBean()</code> on each
+     * request, so changes to its properties are only kept by setting it
+     * back into the list. The file is deleted when the list is cleared or
+     * garbage collected. Serializing this {@link RowSetDynaClass} reads all
+     * the rows into memory.</p>
+     *
+     * @param resultSet The result set to be wrapped
+     * @param lowerCase Should property names be lower cased?
+     * @param limit Maximum limit for the <code>List</code> of {@link DynaBean}
+     * @param useColumnLabel true if the column label should be used, otherwise false
+     * @param maxRows The maximum number of rows kept in memory, or 0 for
+     *  no limit
+     * @param maxBytes The maximum estimated size in bytes of the rows kept
+     *  in memory, or 0 for no limit
+     *
+     * @exception NullPointerException if <code>resultSet</code>
+     *  is <code>null</code>
+     * @exception SQLException if the metadata for this result set
+     *  cannot be introspected
+     * @since 1.9.0
+     */
+    public RowSetDynaClass(ResultSet resultSet, boolean lowerCase, int limit, boolean useColumnLabel,
+                           int maxRows, long maxBytes) throws SQLException {
+
         if (resultSet == null) {
             throw new NullPointerException();
         }
@@ -245,10 +337,26 @@ public class RowSetDynaClass extends JDBCDynaClass implements DynaClass, Seriali
         this.limit = limit;
         setUseColumnLabel(useColumnLabel);
         introspect(resultSet);
+        rows = new SpillRowList(this, maxRows, maxBytes);
         copy(resultSet);
 
     }
 
+    /**
+     * <p>Construct a new {@link RowSetDynaClass} with the specified
+     * properties and no rows, for reading rows from a stream.</p>
+     *
+     * @param properties The properties of the rows
+     */
+    private RowSetDynaClass(DynaProperty[] properties) {
+
+        this.properties = properties;
+        for (int i = 0; i < properties.length; i++) {
+            propertiesMap.put(properties[i].getName(), properties[i]);
+        }
+
+    }
+
     /**
      * <p>Return a <code>List</code> containing the {@link DynaBean}s that
      * represent the contents of each <code>Row</code> from the
@@ -269,6 +377,87 @@ public class RowSetDynaClass extends JDBCDynaClass implements DynaClass, Seriali
     }
 
 
+    /**
+     * <p>Return whether the rows are stored by column. This follows from
+     * the type of the list of rows, so that it needs no serialized state
+     * of its own.</p>
+     *
+     * @return <code>true</code> if the rows are stored by column
+     * @since 1.9.0
+     */
+    public boolean isColumnar() {
+
+        return (rows instanceof ColumnarRowList);
+
+    }
+
+
+    /**
+     * <p>Return whether some rows have been written to a temporary file,
+     * because they exceeded the memory budget.</p>
+     *
+     * @return <code>true</code> if some rows are stored in a file
+     * @since 1.9.0
+     */
+    public boolean isSpilled() {
+
+        return (rows instanceof SpillRowList
+                && ((SpillRowList) rows).getSpilledCount() > 0);
+
+    }
+
+
+    /**
+     * <p>Write the properties and the rows of this {@link RowSetDynaClass}
+     * to a stream, in the compact binary format of {@link DynaBeanWriter}.
+     * The rows are written one at a time, so rows stored in a spill file
+     * are not all read into memory.  The stream is flushed, but not
+     * closed.</p>
+     *
+     * @param out The stream to write to
+     * @throws IOException if the rows cannot be written, or a value is
+     *  not serializable
+     * @since 1.9.0
+     */
+    public void writeRows(OutputStream out) throws IOException {
+
+        DynaBeanWriter writer = new DynaBeanWriter(out, this);
+        for (Iterator i = rows.iterator(); i.hasNext();) {
+            writer.write((DynaBean) i.next());
+        }
+        writer.finish();
+
+    }
+
+
+    /**
+     * <p>Read a {@link RowSetDynaClass} written by
+     * {@link #writeRows(OutputStream)}.  The rows are
+     * {@link BasicDynaBean}s.  The stream is not closed, and is not read
+     * beyond the end of the rows.</p>
+     *
+     * @param in The stream to read from
+     * @return A new {@link RowSetDynaClass} with the properties and rows
+     *  read
+     * @throws IOException if the rows cannot be read
+     * @since 1.9.0
+     */
+    public static RowSetDynaClass readRows(InputStream in) throws IOException {
+
+        DynaBeanReader reader = new DynaBeanReader(in);
+        RowSetDynaClass dynaClass = new RowSetDynaClass(reader.getDynaProperties());
+        while (true) {
+            DynaBean bean = dynaClass.createDynaBean();
+            if (!reader.read(bean)) {
+                break;
+            }
+            dynaClass.rows.add(bean);
+        }
+        return (dynaClass);
+
+    }
+
+
     // ------------------------------------------------------ Protected Methods
 
 
@@ -285,16 +474,46 @@ public class RowSetDynaClass extends JDBCDynaClass implements DynaClass, Seriali
      */
     protected void copy(ResultSet resultSet) throws SQLException {
 
+        if (rows instanceof ColumnarRowList) {
+            copyColumns(resultSet, (ColumnarRowList) rows);
+            return;
+        }
         int cnt = 0;
         while (resultSet.next() && (limit < 0  || cnt++ < limit) ) {
             DynaBean bean = createDynaBean();
             for (int i = 0; i < properties.length; i++) {
-                String name = properties[i].getName();
-                Object value = getObject(resultSet, name);
-                bean.set(name, value);
+                bean.set(properties[i].getName(), getObject(resultSet, i));
             }
             rows.add(bean);
         }
+        if (rows instanceof SpillRowList) {
+            ((SpillRowList) rows).sync();
+        }
+
+    }
+
+
+    /**
+     * <p>Copy the column values for each row in the specified
+     * <code>ResultSet</code> into the columns of a columnar list of rows.</p>
+     *
+     * @param resultSet The <code>ResultSet</code> whose data is to be
+     *  copied
+     * @param columns The list into which the rows are copied
+     *
+     * @exception SQLException if an error is encountered copying the data
+     */
+    private void copyColumns(ResultSet resultSet, ColumnarRowList columns)
+            throws SQLException {
+
+        int cnt = 0;
+        while (resultSet.next() && (limit < 0  || cnt++ < limit) ) {
+            int row = columns.addRow();
+            for (int i = 0; i < properties.length; i++) {
+                columns.setValue(row, i, getObject(resultSet, i));
+            }
+        }
+        columns.trimToSize();
 
     }
 
@@ -0,0 +1,525 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+
+/**
+ * <p>A <code>List</code> of {@link DynaBean}s which keeps its first rows in
+ * memory and writes the rows beyond a row or byte budget to a temporary
+ * file. Used by {@link RowSetDynaClass} in spill mode.</p>
+ *
+ * <p>Spilled rows are stored in the compact format of
+ * {@link BinaryValues}, and read back a page at a time through a
+ * <code>RandomAccessFile</code>, so scanning the list in order costs one
+ * read per page. Each call to <code>get()</code> for a spilled row returns
+ * a new {@link DynaBean}: changes to its properties are only stored by
+ * passing it to <code>set()</code>. Replaced rows are appended to the
+ * file, whose space is reclaimed when the list is cleared. The file is
+ * deleted when the list is cleared or garbage collected.</p>
+ *
+ * <p>As with <code>ArrayList</code>, any number of threads may read the
+ * list at the same time, but a thread modifying it must be synchronized
+ * externally with all the other threads using it. Reading a spilled row
+ * moves the shared page and file pointer, so access to the spill file is
+ * synchronized on the list.</p>
+ *
+ * <p>The size of the rows in memory is an estimate, as the JVM does not
+ * report the size of objects. The list is serialized as an
+ * <code>ArrayList</code> of all its rows.</p>
+ *
+ * @version $Revision$ $Date$
+ * @since 1.9.0
+ */
+class SpillRowList extends AbstractList implements Serializable {
+
+
+    /** The size of the pages read from the file */
+    private static final int PAGE_SIZE = 64 * 1024;
+
+
+    // ----------------------------------------------------- Instance Variables
+
+
+    /** The DynaClass of the rows */
+    private final RowSetDynaClass dynaClass;
+
+    /** The properties of the rows */
+    private final DynaProperty[] properties;
+
+    /** The maximum number of rows kept in memory, or 0 for no limit */
+    private final int maxRows;
+
+    /** The maximum estimated size of the rows kept in memory, or 0 for no limit */
+    private final long maxBytes;
+
+    /** The rows kept in memory, which precede the spilled rows */
+    private final List memoryRows = new ArrayList();
+
+    /** The estimated size of the rows added to memory */
+    private long memoryBytes = 0;
+
+    /** The file offset of each spilled row */
+    private long[] offsets = new long[16];
+
+    /** The encoded length of each spilled row */
+    private int[] lengths = new int[16];
+
+    /** The number of spilled rows */
+    private int spilled = 0;
+
+    /** The spill file, created when the first row is spilled */
+    private transient File file;
+
+    /** The open spill file */
+    private transient RandomAccessFile store;
+
+    /** The number of bytes written to the spill file */
+    private transient long fileLength;
+
+    /** Encoded rows not yet written to the spill file */
+    private transient Buffer pending;
+
+    /** Output encoding into <code>pending</code> */
+    private transient DataOutputStream pendingOut;
+
+    /** The last page read from the spill file */
+    private transient byte[] page;
+
+    /** The file offset of <code>page</code> */
+    private transient long pageStart;
+
+    /** The number of valid bytes in <code>page</code> */
+    private transient int pageLength;
+
+
+    // ----------------------------------------------------------- Constructors
+
+
+    /**
+     * Create an empty list for rows of the specified DynaClass.
+     *
+     * @param dynaClass The DynaClass of the rows
+     * @param maxRows The maximum number of rows kept in memory,
+     *  or 0 for no limit
+     * @param maxBytes The maximum estimated size of the rows kept in
+     *  memory, or 0 for no limit
+     */
+    SpillRowList(RowSetDynaClass dynaClass, int maxRows, long maxBytes) {
+
+        this.dynaClass = dynaClass;
+        this.properties = dynaClass.getDynaProperties();
+        this.maxRows = Math.max(maxRows, 0);
+        this.maxBytes = Math.max(maxBytes, 0);
+
+    }
+
+
+    // ----------------------------------------------------------- List Methods
+
+
+    /**
+     * Return the number of rows.
+     *
+     * @return The number of rows
+     */
+    public int size() {
+
+        return (memoryRows.size() + spilled);
+
+    }
+
+
+    /**
+     * Return the specified row; a spilled row is read from the file.
+     *
+     * @param index The index of the row
+     * @return The row
+     */
+    public Object get(int index) {
+
+        checkIndex(index, size());
+        int memory = memoryRows.size();
+        if (index < memory) {
+            return (memoryRows.get(index));
+        }
+        return (read(index - memory));
+
+    }
+
+
+    /**
+     * Replace the specified row.
+     *
+     * @param index The index of the row
+     * @param element The new row
+     * @return The previous row
+     */
+    public Object set(int index, Object element) {
+
+        checkIndex(index, size());
+        DynaBean bean = (DynaBean) element;
+        int memory = memoryRows.size();
+        if (index < memory) {
+            return (memoryRows.set(index, bean));
+        }
+        int n = index - memory;
+        DynaBean previous = read(n);
+        long offset = write(bean);
+        offsets[n] = offset;
+        lengths[n] = (int) (fileLength + pending.size() - offset);
+        return (previous);
+
+    }
+
+
+    /**
+     * Insert a row, in memory if it precedes the spilled rows and the
+     * budget allows it, or in the spill file otherwise.
+     *
+     * @param index The index at which the row is inserted
+     * @param element The row
+     */
+    public void add(int index, Object element) {
+
+        checkIndex(index, size() + 1);
+        DynaBean bean = (DynaBean) element;
+        int memory = memoryRows.size();
+        if (index < memory || (index == memory && spilled == 0 && hasBudget())) {
+            if (maxBytes > 0) {
+                memoryBytes += estimateSize(bean);
+            }
+            memoryRows.add(index, bean);
+        } else {
+            int n = index - memory;
+            long offset = write(bean);
+            int length = (int) (fileLength + pending.size() - offset);
+            if (spilled == offsets.length) {
+                long[] newOffsets = new long[spilled * 2];
+                System.arraycopy(offsets, 0, newOffsets, 0, spilled);
+                offsets = newOffsets;
+                int[] newLengths = new int[spilled * 2];
+                System.arraycopy(lengths, 0, newLengths, 0, spilled);
+                lengths = newLengths;
+            }
+            System.arraycopy(offsets, n, offsets, n + 1, spilled - n);
+            System.arraycopy(lengths, n, lengths, n + 1, spilled - n);
+            offsets[n] = offset;
+            lengths[n] = length;
+            spilled++;
+        }
+        modCount++;
+
+    }
+
+
+    /**
+     * Remove a row.
+     *
+     * @param index The index of the row
+     * @return The removed row
+     */
+    public Object remove(int index) {
+
+        checkIndex(index, size());
+        int memory = memoryRows.size();
+        Object previous;
+        if (index < memory) {
+            previous = memoryRows.remove(index);
+        } else {
+            int n = index - memory;
+            previous = read(n);
+            System.arraycopy(offsets, n + 1, offsets, n, spilled - n - 1);
+            System.arraycopy(lengths, n + 1, lengths, n, spilled - n - 1);
+            spilled--;
+        }
+        modCount++;
+        return (previous);
+
+    }
+
+
+    /**
+     * Remove all rows, and delete the spill file.
+     */
+    public void clear() {
+
+        memoryRows.clear();
+        memoryBytes = 0;
+        spilled = 0;
+        offsets = new long[16];
+        lengths = new int[16];
+        dispose();
+        modCount++;
+
+    }
+
+
+    // -------------------------------------------------------- Package Methods
+
+
+    /**
+     * Return the number of rows stored in the spill file.
+     *
+     * @return The number of spilled rows
+     */
+    int getSpilledCount() {
+
+        return (spilled);
+
+    }
+
+
+    /**
+     * Write any rows not yet written to the spill file.
+     */
+    void sync() {
+
+        try {
+            flush();
+        } catch (IOException e) {
+            throw new RuntimeException("flush(): IOException: " + e);
+        }
+
+    }
+
+
+    // ------------------------------------------------------ Protected Methods
+
+
+    /**
+     * Delete the spill file when the list is garbage collected.
+     *
+     * @throws Throwable if an error occurs
+     */
+    protected void finalize() throws Throwable {
+
+        dispose();
+        super.finalize();
+
+    }
+
+
+    // -------------------------------------------------------- Private Methods
+
+
+    /**
+     * Check that an index is within bounds.
+     */
+    private static void checkIndex(int index, int size) {
+
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+    }
+
+
+    /**
+     * Return whether another row may be added to memory.
+     */
+    private boolean hasBudget() {
+
+        return ((maxRows == 0 || memoryRows.size() < maxRows)
+                && (maxBytes == 0 || memoryBytes < maxBytes));
+
+    }
+
+
+    /**
+     * Return a rough estimate of the heap size of a row.
+     */
+    private long estimateSize(DynaBean bean) {
+
+        long size = 64;
+        for (int i = 0; i < properties.length; i++) {
+            Object value = bean.get(properties[i].getName());
+            size += 32;
+            if (value instanceof String) {
+                size += 40 + 2 * ((String) value).length();
+            } else if (value instanceof byte[]) {
+                size += 16 + ((byte[]) value).length;
+            } else if (value instanceof BigDecimal) {
+                size += 64;
+            } else if (value instanceof Date) {
+                size += 24;
+            } else if (value != null) {
+                size += 16;
+            }
+        }
+        return (size);
+
+    }
+
+
+    /**
+     * Encode a row at the end of the spill file.
+     *
+     * @param bean The row
+     * @return The file offset of the row
+     */
+    private synchronized long write(DynaBean bean) {
+
+        try {
+            if (pending == null) {
+                pending = new Buffer();
+                pendingOut = new DataOutputStream(pending);
+            }
+            long offset = fileLength + pending.size();
+            for (int i = 0; i < properties.length; i++) {
+                BinaryValues.writeValue(pendingOut, bean.get(properties[i].getName()));
+            }
+            pendingOut.flush();
+            if (pending.size() >= PAGE_SIZE) {
+                flush();
+            }
+            return (offset);
+        } catch (IOException e) {
+            throw new RuntimeException("write(): IOException: " + e);
+        }
+
+    }
+
+
+    /**
+     * Decode a spilled row.
+     *
+     * @param n The index of the row among the spilled rows
+     * @return A new DynaBean with the values of the row
+     */
+    private synchronized DynaBean read(int n) {
+
+        long offset = offsets[n];
+        int length = lengths[n];
+        try {
+            if (offset + length > fileLength) {
+                flush();
+            }
+            if (page == null || offset < pageStart
+                    || offset + length > pageStart + pageLength) {
+                int size = (int) Math.min(Math.max(PAGE_SIZE, length), fileLength - offset);
+                if (page == null || page.length < size) {
+                    page = new byte[Math.max(PAGE_SIZE, size)];
+                }
+                store.seek(offset);
+                store.readFully(page, 0, size);
+                pageStart = offset;
+                pageLength = size;
+            }
+            DataInputStream in = new DataInputStream(
+                    new ByteArrayInputStream(page, (int) (offset - pageStart), length));
+            DynaBean bean = dynaClass.createDynaBean();
+            for (int i = 0; i < properties.length; i++) {
+                bean.set(properties[i].getName(), BinaryValues.readValue(in));
+            }
+            return (bean);
+        } catch (IOException e) {
+            throw new RuntimeException("read(): IOException: " + e);
+        }
+
+    }
+
+
+    /**
+     * Write the pending rows to the spill file, creating it if needed.
+     */
+    private synchronized void flush() throws IOException {
+
+        if (pending == null || pending.size() == 0) {
+            return;
+        }
+        if (store == null) {
+            file = File.createTempFile("rowset", ".rows");
+            store = new RandomAccessFile(file, "rw");
+        }
+        store.seek(fileLength);
+        store.write(pending.getBytes(), 0, pending.size());
+        fileLength += pending.size();
+        pending.reset();
+
+    }
+
+
+    /**
+     * Close and delete the spill file.
+     */
+    private synchronized void dispose() {
+
+        if (store != null) {
+            try {
+                store.close();
+            } catch (IOException e) {
+                // Deleted anyway
+            }
+            store = null;
+        }
+        if (file != null) {
+            file.delete();
+            file = null;
+        }
+        fileLength = 0;
+        pending = null;
+        pendingOut = null;
+        page = null;
+
+    }
+
+
+    /**
+     * Serialize the rows as an <code>ArrayList</code>.
+     *
+     * @return An <code>ArrayList</code> with all the rows
+     */
+    private Object writeReplace() {
+
+        return (new ArrayList(this));
+
+    }
+
+
+    /**
+     * A byte array output stream exposing its buffer.
+     */
+    private static final class Buffer extends ByteArrayOutputStream {
+
+        Buffer() {
+            super(PAGE_SIZE);
+        }
+
+        byte[] getBytes() {
+            return (buf);
+        }
+
+    }
+
+
+}
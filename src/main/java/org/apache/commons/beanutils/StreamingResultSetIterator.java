@@ -0,0 +1,707 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.commons.beanutils;
+
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+
+/**
+ * <p>Implementation of <code>java.util.Iterator</code> returned by the
+ * <code>streamIterator()</code> method of {@link ResultSetDynaClass}.
+ * Rows are read from the result set in batches of <code>fetchSize</code>
+ * rows, and every element returned by this iterator is the iterator
+ * itself, a reusable {@link DynaBean} exposing the values of the current
+ * row of the batch.</p>
+ *
+ * <p>At most two batches of values are held at a time (the current batch,
+ * and the next one once <code>hasNext()</code> has been called on the last
+ * row of the current batch), so a result set of any size can be scanned
+ * with constant memory.  The values of a row remain available until the
+ * next call to <code>next()</code>, whether or not <code>hasNext()</code>
+ * is called in between; use {@link #detach()} to copy a row that must be
+ * retained.  Streamed rows are read only and do not support indexed or
+ * mapped access.</p>
+ *
+ * @version $Revision$ $Date$
+ * @since 1.9.0
+ */
+
+public class StreamingResultSetIterator implements PrimitiveDynaBean, Iterator {
+
+
+    // ------------------------------------------------------------ Constructor
+
+
+    /**
+     * <p>Construct an <code>Iterator</code> for the result set being wrapped
+     * by the specified {@link ResultSetDynaClass}.</p>
+     *
+     * @param dynaClass The {@link ResultSetDynaClass} wrapping the
+     *  result set we will iterate over
+     * @param fetchSize The number of rows read in each batch
+     *
+     * @exception IllegalArgumentException if <code>fetchSize</code>
+     *  is not positive
+     */
+    StreamingResultSetIterator(ResultSetDynaClass dynaClass, int fetchSize) {
+
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("Invalid fetch size " + fetchSize);
+        }
+        this.dynaClass = dynaClass;
+        this.fetchSize = fetchSize;
+        DynaProperty[] properties = dynaClass.getDynaProperties();
+        this.rows = new Object[fetchSize][properties.length];
+        this.spare = new Object[fetchSize][properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            String name = properties[i].getName();
+            if (!indexes.containsKey(name)) {
+                indexes.put(name, new Integer(i));
+            }
+        }
+
+    }
+
+
+    // ----------------------------------------------------- Instance Variables
+
+
+    /**
+     * <p>The number of rows of the current batch.</p>
+     */
+    protected int count = 0;
+
+
+    /**
+     * <p>The {@link ResultSetDynaClass} we are associated with.</p>
+     */
+    protected ResultSetDynaClass dynaClass = null;
+
+
+    /**
+     * <p>Flag indicating whether the result set has indicated that there are
+     * no further rows.</p>
+     */
+    protected boolean eof = false;
+
+
+    /**
+     * <p>The number of rows read in each batch.</p>
+     */
+    protected int fetchSize = 0;
+
+
+    /**
+     * <p>The index of the current row in the batch, or -1 if no element
+     * of the batch has been returned yet.</p>
+     */
+    protected int position = -1;
+
+
+    /**
+     * <p>The column values of the current batch, one array per row, in the
+     * order of the properties of the {@link ResultSetDynaClass}.  The arrays
+     * are reused for every other batch.</p>
+     */
+    protected Object[][] rows = null;
+
+
+    /**
+     * <p>The buffer the next batch is read into when <code>hasNext()</code>
+     * is called on the last row of the current batch, so that the values
+     * of the current row are not disturbed.  The arrays are reused for
+     * every batch.</p>
+     */
+    private Object[][] spare = null;
+
+
+    /**
+     * <p>The number of rows read into the spare buffer, or -1 if the next
+     * batch has not been read yet.</p>
+     */
+    private int spareCount = -1;
+
+
+    /**
+     * <p>The index of each property, keyed by name.</p>
+     */
+    private Map indexes = new HashMap();
+
+
+    // ------------------------------------------------------- DynaBean Methods
+
+
+    /**
+     * Does the specified mapped property contain a value for the specified
+     * key value?
+     * This method is not supported, as streamed rows do not support
+     * mapped access.
+     *
+     * @param name Name of the property to check
+     * @param key Name of the key to check
+     * @return never returns normally
+     *
+     * @exception UnsupportedOperationException always
+     */
+    public boolean contains(String name, String key) {
+
+        throw new UnsupportedOperationException
+            ("Streamed rows do not support mapped access");
+
+    }
+
+
+    /**
+     * Return the value of a simple property with the specified name.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     * @exception IllegalStateException if there is no current row
+     */
+    public Object get(String name) {
+
+        return (getValue(getIndex(name)));
+
+    }
+
+
+    /**
+     * Return the value of an indexed property with the specified name.
+     * This method is not supported, as streamed rows do not support
+     * indexed access.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @param index Index of the value to be retrieved
+     * @return never returns normally
+     *
+     * @exception UnsupportedOperationException always
+     */
+    public Object get(String name, int index) {
+
+        throw new UnsupportedOperationException
+            ("Streamed rows do not support indexed access");
+
+    }
+
+
+    /**
+     * Return the value of a mapped property with the specified name.
+     * This method is not supported, as streamed rows do not support
+     * mapped access.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @param key Key of the value to be retrieved
+     * @return never returns normally
+     *
+     * @exception UnsupportedOperationException always
+     */
+    public Object get(String name, String key) {
+
+        throw new UnsupportedOperationException
+            ("Streamed rows do not support mapped access");
+
+    }
+
+
+    /**
+     * Return the <code>DynaClass</code> instance that describes the set of
+     * properties available for this DynaBean.
+     *
+     * @return The associated DynaClass
+     */
+    public DynaClass getDynaClass() {
+
+        return (this.dynaClass);
+
+    }
+
+
+    /**
+     * Remove any existing value for the specified key on the
+     * specified mapped property.
+     * This method is not supported, as streamed rows do not support
+     * mapped access.
+     *
+     * @param name Name of the property for which a value is to
+     *  be removed
+     * @param key Key of the value to be removed
+     *
+     * @exception UnsupportedOperationException always
+     */
+    public void remove(String name, String key) {
+
+        throw new UnsupportedOperationException
+            ("Streamed rows do not support mapped access");
+
+    }
+
+
+    /**
+     * Set the value of a simple property with the specified name.
+     * This method is not supported, as streamed rows are read only.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     */
+    public void set(String name, Object value) {
+
+        throw new UnsupportedOperationException
+            ("set(" + name + "): streamed rows are read only");
+
+    }
+
+
+    /**
+     * Set the value of an indexed property with the specified name.
+     * This method is not supported, as streamed rows do not support
+     * indexed access.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param index Index of the property to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception UnsupportedOperationException always
+     */
+    public void set(String name, int index, Object value) {
+
+        throw new UnsupportedOperationException
+            ("Streamed rows do not support indexed access");
+
+    }
+
+
+    /**
+     * Set the value of a mapped property with the specified name.
+     * This method is not supported, as streamed rows do not support
+     * mapped access.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param key Key of the property to be set
+     * @param value Value to which this property is to be set
+     *
+     * @exception UnsupportedOperationException always
+     */
+    public void set(String name, String key, Object value) {
+
+        throw new UnsupportedOperationException
+            ("Streamed rows do not support mapped access");
+
+    }
+
+
+    // ---------------------------------------------- PrimitiveDynaBean Methods
+
+
+    /**
+     * Return the value of a simple property as a <code>boolean</code>.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception ConversionException if the value is null or cannot be
+     *  converted to a <code>boolean</code>
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public boolean getBoolean(String name) {
+
+        return (PrimitiveValues.toBoolean(name, get(name)));
+
+    }
+
+
+    /**
+     * Return the value of a simple property as an <code>int</code>.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception ConversionException if the value is null or cannot be
+     *  converted to an <code>int</code>
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public int getInt(String name) {
+
+        return (PrimitiveValues.toInt(name, get(name)));
+
+    }
+
+
+    /**
+     * Return the value of a simple property as a <code>long</code>.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception ConversionException if the value is null or cannot be
+     *  converted to a <code>long</code>
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public long getLong(String name) {
+
+        return (PrimitiveValues.toLong(name, get(name)));
+
+    }
+
+
+    /**
+     * Return the value of a simple property as a <code>double</code>.
+     *
+     * @param name Name of the property whose value is to be retrieved
+     * @return The property's value
+     *
+     * @exception ConversionException if the value is null or cannot be
+     *  converted to a <code>double</code>
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public double getDouble(String name) {
+
+        return (PrimitiveValues.toDouble(name, get(name)));
+
+    }
+
+
+    /**
+     * This method is not supported, as streamed rows are read only.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     */
+    public void setBoolean(String name, boolean value) {
+
+        set(name, null);
+
+    }
+
+
+    /**
+     * This method is not supported, as streamed rows are read only.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     */
+    public void setInt(String name, int value) {
+
+        set(name, null);
+
+    }
+
+
+    /**
+     * This method is not supported, as streamed rows are read only.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     */
+    public void setLong(String name, long value) {
+
+        set(name, null);
+
+    }
+
+
+    /**
+     * This method is not supported, as streamed rows are read only.
+     *
+     * @param name Name of the property whose value is to be set
+     * @param value Value to which this property is to be set
+     */
+    public void setDouble(String name, double value) {
+
+        set(name, null);
+
+    }
+
+
+    // --------------------------------------------------------- Column Methods
+
+
+    /**
+     * Return the column index of the specified property, for use with
+     * the index based accessors of this iterator.
+     *
+     * @param name Name of the property
+     * @return The zero-relative index of the property in
+     *  <code>getDynaClass().getDynaProperties()</code>
+     *
+     * @exception IllegalArgumentException if there is no property
+     *  of the specified name
+     */
+    public int getIndex(String name) {
+
+        Integer index = (Integer) indexes.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException(name);
+        }
+        return (index.intValue());
+
+    }
+
+
+    /**
+     * Return the value of the current row for the specified column.
+     *
+     * @param index Index of the column, as returned by
+     *  {@link #getIndex(String)}
+     * @return The column value
+     *
+     * @exception IllegalStateException if there is no current row
+     * @exception IndexOutOfBoundsException if the index is invalid
+     */
+    public Object getValue(int index) {
+
+        if (position < 0) {
+            throw new IllegalStateException("No current row");
+        }
+        return (rows[position][index]);
+
+    }
+
+
+    /**
+     * Return the value of the current row for the specified column
+     * as a <code>boolean</code>.
+     *
+     * @param index Index of the column
+     * @return The column value
+     *
+     * @exception ConversionException if the value is null or cannot be
+     *  converted to a <code>boolean</code>
+     */
+    public boolean getBoolean(int index) {
+
+        return (PrimitiveValues.toBoolean(getName(index), getValue(index)));
+
+    }
+
+
+    /**
+     * Return the value of the current row for the specified column
+     * as an <code>int</code>.
+     *
+     * @param index Index of the column
+     * @return The column value
+     *
+     * @exception ConversionException if the value is null or cannot be
+     *  converted to an <code>int</code>
+     */
+    public int getInt(int index) {
+
+        return (PrimitiveValues.toInt(getName(index), getValue(index)));
+
+    }
+
+
+    /**
+     * Return the value of the current row for the specified column
+     * as a <code>long</code>.
+     *
+     * @param index Index of the column
+     * @return The column value
+     *
+     * @exception ConversionException if the value is null or cannot be
+     *  converted to a <code>long</code>
+     */
+    public long getLong(int index) {
+
+        return (PrimitiveValues.toLong(getName(index), getValue(index)));
+
+    }
+
+
+    /**
+     * Return the value of the current row for the specified column
+     * as a <code>double</code>.
+     *
+     * @param index Index of the column
+     * @return The column value
+     *
+     * @exception ConversionException if the value is null or cannot be
+     *  converted to a <code>double</code>
+     */
+    public double getDouble(int index) {
+
+        return (PrimitiveValues.toDouble(getName(index), getValue(index)));
+
+    }
+
+
+    /**
+     * Return the value of the current row for the specified column
+     * as a <code>String</code>.
+     *
+     * @param index Index of the column
+     * @return The column value, or <code>null</code> if it is null
+     */
+    public String getString(int index) {
+
+        Object value = getValue(index);
+        return (value == null ? null : value.toString());
+
+    }
+
+
+    /**
+     * Copy the values of the current row into a new {@link DynaBean}
+     * that remains valid after the iteration moves on.
+     *
+     * @return A {@link BasicDynaBean} holding the values of the current row
+     *
+     * @exception IllegalStateException if there is no current row
+     */
+    public DynaBean detach() {
+
+        if (position < 0) {
+            throw new IllegalStateException("No current row");
+        }
+        DynaProperty[] properties = dynaClass.getDynaProperties();
+        Object[] values = rows[position];
+        DynaBean bean = new BasicDynaBean(dynaClass);
+        for (int i = 0; i < properties.length; i++) {
+            bean.set(properties[i].getName(), values[i]);
+        }
+        return (bean);
+
+    }
+
+
+    // ------------------------------------------------------- Iterator Methods
+
+
+    /**
+     * <p>Return <code>true</code> if the iteration has more elements.</p>
+     *
+     * @return <code>true</code> if the result set has another
+     * row, otherwise <code>false</code>
+     */
+    public boolean hasNext() {
+
+        if (position + 1 < count) {
+            return (true);
+        }
+        try {
+            advance();
+            return (spareCount > 0);
+        } catch (SQLException e) {
+            throw new RuntimeException("hasNext():  SQLException:  " + e);
+        }
+
+    }
+
+
+    /**
+     * <p>Return the next element in the iteration.</p>
+     *
+     * @return advance to the next row and return this
+     */
+    public Object next() {
+
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if (position + 1 >= count) {
+            Object[][] consumed = rows;
+            rows = spare;
+            count = spareCount;
+            position = -1;
+            spare = consumed;
+            spareCount = -1;
+            for (int i = 0; i < spare.length; i++) {
+                Object[] values = spare[i];
+                for (int j = 0; j < values.length; j++) {
+                    values[j] = null;
+                }
+            }
+        }
+        position++;
+        return (this);
+
+    }
+
+
+    /**
+     * <p>Remove the current element from the iteration.  This method is
+     * not supported.</p>
+     */
+    public void remove() {
+
+        throw new UnsupportedOperationException("remove()");
+
+    }
+
+
+    // ------------------------------------------------------ Protected Methods
+
+
+    /**
+     * <p>Read the next batch of rows into the spare buffer, if the current
+     * batch has been consumed and the next batch has not been read yet
+     * (and if we are not already at eof).  The current batch is left
+     * untouched; it is replaced by the spare buffer on the next call to
+     * <code>next()</code>.</p>
+     *
+     * @exception SQLException if the result set throws an exception
+     */
+    protected void advance() throws SQLException {
+
+        if (position + 1 < count || spareCount >= 0 || eof) {
+            return;
+        }
+        int n = 0;
+        while (n < fetchSize) {
+            if (!dynaClass.getResultSet().next()) {
+                eof = true;
+                break;
+            }
+            Object[] values = spare[n];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = dynaClass.fetchObject(i);
+            }
+            n++;
+        }
+        spareCount = n;
+
+    }
+
+
+    // -------------------------------------------------------- Private Methods
+
+
+    /**
+     * Return the name of the property at the specified index.
+     */
+    private String getName(int index) {
+
+        return (dynaClass.getDynaProperties()[index].getName());
+
+    }
+
+
+}
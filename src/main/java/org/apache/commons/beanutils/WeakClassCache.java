@@ -0,0 +1,394 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>A thread safe <code>Map</code> of introspection metadata keyed by
+ * <code>java.lang.Class</code>, designed for caches which are read far
+ * more often than they are written.</p>
+ *
+ * <p>Reads never block: the hash table is published through a
+ * <code>volatile</code> field and its entries are immutable, so
+ * <code>get()</code> simply walks a bucket. Writes are serialized and
+ * only touch the bucket of the affected key (the table itself is only
+ * copied when it is resized), so populating the cache costs
+ * <code>O(1)</code> per entry rather than a copy of the whole map.</p>
+ *
+ * <p>Keys are held through weak references, and entries are purged once
+ * their class has been garbage collected. Cached metadata usually refers
+ * back to its class (through <code>Method</code> objects, property types
+ * etc.), so holding the values strongly would keep every class ever
+ * introspected alive. Values are therefore held strongly only for classes
+ * loaded by the class loader of BeanUtils itself or one of its parents,
+ * which cannot be unloaded before BeanUtils is. Values for classes loaded
+ * by any other class loader (for example that of a hot-deployed web
+ * application) are held through soft references, so that the class loader
+ * can be unloaded once it is otherwise unreachable.</p>
+ *
+ * <p>Only <code>Class</code> keys are supported; <code>null</code> keys
+ * and values are not permitted.</p>
+ *
+ * @version $Revision$ $Date$
+ * @since 1.9.0
+ */
+class WeakClassCache extends AbstractMap {
+
+    /** The initial number of buckets; must be a power of two */
+    private static final int INITIAL_CAPACITY = 32;
+
+    /** The class loader whose classes (and ancestors) are never unloaded */
+    private static final ClassLoader OWN_CLASS_LOADER =
+            WeakClassCache.class.getClassLoader();
+
+    /** The hash table; replaced, never modified, when resized */
+    private volatile Entry[] table = new Entry[INITIAL_CAPACITY];
+
+    /** The number of entries, guarded by <code>this</code> */
+    private int size;
+
+    /** Queue of entries whose keys have been garbage collected */
+    private final ReferenceQueue queue = new ReferenceQueue();
+
+    // ----------------------------------------------------------- Map Methods
+
+    /**
+     * Return the value cached for the specified class, if any.
+     *
+     * @param key The class
+     * @return The cached value or <code>null</code>
+     */
+    public Object get(Object key) {
+        if (!(key instanceof Class)) {
+            return null;
+        }
+        Entry[] tab = table;
+        for (Entry e = tab[hash(key) & (tab.length - 1)]; e != null; e = e.next) {
+            if (e.get() == key) {
+                return e.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return <code>true</code> if a value is cached for the specified class.
+     *
+     * @param key The class
+     * @return <code>true</code> if a value is cached
+     */
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Cache a value for the specified class.
+     *
+     * @param key The class
+     * @param value The value to cache
+     * @return The value previously cached for the class, or <code>null</code>
+     */
+    public synchronized Object put(Object key, Object value) {
+        return put(key, value, false);
+    }
+
+    /**
+     * Cache a value for the specified class, unless a value is already
+     * cached for it.
+     *
+     * @param key The class
+     * @param value The value to cache
+     * @return The value already cached for the class, or <code>null</code>
+     *  if the specified value was added
+     */
+    public synchronized Object putIfAbsent(Object key, Object value) {
+        return put(key, value, true);
+    }
+
+    /**
+     * Remove the value cached for the specified class.
+     *
+     * @param key The class
+     * @return The value cached for the class, or <code>null</code>
+     */
+    public synchronized Object remove(Object key) {
+        if (!(key instanceof Class)) {
+            return null;
+        }
+        expungeStaleEntries();
+        Entry[] tab = table;
+        int index = hash(key) & (tab.length - 1);
+        for (Entry e = tab[index]; e != null; e = e.next) {
+            if (e.get() == key) {
+                tab[index] = unlink(tab[index], e);
+                size--;
+                return e.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Remove all cached values.
+     */
+    public synchronized void clear() {
+        table = new Entry[INITIAL_CAPACITY];
+        size = 0;
+        while (queue.poll() != null) {
+            // discard stale entries of the old table
+        }
+    }
+
+    /**
+     * Return the number of cached classes.
+     *
+     * @return The number of entries
+     */
+    public synchronized int size() {
+        expungeStaleEntries();
+        return size;
+    }
+
+    /**
+     * Return <code>true</code> if nothing is cached.
+     *
+     * @return <code>true</code> if the cache is empty
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Return a snapshot of the cached entries. Changes to the returned set
+     * are not reflected in the cache.
+     *
+     * @return The cached entries
+     */
+    public synchronized Set entrySet() {
+        Map snapshot = new HashMap();
+        Entry[] tab = table;
+        for (int i = 0; i < tab.length; i++) {
+            for (Entry e = tab[i]; e != null; e = e.next) {
+                Object key = e.get();
+                Object value = e.getValue();
+                if (key != null && value != null) {
+                    snapshot.put(key, value);
+                }
+            }
+        }
+        return snapshot.entrySet();
+    }
+
+    // ------------------------------------------------------ Private Methods
+
+    /**
+     * Add or replace an entry; must be called while synchronized.
+     *
+     * @param key The class
+     * @param value The value to cache
+     * @param onlyIfAbsent Whether an existing value should be kept
+     * @return The existing value or <code>null</code>
+     */
+    private Object put(Object key, Object value, boolean onlyIfAbsent) {
+        if (!(key instanceof Class)) {
+            throw new IllegalArgumentException("Key must be a Class: " + key);
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("No value specified");
+        }
+        expungeStaleEntries();
+        Entry[] tab = table;
+        int hash = hash(key);
+        int index = hash & (tab.length - 1);
+        Entry head = tab[index];
+        Object oldValue = null;
+        for (Entry e = head; e != null; e = e.next) {
+            if (e.get() == key) {
+                oldValue = e.getValue();
+                if (onlyIfAbsent && oldValue != null) {
+                    return oldValue;
+                }
+                head = unlink(head, e);
+                size--;
+                break;
+            }
+        }
+        tab[index] = new Entry((Class) key, hash, wrap((Class) key, value), head, queue);
+        if (++size > tab.length - (tab.length >> 2)) {
+            resize(tab);
+        }
+        return oldValue;
+    }
+
+    /**
+     * Double the size of the hash table; must be called while synchronized.
+     *
+     * @param oldTable The current table
+     */
+    private void resize(Entry[] oldTable) {
+        Entry[] newTable = new Entry[oldTable.length * 2];
+        int newSize = 0;
+        for (int i = 0; i < oldTable.length; i++) {
+            for (Entry e = oldTable[i]; e != null; e = e.next) {
+                Class key = (Class) e.get();
+                if (key != null) {
+                    int index = e.hash & (newTable.length - 1);
+                    newTable[index] = new Entry(key, e.hash, e.value,
+                            newTable[index], queue);
+                    newSize++;
+                }
+            }
+        }
+        size = newSize;
+        table = newTable;
+    }
+
+    /**
+     * Remove entries whose classes have been garbage collected; must be
+     * called while synchronized.
+     */
+    private void expungeStaleEntries() {
+        Entry[] tab = table;
+        Reference ref;
+        while ((ref = queue.poll()) != null) {
+            Entry stale = (Entry) ref;
+            int index = stale.hash & (tab.length - 1);
+            for (Entry e = tab[index]; e != null; e = e.next) {
+                if (e == stale) {
+                    tab[index] = unlink(tab[index], e);
+                    size--;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Return a copy of a bucket without the specified entry; must be
+     * called while synchronized. Entries are immutable, so the entries
+     * preceding it are copied (dropping any stale ones on the way).
+     *
+     * @param head The first entry of the bucket
+     * @param entry The entry to remove
+     * @return The new first entry of the bucket
+     */
+    private Entry unlink(Entry head, Entry entry) {
+        Entry result = entry.next;
+        for (Entry e = head; e != entry; e = e.next) {
+            Class key = (Class) e.get();
+            if (key != null) {
+                result = new Entry(key, e.hash, e.value, result, queue);
+            } else {
+                size--;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Return the hash code of a class.
+     *
+     * @param key The class
+     * @return The hash code
+     */
+    private static int hash(Object key) {
+        int h = System.identityHashCode(key);
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Wrap a value in a soft reference, unless the class cannot be
+     * unloaded before this class is.
+     *
+     * @param key The class
+     * @param value The value
+     * @return The value or a reference to it
+     */
+    private static Object wrap(Class key, Object value) {
+        return isUnloadable(key) ? new SoftValue(value) : value;
+    }
+
+    /**
+     * Indicate whether a class may be unloaded before this class is,
+     * i.e. whether it was loaded by a class loader other than that of
+     * BeanUtils or one of its parents. Cached metadata must not hold
+     * such classes strongly unless it is itself discarded with them.
+     *
+     * @param type The class
+     * @return <code>true</code> if the class may be unloaded first
+     */
+    static boolean isUnloadable(Class type) {
+        ClassLoader loader = type.getClassLoader();
+        if (loader == null) {
+            return false;
+        }
+        try {
+            for (ClassLoader cl = OWN_CLASS_LOADER; cl != null; cl = cl.getParent()) {
+                if (cl == loader) {
+                    return false;
+                }
+            }
+        } catch (SecurityException e) {
+            // can't inspect the class loader hierarchy - assume it can be unloaded
+        }
+        return true;
+    }
+
+    // -------------------------------------------------------- Inner Classes
+
+    /**
+     * Marker for values held through a soft reference.
+     */
+    private static final class SoftValue extends SoftReference {
+        SoftValue(Object value) {
+            super(value);
+        }
+    }
+
+    /**
+     * An immutable hash table entry whose key is weakly referenced.
+     */
+    private static final class Entry extends WeakReference {
+        private final int hash;
+        private final Object value;
+        private final Entry next;
+
+        Entry(Class key, int hash, Object value, Entry next, ReferenceQueue queue) {
+            super(key, queue);
+            this.hash = hash;
+            this.value = value;
+            this.next = next;
+        }
+
+        Object getValue() {
+            if (value instanceof SoftValue) {
+                return ((SoftValue) value).get();
+            }
+            return value;
+        }
+    }
+
+}
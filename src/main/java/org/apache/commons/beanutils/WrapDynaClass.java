@@ -26,7 +26,6 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
 
 
 /**
@@ -125,7 +124,7 @@ public class WrapDynaClass implements DynaClass {
     private static final ContextClassLoaderLocal CLASSLOADER_CACHE = 
         new ContextClassLoaderLocal() {
             protected Object initialValue() {
-                return new WeakHashMap();
+                return new WeakClassCache();
         }
     };
 
@@ -163,7 +162,7 @@ public class WrapDynaClass implements DynaClass {
      * 1) Memory Issues: The static HashMap caused memory problems (See BEANUTILS-59)
      *    to resolve this it has been moved into a ContextClassLoaderLocal instance
      *    (named CLASSLOADER_CACHE above) which holds one copy per
-     *    ClassLoader in a WeakHashMap.
+     *    ClassLoader in a WeakClassCache.
      * 
      * 2) Binary Compatibility: As the "dynaClasses" static HashMap is "protected"
      *    removing it breaks BeanUtils binary compatibility with previous versions.
@@ -356,11 +355,16 @@ public class WrapDynaClass implements DynaClass {
      */
     public static WrapDynaClass createDynaClass(Class beanClass) {
 
+            WeakClassCache dynaClasses = (WeakClassCache) getDynaClassesMap();
             WrapDynaClass dynaClass =
-                    (WrapDynaClass) getDynaClassesMap().get(beanClass);
+                    (WrapDynaClass) dynaClasses.get(beanClass);
             if (dynaClass == null) {
                 dynaClass = new WrapDynaClass(beanClass);
-                getDynaClassesMap().put(beanClass, dynaClass);
+                WrapDynaClass existing =
+                        (WrapDynaClass) dynaClasses.putIfAbsent(beanClass, dynaClass);
+                if (existing != null) {
+                    dynaClass = existing;
+                }
             }
             return (dynaClass);
 
@@ -19,6 +19,7 @@ package org.apache.commons.beanutils.converters;
 import java.util.Date;
 import java.util.Locale;
 import java.util.Calendar;
+import java.util.GregorianCalendar;
 import java.util.TimeZone;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
@@ -73,6 +74,22 @@ import org.apache.commons.beanutils.ConversionException;
  * The <b>Time Zone</b> to use with the date format can be specified
  * using the <code>setTimeZone()</code> method.
  *
+ * <h3>ISO-8601 Strings</h3>
+ * If <code>setUseIso8601(true)</code> is configured, Strings in the
+ * ISO-8601 layouts <code>yyyy-MM-dd</code> and
+ * <code>yyyy-MM-ddTHH:mm[:ss[.fffffffff]][Z|&plusmn;HH[:mm]]</code>
+ * are parsed directly from their characters, without creating a
+ * <code>DateFormat</code>. Strings in any other layout are converted
+ * using the configuration described above. Values without an offset
+ * are interpreted in the configured (or default) Time Zone.
+ *
+ * <p>
+ * <code>DateFormat</code> instances are not thread-safe, so each
+ * conversion borrows a format from a small per-converter pool and
+ * returns it when done, rather than creating a new format every time.
+ * The pool is discarded whenever the pattern, locale or time zone
+ * configuration changes.
+ *
  * @version $Revision$ $Date$
  * @since 1.8.0
  */
@@ -83,6 +100,8 @@ public abstract class DateTimeConverter extends AbstractConverter {
     private Locale locale;
     private TimeZone timeZone;
     private boolean useLocaleFormat;
+    private boolean useIso8601;
+    private volatile FormatPool formatPool;
 
 
     // ----------------------------------------------------------- Constructors
@@ -118,6 +137,31 @@ public abstract class DateTimeConverter extends AbstractConverter {
      */
     public void setUseLocaleFormat(boolean useLocaleFormat) {
         this.useLocaleFormat = useLocaleFormat;
+        this.formatPool = null;
+    }
+
+    /**
+     * Indicate whether ISO-8601 Strings should be recognized and
+     * parsed directly, before any configured format/pattern is tried.
+     *
+     * @return <code>true</code> if ISO-8601 Strings are parsed
+     * directly, otherwise <code>false</code>
+     * @since 1.9.0
+     */
+    public boolean isUseIso8601() {
+        return useIso8601;
+    }
+
+    /**
+     * Indicate whether ISO-8601 Strings should be recognized and
+     * parsed directly, before any configured format/pattern is tried.
+     *
+     * @param useIso8601 <code>true</code> if ISO-8601 Strings should
+     * be parsed directly, otherwise <code>false</code>
+     * @since 1.9.0
+     */
+    public void setUseIso8601(boolean useIso8601) {
+        this.useIso8601 = useIso8601;
     }
 
     /**
@@ -137,6 +181,7 @@ public abstract class DateTimeConverter extends AbstractConverter {
      */
     public void setTimeZone(TimeZone timeZone) {
         this.timeZone = timeZone;
+        this.formatPool = null;
     }
 
     /**
@@ -232,14 +277,15 @@ public abstract class DateTimeConverter extends AbstractConverter {
 
         String result = null;
         if (useLocaleFormat && date != null) {
-            DateFormat format = null;
-            if (patterns != null && patterns.length > 0) {
-                format = getFormat(patterns[0]);
-            } else {
-                format = getFormat(locale, timeZone);
+            FormatPool pool = getFormatPool();
+            int index = (pool.patterns != null ? 0 : FormatPool.LOCALE);
+            DateFormat format = pool.borrow(index);
+            try {
+                logFormat("Formatting", format);
+                result = format.format(date);
+            } finally {
+                pool.release(index, format);
             }
-            logFormat("Formatting", format);
-            result = format.format(date);
             if (log().isDebugEnabled()) {
                 log().debug("    Converted  to String using format '" + result + "'");
             }
@@ -323,14 +369,27 @@ public abstract class DateTimeConverter extends AbstractConverter {
             return handleMissing(targetType);
         }
 
+        // Parse ISO-8601 Date/Time
+        if (useIso8601) {
+            Object result = parseIso8601(targetType, stringValue);
+            if (result != null) {
+                return result;
+            }
+        }
+
         // Parse the Date/Time
         if (useLocaleFormat) {
             Calendar calendar = null;
-            if (patterns != null && patterns.length > 0) {
-                calendar = parse(sourceType, targetType, stringValue);
+            FormatPool pool = getFormatPool();
+            if (pool.patterns != null) {
+                calendar = parse(sourceType, targetType, stringValue, pool);
             } else {
-                DateFormat format = getFormat(locale, timeZone);
-                calendar = parse(sourceType, targetType, stringValue, format);
+                DateFormat format = pool.borrow(FormatPool.LOCALE);
+                try {
+                    calendar = parse(sourceType, targetType, stringValue, format);
+                } finally {
+                    pool.release(FormatPool.LOCALE, format);
+                }
             }
             if (Calendar.class.isAssignableFrom(targetType)) {
                 return calendar;
@@ -468,6 +527,191 @@ public abstract class DateTimeConverter extends AbstractConverter {
         throw new ConversionException(msg);
     }
 
+    /**
+     * Parse an ISO-8601 date or date/time String directly from its
+     * characters.
+     * <p>
+     * Dates before the Gregorian cutover (1583) are not handled here,
+     * since <code>GregorianCalendar</code> uses Julian rules for them.
+     *
+     * @param type The Date type to convert to
+     * @param value The String value to parse
+     * @return The converted value, or <code>null</code> if the String
+     * is not in one of the supported ISO-8601 layouts
+     */
+    private Object parseIso8601(Class type, String value) {
+        int length = value.length();
+        if (length < 10 || value.charAt(4) != '-' || value.charAt(7) != '-') {
+            return null;
+        }
+        int year  = digits(value, 0, 4);
+        int month = digits(value, 5, 2);
+        int day   = digits(value, 8, 2);
+        if (year < 1583 || month < 1 || month > 12 || day < 1
+                || day > daysInMonth(year, month)) {
+            return null;
+        }
+
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        int nanos = 0;
+        boolean hasOffset = false;
+        int offset = 0;
+        int pos = 10;
+        if (pos < length) {
+            char separator = value.charAt(pos);
+            if ((separator != 'T' && separator != ' ') || length < 16
+                    || value.charAt(13) != ':') {
+                return null;
+            }
+            hour   = digits(value, 11, 2);
+            minute = digits(value, 14, 2);
+            pos = 16;
+            if (pos < length && value.charAt(pos) == ':') {
+                second = digits(value, 17, 2);
+                pos = 19;
+                if (pos < length && (value.charAt(pos) == '.' || value.charAt(pos) == ',')) {
+                    int start = ++pos;
+                    int scale = 100000000;
+                    while (pos < length && pos - start < 9) {
+                        char c = value.charAt(pos);
+                        if (c < '0' || c > '9') {
+                            break;
+                        }
+                        nanos += (c - '0') * scale;
+                        scale /= 10;
+                        pos++;
+                    }
+                    if (pos == start) {
+                        return null;
+                    }
+                }
+            }
+            if (hour < 0 || hour > 23 || minute < 0 || minute > 59
+                    || second < 0 || second > 59) {
+                return null;
+            }
+
+            // Offset from UTC
+            if (pos < length) {
+                char sign = value.charAt(pos++);
+                if (sign == 'Z' || sign == 'z') {
+                    hasOffset = true;
+                } else if (sign == '+' || sign == '-') {
+                    int offsetHours = digits(value, pos, 2);
+                    int offsetMinutes = 0;
+                    pos += 2;
+                    if (pos < length && value.charAt(pos) == ':') {
+                        pos++;
+                    }
+                    if (pos < length) {
+                        offsetMinutes = digits(value, pos, 2);
+                        pos += 2;
+                    }
+                    if (offsetHours < 0 || offsetHours > 23 || offsetMinutes < 0
+                            || offsetMinutes > 59) {
+                        return null;
+                    }
+                    offset = (offsetHours * 60 + offsetMinutes) * 60000;
+                    if (sign == '-') {
+                        offset = -offset;
+                    }
+                    hasOffset = true;
+                } else {
+                    return null;
+                }
+                if (pos != length) {
+                    return null;
+                }
+            }
+        }
+
+        long days = daysSinceEpoch(year, month, day);
+        int millisInDay = ((hour * 60 + minute) * 60 + second) * 1000 + nanos / 1000000;
+        if (!hasOffset) {
+            TimeZone zone = (timeZone == null ? TimeZone.getDefault() : timeZone);
+            int dayOfWeek = (int)(((days % 7) + 11) % 7) + Calendar.SUNDAY;
+            offset = zone.getOffset(GregorianCalendar.AD, year, month - 1, day,
+                                    dayOfWeek, millisInDay);
+        }
+        long time = days * 86400000L + millisInDay - offset;
+
+        if (log().isDebugEnabled()) {
+            log().debug("    Parsed ISO-8601 value '" + value + "'");
+        }
+        Object result = toDate(type, time);
+        if (result instanceof java.sql.Timestamp) {
+            ((java.sql.Timestamp)result).setNanos(nanos);
+        }
+        return result;
+    }
+
+    /**
+     * Parse a fixed number of decimal digits.
+     *
+     * @param value The String to parse
+     * @param start The index of the first digit
+     * @param count The number of digits
+     * @return The value of the digits or -1 if they are not all digits
+     */
+    private static int digits(String value, int start, int count) {
+        if (start + count > value.length()) {
+            return -1;
+        }
+        int result = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    /**
+     * Return the number of days in a month of the Gregorian calendar.
+     *
+     * @param year The year
+     * @param month The month (1-12)
+     * @return The number of days in the month
+     */
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0));
+                return (leap ? 29 : 28);
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Return the number of days between 1970-01-01 and the
+     * specified Gregorian date.
+     *
+     * @param year The year (1583 or later)
+     * @param month The month (1-12)
+     * @param day The day of the month
+     * @return The number of days since the epoch
+     */
+    private static long daysSinceEpoch(int year, int month, int day) {
+        if (month <= 2) {
+            year--;
+        }
+        int yearOfEra = year % 400;
+        int era = year / 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return (long)era * 146097 + dayOfEra - 719468;
+    }
+
     /**
      * Return a <code>DateFormat<code> for the Locale.
      * @param locale The Locale to create the Format with (may be null)
@@ -502,27 +746,49 @@ public abstract class DateTimeConverter extends AbstractConverter {
         return format;
     }
 
+    /**
+     * Return the pool of formats for the current configuration,
+     * creating it if the configuration has changed since it was
+     * last used.
+     *
+     * @return The format pool
+     */
+    private FormatPool getFormatPool() {
+        FormatPool pool = formatPool;
+        if (pool == null || pool.configuredPatterns != patterns
+                || pool.locale != locale || pool.timeZone != timeZone
+                || (locale == null && pool.defaultLocale != Locale.getDefault())) {
+            pool = new FormatPool(this);
+            formatPool = pool;
+        }
+        return pool;
+    }
+
     /**
      * Parse a String date value using the set of patterns.
      *
      * @param sourceType The type of the value being converted
      * @param targetType The type to convert the value to.
      * @param value The String date value.
+     * @param pool The pool to borrow the pattern formats from.
      *
      * @return The converted Date object.
      * @throws Exception if an error occurs parsing the date.
      */
-    private Calendar parse(Class sourceType, Class targetType, String value) throws Exception {
+    private Calendar parse(Class sourceType, Class targetType, String value, FormatPool pool) throws Exception {
+        String[] patterns = pool.patterns;
         Exception firstEx = null;
         for (int i = 0; i < patterns.length; i++) {
+            DateFormat format = pool.borrow(i);
             try {
-                DateFormat format = getFormat(patterns[i]);
                 Calendar calendar = parse(sourceType, targetType, value, format);
                 return calendar;
             } catch (Exception ex) {
                 if (firstEx == null) {
                     firstEx = ex;
                 }
+            } finally {
+                pool.release(i, format);
             }
         }
         if (patterns.length > 1) {
@@ -560,7 +826,8 @@ public abstract class DateTimeConverter extends AbstractConverter {
             }
             throw new ConversionException(msg);
         }
-        Calendar calendar = format.getCalendar();
+        // the format's calendar is reused by the next parse, so hand out a copy
+        Calendar calendar = (Calendar)format.getCalendar().clone();
         return calendar;
     }
 
@@ -576,6 +843,9 @@ public abstract class DateTimeConverter extends AbstractConverter {
         buffer.append(isUseDefault());
         buffer.append(", UseLocaleFormat=");
         buffer.append(useLocaleFormat);
+        if (useIso8601) {
+            buffer.append(", UseIso8601=true");
+        }
         if (displayPatterns != null) {
             buffer.append(", Patterns={");
             buffer.append(displayPatterns);
@@ -625,4 +895,86 @@ public abstract class DateTimeConverter extends AbstractConverter {
             log().debug(buffer.toString());
         }
     }
+
+    /**
+     * A small pool of <code>DateFormat</code> instances for one
+     * pattern/locale/time zone configuration of a converter.
+     * <p>
+     * Formats are checked out with <code>borrow()</code> and handed back
+     * with <code>release()</code>, so a format is only ever used by one
+     * thread at a time. Slots <code>0..n-1</code> hold formats for the
+     * configured patterns and {@link #LOCALE} holds the locale format.
+     */
+    private static final class FormatPool {
+
+        /** Slot used for the locale's default format. */
+        static final int LOCALE = -1;
+
+        /** Maximum number of idle formats kept per slot. */
+        private static final int SIZE = 4;
+
+        private final DateTimeConverter converter;
+        private final String[] configuredPatterns;
+        private final String[] patterns;
+        private final Locale locale;
+        private final Locale defaultLocale;
+        private final TimeZone timeZone;
+        private final DateFormat[][] idle;
+        private final int[] count;
+
+        FormatPool(DateTimeConverter converter) {
+            this.converter = converter;
+            String[] patterns = converter.patterns;
+            this.configuredPatterns = patterns;
+            this.patterns = (patterns != null && patterns.length > 0 ? patterns : null);
+            this.locale = converter.locale;
+            this.defaultLocale = Locale.getDefault();
+            this.timeZone = converter.timeZone;
+            int slots = (this.patterns == null ? 1 : this.patterns.length + 1);
+            this.idle = new DateFormat[slots][SIZE];
+            this.count = new int[slots];
+        }
+
+        /**
+         * Check out a format for the specified slot, creating one
+         * if none is idle.
+         *
+         * @param index The pattern index or {@link #LOCALE}
+         * @return A format for the exclusive use of the caller
+         */
+        DateFormat borrow(int index) {
+            int slot = index + 1;
+            synchronized (this) {
+                int n = count[slot];
+                if (n > 0) {
+                    count[slot] = --n;
+                    DateFormat format = idle[slot][n];
+                    idle[slot][n] = null;
+                    return format;
+                }
+            }
+            if (index == LOCALE) {
+                return converter.getFormat(locale, timeZone);
+            } else {
+                return converter.getFormat(patterns[index]);
+            }
+        }
+
+        /**
+         * Return a format previously obtained from <code>borrow()</code>.
+         *
+         * @param index The pattern index or {@link #LOCALE}
+         * @param format The format to return
+         */
+        void release(int index, DateFormat format) {
+            int slot = index + 1;
+            synchronized (this) {
+                int n = count[slot];
+                if (n < SIZE) {
+                    idle[slot][n] = format;
+                    count[slot] = n + 1;
+                }
+            }
+        }
+    }
 }
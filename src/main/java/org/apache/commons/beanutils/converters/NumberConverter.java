@@ -79,6 +79,14 @@ import org.apache.commons.beanutils.ConversionException;
  * For example to cater for number styles used in Germany such as <code>0.000,00</code> the pattern
  * is specified in the normal form <code>0,000.00</code> and the locale set to <code>Locale.GERMANY</code>.
  *
+ * <p>
+ * Plain decimal Strings converted without a format to <code>Byte</code>,
+ * <code>Short</code>, <code>Integer</code>, <code>Long</code> or
+ * <code>Double</code> are parsed directly from their characters; small
+ * integral values are returned from a shared cache of instances. When a
+ * format is used, <code>NumberFormat</code> instances are borrowed from a
+ * small per-converter pool rather than created for each conversion.
+ *
  * @version $Revision$ $Date$
  * @since 1.8.0
  */
@@ -87,10 +95,46 @@ public abstract class NumberConverter extends AbstractConverter {
     private static final Integer ZERO = new Integer(0);
     private static final Integer ONE  = new Integer(1);
 
+    /** Lowest integral value held in the instance caches */
+    private static final int CACHE_LOW = -128;
+
+    /** Highest integral value held in the instance caches */
+    private static final int CACHE_HIGH = 127;
+
+    private static final Byte[]    BYTES    = new Byte[CACHE_HIGH - CACHE_LOW + 1];
+    private static final Short[]   SHORTS   = new Short[CACHE_HIGH - CACHE_LOW + 1];
+    private static final Integer[] INTEGERS = new Integer[CACHE_HIGH - CACHE_LOW + 1];
+    private static final Long[]    LONGS    = new Long[CACHE_HIGH - CACHE_LOW + 1];
+    static {
+        for (int i = 0; i < INTEGERS.length; i++) {
+            int value = i + CACHE_LOW;
+            BYTES[i]    = new Byte((byte)value);
+            SHORTS[i]   = new Short((short)value);
+            INTEGERS[i] = new Integer(value);
+            LONGS[i]    = new Long(value);
+        }
+    }
+
+    /** Powers of ten which are exactly representable as a double */
+    private static final double[] POWERS_OF_TEN = new double[23];
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /** Maximum number of digits parsed directly to a double (below 2^53) */
+    private static final int MAX_DOUBLE_DIGITS = 15;
+
+    /** Maximum number of idle formats kept per converter */
+    private static final int POOL_SIZE = 4;
+
     private String pattern;
     private boolean allowDecimals;
     private boolean useLocaleFormat;
     private Locale locale;
+    private volatile FormatPool formatPool;
 
     // ----------------------------------------------------------- Constructors
 
@@ -138,6 +182,7 @@ public abstract class NumberConverter extends AbstractConverter {
      */
     public void setUseLocaleFormat(boolean useLocaleFormat) {
         this.useLocaleFormat = useLocaleFormat;
+        this.formatPool = null;
     }
 
     /**
@@ -201,9 +246,16 @@ public abstract class NumberConverter extends AbstractConverter {
 
         String result = null;
         if (useLocaleFormat && value instanceof Number) {
-            NumberFormat format = getFormat();
-            format.setGroupingUsed(false);
-            result = format.format(value);
+            FormatPool pool = getFormatPool();
+            NumberFormat format = pool.borrow();
+            boolean groupingUsed = format.isGroupingUsed();
+            try {
+                format.setGroupingUsed(false);
+                result = format.format(value);
+            } finally {
+                format.setGroupingUsed(groupingUsed);
+                pool.release(format);
+            }
             if (log().isDebugEnabled()) {
                 log().debug("    Converted  to String using format '" + result + "'");
             }
@@ -250,6 +302,14 @@ public abstract class NumberConverter extends AbstractConverter {
             return new Long(((Calendar)value).getTime().getTime());
         }
 
+        // Parse plain decimal Strings directly
+        if (!useLocaleFormat && value instanceof String) {
+            Number number = parseDecimal(targetType, (String)value);
+            if (number != null) {
+                return number;
+            }
+        }
+
         // Convert all other types to String & handle
         String stringValue = value.toString().trim();
         if (stringValue.length() == 0) {
@@ -259,8 +319,13 @@ public abstract class NumberConverter extends AbstractConverter {
         // Convert/Parse a String
         Number number = null;
         if (useLocaleFormat) {
-            NumberFormat format = getFormat();
-            number = parse(sourceType, targetType, stringValue, format);
+            FormatPool pool = getFormatPool();
+            NumberFormat format = pool.borrow();
+            try {
+                number = parse(sourceType, targetType, stringValue, format);
+            } finally {
+                pool.release(format);
+            }
         } else {
             if (log().isDebugEnabled()) {
                 log().debug("    No NumberFormat, using default conversion");
@@ -312,7 +377,7 @@ public abstract class NumberConverter extends AbstractConverter {
                 throw new ConversionException(toString(sourceType) + " value '" + value
                         + "' is too small " + toString(targetType));
             }
-            return new Byte(value.byteValue());
+            return toByte(value.byteValue());
         }
 
         // Short
@@ -326,7 +391,7 @@ public abstract class NumberConverter extends AbstractConverter {
                 throw new ConversionException(toString(sourceType) + " value '" + value
                         + "' is too small " + toString(targetType));
             }
-            return new Short(value.shortValue());
+            return toShort(value.shortValue());
         }
 
         // Integer
@@ -340,12 +405,12 @@ public abstract class NumberConverter extends AbstractConverter {
                 throw new ConversionException(toString(sourceType) + " value '" + value
                         + "' is too small " + toString(targetType));
             }
-            return new Integer(value.intValue());
+            return toInteger(value.intValue());
         }
 
         // Long
         if (targetType.equals(Long.class)) {
-            return new Long(value.longValue());
+            return toLong(value.longValue());
         }
 
         // Float
@@ -391,6 +456,145 @@ public abstract class NumberConverter extends AbstractConverter {
 
     }
 
+    /**
+     * Parse a plain decimal String directly from its characters,
+     * ignoring leading and trailing whitespace.
+     * <p>
+     * Only <code>Byte</code>, <code>Short</code>, <code>Integer</code>,
+     * <code>Long</code> and <code>Double</code> are handled, and only
+     * for values which the fast path can represent exactly: an optional
+     * minus sign followed by digits (with a decimal point for
+     * <code>Double</code>). Anything else, including values out of
+     * range, returns <code>null</code> so that the caller falls back to
+     * the default conversion (which also reports any errors).
+     *
+     * @param targetType The Number type to convert to
+     * @param value The String value to parse
+     * @return The parsed value or <code>null</code>
+     */
+    private Number parseDecimal(Class targetType, String value) {
+        boolean integral = (targetType == Integer.class || targetType == Long.class
+                || targetType == Short.class || targetType == Byte.class);
+        if (!integral && targetType != Double.class) {
+            return null;
+        }
+
+        // Trim whitespace, as String.trim() does
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        boolean negative = (start < end && value.charAt(start) == '-');
+        if (negative) {
+            start++;
+        }
+        if (start == end) {
+            return null;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        int maxDigits = (integral ? 18 : MAX_DOUBLE_DIGITS);
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > maxDigits) {
+                    return null;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && !integral && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                return null;
+            }
+        }
+        if (digits == 0) {
+            return null;
+        }
+
+        if (!integral) {
+            double result = mantissa;
+            if (fractionDigits > 0) {
+                result = result / POWERS_OF_TEN[fractionDigits];
+            }
+            return new Double(negative ? -result : result);
+        }
+        long result = (negative ? -mantissa : mantissa);
+        if (targetType == Integer.class) {
+            return (result < Integer.MIN_VALUE || result > Integer.MAX_VALUE)
+                    ? null : toInteger((int)result);
+        }
+        if (targetType == Long.class) {
+            return toLong(result);
+        }
+        if (targetType == Short.class) {
+            return (result < Short.MIN_VALUE || result > Short.MAX_VALUE)
+                    ? null : toShort((short)result);
+        }
+        return (result < Byte.MIN_VALUE || result > Byte.MAX_VALUE)
+                ? null : toByte((byte)result);
+    }
+
+    /**
+     * Return a <code>Byte</code> for the specified value.
+     *
+     * @param value The value
+     * @return The cached <code>Byte</code> instance
+     */
+    private static Byte toByte(byte value) {
+        return BYTES[value - CACHE_LOW];
+    }
+
+    /**
+     * Return a <code>Short</code> for the specified value, using
+     * a cached instance for small values.
+     *
+     * @param value The value
+     * @return A <code>Short</code> for the value
+     */
+    private static Short toShort(short value) {
+        if (value >= CACHE_LOW && value <= CACHE_HIGH) {
+            return SHORTS[value - CACHE_LOW];
+        }
+        return new Short(value);
+    }
+
+    /**
+     * Return an <code>Integer</code> for the specified value, using
+     * a cached instance for small values.
+     *
+     * @param value The value
+     * @return An <code>Integer</code> for the value
+     */
+    private static Integer toInteger(int value) {
+        if (value >= CACHE_LOW && value <= CACHE_HIGH) {
+            return INTEGERS[value - CACHE_LOW];
+        }
+        return new Integer(value);
+    }
+
+    /**
+     * Return a <code>Long</code> for the specified value, using
+     * a cached instance for small values.
+     *
+     * @param value The value
+     * @return A <code>Long</code> for the value
+     */
+    private static Long toLong(long value) {
+        if (value >= CACHE_LOW && value <= CACHE_HIGH) {
+            return LONGS[(int)value - CACHE_LOW];
+        }
+        return new Long(value);
+    }
+
     /**
      * Default String to Number conversion.
      * <p>
@@ -486,11 +690,32 @@ public abstract class NumberConverter extends AbstractConverter {
     }
 
     /**
-     * Return a NumberFormat to use for Conversion.
+     * Return the pool of formats for the current configuration,
+     * creating it if the configuration has changed since it was
+     * last used.
      *
+     * @return The format pool
+     */
+    private FormatPool getFormatPool() {
+        FormatPool pool = formatPool;
+        if (pool == null || pool.pattern != pattern || pool.locale != locale
+                || (locale == null && pool.defaultLocale != Locale.getDefault())) {
+            pool = new FormatPool(pattern, locale);
+            formatPool = pool;
+        }
+        return pool;
+    }
+
+    /**
+     * Create a NumberFormat to use for Conversion.
+     *
+     * @param pattern The format pattern (may be null)
+     * @param locale The locale (may be null)
+     * @param symbols The symbols for the locale (only used
+     * if a pattern has been specified)
      * @return The NumberFormat.
      */
-    private NumberFormat getFormat() {
+    private NumberFormat createFormat(String pattern, Locale locale, DecimalFormatSymbols symbols) {
         NumberFormat format = null;
         if (pattern != null) {
             if (locale == null) {
@@ -503,7 +728,6 @@ public abstract class NumberConverter extends AbstractConverter {
                     log().debug("    Using pattern '" + pattern + "'" +
                               " with Locale[" + locale + "]");
                 }
-                DecimalFormatSymbols symbols = new DecimalFormatSymbols(locale);
                 format = new DecimalFormat(pattern, symbols);
             }
         } else {
@@ -554,4 +778,64 @@ public abstract class NumberConverter extends AbstractConverter {
         return parsedNumber;
     }
 
+    /**
+     * A small pool of <code>NumberFormat</code> instances for one
+     * pattern/locale configuration of a converter.
+     * <p>
+     * Formats are checked out with <code>borrow()</code> and handed back
+     * with <code>release()</code>, so a format is only ever used by one
+     * thread at a time. The <code>DecimalFormatSymbols</code> for the
+     * locale are created once and shared, since <code>DecimalFormat</code>
+     * takes its own copy.
+     */
+    private final class FormatPool {
+
+        private final String pattern;
+        private final Locale locale;
+        private final Locale defaultLocale;
+        private final NumberFormat[] idle = new NumberFormat[POOL_SIZE];
+        private int count;
+        private DecimalFormatSymbols symbols;
+
+        FormatPool(String pattern, Locale locale) {
+            this.pattern = pattern;
+            this.locale = locale;
+            this.defaultLocale = Locale.getDefault();
+        }
+
+        /**
+         * Check out a format, creating one if none is idle.
+         *
+         * @return A format for the exclusive use of the caller
+         */
+        NumberFormat borrow() {
+            DecimalFormatSymbols symbols = null;
+            synchronized (this) {
+                if (count > 0) {
+                    NumberFormat format = idle[--count];
+                    idle[count] = null;
+                    return format;
+                }
+                if (pattern != null && locale != null) {
+                    if (this.symbols == null) {
+                        this.symbols = new DecimalFormatSymbols(locale);
+                    }
+                    symbols = this.symbols;
+                }
+            }
+            return createFormat(pattern, locale, symbols);
+        }
+
+        /**
+         * Return a format previously obtained from <code>borrow()</code>.
+         *
+         * @param format The format to return
+         */
+        synchronized void release(NumberFormat format) {
+            if (count < POOL_SIZE) {
+                idle[count++] = format;
+            }
+        }
+    }
+
 }
@@ -315,6 +315,19 @@ public class LocaleConvertUtils {
         return LocaleConvertUtilsBean.getInstance().lookup(clazz, locale);
     }
 
+    /**
+     * <p>Freeze the registered converters into immutable snapshots.</p>
+     * 
+     * <p>For more details see <code>LocaleConvertUtilsBean</code></p>
+     *
+     * @see LocaleConvertUtilsBean#freeze()
+     * @since 1.9.0
+     */
+    public static void freeze() {
+
+        LocaleConvertUtilsBean.getInstance().freeze();
+    }
+
     /**
      * <p>Look up and return any registered FastHashMap instance for the specified locale.</p>
      * 
@@ -39,6 +39,8 @@ import java.lang.reflect.Array;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
@@ -80,6 +82,12 @@ import java.util.Set;
  * It's important that {@link LocaleConverter} should be registered for
  * the specified locale and Class (or primitive type).
  *
+ * <p>Once all converters have been registered, {@link #freeze()} replaces
+ * the registry used by {@link #lookup(Class, Locale)} with immutable
+ * snapshots (one map per locale). Each later change made
+ * through the <code>register</code> and <code>deregister</code> methods
+ * publishes a new snapshot atomically.</p>
+ *
  * @author Yauheny Mikulski
  * @since 1.7
  */
@@ -111,6 +119,13 @@ public class LocaleConvertUtilsBean {
      */
     private FastHashMap mapConverters = new DelegateFastHashMap(BeanUtils.createCache());
 
+    /**
+     * Immutable snapshot of <code>mapConverters</code>, if frozen:
+     * key = locale, value = <code>HashMap</code> of converters. Neither
+     * map is modified once published, so they are read without locking.
+     */
+    private volatile Map frozen;
+
     // --------------------------------------------------------- Constructors
 
     /**
@@ -363,6 +378,7 @@ public class LocaleConvertUtilsBean {
     public void register(LocaleConverter converter, Class clazz, Locale locale) {
 
         lookup(locale).put(clazz, converter);
+        modified();
     }
 
     /**
@@ -378,6 +394,7 @@ public class LocaleConvertUtilsBean {
         mapConverters.put(defaultLocale, defaultConverter);
 
         mapConverters.setFast(true);
+        modified();
     }
 
 
@@ -389,6 +406,7 @@ public class LocaleConvertUtilsBean {
     public void deregister(Locale locale) {
 
         mapConverters.remove(locale);
+        modified();
     }
 
 
@@ -401,6 +419,7 @@ public class LocaleConvertUtilsBean {
     public void deregister(Class clazz, Locale locale) {
 
         lookup(locale).remove(clazz);
+        modified();
     }
 
     /**
@@ -414,7 +433,21 @@ public class LocaleConvertUtilsBean {
      */
     public LocaleConverter lookup(Class clazz, Locale locale) {
 
-        LocaleConverter converter = (LocaleConverter) lookup(locale).get(clazz);
+        LocaleConverter converter = null;
+        Map snapshot = frozen;
+        Map table = null;
+        if (snapshot != null) {
+            table = (Map) snapshot.get(locale == null ? defaultLocale : locale);
+        }
+        if (table != null) {
+            converter = (LocaleConverter) table.get(clazz);
+        } else {
+            converter = (LocaleConverter) lookup(locale).get(clazz);
+            if (snapshot != null) {
+                // the converters for this locale have just been created
+                modified();
+            }
+        }
         
         if (log.isTraceEnabled()) {
             log.trace("LocaleConverter:" + converter);
@@ -423,6 +456,53 @@ public class LocaleConvertUtilsBean {
         return converter;
     }
 
+    /**
+     * Freeze the registered converters into immutable snapshots which are
+     * used for all subsequent lookups.
+     * <p>
+     * Converters may still be registered and deregistered afterwards:
+     * each change publishes a new snapshot, so concurrent lookups see
+     * either the old or the new set of converters, never a mixture.
+     * Changes made directly to the maps returned by
+     * {@link #lookup(Locale)} are not seen until the next change.
+     *
+     * @since 1.9.0
+     */
+    public synchronized void freeze() {
+
+        Map snapshot = new HashMap();
+        Iterator entries = mapConverters.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry entry = (Map.Entry) entries.next();
+            if (entry.getKey() != null && entry.getValue() instanceof Map) {
+                snapshot.put(entry.getKey(), new HashMap((Map) entry.getValue()));
+            }
+        }
+        frozen = snapshot;
+    }
+
+    /**
+     * Indicate whether the registered converters have been frozen.
+     *
+     * @return <code>true</code> if {@link #freeze()} has been called
+     * @since 1.9.0
+     */
+    public boolean isFrozen() {
+
+        return (frozen != null);
+    }
+
+    /**
+     * Record a change to the registered converters, publishing a new
+     * snapshot if they have been frozen.
+     */
+    private synchronized void modified() {
+
+        if (frozen != null) {
+            freeze();
+        }
+    }
+
     /**
      * Look up and return any registered FastHashMap instance for the specified locale;
      * if there is no registered one, return <code>null</code>.
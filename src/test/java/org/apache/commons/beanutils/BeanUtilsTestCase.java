@@ -1471,6 +1471,32 @@ public class BeanUtilsTestCase extends TestCase {
 
     }
 
+    /**
+     * Test that nested names passed to <code>setProperty()</code> and
+     * <code>copyProperty()</code> are resolved through an overridden
+     * <code>getProperty()</code> method.
+     */
+    public void testNestedPropertyOverridden() throws Exception {
+        final TestBean redirected = new TestBean();
+        PropertyUtilsBean propertyUtils = new PropertyUtilsBean() {
+            public Object getProperty(Object bean, String name)
+                    throws IllegalAccessException, InvocationTargetException,
+                    NoSuchMethodException {
+                if ("nested".equals(name)) {
+                    return redirected;
+                }
+                return super.getProperty(bean, name);
+            }
+        };
+        BeanUtilsBean beanUtils = new BeanUtilsBean(new ConvertUtilsBean(), propertyUtils);
+        beanUtils.setProperty(bean, "nested.stringProperty", "Set");
+        assertEquals("setProperty", "Set", redirected.getStringProperty());
+        beanUtils.copyProperty(bean, "nested.intProperty", "42");
+        assertEquals("copyProperty", 42, redirected.getIntProperty());
+        assertEquals("Original untouched", "This is a string",
+                     bean.getNested().getStringProperty());
+    }
+
     /**
      * Test setting a value out of a mapped Map
      */
@@ -458,6 +458,75 @@ public class BeanificationTestCase extends TestCase {
         assertTrue("Unset works", !beanOne.equals(ccll.get())); 
     }
     
+    /** Tests switching context classloaders on the same thread */
+    public void testContextClassLoaderSwitch() throws Exception {
+        final int[] initialized = new int[1];
+        ContextClassLoaderLocal ccll = new ContextClassLoaderLocal() {
+            protected Object initialValue() {
+                return new Integer(++initialized[0]);
+            }
+        };
+        Thread thread = Thread.currentThread();
+        ClassLoader original = thread.getContextClassLoader();
+        ClassLoader other = new TestClassLoader();
+        try {
+            assertEquals("First loader", new Integer(1), ccll.get());
+            assertEquals("First loader again", new Integer(1), ccll.get());
+            thread.setContextClassLoader(other);
+            assertEquals("Second loader", new Integer(2), ccll.get());
+            thread.setContextClassLoader(original);
+            assertEquals("Back to first loader", new Integer(1), ccll.get());
+
+            ccll.set("replaced");
+            assertEquals("Replaced", "replaced", ccll.get());
+            ccll.unset(other);
+            thread.setContextClassLoader(other);
+            assertEquals("Unset other loader", new Integer(3), ccll.get());
+            thread.setContextClassLoader(original);
+            assertEquals("First loader kept", "replaced", ccll.get());
+            assertEquals("Initial values", 3, initialized[0]);
+        } finally {
+            thread.setContextClassLoader(original);
+        }
+    }
+
+    /** Tests the initial value is only created once when threads race */
+    public void testContextClassLoaderLocalConcurrent() throws Exception {
+        final int[] initialized = new int[1];
+        final ContextClassLoaderLocal ccll = new ContextClassLoaderLocal() {
+            protected Object initialValue() {
+                synchronized (initialized) {
+                    initialized[0]++;
+                }
+                return new Object();
+            }
+        };
+        final Object[] values = new Object[8];
+        Thread[] threads = new Thread[values.length];
+        ClassLoader loader = new TestClassLoader();
+        for (int i = 0; i < threads.length; i++) {
+            final int index = i;
+            threads[i] = new Thread() {
+                public void run() {
+                    for (int j = 0; j < 100; j++) {
+                        values[index] = ccll.get();
+                    }
+                }
+            };
+            threads[i].setContextClassLoader(loader);
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join();
+        }
+        assertEquals("Initial values", 1, initialized[0]);
+        for (int i = 1; i < values.length; i++) {
+            assertSame("Value " + i, values[0], values[i]);
+        }
+    }
+
     private boolean isPre14JVM() {
         // some pre 1.4 JVM have buggy WeakHashMap implementations 
         // this is used to test for those JVM
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Test case for {@link ClassTable}.
+ *
+ * @version $Revision$ $Date$
+ */
+public class ClassTableTestCase extends TestCase {
+
+    /** Classes used as keys */
+    private static final Class[] CLASSES = {
+        String.class, Integer.class, Long.class, Short.class, Byte.class,
+        Double.class, Float.class, Boolean.class, Character.class,
+        Integer.TYPE, Long.TYPE, Double.TYPE, Boolean.TYPE, int[].class,
+        String[].class, Object.class, Number.class, Map.class, TestBean.class,
+        java.util.Date.class, java.sql.Date.class, java.sql.Time.class,
+        java.sql.Timestamp.class, java.io.File.class, java.net.URL.class,
+        java.math.BigDecimal.class, java.math.BigInteger.class, Class.class
+    };
+
+    // ---------------------------------------------------------- Constructors
+
+    /**
+     * Construct a new instance of this test case.
+     *
+     * @param name Name of the test case
+     */
+    public ClassTableTestCase(String name) {
+        super(name);
+    }
+
+    // -------------------------------------------------- Overall Test Methods
+
+    /**
+     * Return the tests included in this test suite.
+     *
+     * @return The test suite
+     */
+    public static Test suite() {
+        return (new TestSuite(ClassTableTestCase.class));
+    }
+
+    // ------------------------------------------------ Individual Test Methods
+
+    /**
+     * Test every entry of the map can be found.
+     */
+    public void testGet() {
+        Map map = new HashMap();
+        for (int i = 0; i < CLASSES.length; i++) {
+            map.put(CLASSES[i], new Integer(i));
+        }
+        ClassTable table = new ClassTable(map);
+        assertEquals("Size", CLASSES.length, table.size());
+        for (int i = 0; i < CLASSES.length; i++) {
+            assertEquals(CLASSES[i].getName(), new Integer(i), table.get(CLASSES[i]));
+        }
+        assertNull("Missing", table.get(Runnable.class));
+        assertNull("Null", table.get(null));
+    }
+
+    /**
+     * Test entries which are not class keyed, or have no value, are ignored.
+     */
+    public void testIgnored() {
+        Map map = new HashMap();
+        map.put(String.class, "string");
+        map.put("key", "value");
+        map.put(Integer.class, null);
+        ClassTable table = new ClassTable(map);
+        assertEquals("Size", 1, table.size());
+        assertEquals("String", "string", table.get(String.class));
+        assertNull("Integer", table.get(Integer.class));
+    }
+
+    /**
+     * Test an empty table.
+     */
+    public void testEmpty() {
+        ClassTable table = new ClassTable(new HashMap());
+        assertEquals("Size", 0, table.size());
+        assertNull("Missing", table.get(String.class));
+    }
+
+    /**
+     * Test the table is a snapshot of the map.
+     */
+    public void testSnapshot() {
+        Map map = new HashMap();
+        map.put(String.class, "string");
+        ClassTable table = new ClassTable(map);
+        map.put(String.class, "changed");
+        map.put(Integer.class, "integer");
+        assertEquals("String", "string", table.get(String.class));
+        assertNull("Integer", table.get(Integer.class));
+    }
+}
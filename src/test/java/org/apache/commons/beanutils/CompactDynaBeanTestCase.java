@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.beanutils;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+
+/**
+ * <p>Test Case for the <code>CompactDynaBean</code> implementation class,
+ * running the <code>BasicDynaBean</code> tests against it.</p>
+ *
+ * @version $Revision$ $Date$
+ */
+
+public class CompactDynaBeanTestCase extends BasicDynaBeanTestCase {
+
+
+    // ---------------------------------------------------------- Constructors
+
+
+    /**
+     * Construct a new instance of this test case.
+     *
+     * @param name Name of the test case
+     */
+    public CompactDynaBeanTestCase(String name) {
+
+        super(name);
+
+    }
+
+
+    // -------------------------------------------------- Overall Test Methods
+
+
+    /**
+     * Return the tests included in this test suite.
+     */
+    public static Test suite() {
+
+        return (new TestSuite(CompactDynaBeanTestCase.class));
+
+    }
+
+
+    // ------------------------------------------------ Individual Test Methods
+
+
+    /**
+     * Test the class of the beans created by the DynaClass.
+     */
+    public void testBeanClass() {
+
+        assertTrue("CompactDynaBean", bean instanceof CompactDynaBean);
+        try {
+            new CompactDynaBean(new LazyDynaMap());
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+    }
+
+
+    /**
+     * Test access to property values by slot.
+     */
+    public void testSlotValues() {
+
+        BasicDynaClass dynaClass = (BasicDynaClass) bean.getDynaClass();
+        CompactDynaBean compact = (CompactDynaBean) bean;
+        assertEquals("Slot count", properties.length, dynaClass.getSlotCount());
+        assertEquals("Unknown slot", -1, dynaClass.getSlot("unknown"));
+
+        int intSlot = dynaClass.getSlot("intProperty");
+        assertEquals("Slot property", "intProperty", dynaClass.getDynaProperty(intSlot).getName());
+        assertEquals("Get by slot", new Integer(123), compact.getValue(intSlot));
+        compact.setValue(intSlot, new Integer(456));
+        assertEquals("Set by slot", new Integer(456), bean.get("intProperty"));
+        assertEquals("Primitive get", 456, compact.getInt("intProperty"));
+
+        int nullSlot = dynaClass.getSlot("nullProperty");
+        assertNull("Null by slot", compact.getValue(nullSlot));
+        try {
+            compact.setValue(intSlot, "abc");
+            fail("Expected ConversionException");
+        } catch (ConversionException e) {
+            // expected
+        }
+        try {
+            compact.setValue(intSlot, null);
+            fail("Expected NullPointerException");
+        } catch (NullPointerException e) {
+            // expected
+        }
+        try {
+            compact.getValue(properties.length);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+    }
+
+
+    /**
+     * Test that slots survive changes to the properties of a
+     * mutable DynaClass.
+     */
+    public void testMutableDynaClass() {
+
+        LazyDynaClass dynaClass = new LazyDynaClass("lazy", CompactDynaBean.class);
+        dynaClass.add("first", String.class);
+        dynaClass.add("second", Integer.class);
+        CompactDynaBean compact = null;
+        try {
+            compact = (CompactDynaBean) dynaClass.newInstance();
+        } catch (Exception e) {
+            fail("Exception creating new instance: " + e);
+        }
+        compact.set("first", "one");
+        compact.set("second", new Integer(2));
+        int firstSlot = dynaClass.getSlot("first");
+        int secondSlot = dynaClass.getSlot("second");
+
+        // removing a property keeps the slots of the others
+        dynaClass.remove("first");
+        assertEquals("Slot kept", secondSlot, dynaClass.getSlot("second"));
+        assertEquals("Value kept", new Integer(2), compact.get("second"));
+
+        // the value of the removed property is no longer reachable
+        try {
+            compact.getValue(firstSlot);
+            fail("Expected IllegalArgumentException for a removed slot");
+        } catch (IllegalArgumentException e) {
+            // expected result
+        }
+        assertNull("Removed value cleared", compact.values[firstSlot]);
+
+        // a new property gets a new slot, beyond the bean's array
+        dynaClass.add("first", Long.class);
+        assertTrue("New slot", dynaClass.getSlot("first") >= 2);
+        assertNull("Not set", compact.get("first"));
+        compact.set("first", new Long(1));
+        assertEquals("Grown", new Long(1), compact.get("first"));
+        assertEquals("Value still kept", new Integer(2), compact.get("second"));
+
+    }
+
+
+    /**
+     * Test that serialization keeps the slots of a DynaClass whose
+     * properties have changed, so that the values stored by slot still
+     * match their properties.
+     */
+    public void testSerializedSlots() throws Exception {
+
+        LazyDynaClass dynaClass = new LazyDynaClass("lazy", CompactDynaBean.class);
+        dynaClass.add("first", String.class);
+        dynaClass.add("second", Integer.class);
+        dynaClass.add("third", String.class);
+        dynaClass.remove("first");
+        CompactDynaBean compact = (CompactDynaBean) dynaClass.newInstance();
+        compact.set("second", new Integer(2));
+        compact.set("third", "three");
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(compact);
+        oos.close();
+        ObjectInputStream ois = new ObjectInputStream(
+                new ByteArrayInputStream(baos.toByteArray()));
+        CompactDynaBean copy = (CompactDynaBean) ois.readObject();
+        BasicDynaClass copyClass = (BasicDynaClass) copy.getDynaClass();
+        assertEquals("Slot", dynaClass.getSlot("third"), copyClass.getSlot("third"));
+        assertEquals("Removed slot", -1, copyClass.getSlot("first"));
+        assertEquals("Slot count", dynaClass.getSlotCount(), copyClass.getSlotCount());
+        assertEquals("second", new Integer(2), copy.get("second"));
+        assertEquals("third", "three", copy.get("third"));
+
+    }
+
+
+    // ------------------------------------------------------ Protected Methods
+
+
+    /**
+     * Create and return a <code>DynaClass</code> instance for our test
+     * <code>DynaBean</code>.
+     */
+    protected DynaClass createDynaClass() {
+
+        return (new BasicDynaClass("TestDynaClass", CompactDynaBean.class,
+                super.createDynaClass().getDynaProperties()));
+
+    }
+
+
+}
@@ -19,6 +19,7 @@
 package org.apache.commons.beanutils;
 
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Modifier;
 
@@ -255,4 +256,177 @@ public class ConstructorUtilsTestCase extends TestCase {
         }
     }
 
+
+    /**
+     * Test {@link ConstructorUtils#newInstance(Class)}.
+     */
+    public void testNewInstance() throws Exception {
+        ConstructorUtils.clearCache();
+        Object first = ConstructorUtils.newInstance(TestBean.class);
+        Object second = ConstructorUtils.newInstance(TestBean.class);
+        assertTrue(first instanceof TestBean);
+        assertTrue(second instanceof TestBean);
+        assertNotSame(first, second);
+        assertEquals("Hits", 1, ConstructorUtils.getCacheStatistics().getHits());
+        try {
+            ConstructorUtils.newInstance(Number.class);
+            fail("Expected InstantiationException");
+        } catch (InstantiationException e) {
+            // expected
+        }
+        ConstructorUtils.clearCache();
+    }
+
+    /**
+     * Test {@link ConstructorUtils#getCacheStatistics()}.
+     */
+    public void testCacheStatistics() throws Exception {
+        ConstructorUtils.clearCache(); // make sure it starts empty
+        CacheStatistics stats = ConstructorUtils.getCacheStatistics();
+        assertEquals("Initial size", 0, stats.getSize());
+        assertEquals("Initial hits", 0, stats.getHits());
+        assertEquals("Initial misses", 0, stats.getMisses());
+
+        // matched via assignment compatibility (int -> Integer)
+        Object obj = ConstructorUtils.invokeConstructor(TestBean.class, new Integer(1));
+        assertEquals(1, ((TestBean)obj).getIntProperty());
+        stats = ConstructorUtils.getCacheStatistics();
+        assertEquals("Size", 1, stats.getSize());
+        assertEquals("Hits", 0, stats.getHits());
+        assertEquals("Misses", 1, stats.getMisses());
+
+        obj = ConstructorUtils.invokeConstructor(TestBean.class, new Integer(2));
+        assertEquals(2, ((TestBean)obj).getIntProperty());
+        stats = ConstructorUtils.getCacheStatistics();
+        assertEquals("Size again", 1, stats.getSize());
+        assertEquals("Hits again", 1, stats.getHits());
+        assertEquals("Misses again", 1, stats.getMisses());
+
+        // exact and compatible lookups are cached separately
+        ConstructorUtils.invokeExactConstructor(TestBean.class, new Integer(3));
+        assertEquals("Exact size", 2, ConstructorUtils.getCacheStatistics().getSize());
+        assertTrue(ConstructorUtils.getCacheStatistics().toString().startsWith("ConstructorCache["));
+
+        ConstructorUtils.setCacheConstructors(false);
+        try {
+            ConstructorUtils.invokeConstructor(TestBean.class, new Integer(4));
+            assertEquals("Disabled", 0, ConstructorUtils.getCacheStatistics().getSize());
+        } finally {
+            ConstructorUtils.setCacheConstructors(true);
+        }
+        ConstructorUtils.clearCache();
+    }
+
+    /**
+     * Test that a cached lookup on a class which is never unloaded does
+     * not pin the class loader of a parameter type.
+     */
+    public void testForeignParameterTypeCollected() throws Exception {
+        ConstructorUtils.clearCache();
+        ClassLoader loader = new MethodUtilsTestCase.IsolatingClassLoader(getClass().getClassLoader());
+        Class type = loader.loadClass("org.apache.commons.beanutils.BetaBean");
+        assertTrue("Foreign class", type != BetaBean.class);
+        WeakReference reference = new WeakReference(loader);
+
+        Object obj = ConstructorUtils.invokeConstructor(WeakReference.class,
+                new Object[] {null}, new Class[] {type});
+        assertTrue("WeakReference", obj instanceof WeakReference);
+        assertEquals("Cached", 1, ConstructorUtils.getCacheStatistics().getSize());
+
+        // dereference the class loader and its class
+        loader = null;
+        type = null;
+        int iterations = 0;
+        int bytz = 2;
+        while (reference.get() != null) {
+            System.gc();
+            if (iterations++ > 50) {
+                fail("Class loader of the parameter type was not released");
+            }
+            byte[] b = new byte[bytz];
+            if (bytz < 1 << 20) {
+                bytz = bytz * 2;
+            }
+        }
+        assertEquals("Stale descriptor purged", 0, ConstructorUtils.getCacheStatistics().getSize());
+        ConstructorUtils.clearCache();
+    }
+
+    /**
+     * Test {@link ConstructorUtils#setMaxCacheSize(int)}.
+     */
+    public void testMaxCacheSize() throws Exception {
+        Class[][] types = new Class[][] {
+            {}, {String.class}, {Float.TYPE}, {Boolean.TYPE}, {Boolean.class},
+            {Float.TYPE, String.class}, {Boolean.TYPE, String.class},
+            {Boolean.class, String.class}, {Integer.class}, {Double.TYPE}};
+        int maxCacheSize = ConstructorUtils.getMaxCacheSize();
+        ConstructorUtils.clearCache(); // make sure it starts empty
+        try {
+            ConstructorUtils.setMaxCacheSize(4);
+            assertEquals("Max size", 4, ConstructorUtils.getMaxCacheSize());
+            for (int i = 0; i < types.length; i++) {
+                assertNotNull("Constructor " + i, construct(types[i]));
+                // keep the first constructor in use
+                construct(types[0]);
+            }
+            CacheStatistics stats = ConstructorUtils.getCacheStatistics();
+            assertTrue("Size " + stats, stats.getSize() <= 4);
+            assertTrue("Evictions " + stats, stats.getEvictions() > 0);
+            assertEquals("Size + evictions " + stats, types.length, stats.getSize() + stats.getEvictions());
+
+            // the most recently used constructor survives eviction
+            long hits = stats.getHits();
+            construct(types[0]);
+            assertEquals("Recently used", hits + 1, ConstructorUtils.getCacheStatistics().getHits());
+
+            // shrinking the cache evicts immediately
+            ConstructorUtils.setMaxCacheSize(1);
+            assertTrue("Shrunk", ConstructorUtils.getCacheStatistics().getSize() <= 1);
+        } finally {
+            ConstructorUtils.setMaxCacheSize(maxCacheSize);
+            ConstructorUtils.clearCache();
+        }
+    }
+
+    /**
+     * Test that the constructors returned by
+     * {@link ConstructorUtils#getAccessibleConstructor(Class, Class[])}
+     * are not the shared instances cached for invoking constructors.
+     */
+    public void testGetAccessibleConstructorNotShared() throws Exception {
+        ConstructorUtils.clearCache();
+        ConstructorUtils.newInstance(TestBean.class);
+        Constructor first = ConstructorUtils.getAccessibleConstructor(TestBean.class, new Class[0]);
+        Constructor second = ConstructorUtils.getAccessibleConstructor(TestBean.class, new Class[0]);
+        assertNotNull("Constructor", first);
+        assertNotSame("Shared", first, second);
+        assertFalse("Made accessible", first.isAccessible());
+        first.setAccessible(true);
+        assertFalse("Changed by another caller", second.isAccessible());
+        assertTrue(ConstructorUtils.newInstance(TestBean.class) instanceof TestBean);
+        ConstructorUtils.clearCache();
+    }
+
+    /**
+     * Invoke the TestBean constructor with the specified signature.
+     */
+    private Object construct(Class[] types) throws Exception {
+        Object[] args = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == String.class) {
+                args[i] = "value";
+            } else if (types[i] == Float.TYPE) {
+                args[i] = new Float(1);
+            } else if (types[i] == Boolean.TYPE || types[i] == Boolean.class) {
+                args[i] = Boolean.TRUE;
+            } else if (types[i] == Integer.class) {
+                args[i] = new Integer(1);
+            } else if (types[i] == Double.TYPE) {
+                args[i] = new Double(1);
+            }
+        }
+        return ConstructorUtils.invokeExactConstructor(TestBean.class, args, types);
+    }
+
 }
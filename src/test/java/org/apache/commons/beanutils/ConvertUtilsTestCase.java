@@ -24,6 +24,7 @@ import java.sql.Timestamp;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Locale;
+import org.apache.commons.beanutils.converters.AbstractConverter;
 import org.apache.commons.beanutils.converters.DateConverter;
 import junit.framework.TestCase;
 import junit.framework.Test;
@@ -657,6 +658,136 @@ public class ConvertUtilsTestCase extends TestCase {
         
     }
 
+    /**
+     * Test a converter registered for a superclass or interface of
+     * the target type is found, but standard converters are not.
+     */
+    public void testLookupHierarchy() throws Exception {
+        ConvertUtilsBean utils = new ConvertUtilsBean();
+        Converter listConverter = new Converter() {
+            public Object convert(Class type, Object value) {
+                return value;
+            }
+        };
+        Converter runnableConverter = new Converter() {
+            public Object convert(Class type, Object value) {
+                return value;
+            }
+        };
+
+        // Standard converters are not used for subclasses
+        assertNull("Standard", utils.lookup(String.class, java.util.GregorianCalendar.class));
+
+        utils.register(listConverter, java.util.AbstractList.class);
+        utils.register(runnableConverter, Runnable.class);
+        assertSame("Exact", utils.lookup(Integer.class), utils.lookup(String.class, Integer.class));
+        assertSame("Superclass", listConverter, utils.lookup(String.class, java.util.ArrayList.class));
+        assertSame("Superclass (null source)", listConverter, utils.lookup(null, java.util.ArrayList.class));
+        assertSame("Interface", runnableConverter, utils.lookup(String.class, Thread.class));
+        assertNull("None", utils.lookup(String.class, Object.class));
+    }
+
+    /**
+     * Test an application converter extending {@link AbstractConverter}
+     * registered for a supertype of the target type is found.
+     */
+    public void testLookupHierarchyAbstractConverter() throws Exception {
+        ConvertUtilsBean utils = new ConvertUtilsBean();
+        Converter converter = new AbstractConverter() {
+            protected Object convertToType(Class type, Object value) {
+                return "converted";
+            }
+            protected Class getDefaultType() {
+                return java.util.AbstractList.class;
+            }
+        };
+        utils.register(converter, java.util.AbstractList.class);
+        assertSame("Superclass", converter, utils.lookup(String.class, java.util.ArrayList.class));
+        assertEquals("Converted", "converted", utils.convert((Object)"value", java.util.ArrayList.class));
+        assertNull("Standard", utils.lookup(String.class, java.util.GregorianCalendar.class));
+    }
+
+    /**
+     * Test resolved converters (including missing ones) are forgotten
+     * when converters are registered and deregistered.
+     */
+    public void testLookupInvalidation() throws Exception {
+        ConvertUtilsBean utils = new ConvertUtilsBean();
+        Converter converter = new Converter() {
+            public Object convert(Class type, Object value) {
+                return "converted";
+            }
+        };
+
+        assertNull("Before register", utils.lookup(String.class, Runnable.class));
+        assertEquals("Before register", "value", utils.convert((Object)"value", Runnable.class));
+
+        utils.register(converter, Runnable.class);
+        assertSame("After register", converter, utils.lookup(String.class, Runnable.class));
+        assertEquals("After register", "converted", utils.convert((Object)"value", Runnable.class));
+
+        utils.deregister(Runnable.class);
+        assertNull("After deregister", utils.lookup(String.class, Runnable.class));
+
+        Converter integerConverter = utils.lookup(String.class, Integer.class);
+        utils.register(converter, Integer.class);
+        assertSame("Replaced", converter, utils.lookup(String.class, Integer.class));
+        utils.deregister();
+        assertNotSame("Reset", converter, utils.lookup(String.class, Integer.class));
+        assertNotNull("Reset", utils.lookup(String.class, Integer.class));
+        assertNotSame("Reset instance", integerConverter, utils.lookup(String.class, Integer.class));
+    }
+
+    /**
+     * Test a subclass overriding <code>lookup(Class)</code> is always
+     * consulted.
+     */
+    public void testLookupOverridden() throws Exception {
+        final Converter converter = new Converter() {
+            public Object convert(Class type, Object value) {
+                return value;
+            }
+        };
+        final boolean[] enabled = new boolean[1];
+        ConvertUtilsBean utils = new ConvertUtilsBean() {
+            public Converter lookup(Class clazz) {
+                return (enabled[0] && clazz == Runnable.class ? converter : super.lookup(clazz));
+            }
+        };
+        assertNull("Disabled", utils.lookup(String.class, Runnable.class));
+        enabled[0] = true;
+        assertSame("Enabled", converter, utils.lookup(String.class, Runnable.class));
+    }
+
+    /**
+     * Test lookups from a frozen registry, and changes made after freezing.
+     */
+    public void testFreeze() throws Exception {
+        ConvertUtilsBean utils = new ConvertUtilsBean();
+        Converter integerConverter = utils.lookup(Integer.class);
+        Converter converter = new Converter() {
+            public Object convert(Class type, Object value) {
+                return "converted";
+            }
+        };
+
+        assertFalse("Not frozen", utils.isFrozen());
+        utils.freeze();
+        assertTrue("Frozen", utils.isFrozen());
+        assertSame("Integer", integerConverter, utils.lookup(Integer.class));
+        assertEquals("Convert", new Integer(123), utils.convert("123", Integer.class));
+        assertNull("Missing", utils.lookup(Runnable.class));
+
+        utils.register(converter, Runnable.class);
+        assertSame("Registered", converter, utils.lookup(Runnable.class));
+        utils.deregister(Integer.class);
+        assertNull("Deregistered", utils.lookup(Integer.class));
+        utils.deregister();
+        assertTrue("Still frozen", utils.isFrozen());
+        assertNull("Reset", utils.lookup(Runnable.class));
+        assertNotNull("Reset", utils.lookup(Integer.class));
+    }
+
     // -------------------------------------------------------- Private Methods
 
 
@@ -0,0 +1,283 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.beanutils.converters.AbstractConverter;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Test case for the {@link CopyPlan}s used by
+ * <code>BeanUtilsBean.copyProperties()</code>.
+ *
+ * @version $Revision$ $Date$
+ */
+public class CopyPlanTestCase extends TestCase {
+
+    private BeanUtilsBean beanUtils;
+
+    // ---------------------------------------------------------- Constructors
+
+    /**
+     * Construct a new instance of this test case.
+     *
+     * @param name Name of the test case
+     */
+    public CopyPlanTestCase(String name) {
+        super(name);
+    }
+
+    // -------------------------------------------------- Overall Test Methods
+
+    /**
+     * Set up instance variables required by this test case.
+     */
+    public void setUp() {
+        beanUtils = new BeanUtilsBean();
+    }
+
+    /**
+     * Return the tests included in this test suite.
+     * @return a test suite
+     */
+    public static Test suite() {
+        return (new TestSuite(CopyPlanTestCase.class));
+    }
+
+    /**
+     * Tear down instance variables required by this test case.
+     */
+    public void tearDown() {
+        beanUtils = null;
+    }
+
+    // ------------------------------------------------ Individual Test Methods
+
+    /**
+     * Test copying between different classes, converting the values.
+     */
+    public void testConvertingCopy() throws Exception {
+        StringBean orig = new StringBean();
+        orig.setCount("12");
+        orig.setName("Name");
+        orig.setTotal("34");
+        TypedBean dest = new TypedBean();
+        for (int i = 0; i < 3; i++) {
+            dest.setCount(0);
+            beanUtils.copyProperties(dest, orig);
+            assertEquals("count " + i, 12, dest.getCount());
+            assertEquals("name " + i, "Name", dest.getName());
+            assertEquals("total " + i, new Integer(34), dest.getTotal());
+        }
+
+        TypedBean copy = new TypedBean();
+        beanUtils.copyProperties(copy, dest);
+        assertEquals("Same class count", 12, copy.getCount());
+        assertEquals("Same class total", new Integer(34), copy.getTotal());
+    }
+
+    /**
+     * Test copying a TestBean, which has read-only and write-only properties.
+     */
+    public void testTestBeanCopy() throws Exception {
+        TestBean orig = new TestBean();
+        orig.setIntProperty(42);
+        orig.setStringProperty("Copied");
+        orig.setDateProperty(new java.util.Date());
+        orig.setDateArrayProperty(new java.util.Date[0]);
+        TestBean dest = new TestBean();
+        dest.setWriteOnlyProperty("Unchanged");
+        beanUtils.copyProperties(dest, orig);
+        assertEquals("int", 42, dest.getIntProperty());
+        assertEquals("String", "Copied", dest.getStringProperty());
+        assertEquals("Write only", "Unchanged", dest.getWriteOnlyPropertyValue());
+        assertSame("Date", orig.getDateProperty(), dest.getDateProperty());
+        assertSame("Array", orig.getStringArray(), dest.getStringArray());
+    }
+
+    /**
+     * Test that converters registered after a copy are used by later copies,
+     * including for values which already have the destination type.
+     */
+    public void testConverterRegisteredLater() throws Exception {
+        StringBean orig = new StringBean();
+        orig.setName("name");
+        TypedBean dest = new TypedBean();
+        beanUtils.copyProperties(dest, orig);
+        assertEquals("Before", "name", dest.getName());
+
+        beanUtils.getConvertUtils().register(new Converter() {
+            public Object convert(Class type, Object value) {
+                return (value == null ? null : value.toString().toUpperCase());
+            }
+        }, String.class);
+        beanUtils.copyProperties(dest, orig);
+        assertEquals("After register", "NAME", dest.getName());
+
+        beanUtils.getConvertUtils().deregister();
+        beanUtils.copyProperties(dest, orig);
+        assertEquals("After deregister", "name", dest.getName());
+    }
+
+    /**
+     * Test that copies still work after the descriptors have been cleared.
+     */
+    public void testDescriptorsCleared() throws Exception {
+        StringBean orig = new StringBean();
+        orig.setCount("5");
+        TypedBean dest = new TypedBean();
+        beanUtils.copyProperties(dest, orig);
+        beanUtils.getPropertyUtils().clearDescriptors();
+        orig.setCount("6");
+        beanUtils.copyProperties(dest, orig);
+        assertEquals("count", 6, dest.getCount());
+    }
+
+    /**
+     * Test that an overridden convert() method is honoured.
+     */
+    public void testConvertOverridden() throws Exception {
+        final List types = new ArrayList();
+        beanUtils = new BeanUtilsBean() {
+            protected Object convert(Object value, Class type) {
+                types.add(type);
+                return super.convert(value, type);
+            }
+        };
+        StringBean orig = new StringBean();
+        orig.setCount("7");
+        TypedBean dest = new TypedBean();
+        beanUtils.copyProperties(dest, orig);
+        assertEquals("count", 7, dest.getCount());
+        assertTrue("int converted", types.contains(Integer.TYPE));
+        assertTrue("String converted", types.contains(String.class));
+    }
+
+    /**
+     * Test that an overridden copyProperty() method is honoured.
+     */
+    public void testCopyPropertyOverridden() throws Exception {
+        final List names = new ArrayList();
+        beanUtils = new BeanUtilsBean() {
+            public void copyProperty(Object bean, String name, Object value)
+                throws java.lang.IllegalAccessException,
+                       java.lang.reflect.InvocationTargetException {
+                names.add(name);
+                super.copyProperty(bean, name, value);
+            }
+        };
+        StringBean orig = new StringBean();
+        orig.setCount("8");
+        TypedBean dest = new TypedBean();
+        beanUtils.copyProperties(dest, orig);
+        assertEquals("count", 8, dest.getCount());
+        assertTrue("count copied", names.contains("count"));
+        assertTrue("name copied", names.contains("name"));
+        assertFalse("read only not copied", names.contains("readOnly"));
+    }
+
+    /**
+     * Test that a registered String converter extending AbstractConverter
+     * is applied to String values.
+     */
+    public void testUserStringConverter() throws Exception {
+        beanUtils.getConvertUtils().register(new AbstractConverter() {
+            protected Class getDefaultType() {
+                return String.class;
+            }
+            protected Object convertToType(Class type, Object value) {
+                return value.toString().trim();
+            }
+            protected String convertToString(Object value) {
+                return value.toString().trim();
+            }
+        }, String.class);
+        StringBean orig = new StringBean();
+        orig.setName("  padded  ");
+        TypedBean dest = new TypedBean();
+        beanUtils.copyProperties(dest, orig);
+        assertEquals("name", "padded", dest.getName());
+    }
+
+    // -------------------------------------------------------- Test Beans
+
+    /**
+     * Bean with String properties.
+     */
+    public static class StringBean {
+        private String count;
+        private String name;
+        private String total;
+        public String getCount() {
+            return count;
+        }
+        public void setCount(String count) {
+            this.count = count;
+        }
+        public String getName() {
+            return name;
+        }
+        public void setName(String name) {
+            this.name = name;
+        }
+        public String getTotal() {
+            return total;
+        }
+        public void setTotal(String total) {
+            this.total = total;
+        }
+        public String getReadOnly() {
+            return "readOnly";
+        }
+    }
+
+    /**
+     * Bean with typed properties.
+     */
+    public static class TypedBean {
+        private int count;
+        private String name;
+        private Integer total;
+        public int getCount() {
+            return count;
+        }
+        public void setCount(int count) {
+            this.count = count;
+        }
+        public String getName() {
+            return name;
+        }
+        public void setName(String name) {
+            this.name = name;
+        }
+        public Integer getTotal() {
+            return total;
+        }
+        public void setTotal(Integer total) {
+            this.total = total;
+        }
+        public String getReadOnly() {
+            return "readOnly";
+        }
+    }
+}
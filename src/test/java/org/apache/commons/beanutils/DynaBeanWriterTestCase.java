@@ -0,0 +1,305 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+
+/**
+ * <p>Test Case for the <code>DynaBeanWriter</code> and
+ * <code>DynaBeanReader</code> classes.</p>
+ *
+ * @version $Revision$ $Date$
+ */
+
+public class DynaBeanWriterTestCase extends TestCase {
+
+
+    // ----------------------------------------------------- Instance Variables
+
+
+    /**
+     * The DynaClass of the beans written.
+     */
+    protected DynaClass dynaClass = null;
+
+
+    // ----------------------------------------------------------- Constructors
+
+
+    /**
+     * Construct a new instance of this test case.
+     *
+     * @param name Name of the test case
+     */
+    public DynaBeanWriterTestCase(String name) {
+
+        super(name);
+
+    }
+
+
+    // --------------------------------------------------- Overall Test Methods
+
+
+    /**
+     * Set up instance variables required by this test case.
+     */
+    public void setUp() throws Exception {
+
+        dynaClass = new BasicDynaClass("TestDynaClass", null, new DynaProperty[] {
+            new DynaProperty("intProperty", Integer.TYPE),
+            new DynaProperty("integerProperty", Integer.class),
+            new DynaProperty("charProperty", Character.TYPE),
+            new DynaProperty("stringProperty", String.class),
+            new DynaProperty("decimalProperty", BigDecimal.class),
+            new DynaProperty("bigIntegerProperty", BigInteger.class),
+            new DynaProperty("timestampProperty", Timestamp.class),
+            new DynaProperty("dateProperty", Date.class),
+            new DynaProperty("bytesProperty", byte[].class),
+            new DynaProperty("intArray", int[].class, Integer.TYPE),
+            new DynaProperty("mappedProperty", Map.class, String.class)
+        });
+
+    }
+
+
+    /**
+     * Return the tests included in this test suite.
+     */
+    public static Test suite() {
+
+        return (new TestSuite(DynaBeanWriterTestCase.class));
+
+    }
+
+
+    /**
+     * Tear down instance variables required by this test case.
+     */
+    public void tearDown() {
+
+        dynaClass = null;
+
+    }
+
+
+    // ------------------------------------------------ Individual Test Methods
+
+
+    /**
+     * Test writing and reading beans with values of every encoded type.
+     */
+    public void testRoundTrip() throws Exception {
+
+        StringBuffer longString = new StringBuffer();
+        for (int i = 0; i < 30000; i++) {
+            longString.append((char) ('a' + i % 26));
+        }
+        Timestamp timestamp = new Timestamp(1234567890123L);
+        timestamp.setNanos(123456789);
+        Map mapped = new HashMap();
+        mapped.put("key", "value");
+
+        DynaBean first = dynaClass.newInstance();
+        first.set("intProperty", new Integer(-7));
+        first.set("charProperty", new Character('x'));
+        first.set("stringProperty", "\u00e9t\u00e9");
+        first.set("decimalProperty", new BigDecimal("-1234.5600"));
+        first.set("bigIntegerProperty", new BigInteger("123456789012345678901234567890"));
+        first.set("timestampProperty", timestamp);
+        first.set("dateProperty", new Date(987654321L));
+        first.set("bytesProperty", new byte[] {1, 2, 3});
+        first.set("intArray", new int[] {4, 5});
+        first.set("mappedProperty", mapped);
+        DynaBean second = dynaClass.newInstance();
+        second.set("intProperty", new Integer(42));
+        second.set("integerProperty", new Integer(43));
+        second.set("stringProperty", longString.toString());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DynaBeanWriter writer = new DynaBeanWriter(out, dynaClass);
+        writer.write(first);
+        writer.write(second);
+        assertEquals("Count", 2, writer.getCount());
+        writer.close();
+
+        DynaBeanReader reader = new DynaBeanReader(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals("Class name", "TestDynaClass", reader.getDynaClassName());
+        DynaProperty[] properties = reader.getDynaProperties();
+        assertEquals("Property count", 11, properties.length);
+        assertEquals("Primitive type", Integer.TYPE, properties[0].getType());
+        assertEquals("Array type", int[].class, properties[9].getType());
+        assertEquals("Content type", String.class, properties[10].getContentType());
+
+        DynaBean bean = reader.read();
+        assertEquals("int", new Integer(-7), bean.get("intProperty"));
+        assertNull("null Integer", bean.get("integerProperty"));
+        assertEquals("char", new Character('x'), bean.get("charProperty"));
+        assertEquals("String", "\u00e9t\u00e9", bean.get("stringProperty"));
+        assertEquals("BigDecimal", new BigDecimal("-1234.5600"), bean.get("decimalProperty"));
+        assertEquals("BigInteger", first.get("bigIntegerProperty"), bean.get("bigIntegerProperty"));
+        assertEquals("Timestamp", timestamp, bean.get("timestampProperty"));
+        assertEquals("Timestamp nanos", 123456789,
+                     ((Timestamp) bean.get("timestampProperty")).getNanos());
+        assertEquals("Date", new Date(987654321L), bean.get("dateProperty"));
+        assertTrue("byte[]", Arrays.equals(new byte[] {1, 2, 3},
+                                           (byte[]) bean.get("bytesProperty")));
+        assertEquals("indexed", new Integer(5), bean.get("intArray", 1));
+        assertEquals("mapped", "value", bean.get("mappedProperty", "key"));
+
+        // reading into an existing bean
+        DynaBean reused = dynaClass.newInstance();
+        assertTrue("Second bean", reader.read(reused));
+        assertEquals("int", new Integer(42), reused.get("intProperty"));
+        assertEquals("Integer", new Integer(43), reused.get("integerProperty"));
+        assertEquals("long String", longString.toString(), reused.get("stringProperty"));
+
+        assertNull("End", reader.read());
+        assertFalse("Still at end", reader.read(reused));
+        reader.close();
+
+    }
+
+
+    /**
+     * Test reading beans into a DynaClass with different properties.
+     */
+    public void testReadIntoOtherClass() throws Exception {
+
+        DynaBean bean = dynaClass.newInstance();
+        bean.set("intProperty", new Integer(1));
+        bean.set("stringProperty", "one");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DynaBeanWriter writer = new DynaBeanWriter(out, dynaClass);
+        writer.write(bean);
+        writer.finish();
+        try {
+            writer.write(bean);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        DynaClass otherClass = new BasicDynaClass("Other", null, new DynaProperty[] {
+            new DynaProperty("stringProperty", String.class),
+            new DynaProperty("extraProperty", String.class)
+        });
+        DynaBeanReader reader =
+            new DynaBeanReader(new ByteArrayInputStream(out.toByteArray()), otherClass);
+        DynaBean other = reader.read();
+        assertSame("DynaClass", otherClass, other.getDynaClass());
+        assertEquals("String", "one", other.get("stringProperty"));
+        assertNull("Extra", other.get("extraProperty"));
+        assertNull("End", reader.read());
+
+    }
+
+
+    /**
+     * Test reading two sets of rows written one after the other to the
+     * same stream.
+     */
+    public void testReadBackToBack() throws Exception {
+
+        RowSetDynaClass first = new RowSetDynaClass(TestResultSet.createProxy());
+        RowSetDynaClass second = new RowSetDynaClass(TestResultSet.createProxy(), true, 2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        first.writeRows(out);
+        second.writeRows(out);
+        out.write(42);
+
+        InputStream in = new ByteArrayInputStream(out.toByteArray());
+        RowSetDynaClass firstRead = RowSetDynaClass.readRows(in);
+        assertEquals("First rows", 5, firstRead.getRows().size());
+        RowSetDynaClass secondRead = RowSetDynaClass.readRows(in);
+        assertEquals("Second rows", 2, secondRead.getRows().size());
+        assertEquals("Second value", new Integer(102),
+                     ((DynaBean) secondRead.getRows().get(1)).get("intproperty"));
+        assertEquals("Trailing data", 42, in.read());
+        assertEquals("End of stream", -1, in.read());
+
+    }
+
+
+    /**
+     * Test reading a serialized value whose class is only visible to the
+     * context class loader.
+     */
+    public void testReadContextClass() throws Exception {
+
+        String className = "org.apache.commons.beanutils.TestBean";
+        ClassLoader loader = new MethodUtilsTestCase.IsolatingClassLoader(
+                getClass().getClassLoader(), className);
+        Class foreignClass = loader.loadClass(className);
+        assertNotSame("Isolated class", TestBean.class, foreignClass);
+        DynaClass objectClass = new BasicDynaClass("Objects", null, new DynaProperty[] {
+            new DynaProperty("value", Object.class)
+        });
+        DynaBean bean = objectClass.newInstance();
+        bean.set("value", foreignClass.newInstance());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DynaBeanWriter writer = new DynaBeanWriter(out, objectClass);
+        writer.write(bean);
+        writer.close();
+
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader);
+        try {
+            DynaBeanReader reader =
+                new DynaBeanReader(new ByteArrayInputStream(out.toByteArray()));
+            assertSame("Context class", foreignClass, reader.read().get("value").getClass());
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+
+    }
+
+
+    /**
+     * Test reading a stream that was not written by a DynaBeanWriter.
+     */
+    public void testCorruptStream() throws Exception {
+
+        try {
+            new DynaBeanReader(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6}));
+            fail("Expected StreamCorruptedException");
+        } catch (StreamCorruptedException e) {
+            // expected
+        }
+
+    }
+
+
+}
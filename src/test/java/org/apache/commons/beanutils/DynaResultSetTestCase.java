@@ -20,7 +20,9 @@ package org.apache.commons.beanutils;
 
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 import junit.framework.TestCase;
 import junit.framework.Test;
@@ -301,4 +303,353 @@ public class DynaResultSetTestCase extends TestCase {
     }
 
 
+    /**
+     * Test that the iterator fetches values by column index.
+     */
+    public void testIteratorFetchByIndex() throws Exception {
+
+        TestResultSet resultSet = new TestResultSet();
+        ResultSetDynaClass indexDynaClass =
+            new ResultSetDynaClass(TestResultSet.createProxy(resultSet));
+        Iterator rows = indexDynaClass.iterator();
+        rows.next();
+        DynaBean row = (DynaBean) rows.next();
+        assertEquals("intProperty", new Integer(102), row.get("intproperty"));
+        assertEquals("longProperty", new Long(202), row.get("longproperty"));
+        assertEquals("shortProperty", new Short((short) 302), row.get("shortproperty"));
+        assertEquals("byteProperty", new Byte((byte) 2), row.get("byteproperty"));
+        assertEquals("booleanProperty", Boolean.TRUE, row.get("booleanproperty"));
+        assertEquals("doubleProperty", new Double(321.0), row.get("doubleproperty"));
+        assertNull("nullProperty", row.get("nullproperty"));
+        assertEquals("Fetched by name", 0, resultSet.namedFetches);
+
+    }
+
+
+    /**
+     * Test that values are fetched by name when
+     * <code>getObjectFromResultSet()</code> is overridden.
+     */
+    public void testIteratorFetchOverridden() throws Exception {
+
+        ResultSetDynaClass overriding =
+            new ResultSetDynaClass(TestResultSet.createProxy()) {
+                public Object getObjectFromResultSet(String name) {
+                    return ("overridden " + name);
+                }
+            };
+        Iterator rows = overriding.iterator();
+        DynaBean row = (DynaBean) rows.next();
+        assertEquals("overridden", "overridden intproperty", row.get("intproperty"));
+
+    }
+
+
+    /**
+     * Test streaming the rows in batches with a reusable row bean.
+     */
+    public void testStreamIterator() throws Exception {
+
+        TestResultSet resultSet = new TestResultSet();
+        ResultSetDynaClass streamDynaClass =
+            new ResultSetDynaClass(TestResultSet.createProxy(resultSet));
+        StreamingResultSetIterator rows = streamDynaClass.streamIterator(2);
+        assertEquals("Fetch size", 2, resultSet.fetchSize);
+        int intIndex = rows.getIndex("intproperty");
+
+        int n = 0;
+        DynaBean first = null;
+        while (rows.hasNext()) {
+            StreamingResultSetIterator row = (StreamingResultSetIterator) rows.next();
+            assertSame("Reused row", rows, row);
+            n++;
+            assertEquals("Batched rows", ((n + 1) / 2) * 2, resultSet.row);
+            assertEquals("intProperty", new Integer(100 + n), row.get("intproperty"));
+            assertEquals("getInt", 100 + n, row.getInt("intproperty"));
+            assertEquals("getInt(index)", 100 + n, row.getInt(intIndex));
+            assertEquals("getLong", 200 + n, row.getLong("longproperty"));
+            assertEquals("getDouble", 321.0, row.getDouble("doubleproperty"), 0.0);
+            assertEquals("getBoolean", (n % 2) == 0, row.getBoolean("booleanproperty"));
+            assertEquals("getString", "This is a string",
+                         row.getString(row.getIndex("stringproperty")));
+            assertNull("nullProperty", row.get("nullproperty"));
+            if (n == 1) {
+                first = row.detach();
+            }
+            assertEquals("hasNext", n < 5, rows.hasNext());
+            assertEquals("Prefetched rows", Math.min(((n + 2) / 2) * 2, 6), resultSet.row);
+            assertEquals("Current row kept", 100 + n, row.getInt(intIndex));
+            assertEquals("Current row detached", new Integer(100 + n),
+                         row.detach().get("intproperty"));
+        }
+        assertEquals("Row count", 5, n);
+        assertEquals("Fetched by name", 0, resultSet.namedFetches);
+        assertSame("Detached class", streamDynaClass, first.getDynaClass());
+        assertEquals("Detached intProperty", new Integer(101), first.get("intproperty"));
+        assertEquals("Detached stringProperty", "This is a string",
+                     first.get("stringproperty"));
+
+        try {
+            rows.next();
+            fail("Should have thrown NoSuchElementException");
+        } catch (NoSuchElementException e) {
+            // Expected result
+        }
+
+    }
+
+
+    /**
+     * Test the invalid uses of a streamed row.
+     */
+    public void testStreamIteratorErrors() throws Exception {
+
+        try {
+            dynaClass.streamIterator(0);
+            fail("Should have thrown IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // Expected result
+        }
+        StreamingResultSetIterator rows = dynaClass.streamIterator(10);
+        try {
+            rows.get("intproperty");
+            fail("Should have thrown IllegalStateException");
+        } catch (IllegalStateException e) {
+            // Expected result
+        }
+        rows.next();
+        try {
+            rows.get("unknownproperty");
+            fail("Should have thrown IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // Expected result
+        }
+        try {
+            rows.set("intproperty", new Integer(1));
+            fail("Should have thrown UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            // Expected result
+        }
+        try {
+            rows.getInt("nullproperty");
+            fail("Should have thrown ConversionException");
+        } catch (ConversionException e) {
+            // Expected result
+        }
+
+    }
+
+
+    /**
+     * Test reading the rows ahead on a background thread.
+     */
+    public void testPrefetchIterator() throws Exception {
+
+        TestResultSet resultSet = new SlowResultSet(5);
+        ResultSetDynaClass prefetchDynaClass =
+            new ResultSetDynaClass(TestResultSet.createProxy(resultSet));
+        PrefetchingResultSetIterator rows = prefetchDynaClass.prefetchIterator(2, true);
+        int n = 0;
+        while (rows.hasNext()) {
+            DynaBean row = (DynaBean) rows.next();
+            n++;
+            assertTrue("Copied row", row instanceof BasicDynaBean);
+            assertSame("DynaClass", prefetchDynaClass, row.getDynaClass());
+            assertEquals("intProperty", new Integer(100 + n), row.get("intproperty"));
+            assertEquals("stringProperty", "This is a string", row.get("stringproperty"));
+        }
+        assertEquals("Row count", 5, n);
+        assertTrue("Closed", resultSet.closed);
+        try {
+            rows.next();
+            fail("Should have thrown NoSuchElementException");
+        } catch (NoSuchElementException e) {
+            // Expected result
+        }
+
+    }
+
+
+    /**
+     * Test that the producer thread stops reading when the buffer is full.
+     */
+    public void testPrefetchBackpressure() throws Exception {
+
+        CountingResultSet resultSet = new CountingResultSet(2);
+        ResultSetDynaClass prefetchDynaClass =
+            new ResultSetDynaClass(TestResultSet.createProxy(resultSet));
+        PrefetchingResultSetIterator rows = prefetchDynaClass.prefetchIterator(2, false);
+        assertEquals("Rows read ahead", 2, resultSet.awaitCalls(2));
+        for (int n = 1; n <= 5; n++) {
+            resultSet.consume();
+            DynaBean row = (DynaBean) rows.next();
+            assertEquals("intProperty", new Integer(100 + n), row.get("intproperty"));
+            if (n == 1) {
+                assertEquals("Rows read after consuming", 3, resultSet.awaitCalls(3));
+            }
+        }
+        assertFalse("hasNext", rows.hasNext());
+        assertFalse("Read beyond capacity", resultSet.isOverrun());
+        rows.close();
+        assertFalse("Not closed", resultSet.closed);
+
+    }
+
+
+    /**
+     * Test closing the iteration before all the rows are consumed.
+     */
+    public void testPrefetchClose() throws Exception {
+
+        TestResultSet resultSet = new SlowResultSet(20);
+        ResultSetDynaClass prefetchDynaClass =
+            new ResultSetDynaClass(TestResultSet.createProxy(resultSet));
+        PrefetchingResultSetIterator rows = prefetchDynaClass.prefetchIterator(1, true);
+        DynaBean row = (DynaBean) rows.next();
+        assertEquals("intProperty", new Integer(101), row.get("intproperty"));
+        rows.close();
+        assertTrue("Closed", resultSet.closed);
+        assertTrue("Stopped reading", resultSet.row < 5);
+        assertFalse("hasNext", rows.hasNext());
+        rows.close();
+
+    }
+
+
+    /**
+     * Test an error thrown while reading the rows ahead.
+     */
+    public void testPrefetchFailure() throws Exception {
+
+        TestResultSet resultSet = new SlowResultSet(0) {
+            public Object getObject(String columnName) throws SQLException {
+                if (row == 3) {
+                    throw new SQLException("Broken row");
+                }
+                return (super.getObject(columnName));
+            }
+        };
+        ResultSetDynaClass prefetchDynaClass =
+            new ResultSetDynaClass(TestResultSet.createProxy(resultSet));
+        PrefetchingResultSetIterator rows = prefetchDynaClass.prefetchIterator(10, true);
+        rows.next();
+        rows.next();
+        try {
+            rows.hasNext();
+            fail("Should have thrown RuntimeException");
+        } catch (RuntimeException e) {
+            assertTrue("Message", e.getMessage().indexOf("Broken row") >= 0);
+        }
+        assertTrue("Closed", resultSet.closed);
+        assertFalse("hasNext", rows.hasNext());
+
+    }
+
+
+    /**
+     * Test an unchecked error thrown while reading the rows ahead.
+     */
+    public void testPrefetchError() throws Exception {
+
+        final LinkageError error = new LinkageError("Broken row");
+        TestResultSet resultSet = new SlowResultSet(0) {
+            public Object getObject(String columnName) throws SQLException {
+                if (row == 3) {
+                    throw error;
+                }
+                return (super.getObject(columnName));
+            }
+        };
+        ResultSetDynaClass prefetchDynaClass =
+            new ResultSetDynaClass(TestResultSet.createProxy(resultSet));
+        PrefetchingResultSetIterator rows = prefetchDynaClass.prefetchIterator(10, true);
+        rows.next();
+        rows.next();
+        try {
+            rows.next();
+            fail("Should have thrown LinkageError");
+        } catch (LinkageError e) {
+            assertSame("Error", error, e);
+        }
+        assertFalse("hasNext", rows.hasNext());
+
+    }
+
+
+    /**
+     * A {@link TestResultSet} that checks the rows are not read further
+     * ahead than the capacity of the iteration allows.  The test thread
+     * announces each row it is about to consume with <code>consume()</code>,
+     * and waits for the producer thread with <code>awaitCalls()</code>.
+     */
+    private static class CountingResultSet extends TestResultSet {
+
+        private final int capacity;
+        private int calls = 0;
+        private int consumed = 0;
+        private boolean overrun = false;
+
+        CountingResultSet(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public boolean next() throws SQLException {
+            synchronized (this) {
+                calls++;
+                if (calls > capacity + consumed) {
+                    overrun = true;
+                }
+                notifyAll();
+            }
+            return (super.next());
+        }
+
+        synchronized void consume() {
+            consumed++;
+        }
+
+        synchronized int awaitCalls(int n) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 10000;
+            while (calls < n) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    break;
+                }
+                wait(remaining);
+            }
+            return (calls);
+        }
+
+        synchronized boolean isOverrun() {
+            return (overrun);
+        }
+
+    }
+
+
+    /**
+     * A {@link TestResultSet} that takes some time to read each row.
+     */
+    private static class SlowResultSet extends TestResultSet {
+
+        private final long latency;
+
+        SlowResultSet(long latency) {
+            this.latency = latency;
+        }
+
+        public boolean next() throws SQLException {
+            if (latency > 0) {
+                try {
+                    Thread.sleep(latency);
+                } catch (InterruptedException e) {
+                    throw new SQLException("Interrupted");
+                }
+            }
+            return (super.next());
+        }
+
+    }
+
+
 }
@@ -19,10 +19,16 @@
 package org.apache.commons.beanutils;
 
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 import junit.framework.Test;
@@ -300,6 +306,433 @@ public class DynaRowSetTestCase extends TestCase {
         
     }
 
+    /**
+     * Test that rows are copied by column index, with typed getters.
+     */
+    public void testFetchByIndex() throws Exception {
+
+        TestResultSet resultSet = new TestResultSet() {
+            public Object getObject(String columnName) throws SQLException {
+                if ("longProperty".equals(columnName) && row == 2) {
+                    return (null);
+                }
+                return (super.getObject(columnName));
+            }
+        };
+        RowSetDynaClass indexDynaClass =
+            new RowSetDynaClass(TestResultSet.createProxy(resultSet));
+        assertEquals("Fetched by name", 0, resultSet.namedFetches);
+        List rows = indexDynaClass.getRows();
+        DynaBean row = (DynaBean) rows.get(0);
+        assertEquals("intProperty", new Integer(101), row.get("intproperty"));
+        assertEquals("longProperty", new Long(201), row.get("longproperty"));
+        assertEquals("floatProperty", new Float((float) 123.0), row.get("floatproperty"));
+        assertTrue("bigDecimalProperty", row.get("bigdecimalproperty") instanceof BigDecimal);
+        assertEquals("stringProperty", "This is a string", row.get("stringproperty"));
+        assertNull("nullProperty", row.get("nullproperty"));
+        assertNull("null long", ((DynaBean) rows.get(1)).get("longproperty"));
+
+    }
+
+    /**
+     * Test that values are fetched by name when
+     * <code>getObject(ResultSet, String)</code> is overridden.
+     */
+    public void testFetchOverridden() throws Exception {
+
+        RowSetDynaClass overriding = new RowSetDynaClass(TestResultSet.createProxy()) {
+            protected Object getObject(ResultSet resultSet, String name) throws SQLException {
+                if ("stringproperty".equals(name)) {
+                    return ("overridden");
+                }
+                return (super.getObject(resultSet, name));
+            }
+        };
+        DynaBean row = (DynaBean) overriding.getRows().get(0);
+        assertEquals("overridden", "overridden", row.get("stringproperty"));
+        assertEquals("intProperty", new Integer(101), row.get("intproperty"));
+
+    }
+
+    /**
+     * Test the values of rows stored by column.
+     */
+    public void testColumnarRows() throws Exception {
+
+        TestResultSet expectedResultSet = new TestResultSet();
+        TestResultSet columnarResultSet = new TestResultSet();
+        columnarResultSet.timestamp = expectedResultSet.timestamp;
+        RowSetDynaClass expectedDynaClass =
+            new RowSetDynaClass(TestResultSet.createProxy(expectedResultSet));
+        RowSetDynaClass columnarDynaClass =
+            new RowSetDynaClass(TestResultSet.createProxy(columnarResultSet), true, -1, false, true);
+        assertTrue("columnar", columnarDynaClass.isColumnar());
+        assertFalse("not columnar", expectedDynaClass.isColumnar());
+        List expected = expectedDynaClass.getRows();
+        List rows = columnarDynaClass.getRows();
+        assertEquals("row count", expected.size(), rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            DynaBean expectedRow = (DynaBean) expected.get(i);
+            DynaBean row = (DynaBean) rows.get(i);
+            assertSame("DynaClass", columnarDynaClass, row.getDynaClass());
+            for (int j = 0; j < columns.length; j++) {
+                assertEquals("row " + i + " " + columns[j],
+                        expectedRow.get(columns[j]), row.get(columns[j]));
+            }
+        }
+
+        DynaBean row = (DynaBean) rows.get(2);
+        try {
+            row.get("unknownProperty");
+            fail("Did not throw IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // Expected result
+        }
+        assertNull("nullProperty null", row.get("nullproperty"));
+        assertEquals("intProperty", new Integer(103), row.get("intproperty"));
+        assertEquals("booleanProperty", Boolean.FALSE, row.get("booleanproperty"));
+
+        // Values are written to the columns
+        row.set("intproperty", new Integer(-5));
+        row.set("longproperty", null);
+        row.set("nullproperty", "not null");
+        assertEquals("set int", new Integer(-5), ((DynaBean) rows.get(2)).get("intproperty"));
+        assertNull("set null", ((DynaBean) rows.get(2)).get("longproperty"));
+        assertEquals("set string", "not null", ((DynaBean) rows.get(2)).get("nullproperty"));
+        assertEquals("other row", new Integer(102), ((DynaBean) rows.get(1)).get("intproperty"));
+        try {
+            row.set("intproperty", "abc");
+            fail("Did not throw ConversionException");
+        } catch (ConversionException e) {
+            // Expected result
+        }
+
+        // The mode follows the rows through serialization
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(columnarDynaClass);
+        oos.close();
+        ObjectInputStream ois = new ObjectInputStream(
+                new ByteArrayInputStream(baos.toByteArray()));
+        RowSetDynaClass deserialized = (RowSetDynaClass) ois.readObject();
+        assertTrue("deserialized columnar", deserialized.isColumnar());
+        assertEquals("deserialized value", new Integer(-5),
+                ((DynaBean) deserialized.getRows().get(2)).get("intproperty"));
+
+    }
+
+    /**
+     * Test modifying the list of rows stored by column.
+     */
+    public void testColumnarList() throws Exception {
+
+        RowSetDynaClass columnarDynaClass =
+            new RowSetDynaClass(TestResultSet.createProxy(), true, -1, false, true);
+        List rows = columnarDynaClass.getRows();
+
+        // remove returns a detached copy
+        DynaBean removed = (DynaBean) rows.remove(0);
+        assertEquals("removed", new Integer(101), removed.get("intproperty"));
+        assertEquals("size after remove", 4, rows.size());
+        assertEquals("shifted", new Integer(102), ((DynaBean) rows.get(0)).get("intproperty"));
+
+        // add copies the values of the bean
+        rows.add(0, removed);
+        rows.add(removed);
+        assertEquals("size after add", 6, rows.size());
+        assertEquals("inserted", new Integer(101), ((DynaBean) rows.get(0)).get("intproperty"));
+        assertEquals("moved", new Integer(102), ((DynaBean) rows.get(1)).get("intproperty"));
+        assertEquals("appended", new Integer(101), ((DynaBean) rows.get(5)).get("intproperty"));
+        assertEquals("timestamp", removed.get("timestampproperty"),
+                ((DynaBean) rows.get(5)).get("timestampproperty"));
+
+        try {
+            rows.get(6);
+            fail("Did not throw IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            // Expected result
+        }
+        // serialization keeps the columns
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(columnarDynaClass);
+        oos.close();
+        ObjectInputStream ois = new ObjectInputStream(
+                new ByteArrayInputStream(baos.toByteArray()));
+        RowSetDynaClass deserialized = (RowSetDynaClass) ois.readObject();
+        List deserializedRows = deserialized.getRows();
+        assertEquals("deserialized size", 6, deserializedRows.size());
+        assertEquals("deserialized value", new Integer(102),
+                ((DynaBean) deserializedRows.get(1)).get("intproperty"));
+        assertSame("deserialized DynaClass", deserialized,
+                ((DynaBean) deserializedRows.get(1)).getDynaClass());
+
+        rows.clear();
+        assertEquals("cleared", 0, rows.size());
+
+    }
+
+    /**
+     * Test sorting and moving rows within a list stored by column.
+     */
+    public void testColumnarSort() throws Exception {
+
+        RowSetDynaClass columnarDynaClass =
+            new RowSetDynaClass(TestResultSet.createProxy(), true, -1, false, true);
+        List rows = columnarDynaClass.getRows();
+        int size = rows.size();
+
+        // sort by descending intProperty
+        Collections.sort(rows, new Comparator() {
+            public int compare(Object o1, Object o2) {
+                Integer i1 = (Integer) ((DynaBean) o1).get("intproperty");
+                Integer i2 = (Integer) ((DynaBean) o2).get("intproperty");
+                return (i2.intValue() - i1.intValue());
+            }
+        });
+        assertEquals("sorted size", size, rows.size());
+        for (int i = 0; i < size; i++) {
+            DynaBean row = (DynaBean) rows.get(i);
+            assertEquals("sorted " + i, new Integer(100 + size - i), row.get("intproperty"));
+            assertEquals("sorted long " + i, new Long(200 + size - i), row.get("longproperty"));
+        }
+
+        // toArray returns detached copies
+        Object[] array = rows.toArray();
+        assertTrue("detached", array[0] instanceof BasicDynaBean);
+        rows.remove(0);
+        assertEquals("copy kept", new Integer(100 + size), ((DynaBean) array[0]).get("intproperty"));
+
+        // moving a row of the list to an earlier position
+        rows.add(0, rows.get(2));
+        assertEquals("moved", new Integer(100 + size - 3), ((DynaBean) rows.get(0)).get("intproperty"));
+        assertEquals("shifted", new Integer(100 + size - 1), ((DynaBean) rows.get(1)).get("intproperty"));
+        assertEquals("source shifted", new Integer(100 + size - 3), ((DynaBean) rows.get(3)).get("intproperty"));
+
+        // views compare by position
+        assertEquals("indexOf", 2, rows.indexOf(rows.get(2)));
+        assertTrue("contains", rows.contains(rows.get(1)));
+        assertTrue("remove", rows.remove(rows.get(0)));
+        assertEquals("removed", new Integer(100 + size - 1), ((DynaBean) rows.get(0)).get("intproperty"));
+
+    }
+
+    /**
+     * Test values which do not fit the primitive column for their type.
+     */
+    public void testColumnarUnexpectedType() throws Exception {
+
+        TestResultSet columnarResultSet = new TestResultSet();
+        RowSetDynaClass columnarDynaClass =
+            new RowSetDynaClass(TestResultSet.createProxy(columnarResultSet), true, -1, false, true);
+        List rows = columnarDynaClass.getRows();
+        DynaBean row = (DynaBean) rows.get(1);
+        java.sql.Date date = new java.sql.Date(0) {
+        };
+        row.set("dateproperty", date);
+        assertSame("subclass value", date, row.get("dateproperty"));
+        assertEquals("other values kept", new java.sql.Date(columnarResultSet.timestamp),
+                ((DynaBean) rows.get(0)).get("dateproperty"));
+
+    }
+
+
+    /**
+     * Test writing the rows beyond the memory budget to a file.
+     */
+    public void testSpillRows() throws Exception {
+
+        TestResultSet expectedResultSet = new TestResultSet();
+        TestResultSet spillResultSet = new TestResultSet();
+        spillResultSet.timestamp = expectedResultSet.timestamp;
+        RowSetDynaClass expectedDynaClass =
+            new RowSetDynaClass(TestResultSet.createProxy(expectedResultSet));
+        RowSetDynaClass spillDynaClass =
+            new RowSetDynaClass(TestResultSet.createProxy(spillResultSet), true, -1, false, 2, 0);
+        assertTrue("spilled", spillDynaClass.isSpilled());
+        assertFalse("not spilled", expectedDynaClass.isSpilled());
+        List expected = expectedDynaClass.getRows();
+        List rows = spillDynaClass.getRows();
+        assertEquals("spilled rows", 3, ((SpillRowList) rows).getSpilledCount());
+        assertEquals("row count", expected.size(), rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            DynaBean expectedRow = (DynaBean) expected.get(i);
+            DynaBean row = (DynaBean) rows.get(i);
+            assertSame("DynaClass", spillDynaClass, row.getDynaClass());
+            for (int j = 0; j < columns.length; j++) {
+                assertEquals("row " + i + " " + columns[j],
+                        expectedRow.get(columns[j]), row.get(columns[j]));
+            }
+        }
+
+        // The byte budget also limits the rows in memory
+        RowSetDynaClass byteDynaClass =
+            new RowSetDynaClass(TestResultSet.createProxy(), true, -1, false, 0, 1);
+        assertEquals("byte budget", 4,
+                ((SpillRowList) byteDynaClass.getRows()).getSpilledCount());
+        assertEquals("byte budget rows", 5, byteDynaClass.getRows().size());
+
+        // Without a budget nothing is spilled
+        RowSetDynaClass unlimitedDynaClass =
+            new RowSetDynaClass(TestResultSet.createProxy(), true, -1, false, 0, 0);
+        assertFalse("unlimited", unlimitedDynaClass.isSpilled());
+
+    }
+
+
+    /**
+     * Test modifying a list of spilled rows.
+     */
+    public void testSpillList() throws Exception {
+
+        RowSetDynaClass spillDynaClass =
+            new RowSetDynaClass(TestResultSet.createProxy(), true, -1, false, 2, 0);
+        List rows = spillDynaClass.getRows();
+
+        // changes to a spilled row are stored by set()
+        DynaBean row = (DynaBean) rows.get(3);
+        row.set("intproperty", new Integer(-4));
+        row.set("stringproperty", null);
+        assertEquals("not stored", new Integer(104), ((DynaBean) rows.get(3)).get("intproperty"));
+        DynaBean previous = (DynaBean) rows.set(3, row);
+        assertEquals("previous", new Integer(104), previous.get("intproperty"));
+        assertEquals("stored", new Integer(-4), ((DynaBean) rows.get(3)).get("intproperty"));
+        assertNull("stored null", ((DynaBean) rows.get(3)).get("stringproperty"));
+
+        // remove and add shift the spilled rows
+        DynaBean removed = (DynaBean) rows.remove(2);
+        assertEquals("removed", new Integer(103), removed.get("intproperty"));
+        assertEquals("size after remove", 4, rows.size());
+        assertEquals("shifted", new Integer(-4), ((DynaBean) rows.get(2)).get("intproperty"));
+        rows.add(3, removed);
+        rows.add(0, removed);
+        assertEquals("size after add", 6, rows.size());
+        assertEquals("inserted in memory", new Integer(103), ((DynaBean) rows.get(0)).get("intproperty"));
+        assertEquals("moved", new Integer(101), ((DynaBean) rows.get(1)).get("intproperty"));
+        assertEquals("inserted in file", new Integer(103), ((DynaBean) rows.get(4)).get("intproperty"));
+        assertEquals("last", new Integer(105), ((DynaBean) rows.get(5)).get("intproperty"));
+        assertEquals("timestamp", removed.get("timestampproperty"),
+                ((DynaBean) rows.get(4)).get("timestampproperty"));
+        assertEquals("bigDecimal", removed.get("bigdecimalproperty"),
+                ((DynaBean) rows.get(4)).get("bigdecimalproperty"));
+
+        try {
+            rows.get(6);
+            fail("Did not throw IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            // Expected result
+        }
+
+        // serialization reads all the rows
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(spillDynaClass);
+        oos.close();
+        ObjectInputStream ois = new ObjectInputStream(
+                new ByteArrayInputStream(baos.toByteArray()));
+        RowSetDynaClass deserialized = (RowSetDynaClass) ois.readObject();
+        List deserializedRows = deserialized.getRows();
+        assertFalse("deserialized spilled", deserialized.isSpilled());
+        assertEquals("deserialized size", 6, deserializedRows.size());
+        assertEquals("deserialized value", new Integer(103),
+                ((DynaBean) deserializedRows.get(4)).get("intproperty"));
+        assertSame("deserialized DynaClass", deserialized,
+                ((DynaBean) deserializedRows.get(4)).getDynaClass());
+
+        rows.clear();
+        assertEquals("cleared", 0, rows.size());
+        assertFalse("cleared spilled", spillDynaClass.isSpilled());
+
+    }
+
+
+    /**
+     * Test several threads reading the spilled rows at the same time.
+     */
+    public void testSpillConcurrentReads() throws Exception {
+
+        RowSetDynaClass spillDynaClass =
+            new RowSetDynaClass(TestResultSet.createProxy(), true, -1, false, 1, 0);
+        final List rows = spillDynaClass.getRows();
+        char[] filler = new char[4000];
+        java.util.Arrays.fill(filler, 'x');
+        String text = new String(filler);
+        DynaBean template = (DynaBean) rows.get(0);
+        for (int i = 0; i < 200; i++) {
+            template.set("intproperty", new Integer(i));
+            template.set("stringproperty", text);
+            rows.add(template);
+        }
+        final int offset = rows.size() - 200;
+        final String[] failure = new String[1];
+        Thread[] readers = new Thread[4];
+        for (int t = 0; t < readers.length; t++) {
+            final int start = t * 50;
+            readers[t] = new Thread() {
+                public void run() {
+                    for (int k = 0; k < 800 && failure[0] == null; k++) {
+                        int i = (start + k * 7) % 200;
+                        Object value = ((DynaBean) rows.get(offset + i)).get("intproperty");
+                        if (!new Integer(i).equals(value)) {
+                            synchronized (failure) {
+                                failure[0] = "row " + i + " read as " + value;
+                            }
+                        }
+                    }
+                }
+            };
+            readers[t].start();
+        }
+        for (int t = 0; t < readers.length; t++) {
+            readers[t].join();
+        }
+        synchronized (failure) {
+            assertNull(failure[0], failure[0]);
+        }
+        rows.clear();
+
+    }
+
+
+    /**
+     * Test writing and reading the rows in the compact binary format.
+     */
+    public void testWriteRows() throws Exception {
+
+        RowSetDynaClass spillDynaClass =
+            new RowSetDynaClass(TestResultSet.createProxy(), true, -1, false, 2, 0);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        spillDynaClass.writeRows(out);
+        RowSetDynaClass read = RowSetDynaClass.readRows(new ByteArrayInputStream(out.toByteArray()));
+
+        DynaProperty[] properties = read.getDynaProperties();
+        assertEquals("property count", dynaClass.getDynaProperties().length, properties.length);
+        assertEquals("property type", dynaClass.getDynaProperty("intproperty").getType(),
+                read.getDynaProperty("intproperty").getType());
+        List expected = spillDynaClass.getRows();
+        List rows = read.getRows();
+        assertEquals("row count", expected.size(), rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            DynaBean expectedRow = (DynaBean) expected.get(i);
+            DynaBean row = (DynaBean) rows.get(i);
+            assertSame("DynaClass", read, row.getDynaClass());
+            for (int j = 0; j < columns.length; j++) {
+                assertEquals("row " + i + " " + columns[j],
+                        expectedRow.get(columns[j]), row.get(columns[j]));
+            }
+        }
+
+        // the binary format is smaller than Java serialization
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(serialized);
+        oos.writeObject(dynaClass);
+        oos.close();
+        out.reset();
+        dynaClass.writeRows(out);
+        assertTrue("compact", out.size() < serialized.size());
+
+    }
+
     /**
      * Test issues associated with Oracle JDBC driver.
      * 
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+import java.beans.BeanInfo;
+import java.beans.IndexedPropertyDescriptor;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.beans.SimpleBeanInfo;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Test case for {@link FastIntrospector} and the fast introspection mode
+ * of {@link PropertyUtilsBean}.
+ *
+ * @version $Revision$ $Date$
+ */
+public class FastIntrospectorTestCase extends TestCase {
+
+    // ---------------------------------------------------------- Constructors
+
+    /**
+     * Construct a new instance of this test case.
+     *
+     * @param name Name of the test case
+     */
+    public FastIntrospectorTestCase(String name) {
+        super(name);
+    }
+
+    // -------------------------------------------------- Overall Test Methods
+
+    /**
+     * Return the tests included in this test suite.
+     * @return a test suite
+     */
+    public static Test suite() {
+        return (new TestSuite(FastIntrospectorTestCase.class));
+    }
+
+    // ------------------------------------------------ Individual Test Methods
+
+    /**
+     * Test that the descriptors match those built by the Introspector.
+     */
+    public void testMatchesIntrospector() throws Exception {
+        BeanInfo beanInfo = Introspector.getBeanInfo(TestBean.class);
+        PropertyDescriptor[] expected = beanInfo.getPropertyDescriptors();
+        PropertyDescriptor[] actual = FastIntrospector.getPropertyDescriptors(TestBean.class);
+        assertNotNull("Descriptors", actual);
+        assertEquals("Count", expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            String name = expected[i].getName();
+            assertEquals("Name " + i, name, actual[i].getName());
+            assertEquals("Type " + name, expected[i].getPropertyType(), actual[i].getPropertyType());
+            assertEquals("Read " + name, expected[i].getReadMethod(), actual[i].getReadMethod());
+            assertEquals("Write " + name, expected[i].getWriteMethod(), actual[i].getWriteMethod());
+            assertEquals("Indexed " + name,
+                    expected[i] instanceof IndexedPropertyDescriptor,
+                    actual[i] instanceof IndexedPropertyDescriptor);
+            if (expected[i] instanceof IndexedPropertyDescriptor) {
+                IndexedPropertyDescriptor e = (IndexedPropertyDescriptor) expected[i];
+                IndexedPropertyDescriptor a = (IndexedPropertyDescriptor) actual[i];
+                assertEquals("Indexed read " + name, e.getIndexedReadMethod(), a.getIndexedReadMethod());
+                assertEquals("Indexed write " + name, e.getIndexedWriteMethod(), a.getIndexedWriteMethod());
+            }
+        }
+    }
+
+    /**
+     * Test that classes with an explicit BeanInfo are not handled.
+     */
+    public void testExplicitBeanInfo() {
+        assertNull("BeanInfo", FastIntrospector.getPropertyDescriptors(HiddenBean.class));
+
+        PropertyUtilsBean utils = new PropertyUtilsBean();
+        utils.setFastIntrospection(true);
+        PropertyDescriptor[] descriptors = utils.getPropertyDescriptors(HiddenBean.class);
+        assertEquals("Count", 1, descriptors.length);
+        assertEquals("Name", "visible", descriptors[0].getName());
+    }
+
+    /**
+     * Test property access through PropertyUtilsBean in fast mode.
+     */
+    public void testPropertyAccess() throws Exception {
+        PropertyUtilsBean utils = new PropertyUtilsBean();
+        assertFalse("Default", utils.isFastIntrospection());
+        utils.setFastIntrospection(true);
+        assertTrue("Enabled", utils.isFastIntrospection());
+
+        TestBean bean = new TestBean();
+        assertEquals("Simple", bean.getStringProperty(), utils.getProperty(bean, "stringProperty"));
+        assertEquals("Boolean", Boolean.TRUE, utils.getProperty(bean, "booleanProperty"));
+        assertEquals("Indexed", new Integer(bean.getIntIndexed(1)),
+                utils.getProperty(bean, "intIndexed[1]"));
+        assertEquals("Nested", bean.getNested().getStringProperty(),
+                utils.getProperty(bean, "nested.stringProperty"));
+
+        utils.setProperty(bean, "intProperty", new Integer(321));
+        assertEquals("Set simple", 321, bean.getIntProperty());
+        utils.setProperty(bean, "stringIndexed[2]", "New Value");
+        assertEquals("Set indexed", "New Value", bean.getStringIndexed(2));
+        assertFalse("Read only", utils.isWriteable(bean, "readOnlyProperty"));
+        assertFalse("Write only", utils.isReadable(bean, "writeOnlyProperty"));
+    }
+
+    // -------------------------------------------------------- Test Beans
+
+    /**
+     * Bean with an explicit BeanInfo exposing a single property.
+     */
+    public static class HiddenBean {
+        public String getVisible() {
+            return "visible";
+        }
+        public String getHidden() {
+            return "hidden";
+        }
+    }
+
+    /**
+     * BeanInfo for {@link HiddenBean}.
+     */
+    public static class HiddenBeanBeanInfo extends SimpleBeanInfo {
+        public PropertyDescriptor[] getPropertyDescriptors() {
+            try {
+                return new PropertyDescriptor[] {
+                    new PropertyDescriptor("visible", HiddenBean.class, "getVisible", null)
+                };
+            } catch (IntrospectionException e) {
+                return null;
+            }
+        }
+    }
+}
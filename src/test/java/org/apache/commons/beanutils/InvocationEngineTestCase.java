@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Test case for the {@link InvocationEngine} support in
+ * {@link PropertyUtilsBean}.
+ *
+ * @version $Revision$ $Date$
+ */
+public class InvocationEngineTestCase extends TestCase {
+
+    private PropertyUtilsBean propertyUtils;
+    private CountingInvocationEngine engine;
+    private TestBean bean;
+
+    // ---------------------------------------------------------- Constructors
+
+    /**
+     * Construct a new instance of this test case.
+     *
+     * @param name Name of the test case
+     */
+    public InvocationEngineTestCase(String name) {
+        super(name);
+    }
+
+    // -------------------------------------------------- Overall Test Methods
+
+    /**
+     * Set up instance variables required by this test case.
+     */
+    public void setUp() {
+        propertyUtils = new PropertyUtilsBean();
+        engine = new CountingInvocationEngine();
+        bean = new TestBean();
+    }
+
+    /**
+     * Return the tests included in this test suite.
+     * @return a test suite
+     */
+    public static Test suite() {
+        return (new TestSuite(InvocationEngineTestCase.class));
+    }
+
+    /**
+     * Tear down instance variables required by this test case.
+     */
+    public void tearDown() {
+        propertyUtils = null;
+        engine = null;
+        bean = null;
+    }
+
+    // ------------------------------------------------ Individual Test Methods
+
+    /**
+     * Test the default engine.
+     */
+    public void testDefaultEngine() throws Exception {
+        assertTrue("Default engine",
+                propertyUtils.getInvocationEngine() instanceof ReflectionInvocationEngine);
+        propertyUtils.setSimpleProperty(bean, "intProperty", new Integer(321));
+        assertEquals("intProperty", new Integer(321),
+                propertyUtils.getSimpleProperty(bean, "intProperty"));
+    }
+
+    /**
+     * Test that the configured engine binds the accessor methods once
+     * and is then used for every invocation.
+     */
+    public void testCustomEngine() throws Exception {
+        propertyUtils.setInvocationEngine(engine);
+        for (int i = 0; i < 5; i++) {
+            propertyUtils.setSimpleProperty(bean, "stringProperty", "Value " + i);
+            assertEquals("stringProperty", "Value " + i,
+                    propertyUtils.getSimpleProperty(bean, "stringProperty"));
+        }
+        assertEquals("Invocations", 10, engine.invocations);
+        int bound = engine.bound;
+        propertyUtils.getNestedProperty(bean, "nested.stringProperty");
+        assertEquals("Nested bean class bound", bound, engine.bound);
+        assertEquals("Nested invocations", 12, engine.invocations);
+    }
+
+    /**
+     * Test that changing the engine discards previously bound methods.
+     */
+    public void testChangeEngine() throws Exception {
+        propertyUtils.getSimpleProperty(bean, "stringProperty");
+        propertyUtils.setInvocationEngine(engine);
+        propertyUtils.getSimpleProperty(bean, "stringProperty");
+        assertEquals("Invocations", 1, engine.invocations);
+        assertTrue("Bound", engine.bound > 0);
+    }
+
+    /**
+     * Test property access without an engine.
+     */
+    public void testNoEngine() throws Exception {
+        propertyUtils.setInvocationEngine(null);
+        assertNull("Engine", propertyUtils.getInvocationEngine());
+        propertyUtils.setSimpleProperty(bean, "doubleProperty", new Double(12.5));
+        assertEquals("doubleProperty", new Double(12.5),
+                propertyUtils.getSimpleProperty(bean, "doubleProperty"));
+    }
+
+    /**
+     * Test that an invalid argument is reported in the same way whether
+     * the method is bound or not.
+     */
+    public void testInvalidArgument() throws Exception {
+        String bound = invalidArgumentMessage();
+        propertyUtils.setInvocationEngine(null);
+        String unbound = invalidArgumentMessage();
+        assertEquals("Message", unbound, bound);
+        assertTrue("Signature", bound.indexOf("expected signature \"int\"") > 0);
+    }
+
+    /**
+     * Set a String value on an <code>int</code> property.
+     */
+    private String invalidArgumentMessage() throws Exception {
+        try {
+            propertyUtils.setSimpleProperty(bean, "intProperty", "Not an int");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        return null;
+    }
+
+    /**
+     * Engine which counts bound methods and invocations.
+     */
+    private static class CountingInvocationEngine implements InvocationEngine {
+        private final InvocationEngine delegate = new ReflectionInvocationEngine();
+        private int bound;
+        private int invocations;
+
+        public MethodInvoker bind(Method method) {
+            bound++;
+            final MethodInvoker invoker = delegate.bind(method);
+            return new MethodInvoker() {
+                public Method getMethod() {
+                    return invoker.getMethod();
+                }
+                public Object invoke(Object bean)
+                        throws IllegalAccessException, InvocationTargetException {
+                    invocations++;
+                    return invoker.invoke(bean);
+                }
+                public Object invoke(Object bean, Object arg)
+                        throws IllegalAccessException, InvocationTargetException {
+                    invocations++;
+                    return invoker.invoke(bean, arg);
+                }
+            };
+        }
+    }
+}
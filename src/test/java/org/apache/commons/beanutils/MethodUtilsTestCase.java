@@ -18,9 +18,13 @@
 package org.apache.commons.beanutils;
 
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 
@@ -655,4 +659,252 @@ public class MethodUtilsTestCase extends TestCase {
         // reset default
         MethodUtils.setCacheMethods(true);
     }
+
+    /**
+     * Test {@link MethodUtils#getCacheStatistics()}.
+     */
+    public void testCacheStatistics() throws Exception {
+
+        MethodUtils.clearCache(); // make sure it starts empty
+        CacheStatistics stats = MethodUtils.getCacheStatistics();
+        assertEquals("Initial size", 0, stats.getSize());
+        assertEquals("Initial hits", 0, stats.getHits());
+        assertEquals("Initial misses", 0, stats.getMisses());
+
+        PublicSubBean bean = new PublicSubBean();
+        MethodUtils.invokeMethod(bean, "setFoo", "alpha");
+        stats = MethodUtils.getCacheStatistics();
+        assertEquals("Size", 1, stats.getSize());
+        assertEquals("Hits", 0, stats.getHits());
+        assertTrue("Misses", stats.getMisses() > 0);
+
+        long misses = stats.getMisses();
+        MethodUtils.invokeMethod(bean, "setFoo", "beta");
+        stats = MethodUtils.getCacheStatistics();
+        assertEquals("Size again", 1, stats.getSize());
+        assertEquals("Hits again", 1, stats.getHits());
+        assertEquals("Misses again", misses, stats.getMisses());
+        MethodUtils.clearCache();
+    }
+
+    /**
+     * Test {@link MethodUtils#setMaxCacheSize(int)}.
+     */
+    public void testMaxCacheSize() throws Exception {
+
+        String[] names = new String[] {"hashCode", "length", "toString", "trim",
+            "toLowerCase", "toUpperCase", "intern", "toCharArray", "getBytes",
+            "getClass", "notify", "notifyAll", "wait"};
+        int maxCacheSize = MethodUtils.getMaxCacheSize();
+        MethodUtils.clearCache(); // make sure it starts empty
+        try {
+            MethodUtils.setMaxCacheSize(8);
+            assertEquals("Max size", 8, MethodUtils.getMaxCacheSize());
+            for (int i = 0; i < names.length; i++) {
+                assertNotNull(names[i], MethodUtils.getAccessibleMethod(String.class, names[i], new Class[0]));
+                // keep the first method in use
+                MethodUtils.getAccessibleMethod(String.class, names[0], new Class[0]);
+            }
+            CacheStatistics stats = MethodUtils.getCacheStatistics();
+            assertTrue("Size " + stats, stats.getSize() <= 8);
+            assertTrue("Evictions " + stats, stats.getEvictions() > 0);
+            assertEquals("Size + evictions " + stats, names.length, stats.getSize() + stats.getEvictions());
+
+            // the most recently used method survives eviction
+            long hits = stats.getHits();
+            MethodUtils.getAccessibleMethod(String.class, names[0], new Class[0]);
+            assertEquals("Recently used", hits + 1, MethodUtils.getCacheStatistics().getHits());
+
+            // shrinking the cache evicts immediately
+            MethodUtils.setMaxCacheSize(2);
+            assertTrue("Shrunk", MethodUtils.getCacheStatistics().getSize() <= 2);
+
+            // unbounded
+            MethodUtils.setMaxCacheSize(0);
+            MethodUtils.clearCache();
+            for (int i = 0; i < names.length; i++) {
+                MethodUtils.getAccessibleMethod(String.class, names[i], new Class[0]);
+            }
+            assertEquals("Unbounded", names.length, MethodUtils.getCacheStatistics().getSize());
+        } finally {
+            MethodUtils.setMaxCacheSize(maxCacheSize);
+            MethodUtils.clearCache();
+        }
+    }
+
+    /**
+     * Test that eviction removes only the excess members when all of them
+     * were used since the last member was cached, and so share the same
+     * time of last use.
+     */
+    public void testCacheEvictionTies() throws Exception {
+
+        MemberCache cache = new MemberCache("test", 8);
+        MemberCache.Descriptor[] descriptors = new MemberCache.Descriptor[9];
+        for (int i = 0; i < descriptors.length; i++) {
+            descriptors[i] = new MemberCache.Descriptor(String.class, "m" + i, new Class[0], true);
+        }
+        for (int i = 0; i < 8; i++) {
+            cache.put(descriptors[i], "member" + i);
+        }
+        for (int i = 0; i < 8; i++) {
+            assertEquals("Hit " + i, "member" + i, cache.get(descriptors[i]));
+        }
+        cache.put(descriptors[8], "member8");
+        CacheStatistics stats = cache.getStatistics();
+        assertEquals("Size " + stats, 7, stats.getSize());
+        assertEquals("Evictions " + stats, 2, stats.getEvictions());
+        assertEquals("Hits " + stats, 8, stats.getHits());
+        assertEquals("Newest kept", "member8", cache.get(descriptors[8]));
+
+    }
+
+    /**
+     * Test that a cached lookup on a class which is never unloaded does
+     * not pin the class loader of a parameter type.
+     */
+    public void testForeignParameterTypeCollected() throws Exception {
+
+        MethodUtils.clearCache();
+        ClassLoader loader = new IsolatingClassLoader(getClass().getClassLoader());
+        Class type = loader.loadClass("org.apache.commons.beanutils.BetaBean");
+        assertTrue("Foreign class", type != BetaBean.class);
+        WeakReference reference = new WeakReference(loader);
+
+        Method method = MethodUtils.getMatchingAccessibleMethod(
+                Object.class, "equals", new Class[] {type});
+        assertNotNull("equals", method);
+        assertEquals("Cached", 1, MethodUtils.getCacheStatistics().getSize());
+        assertSame("Cache hit", method, MethodUtils.getMatchingAccessibleMethod(
+                Object.class, "equals", new Class[] {type}));
+
+        // dereference the class loader and its class
+        loader = null;
+        type = null;
+        int iterations = 0;
+        int bytz = 2;
+        while (reference.get() != null) {
+            System.gc();
+            if (iterations++ > 50) {
+                fail("Class loader of the parameter type was not released");
+            }
+            byte[] b = new byte[bytz];
+            if (bytz < 1 << 20) {
+                bytz = bytz * 2;
+            }
+        }
+        assertEquals("Stale descriptor purged", 0, MethodUtils.getCacheStatistics().getSize());
+        MethodUtils.clearCache();
+    }
+
+    /**
+     * Test overload resolution through the overload tables, with and
+     * without method caching.
+     */
+    public void testMatchingOverloads() throws Exception {
+
+        MethodUtils.clearCache();
+        try {
+            for (int pass = 0; pass < 2; pass++) {
+                MethodUtils.setCacheMethods(pass == 0);
+                String label = (pass == 0 ? "cached " : "uncached ");
+                assertOverload(label + "String", "String", new Class[] {String.class});
+                assertOverload(label + "Integer", "Integer", new Class[] {Integer.class});
+                assertOverload(label + "Object", "Object", new Class[] {StringBuffer.class});
+                assertOverload(label + "Long", "Object", new Class[] {Long.class});
+                assertOverload(label + "int,int", "int,int", new Class[] {Integer.class, Integer.TYPE});
+                assertOverload(label + "none", "none", new Class[0]);
+                assertNull(label + "arity", MethodUtils.getMatchingAccessibleMethod(
+                        OverloadBean.class, "foo", new Class[] {String.class, String.class, String.class}));
+                assertNull(label + "name", MethodUtils.getMatchingAccessibleMethod(
+                        OverloadBean.class, "bar", new Class[] {String.class}));
+
+                // repeated (cached) lookups give the same answers
+                assertOverload(label + "String again", "String", new Class[] {String.class});
+                assertOverload(label + "Object again", "Object", new Class[] {StringBuffer.class});
+            }
+        } finally {
+            MethodUtils.setCacheMethods(true);
+            MethodUtils.clearCache();
+        }
+    }
+
+    /**
+     * A class loader which defines one class itself, from the class file
+     * of its parent, rather than delegating (<code>BetaBean</code> unless
+     * another class is named).
+     */
+    static class IsolatingClassLoader extends ClassLoader {
+        private final String isolated;
+        IsolatingClassLoader(ClassLoader parent) {
+            this(parent, "org.apache.commons.beanutils.BetaBean");
+        }
+        IsolatingClassLoader(ClassLoader parent, String isolated) {
+            super(parent);
+            this.isolated = isolated;
+        }
+        protected Class findClass(String name) throws ClassNotFoundException {
+            InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class");
+            if (in == null) {
+                throw new ClassNotFoundException(name);
+            }
+            try {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int n;
+                while ((n = in.read(buffer)) > 0) {
+                    out.write(buffer, 0, n);
+                }
+                in.close();
+                byte[] bytes = out.toByteArray();
+                return defineClass(name, bytes, 0, bytes.length);
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name);
+            }
+        }
+        public Class loadClass(String name) throws ClassNotFoundException {
+            if (name.equals(isolated)) {
+                return findClass(name);
+            }
+            return super.loadClass(name);
+        }
+    }
+
+    /**
+     * Check the method matched for the specified parameter types.
+     */
+    private void assertOverload(String message, String expected, Class[] parameterTypes)
+            throws Exception {
+        Method method = MethodUtils.getMatchingAccessibleMethod(OverloadBean.class, "foo", parameterTypes);
+        assertNotNull(message, method);
+        Object[] args = new Object[parameterTypes.length];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = (parameterTypes[i] == StringBuffer.class ? (Object)new StringBuffer()
+                    : parameterTypes[i] == String.class ? (Object)"s"
+                    : parameterTypes[i] == Long.class ? (Object)new Long(1)
+                    : (Object)new Integer(1));
+        }
+        assertEquals(message, expected, method.invoke(new OverloadBean(), args));
+    }
+
+    /**
+     * Bean with overloaded methods.
+     */
+    public static class OverloadBean {
+        public String foo() {
+            return "none";
+        }
+        public String foo(Object value) {
+            return "Object";
+        }
+        public String foo(String value) {
+            return "String";
+        }
+        public String foo(Integer value) {
+            return "Integer";
+        }
+        public String foo(int a, int b) {
+            return "int,int";
+        }
+    }
 }
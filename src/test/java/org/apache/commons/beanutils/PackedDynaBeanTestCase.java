@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.beanutils;
+
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+
+/**
+ * <p>Test Case for the <code>PackedDynaBean</code> implementation class,
+ * running the <code>BasicDynaBean</code> tests against it.</p>
+ *
+ * @version $Revision$ $Date$
+ */
+
+public class PackedDynaBeanTestCase extends BasicDynaBeanTestCase {
+
+
+    // ---------------------------------------------------------- Constructors
+
+
+    /**
+     * Construct a new instance of this test case.
+     *
+     * @param name Name of the test case
+     */
+    public PackedDynaBeanTestCase(String name) {
+
+        super(name);
+
+    }
+
+
+    // -------------------------------------------------- Overall Test Methods
+
+
+    /**
+     * Return the tests included in this test suite.
+     */
+    public static Test suite() {
+
+        return (new TestSuite(PackedDynaBeanTestCase.class));
+
+    }
+
+
+    // ------------------------------------------------ Individual Test Methods
+
+
+    /**
+     * Test the primitive accessors.
+     */
+    public void testPrimitiveAccessors() {
+
+        PackedDynaBean packed = (PackedDynaBean) bean;
+        assertEquals("getInt", 123, packed.getInt("intProperty"));
+        assertEquals("getLong", 321, packed.getLong("longProperty"));
+        assertEquals("getDouble", 321.0, packed.getDouble("doubleProperty"), 0.0);
+        assertEquals("getDouble float", 123.0, packed.getDouble("floatProperty"), 0.0);
+        assertEquals("getLong short", 987, packed.getLong("shortProperty"));
+        assertTrue("getBoolean", packed.getBoolean("booleanProperty"));
+
+        packed.setInt("intProperty", 7);
+        packed.setLong("longProperty", Long.MAX_VALUE);
+        packed.setDouble("doubleProperty", 0.5);
+        packed.setBoolean("booleanSecond", false);
+        packed.setInt("shortProperty", 12);
+        assertEquals("setInt", new Integer(7), bean.get("intProperty"));
+        assertEquals("setLong", new Long(Long.MAX_VALUE), bean.get("longProperty"));
+        assertEquals("setDouble", new Double(0.5), bean.get("doubleProperty"));
+        assertEquals("setBoolean", Boolean.FALSE, bean.get("booleanSecond"));
+        assertEquals("booleanProperty", Boolean.TRUE, bean.get("booleanProperty"));
+        assertEquals("setInt short", new Short((short) 12), bean.get("shortProperty"));
+
+        try {
+            packed.setInt("shortProperty", 100000);
+            fail("Expected ConversionException");
+        } catch (ConversionException e) {
+            // expected
+        }
+        try {
+            packed.getInt("longProperty");
+            fail("Expected ConversionException");
+        } catch (ConversionException e) {
+            // expected
+        }
+
+    }
+
+
+    /**
+     * Test the default values of primitive properties.
+     */
+    public void testPrimitiveDefaults() throws Exception {
+
+        DynaBean fresh = bean.getDynaClass().newInstance();
+        assertEquals("int", new Integer(0), fresh.get("intProperty"));
+        assertEquals("long", new Long(0), fresh.get("longProperty"));
+        assertEquals("double", new Double(0.0), fresh.get("doubleProperty"));
+        assertEquals("float", new Float((float) 0.0), fresh.get("floatProperty"));
+        assertEquals("short", new Short((short) 0), fresh.get("shortProperty"));
+        assertEquals("boolean", Boolean.FALSE, fresh.get("booleanProperty"));
+        assertNull("String", fresh.get("stringProperty"));
+
+    }
+
+
+    /**
+     * Test that primitive values survive changes to the properties of a
+     * mutable DynaClass.
+     */
+    public void testMutableDynaClass() throws Exception {
+
+        LazyDynaClass dynaClass = new LazyDynaClass("lazy", PackedDynaBean.class);
+        dynaClass.add("a", Integer.TYPE);
+        dynaClass.add("b", Boolean.TYPE);
+        dynaClass.add("c", Double.TYPE);
+        PackedDynaBean packed = (PackedDynaBean) dynaClass.newInstance();
+        packed.setInt("a", 1);
+        packed.setBoolean("b", true);
+        packed.setDouble("c", 2.5);
+
+        dynaClass.remove("a");
+        dynaClass.add("d", Integer.TYPE);
+        dynaClass.add("e", Boolean.TYPE);
+        assertTrue("b kept", packed.getBoolean("b"));
+        assertEquals("c kept", 2.5, packed.getDouble("c"), 0.0);
+        assertEquals("d default", 0, packed.getInt("d"));
+        assertFalse("e default", packed.getBoolean("e"));
+        packed.setInt("d", 4);
+        packed.setBoolean("e", true);
+        assertEquals("d set", 4, packed.getInt("d"));
+        assertTrue("e set", packed.getBoolean("e"));
+        assertTrue("b still kept", packed.getBoolean("b"));
+
+    }
+
+
+    // ------------------------------------------------------ Protected Methods
+
+
+    /**
+     * Create and return a <code>DynaClass</code> instance for our test
+     * <code>DynaBean</code>.
+     */
+    protected DynaClass createDynaClass() {
+
+        return (new BasicDynaClass("TestDynaClass", PackedDynaBean.class,
+                super.createDynaClass().getDynaProperties()));
+
+    }
+
+
+}
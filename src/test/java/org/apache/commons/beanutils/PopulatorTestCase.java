@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Test case for the {@link Populator}s used by
+ * <code>BeanUtilsBean.populate()</code>.
+ *
+ * @version $Revision$ $Date$
+ */
+public class PopulatorTestCase extends TestCase {
+
+    private BeanUtilsBean beanUtils;
+
+    // ---------------------------------------------------------- Constructors
+
+    /**
+     * Construct a new instance of this test case.
+     *
+     * @param name Name of the test case
+     */
+    public PopulatorTestCase(String name) {
+        super(name);
+    }
+
+    // -------------------------------------------------- Overall Test Methods
+
+    /**
+     * Set up instance variables required by this test case.
+     */
+    public void setUp() {
+        beanUtils = new BeanUtilsBean();
+    }
+
+    /**
+     * Return the tests included in this test suite.
+     * @return a test suite
+     */
+    public static Test suite() {
+        return (new TestSuite(PopulatorTestCase.class));
+    }
+
+    /**
+     * Tear down instance variables required by this test case.
+     */
+    public void tearDown() {
+        beanUtils = null;
+    }
+
+    // ------------------------------------------------ Individual Test Methods
+
+    /**
+     * Test populating the same bean class repeatedly.
+     */
+    public void testRepeatedPopulate() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            Map map = new HashMap();
+            map.put("intProperty", "" + (10 + i));
+            map.put("stringProperty", "Value " + i);
+            map.put("booleanProperty", new String[] {"false"});
+            map.put("longProperty", new Long(20 + i));
+            map.put("nested.intProperty", "" + (30 + i));
+            map.put("intIndexed[1]", "" + (40 + i));
+            map.put("mappedProperty(key)", "Mapped " + i);
+            map.put("readOnlyProperty", "Ignored");
+            map.put("unknownProperty", "Ignored");
+            TestBean bean = new TestBean();
+            beanUtils.populate(bean, map);
+            assertEquals("int " + i, 10 + i, bean.getIntProperty());
+            assertEquals("String " + i, "Value " + i, bean.getStringProperty());
+            assertEquals("boolean " + i, false, bean.getBooleanProperty());
+            assertEquals("long " + i, 20 + i, bean.getLongProperty());
+            assertEquals("nested " + i, 30 + i, bean.getNested().getIntProperty());
+            assertEquals("indexed " + i, 40 + i, bean.getIntIndexed(1));
+            assertEquals("mapped " + i, "Mapped " + i, bean.getMappedProperty("key"));
+            assertEquals("read only " + i, "Read Only String Property", bean.getReadOnlyProperty());
+        }
+    }
+
+    /**
+     * Test populating with many different sets of property names.
+     */
+    public void testManyNameSets() throws Exception {
+        String[] names = {"intProperty", "longProperty", "shortProperty",
+                          "doubleProperty", "floatProperty", "byteProperty"};
+        for (int n = 0; n < 3; n++) {
+            for (int mask = 1; mask < (1 << names.length); mask++) {
+                Map map = new HashMap();
+                for (int i = 0; i < names.length; i++) {
+                    if ((mask & (1 << i)) != 0) {
+                        map.put(names[i], "" + (mask + i));
+                    }
+                }
+                TestBean bean = new TestBean();
+                beanUtils.populate(bean, map);
+                for (int i = 0; i < names.length; i++) {
+                    if ((mask & (1 << i)) != 0) {
+                        assertEquals(names[i] + " " + mask, mask + i,
+                                ((Number) beanUtils.getPropertyUtils()
+                                .getProperty(bean, names[i])).intValue());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that nested beans of different classes are handled.
+     */
+    public void testNestedClassChange() throws Exception {
+        Map map = new HashMap();
+        map.put("child.value", "5");
+        Outer outer = new Outer();
+        outer.setChild(new ChildA());
+        beanUtils.populate(outer, map);
+        assertEquals("A", 5, ((ChildA) outer.getChild()).getValue());
+
+        outer.setChild(new ChildB());
+        map.put("child.value", "6");
+        beanUtils.populate(outer, map);
+        assertEquals("B", "6", ((ChildB) outer.getChild()).getValue());
+
+        outer.setChild(new HashMap());
+        map.put("child.value", "7");
+        beanUtils.populate(outer, map);
+        assertEquals("Map", "7", ((Map) outer.getChild()).get("value"));
+
+        outer.setChild(new ChildA());
+        map.put("child.value", "8");
+        beanUtils.populate(outer, map);
+        assertEquals("A again", 8, ((ChildA) outer.getChild()).getValue());
+    }
+
+    /**
+     * Test that converters registered after a populate are used.
+     */
+    public void testConverterRegisteredLater() throws Exception {
+        Map map = new HashMap();
+        map.put("stringProperty", "value");
+        TestBean bean = new TestBean();
+        beanUtils.populate(bean, map);
+        assertEquals("Before", "value", bean.getStringProperty());
+
+        beanUtils.getConvertUtils().register(new Converter() {
+            public Object convert(Class type, Object value) {
+                return (value == null ? null : value.toString().toUpperCase());
+            }
+        }, String.class);
+        beanUtils.populate(bean, map);
+        assertEquals("After", "VALUE", bean.getStringProperty());
+    }
+
+    /**
+     * Test that an overridden setProperty() method is honoured.
+     */
+    public void testSetPropertyOverridden() throws Exception {
+        final List names = new ArrayList();
+        beanUtils = new BeanUtilsBean() {
+            public void setProperty(Object bean, String name, Object value)
+                throws java.lang.IllegalAccessException,
+                       java.lang.reflect.InvocationTargetException {
+                names.add(name);
+                super.setProperty(bean, name, value);
+            }
+        };
+        Map map = new HashMap();
+        map.put("intProperty", "3");
+        TestBean bean = new TestBean();
+        beanUtils.populate(bean, map);
+        assertEquals("int", 3, bean.getIntProperty());
+        assertEquals("setProperty called", 1, names.size());
+    }
+
+    // -------------------------------------------------------- Test Beans
+
+    /**
+     * Bean with an untyped nested bean.
+     */
+    public static class Outer {
+        private Object child;
+        public Object getChild() {
+            return child;
+        }
+        public void setChild(Object child) {
+            this.child = child;
+        }
+    }
+
+    /**
+     * Nested bean with an int value.
+     */
+    public static class ChildA {
+        private int value;
+        public int getValue() {
+            return value;
+        }
+        public void setValue(int value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * Nested bean with a String value.
+     */
+    public static class ChildB {
+        private String value;
+        public String getValue() {
+            return value;
+        }
+        public void setValue(String value) {
+            this.value = value;
+        }
+    }
+}
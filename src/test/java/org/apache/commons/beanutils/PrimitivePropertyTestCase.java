@@ -0,0 +1,289 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Test case for the primitive-typed property accessors of
+ * {@link PropertyUtilsBean} and {@link PrimitiveDynaBean}.
+ *
+ * @version $Revision$ $Date$
+ */
+public class PrimitivePropertyTestCase extends TestCase {
+
+    private PropertyUtilsBean utils;
+    private TestBean bean;
+    private BasicDynaBean dynaBean;
+
+    // ---------------------------------------------------------- Constructors
+
+    /**
+     * Construct a new instance of this test case.
+     *
+     * @param name Name of the test case
+     */
+    public PrimitivePropertyTestCase(String name) {
+        super(name);
+    }
+
+    // -------------------------------------------------- Overall Test Methods
+
+    /**
+     * Set up instance variables required by this test case.
+     */
+    public void setUp() throws Exception {
+        utils = new PropertyUtilsBean();
+        bean = new TestBean();
+        DynaClass dynaClass = new BasicDynaClass("TestDynaClass", null,
+                new DynaProperty[] {
+                    new DynaProperty("booleanProperty", Boolean.TYPE),
+                    new DynaProperty("doubleProperty", Double.TYPE),
+                    new DynaProperty("intProperty", Integer.TYPE),
+                    new DynaProperty("longProperty", Long.TYPE),
+                    new DynaProperty("integerObject", Integer.class),
+                    new DynaProperty("nested", TestBean.class),
+                    new DynaProperty("stringProperty", String.class)
+                });
+        dynaBean = (BasicDynaBean) dynaClass.newInstance();
+        dynaBean.set("intProperty", new Integer(123));
+        dynaBean.set("longProperty", new Long(321));
+        dynaBean.set("doubleProperty", new Double(1.5));
+        dynaBean.set("nested", new TestBean());
+    }
+
+    /**
+     * Return the tests included in this test suite.
+     * @return a test suite
+     */
+    public static Test suite() {
+        return (new TestSuite(PrimitivePropertyTestCase.class));
+    }
+
+    /**
+     * Tear down instance variables required by this test case.
+     */
+    public void tearDown() {
+        utils = null;
+        bean = null;
+        dynaBean = null;
+    }
+
+    // ------------------------------------------------ Individual Test Methods
+
+    /**
+     * Test reading primitive properties of a standard bean.
+     */
+    public void testGetBeanProperties() throws Exception {
+        assertEquals("boolean", true, utils.getBooleanProperty(bean, "booleanProperty"));
+        assertEquals("int", 123, utils.getIntProperty(bean, "intProperty"));
+        assertEquals("long", 321, utils.getLongProperty(bean, "longProperty"));
+        assertEquals("double", 321.0, utils.getDoubleProperty(bean, "doubleProperty"), 0.0);
+        assertEquals("indexed", 30, utils.getIntProperty(bean, "intIndexed[3]"));
+        assertEquals("nested", 123, utils.getIntProperty(bean, "nested.intProperty"));
+        assertEquals("widened", 123, utils.getLongProperty(bean, "intProperty"));
+        assertEquals("short", 987, utils.getIntProperty(bean, "shortProperty"));
+        assertEquals("exact double", 321, utils.getIntProperty(bean, "doubleProperty"));
+    }
+
+    /**
+     * Test writing primitive properties of a standard bean.
+     */
+    public void testSetBeanProperties() throws Exception {
+        utils.setBooleanProperty(bean, "booleanProperty", false);
+        assertEquals("boolean", false, bean.getBooleanProperty());
+        utils.setIntProperty(bean, "intProperty", 456);
+        assertEquals("int", 456, bean.getIntProperty());
+        utils.setLongProperty(bean, "longProperty", 1L << 40);
+        assertEquals("long", 1L << 40, bean.getLongProperty());
+        utils.setDoubleProperty(bean, "doubleProperty", 2.5);
+        assertEquals("double", 2.5, bean.getDoubleProperty(), 0.0);
+        utils.setIntProperty(bean, "intIndexed[1]", 11);
+        assertEquals("indexed", 11, bean.getIntIndexed(1));
+        utils.setIntProperty(bean, "nested.intProperty", 789);
+        assertEquals("nested", 789, bean.getNested().getIntProperty());
+        utils.setIntProperty(bean, "longProperty", 5);
+        assertEquals("widened", 5, bean.getLongProperty());
+        utils.setIntProperty(bean, "doubleProperty", 7);
+        assertEquals("to double", 7.0, bean.getDoubleProperty(), 0.0);
+        utils.setLongProperty(bean, "shortProperty", 12);
+        assertEquals("narrowed", 12, bean.getShortProperty());
+        utils.setDoubleProperty(bean, "intProperty", 3.0);
+        assertEquals("exact double", 3, bean.getIntProperty());
+    }
+
+    /**
+     * Test conversions which would lose information.
+     */
+    public void testLossyConversions() throws Exception {
+        try {
+            utils.setLongProperty(bean, "intProperty", 1L << 40);
+            fail("Expected ConversionException for long overflow");
+        } catch (ConversionException e) {
+            // expected result
+        }
+        try {
+            utils.setDoubleProperty(bean, "intProperty", 1.5);
+            fail("Expected ConversionException for fraction");
+        } catch (ConversionException e) {
+            // expected result
+        }
+        bean.setDoubleProperty(1.5);
+        try {
+            utils.getIntProperty(bean, "doubleProperty");
+            fail("Expected ConversionException for fraction");
+        } catch (ConversionException e) {
+            // expected result
+        }
+        try {
+            utils.getIntProperty(bean, "stringProperty");
+            fail("Expected ConversionException for String");
+        } catch (ConversionException e) {
+            // expected result
+        }
+        try {
+            utils.getIntProperty(bean, "nullProperty");
+            fail("Expected ConversionException for null");
+        } catch (ConversionException e) {
+            // expected result
+        }
+    }
+
+    /**
+     * Test conversions from <code>BigDecimal</code> and
+     * <code>BigInteger</code> values.
+     */
+    public void testBigNumberConversions() throws Exception {
+        Map map = new HashMap();
+        map.put("exact", new BigDecimal("12.00"));
+        map.put("fraction", new BigDecimal("1.5"));
+        map.put("hugeDecimal", new BigDecimal("1e30"));
+        map.put("longInteger", BigInteger.valueOf(Long.MIN_VALUE));
+        map.put("hugeInteger", BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.valueOf(1)));
+        map.put("hugeDouble", new Double(9.223372036854775807E18));
+        assertEquals("exact int", 12, utils.getIntProperty(map, "exact"));
+        assertEquals("exact long", 12, utils.getLongProperty(map, "exact"));
+        assertEquals("long integer", Long.MIN_VALUE, utils.getLongProperty(map, "longInteger"));
+        String[] lossy = new String[] {"fraction", "hugeDecimal", "hugeInteger", "hugeDouble"};
+        for (int i = 0; i < lossy.length; i++) {
+            try {
+                utils.getLongProperty(map, lossy[i]);
+                fail("Expected ConversionException for long " + lossy[i]);
+            } catch (ConversionException e) {
+                // expected result
+            }
+            try {
+                utils.getIntProperty(map, lossy[i]);
+                fail("Expected ConversionException for int " + lossy[i]);
+            } catch (ConversionException e) {
+                // expected result
+            }
+        }
+        try {
+            utils.getIntProperty(map, "longInteger");
+            fail("Expected ConversionException for int overflow");
+        } catch (ConversionException e) {
+            // expected result
+        }
+    }
+
+    /**
+     * Test invalid arguments.
+     */
+    public void testInvalidArguments() throws Exception {
+        try {
+            utils.getIntProperty(null, "intProperty");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected result
+        }
+        try {
+            utils.setIntProperty(bean, null, 1);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected result
+        }
+        try {
+            utils.setIntProperty(bean, "unknown", 1);
+            fail("Expected NoSuchMethodException");
+        } catch (NoSuchMethodException e) {
+            // expected result
+        }
+    }
+
+    /**
+     * Test primitive accessors of a BasicDynaBean.
+     */
+    public void testDynaBean() throws Exception {
+        assertEquals("int", 123, dynaBean.getInt("intProperty"));
+        assertEquals("long", 321, dynaBean.getLong("longProperty"));
+        assertEquals("double", 1.5, dynaBean.getDouble("doubleProperty"), 0.0);
+        assertEquals("default", false, dynaBean.getBoolean("booleanProperty"));
+
+        dynaBean.setInt("longProperty", 42);
+        assertEquals("widened", new Long(42), dynaBean.get("longProperty"));
+        dynaBean.setInt("integerObject", 7);
+        assertEquals("wrapper", new Integer(7), dynaBean.get("integerObject"));
+        dynaBean.setBoolean("booleanProperty", true);
+        assertEquals("boolean", Boolean.TRUE, dynaBean.get("booleanProperty"));
+        try {
+            dynaBean.getInt("integerObject2");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected result
+        }
+        try {
+            dynaBean.setInt("stringProperty", 1);
+            fail("Expected ConversionException");
+        } catch (ConversionException e) {
+            // expected result
+        }
+    }
+
+    /**
+     * Test primitive accessors of PropertyUtilsBean on DynaBeans and Maps.
+     */
+    public void testDynaBeanAndMapProperties() throws Exception {
+        utils.setLongProperty(dynaBean, "intProperty", 99);
+        assertEquals("dyna int", 99, utils.getIntProperty(dynaBean, "intProperty"));
+        utils.setIntProperty(dynaBean, "nested.intProperty", 5);
+        assertEquals("dyna nested", 5, utils.getLongProperty(dynaBean, "nested.intProperty"));
+
+        Map map = new HashMap();
+        utils.setIntProperty(map, "count", 3);
+        assertEquals("map value", new Integer(3), map.get("count"));
+        assertEquals("map get", 3, utils.getIntProperty(map, "count"));
+    }
+
+    /**
+     * Test the PropertyUtils facade.
+     */
+    public void testFacade() throws Exception {
+        PropertyUtils.setIntProperty(bean, "intProperty", 17);
+        assertEquals("int", 17, PropertyUtils.getIntProperty(bean, "intProperty"));
+        PropertyUtils.setDoubleProperty(bean, "floatProperty", 0.5);
+        assertEquals("float", 0.5, PropertyUtils.getDoubleProperty(bean, "floatProperty"), 0.0);
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.commons.beanutils.expression.DefaultResolver;
+
+/**
+ * Test case for {@link PropertyPath} and the compiled property path
+ * methods of {@link PropertyUtilsBean}.
+ *
+ * @version $Revision$ $Date$
+ */
+public class PropertyPathTestCase extends TestCase {
+
+    private PropertyUtilsBean propertyUtils;
+    private TestBean bean;
+
+    // ---------------------------------------------------------- Constructors
+
+    /**
+     * Construct a new instance of this test case.
+     *
+     * @param name Name of the test case
+     */
+    public PropertyPathTestCase(String name) {
+        super(name);
+    }
+
+    // -------------------------------------------------- Overall Test Methods
+
+    /**
+     * Set up instance variables required by this test case.
+     */
+    public void setUp() {
+        propertyUtils = new PropertyUtilsBean();
+        bean = new TestBean();
+    }
+
+    /**
+     * Return the tests included in this test suite.
+     * @return a test suite
+     */
+    public static Test suite() {
+        return (new TestSuite(PropertyPathTestCase.class));
+    }
+
+    /**
+     * Tear down instance variables required by this test case.
+     */
+    public void tearDown() {
+        propertyUtils = null;
+        bean = null;
+    }
+
+    // ------------------------------------------------ Individual Test Methods
+
+    /**
+     * Test compiling an expression.
+     */
+    public void testCompile() {
+        PropertyPath path = propertyUtils.compile("nested.stringIndexed[2]");
+        assertEquals("Expression", "nested.stringIndexed[2]", path.getExpression());
+        assertEquals("Size", 2, path.size());
+        assertEquals("Name 0", "nested", path.getName(0));
+        assertEquals("Type 0", PropertyPath.SIMPLE, path.getType(0));
+        assertEquals("Name 1", "stringIndexed", path.getName(1));
+        assertEquals("Type 1", PropertyPath.INDEXED, path.getType(1));
+        assertEquals("Index 1", 2, path.getIndex(1));
+        assertEquals("Remainder 0", "nested.stringIndexed[2]", path.getRemainder(0));
+        assertEquals("Remainder 1", "stringIndexed[2]", path.getRemainder(1));
+
+        path = propertyUtils.compile("mappedProperty(First Key)");
+        assertEquals("Size", 1, path.size());
+        assertEquals("Type", PropertyPath.MAPPED, path.getType(0));
+        assertEquals("Key", "First Key", path.getKey(0));
+
+        try {
+            propertyUtils.compile(null);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected result
+        }
+    }
+
+    /**
+     * Test that compiled paths are cached.
+     */
+    public void testCache() {
+        PropertyPath path = propertyUtils.compile("nested.intProperty");
+        assertSame("Cached", path,
+                propertyUtils.compile(new String("nested.intProperty")));
+
+        // Fill the cache with other expressions
+        for (int i = 0; i < 5000; i++) {
+            propertyUtils.compile("nested.property" + i);
+        }
+        PropertyPath other = propertyUtils.compile("nested.intProperty");
+        assertEquals("Recompiled", "nested.intProperty", other.getExpression());
+
+        // Changing the resolver discards the cache
+        propertyUtils.setResolver(new DefaultResolver());
+        assertNotSame("Resolver changed", other,
+                propertyUtils.compile("nested.intProperty"));
+    }
+
+    /**
+     * Test getting values through compiled paths.
+     */
+    public void testGetPathProperty() throws Exception {
+        assertEquals("Simple", "This is a string",
+                propertyUtils.getPathProperty(bean,
+                        propertyUtils.compile("stringProperty")));
+        assertEquals("Nested", new Integer(123),
+                propertyUtils.getPathProperty(bean,
+                        propertyUtils.compile("nested.intProperty")));
+        assertEquals("Indexed", "String 2",
+                propertyUtils.getPathProperty(bean,
+                        propertyUtils.compile("nested.stringIndexed[2]")));
+        assertEquals("Mapped", "First Value",
+                propertyUtils.getPathProperty(bean,
+                        propertyUtils.compile("nested.mappedProperty(First Key)")));
+
+        PropertyPath path = propertyUtils.compile("nested.stringProperty");
+        TestBean other = new TestBean("Other");
+        other.getNested().setStringProperty("Other nested");
+        assertEquals("Reused", "Other nested",
+                propertyUtils.getPathProperty(other, path));
+        assertEquals("Reused on first bean", "This is a string",
+                propertyUtils.getPathProperty(bean, path));
+    }
+
+    /**
+     * Test setting values through compiled paths.
+     */
+    public void testSetPathProperty() throws Exception {
+        propertyUtils.setPathProperty(bean,
+                propertyUtils.compile("nested.stringIndexed[1]"), "New 1");
+        assertEquals("Indexed", "New 1", bean.getNested().getStringIndexed(1));
+        propertyUtils.setPathProperty(bean,
+                propertyUtils.compile("nested.mappedProperty(Key)"), "New Value");
+        assertEquals("Mapped", "New Value", bean.getNested().getMappedProperty("Key"));
+        propertyUtils.setPathProperty(bean,
+                propertyUtils.compile("nested.intProperty"), new Integer(42));
+        assertEquals("Simple", 42, bean.getNested().getIntProperty());
+    }
+
+    /**
+     * Test Map beans within a compiled path.
+     */
+    public void testMapBean() throws Exception {
+        Map map = new HashMap();
+        map.put("bean", bean);
+        PropertyPath path = propertyUtils.compile("bean.nested.stringProperty");
+        assertEquals("Map get", "This is a string",
+                propertyUtils.getPathProperty(map, path));
+        propertyUtils.setPathProperty(map, propertyUtils.compile("other"), "Value");
+        assertEquals("Map set", "Value", map.get("other"));
+    }
+
+    /**
+     * Test that errors are reported when the path is evaluated.
+     */
+    public void testInvalidPath() throws Exception {
+        PropertyPath path = propertyUtils.compile("nested.intArray[x]");
+        assertEquals("Index", -1, path.getIndex(1));
+        String expected = null;
+        try {
+            propertyUtils.getIndexedProperty(bean.getNested(), "intArray[x]");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            expected = e.getMessage();
+        }
+        try {
+            propertyUtils.getPathProperty(bean, path);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Message", expected, e.getMessage());
+        }
+
+        try {
+            propertyUtils.getPathProperty(bean,
+                    propertyUtils.compile("nullProperty.length"));
+            fail("Expected NestedNullException");
+        } catch (NestedNullException e) {
+            assertTrue("Message", e.getMessage().indexOf("'nullProperty.length'") > 0);
+        }
+    }
+
+    /**
+     * Test the static facade methods.
+     */
+    public void testPropertyUtils() throws Exception {
+        PropertyPath path = PropertyUtils.compile("nested.floatProperty");
+        PropertyUtils.setPathProperty(bean, path, new Float(1.5f));
+        assertEquals("Float", new Float(1.5f), PropertyUtils.getPathProperty(bean, path));
+    }
+}
@@ -4446,6 +4446,70 @@ public class PropertyUtilsTestCase extends TestCase {
         }
     }
 
+    /**
+     * Test that property lookups go through an overridden
+     * <code>getPropertyDescriptors(Object)</code> method.
+     */
+    public void testOverriddenGetPropertyDescriptors() throws Exception {
+        PropertyUtilsBean utils = new PropertyUtilsBean() {
+            public PropertyDescriptor[] getPropertyDescriptors(Object bean) {
+                PropertyDescriptor[] descriptors = super.getPropertyDescriptors(bean);
+                List result = new ArrayList();
+                for (int i = 0; i < descriptors.length; i++) {
+                    if (!"intProperty".equals(descriptors[i].getName())) {
+                        result.add(descriptors[i]);
+                    }
+                }
+                return (PropertyDescriptor[]) result.toArray(new PropertyDescriptor[result.size()]);
+            }
+        };
+        assertNull("Hidden descriptor", utils.getPropertyDescriptor(bean, "intProperty"));
+        assertNotNull("Visible descriptor", utils.getPropertyDescriptor(bean, "stringProperty"));
+        try {
+            utils.getSimpleProperty(bean, "intProperty");
+            fail("Expected NoSuchMethodException reading a hidden property");
+        } catch (NoSuchMethodException e) {
+            // Expected result
+        }
+        try {
+            utils.setSimpleProperty(bean, "intProperty", new Integer(1));
+            fail("Expected NoSuchMethodException writing a hidden property");
+        } catch (NoSuchMethodException e) {
+            // Expected result
+        }
+        utils.setSimpleProperty(bean, "stringProperty", "Overridden");
+        assertEquals("Overridden", utils.getSimpleProperty(bean, "stringProperty"));
+    }
+
+    /**
+     * Test that nested indexed and mapped segments are read through the
+     * overridable two argument <code>getIndexedProperty()</code> and
+     * <code>getMappedProperty()</code> methods.
+     */
+    public void testOverriddenIndexedAndMappedProperty() throws Exception {
+        final List names = new ArrayList();
+        PropertyUtilsBean utils = new PropertyUtilsBean() {
+            public Object getIndexedProperty(Object bean, String name)
+                    throws IllegalAccessException, InvocationTargetException,
+                    NoSuchMethodException {
+                names.add(name);
+                return super.getIndexedProperty(bean, name);
+            }
+            public Object getMappedProperty(Object bean, String name)
+                    throws IllegalAccessException, InvocationTargetException,
+                    NoSuchMethodException {
+                names.add(name);
+                return super.getMappedProperty(bean, name);
+            }
+        };
+        assertEquals("Indexed", new Integer(10),
+                     utils.getNestedProperty(bean, "nested.intArray[1]"));
+        assertEquals("Mapped", "First Value",
+                     utils.getProperty(bean, "mappedProperty(First Key)"));
+        assertTrue("Indexed overridden", names.contains("intArray[1]"));
+        assertTrue("Mapped overridden", names.contains("mappedProperty(First Key)"));
+    }
+
     /**
      * Test for JDK 1.4
      */
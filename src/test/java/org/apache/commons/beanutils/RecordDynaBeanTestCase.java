@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+
+/**
+ * <p>Test Case for the <code>RecordDynaBean</code> implementation class,
+ * running the <code>BasicDynaBean</code> tests against it.</p>
+ *
+ * @version $Revision$ $Date$
+ */
+
+public class RecordDynaBeanTestCase extends BasicDynaBeanTestCase {
+
+
+    // ---------------------------------------------------------- Constructors
+
+
+    /**
+     * Construct a new instance of this test case.
+     *
+     * @param name Name of the test case
+     */
+    public RecordDynaBeanTestCase(String name) {
+
+        super(name);
+
+    }
+
+
+    // -------------------------------------------------- Overall Test Methods
+
+
+    /**
+     * Return the tests included in this test suite.
+     */
+    public static Test suite() {
+
+        return (new TestSuite(RecordDynaBeanTestCase.class));
+
+    }
+
+
+    // ------------------------------------------------ Individual Test Methods
+
+
+    /**
+     * Test the class of the beans created by the DynaClass.
+     */
+    public void testBeanClass() {
+
+        assertTrue("RecordDynaBean", bean instanceof RecordDynaBean);
+        assertEquals("Single record", 1, ((RecordDynaBean) bean).getStore().size());
+        try {
+            new RecordDynaBean(new BasicDynaClass());
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+    }
+
+
+    /**
+     * Test the record layout of the DynaClass.
+     */
+    public void testRecordSize() {
+
+        RecordDynaClass dynaClass = new RecordDynaClass("layout", new DynaProperty[] {
+            new DynaProperty("id", Integer.TYPE),
+            new DynaProperty("amount", Double.class),
+            new DynaProperty("flag", Boolean.TYPE),
+            new DynaProperty("name", String.class)
+        });
+        // one null bitmap byte, then 4 + 8 + 1 + 4 bytes
+        assertEquals("Record size", 18, dynaClass.getRecordSize());
+
+    }
+
+
+    /**
+     * Test storing many records in a store, accessed with a single bean.
+     */
+    public void testStore() {
+
+        RecordDynaClass dynaClass = new RecordDynaClass("rows", new DynaProperty[] {
+            new DynaProperty("id", Long.TYPE),
+            new DynaProperty("count", Integer.class),
+            new DynaProperty("ratio", Double.TYPE),
+            new DynaProperty("name", String.class),
+            new DynaProperty("active", Boolean.class),
+            new DynaProperty("code", Character.TYPE),
+            new DynaProperty("level", Short.class),
+            new DynaProperty("weight", Float.TYPE)
+        });
+        RecordStore store = dynaClass.createStore(4);
+        RecordDynaBean row = null;
+        for (int i = 0; i < 1000; i++) {
+            int record = store.addRecord();
+            assertEquals("Record index", i, record);
+            if (row == null) {
+                row = store.getBean(record);
+            } else {
+                row.setRecord(record);
+            }
+            row.setLong("id", 10000000000L + i);
+            if (i % 3 != 0) {
+                row.setInt("count", i);
+            }
+            row.setDouble("ratio", i / 4.0);
+            row.set("name", (i % 5 == 0 ? null : "row" + i));
+            row.setBoolean("active", i % 2 == 0);
+            row.set("code", new Character((char) ('a' + i % 26)));
+            row.set("level", new Short((short) -i));
+            row.set("weight", new Float(i / 2.0f));
+        }
+        assertEquals("Size", 1000, store.size());
+
+        for (int i = 999; i >= 0; i--) {
+            row.setRecord(i);
+            assertEquals("id", 10000000000L + i, row.getLong("id"));
+            assertEquals("id object", new Long(10000000000L + i), row.get("id"));
+            if (i % 3 != 0) {
+                assertEquals("count", i, row.getInt("count"));
+                assertEquals("count object", new Integer(i), row.get("count"));
+            } else {
+                assertNull("null count", row.get("count"));
+            }
+            assertEquals("ratio", i / 4.0, row.getDouble("ratio"), 0.0);
+            assertEquals("name", (i % 5 == 0 ? null : "row" + i), row.get("name"));
+            assertEquals("active", i % 2 == 0, row.getBoolean("active"));
+            assertEquals("code", new Character((char) ('a' + i % 26)), row.get("code"));
+            assertEquals("level", new Short((short) -i), row.get("level"));
+            assertEquals("weight", new Float(i / 2.0f), row.get("weight"));
+        }
+
+        // values can be replaced and set to null
+        row.setRecord(7);
+        row.set("name", "renamed");
+        row.set("count", null);
+        assertEquals("renamed", "renamed", store.getBean(7).get("name"));
+        assertNull("count cleared", store.getBean(7).get("count"));
+        assertEquals("other record", "row8", store.getBean(8).get("name"));
+        try {
+            row.getInt("count");
+            fail("Expected ConversionException");
+        } catch (ConversionException e) {
+            // expected
+        }
+        try {
+            row.setRecord(1000);
+            fail("Expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+
+        // cleared records are no longer accessible
+        row.setRecord(5);
+        store.clear();
+        assertEquals("Cleared", 0, store.size());
+        try {
+            row.getLong("id");
+            fail("Expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+
+        // cleared records start with default values
+        row.setRecord(store.addRecord());
+        assertEquals("Default id", 0, row.getLong("id"));
+        assertNull("Default name", row.get("name"));
+        assertNull("Default active", row.get("active"));
+
+    }
+
+
+    /**
+     * Test serializing a store, which writes only the records in use.
+     */
+    public void testStoreSerialization() throws Exception {
+
+        RecordDynaClass dynaClass = new RecordDynaClass("rows", new DynaProperty[] {
+            new DynaProperty("id", Long.TYPE),
+            new DynaProperty("name", String.class)
+        });
+        RecordStore store = dynaClass.createStore(100000);
+        RecordDynaBean row = store.getBean(store.addRecord());
+        row.setLong("id", 1);
+        row.set("name", "first");
+        row.setRecord(store.addRecord());
+        row.setLong("id", 2);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(store);
+        oos.close();
+        assertTrue("Unused capacity written", baos.size() < 10000);
+        ObjectInputStream ois = new ObjectInputStream(
+                new ByteArrayInputStream(baos.toByteArray()));
+        RecordStore copy = (RecordStore) ois.readObject();
+        assertEquals("Size", 2, copy.size());
+        assertEquals("id", 1, copy.getBean(0).getLong("id"));
+        assertEquals("name", "first", copy.getBean(0).get("name"));
+        assertEquals("id 2", 2, copy.getBean(1).getLong("id"));
+        assertNull("name 2", copy.getBean(1).get("name"));
+        RecordDynaBean added = copy.getBean(copy.addRecord());
+        added.set("name", "third");
+        assertEquals("added", "third", copy.getBean(2).get("name"));
+        assertEquals("kept", "first", copy.getBean(0).get("name"));
+
+        try {
+            dynaClass.createStore(Integer.MAX_VALUE);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+    }
+
+
+    // ------------------------------------------------------ Protected Methods
+
+
+    /**
+     * Create and return a <code>DynaClass</code> instance for our test
+     * <code>DynaBean</code>.
+     */
+    protected DynaClass createDynaClass() {
+
+        return (new RecordDynaClass("TestDynaClass",
+                super.createDynaClass().getDynaProperties()));
+
+    }
+
+
+}
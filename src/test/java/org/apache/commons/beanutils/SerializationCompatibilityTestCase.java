@@ -0,0 +1,289 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */ 
+
+
+package org.apache.commons.beanutils;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.ObjectInputStream;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+
+/**
+ * Test that streams written by the 1.8.3 release classes can still be
+ * read by the current ones.
+ *
+ * @version $Revision$ $Date$
+ */
+
+public class SerializationCompatibilityTestCase extends TestCase {
+
+
+    // ----------------------------------------------------- Instance Variables
+
+
+    /**
+     * A <code>BasicDynaBean</code> of a <code>BasicDynaClass</code> named
+     * "BaselineBean", serialized by release 1.8.3.  Its properties are
+     * <code>stringProperty</code> ("Baseline Value"),
+     * <code>intProperty</code> (123) and <code>intArray</code> ({1, 2, 3}).
+     */
+    private static final String BASIC_DYNA_BEAN =
+        "aced00057372002a6f72672e6170616368652e636f6d6d6f6e732e6265616e75" +
+        "74696c732e426173696344796e614265616efb35e6eb9616dc9d0200024c0009" +
+        "64796e61436c6173737400284c6f72672f6170616368652f636f6d6d6f6e732f" +
+        "6265616e7574696c732f44796e61436c6173733b4c000676616c756573740013" +
+        "4c6a6176612f7574696c2f486173684d61703b78707372002b6f72672e617061" +
+        "6368652e636f6d6d6f6e732e6265616e7574696c732e426173696344796e6143" +
+        "6c61737355a0ca1e7a3cb9020200055b0011636f6e7374727563746f7256616c" +
+        "7565737400135b4c6a6176612f6c616e672f4f626a6563743b4c000d64796e61" +
+        "4265616e436c6173737400114c6a6176612f6c616e672f436c6173733b4c0004" +
+        "6e616d657400124c6a6176612f6c616e672f537472696e673b5b000a70726f70" +
+        "65727469657374002c5b4c6f72672f6170616368652f636f6d6d6f6e732f6265" +
+        "616e7574696c732f44796e6150726f70657274793b4c000d70726f7065727469" +
+        "65734d617071007e00027870757200135b4c6a6176612e6c616e672e4f626a65" +
+        "63743b90ce589f1073296c02000078700000000171007e00097671007e000074" +
+        "000c426173656c696e654265616e7572002c5b4c6f72672e6170616368652e63" +
+        "6f6d6d6f6e732e6265616e7574696c732e44796e6150726f70657274793b54af" +
+        "86dfcdad8bef020000787000000003737200296f72672e6170616368652e636f" +
+        "6d6d6f6e732e6265616e7574696c732e44796e6150726f7065727479d53034de" +
+        "bc71d0610300014c00046e616d6571007e0007787074000e737472696e675072" +
+        "6f7065727479770100767200106a6176612e6c616e672e537472696e67a0f0a4" +
+        "387a3bb3420200007870787371007e001074000b696e7450726f706572747977" +
+        "050100000006787371007e0010740008696e744172726179770100767200025b" +
+        "494dba602676eab2a502000078707705010000000678737200116a6176612e75" +
+        "74696c2e486173684d61700507dac1c31660d103000246000a6c6f6164466163" +
+        "746f724900097468726573686f6c6478703f4000000000000c77080000001000" +
+        "00000371007e001671007e001571007e001871007e001771007e001271007e00" +
+        "11787371007e001b3f4000000000000c7708000000100000000371007e001673" +
+        "7200116a6176612e6c616e672e496e746567657212e2a0a4f781873802000149" +
+        "000576616c7565787200106a6176612e6c616e672e4e756d62657286ac951d0b" +
+        "94e08b02000078700000007b71007e00187571007e0019000000030000000100" +
+        "0000020000000371007e001274000e426173656c696e652056616c756578";
+
+
+    /**
+     * A <code>RowSetDynaClass</code> holding the first two rows of
+     * {@link TestResultSet}, serialized by release 1.8.3.
+     */
+    private static final String ROW_SET_DYNA_CLASS =
+        "aced00057372002c6f72672e6170616368652e636f6d6d6f6e732e6265616e75" +
+        "74696c732e526f7753657444796e61436c617373b7d92ed22ddc68f802000249" +
+        "00056c696d69744c0004726f77737400104c6a6176612f7574696c2f4c697374" +
+        "3b7872002a6f72672e6170616368652e636f6d6d6f6e732e6265616e7574696c" +
+        "732e4a44424344796e61436c61737357eff28a55a6ebd60200055a00096c6f77" +
+        "6572436173655a000e757365436f6c756d6e4c6162656c4c000e636f6c756d6e" +
+        "4e616d655872656674000f4c6a6176612f7574696c2f4d61703b5b000a70726f" +
+        "7065727469657374002c5b4c6f72672f6170616368652f636f6d6d6f6e732f62" +
+        "65616e7574696c732f44796e6150726f70657274793b4c000d70726f70657274" +
+        "6965734d617071007e000378700100737200116a6176612e7574696c2e486173" +
+        "684d61700507dac1c31660d103000246000a6c6f6164466163746f7249000974" +
+        "68726573686f6c6478703f400000000000187708000000200000000d74000c64" +
+        "61746570726f706572747974000c6461746550726f706572747974000d666c6f" +
+        "617470726f706572747974000d666c6f617450726f706572747974000d73686f" +
+        "727470726f706572747974000d73686f727450726f706572747974000b696e74" +
+        "70726f706572747974000b696e7450726f706572747974000e737472696e6770" +
+        "726f706572747974000e737472696e6750726f706572747974000c6c6f6e6770" +
+        "726f706572747974000c6c6f6e6750726f706572747974000f626f6f6c65616e" +
+        "70726f706572747974000f626f6f6c65616e50726f706572747974000c627974" +
+        "6570726f706572747974000c6279746550726f706572747974001174696d6573" +
+        "74616d7070726f706572747974001174696d657374616d7050726f7065727479" +
+        "740012626967646563696d616c70726f7065727479740012626967446563696d" +
+        "616c50726f706572747974000c74696d6570726f706572747974000c74696d65" +
+        "50726f706572747974000e646f75626c6570726f706572747974000e646f7562" +
+        "6c6550726f706572747974000c6e756c6c70726f706572747974000c6e756c6c" +
+        "50726f7065727479787572002c5b4c6f72672e6170616368652e636f6d6d6f6e" +
+        "732e6265616e7574696c732e44796e6150726f70657274793b54af86dfcdad8b" +
+        "ef02000078700000000d737200296f72672e6170616368652e636f6d6d6f6e73" +
+        "2e6265616e7574696c732e44796e6150726f7065727479d53034debc71d06103" +
+        "00014c00046e616d657400124c6a6176612f6c616e672f537472696e673b7870" +
+        "71007e001a770100767200146a6176612e6d6174682e426967446563696d616c" +
+        "54c71557f981284f0300024900057363616c654c0006696e7456616c7400164c" +
+        "6a6176612f6d6174682f426967496e74656765723b787200106a6176612e6c61" +
+        "6e672e4e756d62657286ac951d0b94e08b0200007870787371007e002471007e" +
+        "0014770100767200116a6176612e6c616e672e426f6f6c65616ecd207280d59c" +
+        "faee0200015a000576616c75657870787371007e002471007e00167701007672" +
+        "000e6a6176612e6c616e672e427974659c4e6084ee50f51c0200014200057661" +
+        "6c75657871007e0029787371007e002471007e00087701007672000d6a617661" +
+        "2e73716c2e4461746514fa46683f3566970200007872000e6a6176612e757469" +
+        "6c2e44617465686a81014b5974190300007870787371007e002471007e001e77" +
+        "0100767200106a6176612e6c616e672e446f75626c6580b3c24a296bfb040200" +
+        "0144000576616c75657871007e0029787371007e002471007e000a7701007672" +
+        "000f6a6176612e6c616e672e466c6f6174daedc9a2db3cf0ec02000146000576" +
+        "616c75657871007e0029787371007e002471007e000e770100767200116a6176" +
+        "612e6c616e672e496e746567657212e2a0a4f781873802000149000576616c75" +
+        "657871007e0029787371007e002471007e00127701007672000e6a6176612e6c" +
+        "616e672e4c6f6e673b8be490cc8f23df0200014a000576616c75657871007e00" +
+        "29787371007e002471007e0020770100767200106a6176612e6c616e672e5374" +
+        "72696e67a0f0a4387a3bb3420200007870787371007e002471007e000c770100" +
+        "7672000f6a6176612e6c616e672e53686f7274684d37133460da520200015300" +
+        "0576616c75657871007e0029787371007e002471007e001077010071007e0043" +
+        "787371007e002471007e001c7701007672000d6a6176612e73716c2e54696d65" +
+        "74894a0dd932c4710200007871007e0033787371007e002471007e0018770100" +
+        "767200126a6176612e73716c2e54696d657374616d702618d5c80153bf650200" +
+        "014900056e616e6f737871007e0033787371007e00063f400000000000187708" +
+        "000000200000000d71007e000871007e003171007e000a71007e003871007e00" +
+        "0c71007e004471007e000e71007e003b71007e001071007e004771007e001271" +
+        "007e003e71007e001471007e002b71007e001671007e002e71007e001871007e" +
+        "004b71007e001a71007e002671007e001c71007e004871007e001e71007e0035" +
+        "71007e002071007e00417800000002737200136a6176612e7574696c2e417272" +
+        "61794c6973747881d21d99c7619d03000149000473697a657870000000027704" +
+        "000000027372002a6f72672e6170616368652e636f6d6d6f6e732e6265616e75" +
+        "74696c732e426173696344796e614265616efb35e6eb9616dc9d0200024c0009" +
+        "64796e61436c6173737400284c6f72672f6170616368652f636f6d6d6f6e732f" +
+        "6265616e7574696c732f44796e61436c6173733b4c000676616c756573740013" +
+        "4c6a6176612f7574696c2f486173684d61703b787071007e00057371007e0006" +
+        "3f400000000000187708000000200000000d71007e00087371007e0032770800" +
+        "0001a1509481ee7871007e000a7371007e003942f6000071007e000c7371007e" +
+        "0045012d71007e000e7371007e003c0000006571007e00107400105468697320" +
+        "6973206120737472696e6771007e00127371007e003f00000000000000c97100" +
+        "7e00147371007e002c0071007e00167371007e002f0171007e00187371007e00" +
+        "4c7708000001a1509480c0781200278071007e001a7371007e00270000002e73" +
+        "7200146a6176612e6d6174682e426967496e74656765728cfc9f1fa93bfb1d03" +
+        "0006490008626974436f756e744900096269744c656e67746849001366697273" +
+        "744e6f6e7a65726f427974654e756d49000c6c6f776573745365744269744900" +
+        "067369676e756d5b00096d61676e69747564657400025b427871007e0029ffff" +
+        "fffffffffffffffffffefffffffe00000001757200025b42acf317f8060854e0" +
+        "020000787000000014d83ce50039ac458339910bfb7c5fa7bb45005915787871" +
+        "007e001c7371007e00497708000001a1509481ee7871007e001e7371007e0036" +
+        "407410000000000071007e002070787371007e005171007e00057371007e0006" +
+        "3f400000000000187708000000200000000d71007e00087371007e0032770800" +
+        "0001a1509481ee7871007e000a7371007e003942f6000071007e000c7371007e" +
+        "0045012e71007e000e7371007e003c0000006671007e001071007e005a71007e" +
+        "00127371007e003f00000000000000ca71007e00147371007e002c0171007e00" +
+        "167371007e002f0271007e00187371007e004c7708000001a1509480c0781200" +
+        "278071007e001a7371007e00270000002e7371007e0060ffffffffffffffffff" +
+        "fffffefffffffe000000017571007e006300000014d83ce50039ac458339910b" +
+        "fb7c5fa7bb45005915787871007e001c7371007e00497708000001a1509481ee" +
+        "7871007e001e7371007e0036407410000000000071007e0020707878";
+
+
+    // ----------------------------------------------------------- Constructors
+
+
+    /**
+     * Construct a new instance of this test case.
+     *
+     * @param name Name of the test case
+     */
+    public SerializationCompatibilityTestCase(String name) {
+
+        super(name);
+
+    }
+
+
+    // --------------------------------------------------- Overall Test Methods
+
+
+    /**
+     * Return the tests included in this test suite.
+     */
+    public static Test suite() {
+
+        return (new TestSuite(SerializationCompatibilityTestCase.class));
+
+    }
+
+
+    // ------------------------------------------------ Individual Test Methods
+
+
+    /**
+     * Test reading a <code>BasicDynaBean</code> written by release 1.8.3.
+     */
+    public void testBasicDynaBean() throws Exception {
+
+        DynaBean bean = (DynaBean) deserialize(BASIC_DYNA_BEAN);
+        assertEquals("stringProperty", "Baseline Value", bean.get("stringProperty"));
+        assertEquals("intProperty", new Integer(123), bean.get("intProperty"));
+        assertEquals("intArray", 3, ((int[]) bean.get("intArray")).length);
+        assertEquals("intArray[2]", new Integer(3), bean.get("intArray", 2));
+
+        // The property slots are rebuilt for the old stream
+        BasicDynaClass dynaClass = (BasicDynaClass) bean.getDynaClass();
+        assertEquals("name", "BaselineBean", dynaClass.getName());
+        assertEquals("slot", 1, dynaClass.getSlot("intProperty"));
+        bean.set("intProperty", new Integer(456));
+        assertEquals("set intProperty", new Integer(456), bean.get("intProperty"));
+
+        DynaBean other = dynaClass.newInstance();
+        other.set("stringProperty", "New Value");
+        assertEquals("new instance", "New Value", other.get("stringProperty"));
+        assertNull("new instance unset", other.get("intArray"));
+
+    }
+
+
+    /**
+     * Test reading a <code>RowSetDynaClass</code> written by release 1.8.3.
+     */
+    public void testRowSetDynaClass() throws Exception {
+
+        RowSetDynaClass dynaClass = (RowSetDynaClass) deserialize(ROW_SET_DYNA_CLASS);
+        assertFalse("columnar", dynaClass.isColumnar());
+        assertNotNull("intproperty", dynaClass.getDynaProperty("intproperty"));
+
+        List rows = dynaClass.getRows();
+        assertEquals("row count", 2, rows.size());
+        DynaBean row = (DynaBean) rows.get(1);
+        assertSame("DynaClass", dynaClass, row.getDynaClass());
+        assertEquals("intProperty", new Integer(102), row.get("intproperty"));
+        assertEquals("stringProperty", "This is a string", row.get("stringproperty"));
+        assertNull("nullProperty", row.get("nullproperty"));
+        try {
+            row.get("unknownProperty");
+            fail("Did not throw IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // Expected result
+        }
+
+        row.set("intproperty", new Integer(-5));
+        assertEquals("set intProperty", new Integer(-5), row.get("intproperty"));
+        assertEquals("other row", new Integer(101), ((DynaBean) rows.get(0)).get("intproperty"));
+
+    }
+
+
+    // -------------------------------------------------------- Private Methods
+
+
+    /**
+     * Read an object from a serialized stream given in hexadecimal.
+     */
+    private Object deserialize(String hex) throws Exception {
+
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+        }
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes));
+        try {
+            return (ois.readObject());
+        } finally {
+            ois.close();
+        }
+
+    }
+
+
+}
@@ -72,6 +72,27 @@ public class TestResultSet implements InvocationHandler {
      */
     protected ResultSetMetaData resultSetMetaData;
 
+    /**
+     * Whether the last value fetched with a typed getter was null.
+     */
+    protected boolean wasNull = false;
+
+    /**
+     * The number of column values fetched by column name, rather than
+     * by column index.
+     */
+    protected int namedFetches = 0;
+
+    /**
+     * The fetch size hint given to the result set.
+     */
+    protected int fetchSize = 0;
+
+    /**
+     * Whether the result set has been closed.
+     */
+    protected boolean closed = false;
+
     /**
      * Factory method for creating {@link ResultSet} proxies.
      *
@@ -121,6 +142,7 @@ public class TestResultSet implements InvocationHandler {
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
         String methodName = method.getName();
         if ("close".equals(methodName)) {
+            close();
             return null;
         } if ("getMetaData".equals(methodName)) {
             return getMetaData();
@@ -137,6 +159,17 @@ public class TestResultSet implements InvocationHandler {
         } if ("updateObject".equals(methodName)) {
             updateObject((String)args[0], args[1]);
             return null;
+        } if ("setFetchSize".equals(methodName)) {
+            fetchSize = ((Integer)args[0]).intValue();
+            return null;
+        } if ("wasNull".equals(methodName)) {
+            return (wasNull ? Boolean.TRUE : Boolean.FALSE);
+        } if ("getString".equals(methodName) || "getBigDecimal".equals(methodName)
+                || "getBoolean".equals(methodName) || "getByte".equals(methodName)
+                || "getShort".equals(methodName) || "getInt".equals(methodName)
+                || "getLong".equals(methodName) || "getFloat".equals(methodName)
+                || "getDouble".equals(methodName)) {
+            return getTyped(method.getReturnType(), columnName(args[0]));
         }
         
         throw new UnsupportedOperationException(methodName + " not implemented");
@@ -146,15 +179,51 @@ public class TestResultSet implements InvocationHandler {
         if (arg instanceof Integer) {
             return resultSetMetaData.getColumnName(((Integer)arg).intValue());
         } else {
+            namedFetches++;
             return (String)arg;
         }
     }
 
+    /**
+     * Fetch a column value with a typed getter.
+     *
+     * @param type The type returned by the getter
+     * @param columnName The column name
+     * @return The value, converted to the type
+     * @throws SQLException if an error occurs
+     */
+    private Object getTyped(Class type, String columnName) throws SQLException {
+        Object value = getObject(columnName);
+        wasNull = (value == null);
+        if (type == String.class) {
+            return (value == null ? null : value.toString());
+        } else if (type == BigDecimal.class) {
+            return (value == null || value instanceof BigDecimal
+                    ? value : new BigDecimal(value.toString()));
+        } else if (type == Boolean.TYPE) {
+            return (value == null ? Boolean.FALSE : value);
+        }
+        Number number = (value == null ? new Integer(0) : (Number)value);
+        if (type == Byte.TYPE) {
+            return new Byte(number.byteValue());
+        } else if (type == Short.TYPE) {
+            return new Short(number.shortValue());
+        } else if (type == Integer.TYPE) {
+            return new Integer(number.intValue());
+        } else if (type == Long.TYPE) {
+            return new Long(number.longValue());
+        } else if (type == Float.TYPE) {
+            return new Float(number.floatValue());
+        } else {
+            return new Double(number.doubleValue());
+        }
+    }
+
     // ---------------------------------------------------- Implemented Methods
 
 
     public void close() throws SQLException {
-        // No action required
+        closed = true;
     }
 
 
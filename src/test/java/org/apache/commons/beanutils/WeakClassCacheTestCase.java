@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.beanutils;
+
+import java.util.Map;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Test case for {@link WeakClassCache}.
+ *
+ * @version $Revision$ $Date$
+ */
+public class WeakClassCacheTestCase extends TestCase {
+
+    /** Classes used as keys */
+    private static final Class[] CLASSES = {
+        String.class, Integer.class, Long.class, Short.class, Byte.class,
+        Double.class, Float.class, Boolean.class, Character.class,
+        Object.class, Number.class, Map.class, TestBean.class,
+        WeakClassCache.class, TestCase.class, java.util.Date.class,
+        java.sql.Date.class, java.sql.Time.class, java.sql.Timestamp.class,
+        java.util.List.class, java.util.ArrayList.class, java.util.HashMap.class,
+        java.util.Set.class, java.util.HashSet.class, java.util.Vector.class,
+        java.io.File.class, java.net.URL.class, java.math.BigDecimal.class,
+        java.math.BigInteger.class, StringBuffer.class, Class.class,
+        Thread.class, Runnable.class, Exception.class, Error.class,
+        Throwable.class, RuntimeException.class, java.util.Locale.class,
+        java.util.Calendar.class, java.util.TimeZone.class
+    };
+
+    private WeakClassCache cache;
+
+    // ---------------------------------------------------------- Constructors
+
+    /**
+     * Construct a new instance of this test case.
+     *
+     * @param name Name of the test case
+     */
+    public WeakClassCacheTestCase(String name) {
+        super(name);
+    }
+
+    // -------------------------------------------------- Overall Test Methods
+
+    /**
+     * Set up instance variables required by this test case.
+     */
+    public void setUp() {
+        cache = new WeakClassCache();
+    }
+
+    /**
+     * Return the tests included in this test suite.
+     * @return a test suite
+     */
+    public static Test suite() {
+        return (new TestSuite(WeakClassCacheTestCase.class));
+    }
+
+    /**
+     * Tear down instance variables required by this test case.
+     */
+    public void tearDown() {
+        cache = null;
+    }
+
+    // ------------------------------------------------ Individual Test Methods
+
+    /**
+     * Test put(), get() and remove().
+     */
+    public void testPutGetRemove() {
+        assertNull("Empty", cache.get(String.class));
+        assertNull("Put", cache.put(String.class, "String"));
+        assertEquals("Get", "String", cache.get(String.class));
+        assertTrue("Contains", cache.containsKey(String.class));
+        assertEquals("Replace", "String", cache.put(String.class, "Value"));
+        assertEquals("Replaced", "Value", cache.get(String.class));
+        assertEquals("Size", 1, cache.size());
+        assertEquals("Remove", "Value", cache.remove(String.class));
+        assertNull("Removed", cache.get(String.class));
+        assertTrue("Is empty", cache.isEmpty());
+        assertNull("Not a class", cache.get("java.lang.String"));
+    }
+
+    /**
+     * Test putIfAbsent().
+     */
+    public void testPutIfAbsent() {
+        assertNull("Added", cache.putIfAbsent(TestBean.class, "First"));
+        assertEquals("Kept", "First", cache.putIfAbsent(TestBean.class, "Second"));
+        assertEquals("Get", "First", cache.get(TestBean.class));
+    }
+
+    /**
+     * Test that keys and values are validated.
+     */
+    public void testInvalidArguments() {
+        try {
+            cache.put("Not a class", "Value");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected result
+        }
+        try {
+            cache.put(String.class, null);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected result
+        }
+    }
+
+    /**
+     * Test growing the table and removing entries from shared buckets.
+     */
+    public void testManyEntries() {
+        for (int i = 0; i < CLASSES.length; i++) {
+            cache.put(CLASSES[i], CLASSES[i].getName());
+        }
+        assertEquals("Size", CLASSES.length, cache.size());
+        for (int i = 0; i < CLASSES.length; i++) {
+            assertEquals("Get " + i, CLASSES[i].getName(), cache.get(CLASSES[i]));
+        }
+        for (int i = 0; i < CLASSES.length; i += 2) {
+            cache.remove(CLASSES[i]);
+        }
+        for (int i = 0; i < CLASSES.length; i++) {
+            if (i % 2 == 0) {
+                assertNull("Removed " + i, cache.get(CLASSES[i]));
+            } else {
+                assertEquals("Kept " + i, CLASSES[i].getName(), cache.get(CLASSES[i]));
+            }
+        }
+        assertEquals("Entries", CLASSES.length / 2, cache.entrySet().size());
+        cache.clear();
+        assertEquals("Cleared", 0, cache.size());
+        assertNull("Cleared get", cache.get(String.class));
+    }
+
+    /**
+     * Test concurrent readers and writers.
+     */
+    public void testConcurrentAccess() throws Exception {
+        final Throwable[] failure = new Throwable[1];
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread() {
+                public void run() {
+                    try {
+                        for (int n = 0; n < 200; n++) {
+                            for (int i = 0; i < CLASSES.length; i++) {
+                                Object value = cache.get(CLASSES[i]);
+                                if (value == null) {
+                                    cache.putIfAbsent(CLASSES[i], CLASSES[i].getName());
+                                } else {
+                                    assertEquals(CLASSES[i].getName(), value);
+                                }
+                            }
+                            if (n % 50 == 0) {
+                                cache.remove(CLASSES[n % CLASSES.length]);
+                            }
+                        }
+                    } catch (Throwable e) {
+                        failure[0] = e;
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (int t = 0; t < threads.length; t++) {
+            threads[t].join();
+        }
+        if (failure[0] != null) {
+            fail("Concurrent access failed: " + failure[0]);
+        }
+        for (int i = 0; i < CLASSES.length; i++) {
+            Object value = cache.get(CLASSES[i]);
+            assertTrue("Value " + i, value == null || CLASSES[i].getName().equals(value));
+        }
+    }
+}
@@ -366,6 +366,116 @@ public abstract class DateConverterTestBase extends TestCase {
 
     }
 
+    /**
+     * Test that results from consecutive conversions using the same
+     * (pooled) format are independent of each other.
+     */
+    public void testFormatReuse() {
+        String pattern = "yyyy-MM-dd";
+        DateTimeConverter converter = makeConverter();
+        converter.setPattern(pattern);
+
+        Object first  = converter.convert(getExpectedType(), "2006-10-28");
+        Object second = converter.convert(getExpectedType(), "2007-03-17");
+        assertEquals("First",  toType("2006-10-28", pattern, null), first);
+        assertEquals("Second", toType("2007-03-17", pattern, null), second);
+        stringConversion(converter, "2006-10-28", first);
+    }
+
+    /**
+     * Test that changing the pattern after a conversion discards
+     * the formats created for the previous pattern.
+     */
+    public void testPatternChange() {
+        DateTimeConverter converter = makeConverter();
+        converter.setPattern("yyyy-MM-dd");
+        validConversion(converter, toType("2006-10-28", "yyyy-MM-dd", null), "2006-10-28");
+
+        converter.setPattern("dd/MM/yyyy");
+        validConversion(converter, toType("28/10/2006", "dd/MM/yyyy", null), "28/10/2006");
+        invalidConversion(converter, "2006-10-28");
+    }
+
+    /**
+     * Test the same converter used concurrently from several threads.
+     */
+    public void testConcurrentConversion() throws Exception {
+        final String pattern = "yyyy-MM-dd";
+        final DateTimeConverter converter = makeConverter();
+        converter.setPatterns(new String[] {pattern, "yyyy/MM/dd"});
+        final String[] failure = new String[1];
+
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            final int day = t + 1;
+            threads[t] = new Thread() {
+                public void run() {
+                    String value = "2006-10-0" + day;
+                    Object expected = toType(value, pattern, null);
+                    for (int i = 0; i < 200; i++) {
+                        Object result = converter.convert(getExpectedType(), value);
+                        Object text = converter.convert(String.class, result);
+                        if (!expected.equals(result) || !value.equals(text)) {
+                            synchronized (failure) {
+                                failure[0] = value + " converted to " + result + " / " + text;
+                            }
+                            return;
+                        }
+                    }
+                }
+            };
+        }
+        for (int t = 0; t < threads.length; t++) {
+            threads[t].start();
+        }
+        for (int t = 0; t < threads.length; t++) {
+            threads[t].join();
+        }
+        assertNull(failure[0], failure[0]);
+    }
+
+    /**
+     * Test the ISO-8601 fast path.
+     */
+    public void testIso8601() {
+        DateTimeConverter converter = makeConverter();
+        converter.setUseIso8601(true);
+        assertTrue("UseIso8601", converter.isUseIso8601());
+
+        // Local date and date/time
+        validConversion(converter, toType("2006-10-28", "yyyy-MM-dd", null), "2006-10-28");
+        validConversion(converter, toType("2008-02-29 10:15", "yyyy-MM-dd HH:mm", null),
+                        "2008-02-29T10:15");
+        validConversion(converter, toType("2006-10-28 10:15:30.125", "yyyy-MM-dd HH:mm:ss.SSS", null),
+                        "2006-10-28T10:15:30.125");
+
+        // Explicit offsets
+        long expected = 1162030530000L; // 2006-10-28T10:15:30Z
+        assertEquals("Z", expected,
+                getTimeInMillis(converter.convert(getExpectedType(), "2006-10-28T10:15:30Z")));
+        assertEquals("+02:00", expected,
+                getTimeInMillis(converter.convert(getExpectedType(), "2006-10-28T12:15:30+02:00")));
+        assertEquals("-0530", expected,
+                getTimeInMillis(converter.convert(getExpectedType(), "2006-10-28T04:45:30-0530")));
+        assertEquals("Fraction", expected + 500,
+                getTimeInMillis(converter.convert(getExpectedType(), "2006-10-28T10:15:30.5Z")));
+    }
+
+    /**
+     * Test the ISO-8601 fast path falls back to the configured patterns.
+     */
+    public void testIso8601Fallback() {
+        DateTimeConverter converter = makeConverter();
+        converter.setUseIso8601(true);
+        converter.setPatterns(new String[] {"yyyy-MM-dd", "dd/MM/yyyy"});
+
+        validConversion(converter, toType("28/10/2006", "dd/MM/yyyy", null), "28/10/2006");
+        invalidConversion(converter, "2006-02-29");
+        invalidConversion(converter, "2006-10-28T25:00");
+        invalidConversion(converter, "2006-10-28T10:15:30+");
+        invalidConversion(converter, "2006-13-01");
+    }
+
     /**
      * Test Converter with types it can't handle
      */
@@ -140,6 +140,17 @@ public class DoubleConverterTestCase extends NumberConverterTestBase {
                 0.00001D);
         }
     }
+
+    public void testStringExact() throws Exception {
+        String[] input = new String[] {
+            "0.1", "123.456", "-0.3", "1.", "-0", "999999999999999",
+            "0.000000000000000000001", "1234567890.12345", "1234567890.123456789",
+            "1e10", "  2.5  "
+        };
+        for (int i = 0; i < input.length; i++) {
+            assertEquals(input[i], Double.valueOf(input[i].trim()), converter.convert(Double.class, input[i]));
+        }
+    }
     
 }
 
@@ -129,6 +129,28 @@ public class IntegerConverterTestCase extends NumberConverterTestBase {
         }
     }
 
+    /**
+     * Test String conversion at the edges of the Integer range
+     */
+    public void testStringLimits() {
+        Converter converter = makeConverter();
+        Class clazz = Integer.class;
+
+        assertEquals("Minimum", new Integer(Integer.MIN_VALUE), converter.convert(clazz, "-2147483648"));
+        assertEquals("Maximum", new Integer(Integer.MAX_VALUE), converter.convert(clazz, "2147483647"));
+        assertSame("Cached", converter.convert(clazz, "100"), converter.convert(clazz, "100"));
+
+        String[] invalid = new String[] {"-2147483649", "2147483648", "12345678901234567890"};
+        for (int i = 0; i < invalid.length; i++) {
+            try {
+                converter.convert(clazz, invalid[i]);
+                fail("Expected '" + invalid[i] + "' to cause ConversionException");
+            } catch (Exception e) {
+                // expected result
+            }
+        }
+    }
+
     /**
      * Test Invalid Amounts (too big/small)
      */
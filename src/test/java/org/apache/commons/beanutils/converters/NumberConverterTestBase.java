@@ -288,6 +288,52 @@ public abstract class NumberConverterTestBase extends TestCase {
         }
     }
 
+    /**
+     * Convert String --> Number (default conversion) with surrounding whitespace
+     */
+    public void testStringToNumberWhitespace() {
+
+        NumberConverter converter = makeConverter();
+
+        assertEquals("Whitespace " + numbers[0], numbers[0],
+                converter.convert(getExpectedType(), " \t" + numbers[0].toString() + " \n"));
+        assertEquals("Whitespace " + numbers[1], numbers[1],
+                converter.convert(getExpectedType(), "  " + numbers[1].toString()));
+
+        // Invalid
+        String[] invalid = new String[] {"-", " - ", "1 2", "--1", "1-"};
+        for (int i = 0; i < invalid.length; i++) {
+            try {
+                converter.convert(getExpectedType(), invalid[i]);
+                fail("Expected invalid value '" + invalid[i] + "' to cause ConversionException");
+            } catch (ConversionException e) {
+                // expected result
+            }
+        }
+    }
+
+    /**
+     * Test formatting with a (pooled) format does not affect
+     * a subsequent parse with the same format.
+     */
+    public void testFormatReuse() {
+
+        // Re-set the default Locale to Locale.US
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.US);
+
+        NumberConverter converter = makeConverter();
+        converter.setPattern("#,#0");
+        Object value = converter.convert(getExpectedType(), new Integer(123));
+
+        assertEquals("Format", "123", converter.convert(String.class, value));
+        assertEquals("Parse", value, converter.convert(getExpectedType(), "1,23"));
+        assertEquals("Format again", "123", converter.convert(String.class, value));
+
+        // Restore the default Locale
+        Locale.setDefault(defaultLocale);
+    }
+
     /**
      * Convert Boolean --> Number (default conversion)  
      */
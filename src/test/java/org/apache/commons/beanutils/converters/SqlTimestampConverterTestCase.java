@@ -105,6 +105,18 @@ public class SqlTimestampConverterTestCase extends DateConverterTestBase {
 
     }
 
+    /**
+     * Test ISO-8601 fractions beyond milliseconds are kept as nanos
+     */
+    public void testIso8601Nanos() {
+        DateTimeConverter converter = makeConverter();
+        converter.setUseIso8601(true);
+
+        Timestamp result = (Timestamp)converter.convert(Timestamp.class, "2006-10-28T10:15:30.123456789Z");
+        assertEquals("Nanos", 123456789, result.getNanos());
+        assertEquals("Millis", 1162030530123L, getTimeInMillis(result));
+    }
+
     /**
      * Create the Converter with no default value.
      * @return A new Converter
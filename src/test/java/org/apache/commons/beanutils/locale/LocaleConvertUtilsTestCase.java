@@ -630,6 +630,33 @@ public class LocaleConvertUtilsTestCase extends TestCase {
     }
 
 
+    /**
+     * Test lookups from a frozen registry, and changes made after freezing.
+     */
+    public void testFreeze() {
+        LocaleConvertUtilsBean utils = new LocaleConvertUtilsBean();
+        utils.setDefaultLocale(Locale.US);
+        LocaleConverter integerConverter = utils.lookup(Integer.class, Locale.US);
+
+        assertFalse("Not frozen", utils.isFrozen());
+        utils.freeze();
+        assertTrue("Frozen", utils.isFrozen());
+        assertSame("Integer", integerConverter, utils.lookup(Integer.class, Locale.US));
+        assertSame("Default locale", integerConverter, utils.lookup(Integer.class, null));
+        assertEquals("Convert", new Integer(1234), utils.convert("1,234", Integer.class));
+
+        // A locale without converters yet
+        LocaleConverter german = utils.lookup(Integer.class, Locale.GERMAN);
+        assertNotNull("German", german);
+        assertSame("German again", german, utils.lookup(Integer.class, Locale.GERMAN));
+
+        utils.deregister(Integer.class, Locale.US);
+        assertNull("Deregistered", utils.lookup(Integer.class, Locale.US));
+        utils.register(integerConverter, Integer.class, Locale.US);
+        assertSame("Registered", integerConverter, utils.lookup(Integer.class, Locale.US));
+        assertTrue("Still frozen", utils.isFrozen());
+    }
+
     // -------------------------------------------------------- Private Methods
 
 